@@ -0,0 +1,24 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+
+/**
+ * A JDK Flight Recorder event spanning a single occurrence of a phase. Each kind of phase that carries details of its
+ * own has a subclass so the details appear as named fields in the recording.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@Category({"JIRA Excel Analysis"})
+abstract class APhaseEvent extends Event
+{
+    /**
+     * Copies the measurements of the occurrence into the event's fields.
+     *
+     * @param phase   The kind of work.
+     * @param name    Distinguishes occurrences of the same kind of work.
+     * @param details The measurements and description of the occurrence.
+     */
+    abstract void setFields(String phase, String name, PhaseTimer details);
+}
@@ -0,0 +1,64 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Records phases as the flight recorder events of this package. Loaded by {@link FlightEvents} when the JVM includes
+ * the flight recorder.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class FlightPhaseRecorder implements IPhaseRecorder
+{
+    @Override
+    public boolean isAvailable()
+    {
+        return FlightRecorder.isAvailable();
+    }
+
+    @Override
+    public Object begin(String phase)
+    {
+        APhaseEvent event;
+
+        switch (phase)
+        {
+            case "jira.search":
+                event = new JiraSearchEvent();
+                break;
+            case "listener":
+                event = new IssueListenerEvent();
+                break;
+            case "sheet":
+                event = new SheetEvent();
+                break;
+            default:
+                event = new PhaseEvent();
+                break;
+        }
+
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public void commit(Object event, String phase, String name, PhaseTimer details)
+    {
+        APhaseEvent phaseEvent = (APhaseEvent) event;
+
+        phaseEvent.end();
+
+        if (phaseEvent.shouldCommit())
+        {
+            phaseEvent.setFields(phase, name, details);
+            phaseEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records a single notification of an issue listener.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@Name("com.chesapeaketechnology.IssueListener")
+@Label("Issue Listener")
+@Description("A notification of progress in loading issues from JIRA")
+class IssueListenerEvent extends APhaseEvent
+{
+    @Label("Callback")
+    String callback;
+
+    @Label("Listener")
+    String listener;
+
+    @Label("Issues")
+    long issues;
+
+    @Override
+    void setFields(String phase, String name, PhaseTimer details)
+    {
+        this.callback = name;
+        this.listener = details.getDetail();
+        this.issues = details.getIssues();
+    }
+}
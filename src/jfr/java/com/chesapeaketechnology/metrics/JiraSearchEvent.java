@@ -0,0 +1,42 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the request of a single page of JIRA search results, including the parsing of the response. The duration of
+ * the event is the latency of the page.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@Name("com.chesapeaketechnology.JiraSearch")
+@Label("JIRA Search")
+@Description("A page of JIRA search results")
+class JiraSearchEvent extends APhaseEvent
+{
+    @Label("JQL")
+    String jql;
+
+    @Label("Start At")
+    @Description("The index of the first issue of the page")
+    long startAt;
+
+    @Label("Issues")
+    long issues;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    @Override
+    void setFields(String phase, String name, PhaseTimer details)
+    {
+        this.jql = details.getDetail();
+        this.startAt = details.getOffset();
+        this.issues = details.getIssues();
+        this.bytes = details.getBytes();
+    }
+}
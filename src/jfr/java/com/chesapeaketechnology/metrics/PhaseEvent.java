@@ -0,0 +1,40 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records a phase that has no event of its own, e.g. building the issue hierarchy or serializing a workbook.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@Name("com.chesapeaketechnology.Phase")
+@Label("Report Phase")
+@Description("A phase of loading issues or generating reports")
+class PhaseEvent extends APhaseEvent
+{
+    @Label("Phase")
+    String phase;
+
+    @Label("Name")
+    String name;
+
+    @Label("Issues")
+    long issues;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Override
+    void setFields(String phase, String name, PhaseTimer details)
+    {
+        this.phase = phase;
+        this.name = name;
+        this.issues = details.getIssues();
+        this.bytes = details.getBytes();
+    }
+}
@@ -0,0 +1,39 @@
+package com.chesapeaketechnology.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the population of a single sheet of a report.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@Name("com.chesapeaketechnology.Sheet")
+@Label("Report Sheet")
+@Description("The preparation, writing, and finishing of a sheet")
+class SheetEvent extends APhaseEvent
+{
+    @Label("Sheet")
+    @Description("The report file and sheet name")
+    String sheet;
+
+    @Label("Writer")
+    String writer;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Cells")
+    long cells;
+
+    @Override
+    void setFields(String phase, String name, PhaseTimer details)
+    {
+        this.sheet = name;
+        this.writer = details.getDetail();
+        this.rows = details.getRows();
+        this.cells = details.getCells();
+    }
+}
@@ -0,0 +1,120 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import net.rcarz.jiraclient.Issue;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the computations that derive analytics from the loaded issues. Each benchmark processes the whole dataset so
+ * the scores are directly comparable across dataset sizes.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark
+{
+    private XSSFWorkbook workbook;
+    private SummaryExcelFileWriter summaryWriter;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkData data)
+    {
+        ReportAnalytics analytics = data.createAnalytics();
+
+        analytics.getCompletedIssues();
+
+        workbook = new XSSFWorkbook();
+        summaryWriter = new SummaryExcelFileWriter(new SheetContext(workbook, analytics));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        workbook.close();
+    }
+
+    /**
+     * Parses the sprint field of every story.
+     */
+    @Benchmark
+    public void sprintProperties(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Issue story : data.storyList)
+        {
+            blackhole.consume(JiraRestClient.getSprintProperties(story, SyntheticJiraGenerator.SPRINT_FIELD));
+        }
+    }
+
+    /**
+     * Groups every assigned story by sprint starting from analytics that have not computed anything.
+     */
+    @Benchmark
+    public Map<String, Set<Issue>> sprintBreakdown(BenchmarkData data)
+    {
+        return data.createAnalytics().getSprintStoryBreakdown();
+    }
+
+    /**
+     * Builds the graph of the initiative, epic, and story hierarchy.
+     */
+    @Benchmark
+    public IssueGraph hierarchyGraph(BenchmarkData data)
+    {
+        return new IssueGraph(data.initiativeEpicMap, data.epicStoryMap);
+    }
+
+    /**
+     * Collects the nested stories of every initiative.
+     */
+    @Benchmark
+    public void allNestedIssues(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Issue initiative : data.initiativeEpicMap.keySet())
+        {
+            blackhole.consume(summaryWriter.getAllNestedIssues(initiative));
+        }
+    }
+
+    /**
+     * Computes the completion rate of every initiative and epic as the summary tab does.
+     */
+    @Benchmark
+    public void percentComplete(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Map.Entry<Issue, List<Issue>> initiativeEntry : data.initiativeEpicMap.entrySet())
+        {
+            blackhole.consume(summaryWriter.getPercentComplete(initiativeEntry.getKey()));
+
+            for (Issue epic : initiativeEntry.getValue())
+            {
+                blackhole.consume(summaryWriter.getPercentComplete(epic));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.simulation.SyntheticJiraDataset;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import net.rcarz.jiraclient.Issue;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A synthetic hierarchy of initiatives, epics, and stories shared by the benchmarks. The number of stories is the
+ * benchmark parameter while the fan-out, sprint, developer, and label counts stay fixed so results scale with the size
+ * of the dataset alone. The same seed and sprint dates are used for every trial so each parameter always produces the
+ * same issues.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData
+{
+    private static final int EPICS_PER_INITIATIVE = 10;
+    private static final int STORIES_PER_EPIC = 20;
+
+    @Param({"1000", "10000", "100000"})
+    public int stories;
+
+    Map<Issue, List<Issue>> initiativeEpicMap;
+    Map<Issue, List<Issue>> epicStoryMap;
+    Map<String, String> fieldCustomIdMap;
+    List<Issue> storyList;
+
+    @Setup(Level.Trial)
+    public void generate()
+    {
+        int storiesPerInitiative = EPICS_PER_INITIATIVE * STORIES_PER_EPIC;
+        SyntheticJiraGenerator generator = new SyntheticJiraGenerator();
+
+        generator.setSeed(stories);
+        generator.setProjects(Arrays.asList("P1", "P2", "P3", "P4"));
+        generator.setInitiatives(Math.max(1, (stories + storiesPerInitiative - 1) / storiesPerInitiative));
+        generator.setEpicsPerInitiative(EPICS_PER_INITIATIVE);
+        generator.setStoriesPerEpic(STORIES_PER_EPIC);
+        generator.setMaxStories(stories);
+        generator.setSprints(26);
+        generator.setFirstSprintStart(LocalDate.of(2019, 1, 7));
+        generator.setDevelopers(25);
+        generator.setLabelCardinality(5);
+
+        SyntheticJiraDataset dataset = generator.generate();
+
+        initiativeEpicMap = dataset.getInitiativeEpicMap();
+        epicStoryMap = dataset.getEpicStoryMap();
+        fieldCustomIdMap = dataset.getFieldCustomIdMap();
+        storyList = epicStoryMap.values().stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates analytics over the dataset that have not computed anything yet.
+     *
+     * @return New analytics of the dataset.
+     */
+    ReportAnalytics createAnalytics()
+    {
+        return new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+}
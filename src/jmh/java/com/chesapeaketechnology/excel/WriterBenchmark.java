@@ -0,0 +1,232 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures populating the sheets of a report and serializing the finished workbook. The benchmarks that write issue
+ * keys are repeated for every {@link HyperlinkMode} and the serialized size of the workbook is reported next to the
+ * time, since the link mode trades one against the other.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriterBenchmark
+{
+    /**
+     * The JIRA instance the synthetic issues are linked to.
+     */
+    private static final String JIRA_BASE_URL = "https://jira.sample.net/";
+
+    /**
+     * A master sheet that has been prepared along with the story rows it would write.
+     */
+    @State(Scope.Benchmark)
+    public static class MasterSheet
+    {
+        XSSFWorkbook workbook;
+        MasterExcelFileWriter writer;
+        List<MasterRowDescriptor> storyRows;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkData data) throws IOException
+        {
+            workbook = new XSSFWorkbook();
+
+            SheetContext context = new SheetContext(workbook, data.createAnalytics());
+
+            writer = new MasterExcelFileWriter(context);
+            writer.prepareSheet();
+            storyRows = MasterExcelFileWriter.createRowPlanner(context)
+                    .plan(data.initiativeEpicMap.entrySet()).stream()
+                    .filter(row -> row.getRowType() == MasterRowDescriptor.RowType.STORY)
+                    .collect(Collectors.toList());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException
+        {
+            workbook.close();
+        }
+    }
+
+    /**
+     * A master sheet that has not been written yet, linking issue keys with the benchmarked mode. A new sheet is needed
+     * for every invocation since writing adds rows to the workbook.
+     */
+    @State(Scope.Thread)
+    public static class LinkedMasterSheet
+    {
+        @Param({"FORMULA", "RELATIONSHIP", "NONE"})
+        public HyperlinkMode hyperlinkMode;
+
+        XSSFWorkbook workbook;
+        MasterExcelFileWriter writer;
+
+        @Setup(Level.Invocation)
+        public void setUp(BenchmarkData data) throws IOException
+        {
+            workbook = new XSSFWorkbook();
+
+            SheetContext context = new SheetContext(workbook, data.createAnalytics());
+
+            context.setHyperlinks(hyperlinkMode, JIRA_BASE_URL);
+            writer = new MasterExcelFileWriter(context);
+            writer.prepareSheet();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException
+        {
+            workbook.close();
+        }
+    }
+
+    /**
+     * A developer sheet that has not been written yet. A new sheet is needed for every invocation since writing adds
+     * rows and charts to the workbook.
+     */
+    @State(Scope.Thread)
+    public static class DeveloperSheet
+    {
+        XSSFWorkbook workbook;
+        DeveloperExcelFileWriter writer;
+
+        @Setup(Level.Invocation)
+        public void setUp(BenchmarkData data)
+        {
+            ReportAnalytics analytics = data.createAnalytics();
+
+            analytics.getSprintStoryBreakdown();
+
+            workbook = new XSSFWorkbook();
+            writer = new DeveloperExcelFileWriter(new SheetContext(workbook, analytics));
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException
+        {
+            workbook.close();
+        }
+    }
+
+    /**
+     * A workbook containing every default sheet with issue keys linked using the benchmarked mode.
+     */
+    @State(Scope.Benchmark)
+    public static class PopulatedWorkbook
+    {
+        @Param({"FORMULA", "RELATIONSHIP", "NONE"})
+        public HyperlinkMode hyperlinkMode;
+
+        XSSFWorkbook workbook;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkData data) throws IOException
+        {
+            workbook = new XSSFWorkbook();
+
+            SheetContext context = new SheetContext(workbook, data.createAnalytics());
+
+            context.setHyperlinks(hyperlinkMode, JIRA_BASE_URL);
+
+            for (ISheetWriterFactory factory : SheetWriterRegistry.createDefault().getEnabledFactories())
+            {
+                ISheetWriter writer = factory.create(context);
+
+                writer.prepareSheet();
+                writer.writeSheet();
+                writer.finishSheet();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException
+        {
+            workbook.close();
+        }
+    }
+
+    /**
+     * The size of the serialized workbook, reported alongside the time of each benchmark that serializes it.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize
+    {
+        public long workbookBytes;
+    }
+
+    /**
+     * Renders the field cells of every story row of the master sheet.
+     */
+    @Benchmark
+    public void masterFieldCells(MasterSheet sheet, Blackhole blackhole)
+    {
+        SheetRowBuffer rowBuffer = sheet.writer.createRowBuffer();
+        int row = 1;
+
+        for (MasterRowDescriptor rowDescriptor : sheet.storyRows)
+        {
+            rowBuffer.reset(row++);
+            sheet.writer.createFieldCells(rowBuffer, rowDescriptor);
+            blackhole.consume(rowBuffer);
+        }
+    }
+
+    /**
+     * Writes every row of the master sheet, including its linked key cells.
+     */
+    @Benchmark
+    public void masterSheet(LinkedMasterSheet sheet) throws IOException
+    {
+        sheet.writer.writeSheet();
+    }
+
+    /**
+     * Writes the developer sheet including its rows, charts, and column widths.
+     */
+    @Benchmark
+    public void developerSheet(DeveloperSheet sheet)
+    {
+        sheet.writer.writeSheet();
+    }
+
+    /**
+     * Serializes a workbook containing every default sheet without touching the disk.
+     */
+    @Benchmark
+    public void workbookWrite(PopulatedWorkbook populatedWorkbook, OutputSize outputSize) throws IOException
+    {
+        CountingOutputStream outputStream = new CountingOutputStream(new NullOutputStream());
+
+        populatedWorkbook.workbook.write(outputStream);
+        outputSize.workbookBytes = outputStream.getByteCount();
+    }
+}
@@ -0,0 +1,318 @@
+package com.chesapeaketechnology;
+
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.IReportListener;
+import com.typesafe.config.Config;
+import kong.unirest.ContentType;
+import kong.unirest.HttpResponse;
+import kong.unirest.Unirest;
+import kong.unirest.UnirestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Attaches generated reports to Confluence pages as soon as each report has been written. Files are uploaded in
+ * parallel as chunked multipart requests streamed from disk, failed uploads are retried with exponential backoff, and a
+ * file whose content has not changed since it was last attached to the same page is skipped.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ConfluenceUploader implements IReportListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String PAGE_ID_KEY = "confluencePageId";
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 1000;
+
+    private final String confluenceBaseUrl;
+    private final String username;
+    private final String password;
+    private final int maxAttempts;
+    private final File hashCacheFile;
+
+    private final ExecutorService uploadExecutor;
+    private final Object uploadLock = new Object();
+    private final Map<String, String> defaultPageIds = new HashMap<>();
+    private final Properties uploadedHashes = new Properties();
+
+    private int pendingUploads;
+
+    /**
+     * Creates an uploader.
+     *
+     * @param confluenceBaseUrl The root URL of the Confluence instance.
+     * @param username          The user that attachments are uploaded as.
+     * @param password          The password of {@code username}.
+     * @param uploadThreads     The number of files that are uploaded at the same time.
+     * @param maxAttempts       The number of times an upload is attempted before it is abandoned.
+     * @param hashCacheFile     Stores the content hash of each uploaded file between runs.
+     */
+    public ConfluenceUploader(String confluenceBaseUrl, String username, String password, int uploadThreads,
+                              int maxAttempts, File hashCacheFile)
+    {
+        this.confluenceBaseUrl = confluenceBaseUrl.endsWith("/")
+                ? confluenceBaseUrl.substring(0, confluenceBaseUrl.length() - 1) : confluenceBaseUrl;
+        this.username = username;
+        this.password = password;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.hashCacheFile = hashCacheFile;
+
+        uploadExecutor = Executors.newFixedThreadPool(Math.max(1, uploadThreads));
+
+        if (hashCacheFile.exists())
+        {
+            try (InputStream inputStream = new FileInputStream(hashCacheFile))
+            {
+                uploadedHashes.load(inputStream);
+            } catch (IOException exception)
+            {
+                logger.warn("Failed to read the upload cache, all reports will be uploaded: ", exception);
+            }
+        }
+    }
+
+    /**
+     * Sets the page that a report is attached to when its configuration does not contain a {@code confluencePageId}.
+     *
+     * @param reportName The file name configured for the report.
+     * @param pageId     The ID of the Confluence page.
+     */
+    public void setDefaultPageId(String reportName, String pageId)
+    {
+        defaultPageIds.put(reportName, pageId);
+    }
+
+    @Override
+    public void reportWritten(String reportName, Config reportConfig, List<File> files)
+    {
+        String pageId = reportConfig.hasPath(PAGE_ID_KEY)
+                ? reportConfig.getString(PAGE_ID_KEY) : defaultPageIds.get(reportName);
+
+        if (pageId == null)
+        {
+            return;
+        }
+
+        for (File file : files)
+        {
+            // Only a count of the queued uploads is kept, so a process that never exits does not accumulate them
+            synchronized (uploadLock)
+            {
+                pendingUploads++;
+            }
+
+            uploadExecutor.execute(() -> {
+                try
+                {
+                    upload(pageId, file);
+                } catch (IOException | RuntimeException exception)
+                {
+                    logger.warn("Failed to upload report: ", exception);
+                } catch (InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                } finally
+                {
+                    synchronized (uploadLock)
+                    {
+                        pendingUploads--;
+                        uploadLock.notifyAll();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for every queued upload to finish and stops the upload threads.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void awaitUploads() throws InterruptedException
+    {
+        synchronized (uploadLock)
+        {
+            while (pendingUploads > 0)
+            {
+                uploadLock.wait();
+            }
+        }
+
+        uploadExecutor.shutdown();
+        uploadExecutor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Attaches a file to a page unless the same content was already attached to it.
+     *
+     * @param pageId The ID of the Confluence page.
+     * @param file   The file to attach.
+     * @throws IOException          If the file could not be read.
+     * @throws InterruptedException If interrupted while waiting to retry.
+     */
+    private void upload(String pageId, File file) throws IOException, InterruptedException
+    {
+        // Report names carry the time they were generated, which is dropped so each run's files share a key
+        String cacheKey = pageId + "/" + file.getName().replaceAll("\\d{14}", "");
+        String contentHash = getContentHash(file);
+
+        synchronized (uploadedHashes)
+        {
+            if (contentHash.equals(uploadedHashes.getProperty(cacheKey)))
+            {
+                logger.info("Skipping upload of unchanged report {} to page {}", file.getName(), pageId);
+                RunMetrics.getDefault().record("upload.skipped", pageId, 0, 0, 0);
+                return;
+            }
+        }
+
+        long retryDelay = INITIAL_RETRY_DELAY_MILLIS;
+        long startTime = System.nanoTime();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++)
+        {
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file)))
+            {
+                // A stream of unknown length is sent with chunked transfer encoding rather than buffered in memory
+                HttpResponse<String> response = Unirest.post(confluenceBaseUrl + "/rest/api/content/" + pageId + "/child/attachment")
+                        .basicAuth(username, password)
+                        .header("X-Atlassian-Token", "nocheck")
+                        .field("file", inputStream, ContentType.APPLICATION_OCTET_STREAM, file.getName())
+                        .asString();
+
+                if (response.isSuccess())
+                {
+                    logger.info("Uploaded {} to page {}", file.getName(), pageId);
+                    RunMetrics.getDefault().record("upload", pageId, System.nanoTime() - startTime, 0, file.length());
+
+                    synchronized (uploadedHashes)
+                    {
+                        uploadedHashes.setProperty(cacheKey, contentHash);
+                        saveUploadedHashes();
+                    }
+                    return;
+                }
+
+                logger.warn("Upload of {} to page {} failed with status {}: {}", file.getName(), pageId,
+                        response.getStatus(), response.getBody());
+
+                if (response.getStatus() != 429 && response.getStatus() < 500)
+                {
+                    return;
+                }
+            } catch (UnirestException exception)
+            {
+                logger.warn("Upload of {} to page {} failed: ", file.getName(), pageId, exception);
+            }
+
+            if (attempt < maxAttempts)
+            {
+                Thread.sleep(retryDelay);
+                retryDelay *= 2;
+            }
+        }
+
+        logger.warn("Gave up uploading {} to page {} after {} attempts", file.getName(), pageId, maxAttempts);
+    }
+
+    /**
+     * Saves the hashes of the uploaded files so a report that is regenerated without changes, even by a later
+     * process, is not uploaded again. Must be called while holding the lock of {@code uploadedHashes}.
+     */
+    private void saveUploadedHashes()
+    {
+        try (OutputStream outputStream = new FileOutputStream(hashCacheFile))
+        {
+            uploadedHashes.store(outputStream, "Content hashes of the reports attached to Confluence pages");
+        } catch (IOException exception)
+        {
+            logger.warn("Failed to save the upload cache: ", exception);
+        }
+    }
+
+    /**
+     * Hashes the content of a file. Workbooks are hashed by the uncompressed content of their parts, excluding the
+     * document properties that record when the workbook was written, so regenerating an unchanged report produces the
+     * same hash.
+     *
+     * @param file The file to hash.
+     * @return The hexadecimal SHA-256 hash of the file's content.
+     * @throws IOException If the file could not be read.
+     */
+    static String getContentHash(File file) throws IOException
+    {
+        MessageDigest digest;
+
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception)
+        {
+            throw new IOException(exception);
+        }
+
+        byte[] buffer = new byte[64 * 1024];
+
+        if (file.getName().endsWith(".xlsx"))
+        {
+            try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(file))))
+            {
+                ZipEntry entry;
+
+                while ((entry = zipInputStream.getNextEntry()) != null)
+                {
+                    if (!entry.getName().startsWith("docProps/"))
+                    {
+                        digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+
+                        for (int read = zipInputStream.read(buffer); read >= 0; read = zipInputStream.read(buffer))
+                        {
+                            digest.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+        } else
+        {
+            try (InputStream inputStream = new DigestInputStream(new FileInputStream(file), digest))
+            {
+                while (inputStream.read(buffer) >= 0)
+                {
+                    // The digest is updated as the file is read
+                }
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+
+        for (byte hashByte : digest.digest())
+        {
+            hash.append(String.format("%02x", hashByte));
+        }
+
+        return hash.toString();
+    }
+}
@@ -1,100 +1,235 @@
-/*
- * Copyright (c) 2011, 2014 Oracle and/or its affiliates.
- * All rights reserved. Use is subject to license terms.
- *
- * This file is available and licensed under the following license:
- *
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions
- * are met:
- *
- *  - Redistributions of source code must retain the above copyright
- *    notice, this list of conditions and the following disclaimer.
- *  - Redistributions in binary form must reproduce the above copyright
- *    notice, this list of conditions and the following disclaimer in
- *    the documentation and/or other materials provided with the distribution.
- *  - Neither the name of Oracle nor the names of its
- *    contributors may be used to endorse or promote products derived
- *    from this software without specific prior written permission.
- *
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
- * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
- * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
- * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
- * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
- * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
- * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
- * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
- * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
- * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
- * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
- */
-
-package com.chesapeaketechnology;
-
-import com.chesapeaketechnology.excel.HeadlessReportGenerator;
-import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
-import kong.unirest.HttpResponse;
-import kong.unirest.Unirest;
-import net.rcarz.jiraclient.BasicCredentials;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.File;
-import java.lang.invoke.MethodHandles;
-import java.util.Collection;
-
-/**
- * Generates an excel report providing summaries of elements across JIRA as well as metrics across an individual
- * developer's work history.
- *
- * @since 1.0.0
- */
-public class JiraReportGenerator
-{
-    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-
-    public static void main(String[] args) throws Exception
-    {
-        String username = System.getenv("JIRA_USERNAME");
-        String password = System.getenv("JIRA_PASSWORD");
-
-        if (args.length > 0)
-        {
-            Config headlessConfig;
-
-            headlessConfig = ConfigFactory.load(args[0]);
-
-            String jiraBaseUrl = headlessConfig.getString("jira-excel-analysis.jiraBaseUrl");
-            String confluenceBaseUrl = headlessConfig.getString("jira-excel-analysis.confluenceBaseUrl");
-            Collection<String> projects = headlessConfig.getStringList("jira-excel-analysis.projects");
-            Collection<String> usernames = headlessConfig.getStringList("jira-excel-analysis.usernames");
-
-            JiraRestClient requestClient = new JiraRestClient(jiraBaseUrl, new BasicCredentials(username, password), true);
-
-            requestClient.addIssueListener(new HeadlessReportGenerator(headlessConfig));
-            requestClient.loadJiraIssues(headlessConfig.getBoolean("jira-excel-analysis.includeInitiatives"), projects, usernames);
-
-            if (args.length > 1)
-            {
-                File directory = new File("reports/Master");
-                File file = directory.listFiles()[0];
-                // The page id can be found by selecting the ellipses in the right hand corner in confluence and
-                // selecting `Page Information` and then copying the number out of the resulting page's URL.
-                String pageId = args[1];
-                HttpResponse<String> response = Unirest.post(confluenceBaseUrl + "/rest/api/content/" + pageId + "/child/attachment")
-                        .basicAuth(username, password)
-                        .header("X-Atlassian-Token", "nocheck")
-                        .field("file", file)
-                        .asString();
-
-                logger.info("Post Request Status {}", response.getStatus());
-                logger.info("Post Request Body {}", response.getBody());
-            }
-        } else
-        {
-            logger.warn("Failed to build jira report: please specify a configuration file");
-        }
-    }
-}
+/*
+ * Copyright (c) 2011, 2014 Oracle and/or its affiliates.
+ * All rights reserved. Use is subject to license terms.
+ *
+ * This file is available and licensed under the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  - Redistributions of source code must retain the above copyright
+ *    notice, this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in
+ *    the documentation and/or other materials provided with the distribution.
+ *  - Neither the name of Oracle nor the names of its
+ *    contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.chesapeaketechnology;
+
+import com.chesapeaketechnology.excel.HeadlessReportGenerator;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.TextArena;
+import com.chesapeaketechnology.simulation.MockJiraServer;
+import com.chesapeaketechnology.simulation.SyntheticJiraDataset;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import com.chesapeaketechnology.snapshot.IssueSnapshot;
+import com.chesapeaketechnology.snapshot.IssueSnapshotWriter;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import net.rcarz.jiraclient.BasicCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Generates an excel report providing summaries of elements across JIRA as well as metrics across an individual
+ * developer's work history.
+ *
+ * @since 1.0.0
+ */
+public class JiraReportGenerator
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String UPLOAD_THREADS_KEY = "jira-excel-analysis.confluenceUploadThreads";
+    private static final String UPLOAD_ATTEMPTS_KEY = "jira-excel-analysis.confluenceUploadAttempts";
+    private static final String UPLOAD_CACHE_FILE = ".confluence-uploads.properties";
+    private static final String DAEMON_FLAG = "--daemon";
+    private static final String SCHEDULED_FLAG = "--scheduled";
+    private static final String SYNTHETIC_FLAG = "--synthetic";
+    private static final String MOCK_JIRA_FLAG = "--mock-jira";
+    private static final String SNAPSHOT_FLAG = "--snapshot";
+
+    /**
+     * Generates the reports listed in a configuration file.
+     *
+     * @param args The configuration file, optionally followed by the Confluence page that the "Master" report is
+     *             attached to. Passing {@code --daemon} keeps the issues loaded and generates reports on request
+     *             instead of generating every report once. Passing {@code --scheduled} instead refreshes each
+     *             project on its configured cadence and regenerates the reports whose issues changed. Passing
+     *             {@code --synthetic} generates every report once from issues created by
+     *             {@link SyntheticJiraGenerator} without connecting to JIRA or Confluence. Passing
+     *             {@code --mock-jira} only starts a {@link MockJiraServer} that other runs can use as their JIRA.
+     *             Passing {@code --snapshot} generates every report once from the {@link IssueSnapshot} saved by the
+     *             previous load without connecting to JIRA or Confluence.
+     * @throws Exception If the reports could not be generated.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        String username = System.getenv("JIRA_USERNAME");
+        String password = System.getenv("JIRA_PASSWORD");
+
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean daemonMode = arguments.remove(DAEMON_FLAG);
+        boolean scheduledMode = arguments.remove(SCHEDULED_FLAG);
+        boolean syntheticMode = arguments.remove(SYNTHETIC_FLAG);
+        boolean mockJiraMode = arguments.remove(MOCK_JIRA_FLAG);
+        boolean snapshotMode = arguments.remove(SNAPSHOT_FLAG);
+
+        if (arguments.size() > 0 && mockJiraMode)
+        {
+            MockJiraServer mockJiraServer = MockJiraServer.fromConfig(ConfigFactory.load(arguments.get(0)));
+
+            mockJiraServer.start();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(mockJiraServer::stop));
+        } else if (arguments.size() > 0 && syntheticMode)
+        {
+            Config headlessConfig = ConfigFactory.load(arguments.get(0));
+            SyntheticJiraDataset dataset = SyntheticJiraGenerator.fromConfig(headlessConfig).generate();
+
+            logger.info("Generated {} synthetic stories across {} epics", dataset.getStoryCount(),
+                    dataset.getEpicStoryMap().size());
+
+            dataset.replay(new HeadlessReportGenerator(headlessConfig));
+
+            RunMetrics.getDefault().writeSummary(RunMetrics.getSummaryFile(headlessConfig));
+        } else if (arguments.size() > 0 && snapshotMode)
+        {
+            Config headlessConfig = ConfigFactory.load(arguments.get(0));
+            IssueSnapshot snapshot = IssueSnapshot.open(IssueSnapshot.getSnapshotFile(headlessConfig));
+
+            logger.info("Opened a snapshot of {} issues saved at {}", snapshot.getIssueCount(),
+                    new Date(snapshot.getSavedTimeMillis()));
+
+            snapshot.replay(new HeadlessReportGenerator(headlessConfig));
+
+            RunMetrics.getDefault().writeSummary(RunMetrics.getSummaryFile(headlessConfig));
+        } else if (arguments.size() > 0)
+        {
+            Config headlessConfig;
+
+            headlessConfig = ConfigFactory.load(arguments.get(0));
+
+            String jiraBaseUrl = headlessConfig.getString("jira-excel-analysis.jiraBaseUrl");
+            String confluenceBaseUrl = headlessConfig.getString("jira-excel-analysis.confluenceBaseUrl");
+            Collection<String> projects = headlessConfig.getStringList("jira-excel-analysis.projects");
+            Collection<String> usernames = headlessConfig.getStringList("jira-excel-analysis.usernames");
+
+            JiraRestClient requestClient = new JiraRestClient(jiraBaseUrl, new BasicCredentials(username, password), true);
+            requestClient.setPipelineDepth(HeadlessReportGenerator.getPipelineDepth(headlessConfig));
+            requestClient.setTextArenaDirectory(TextArena.getDirectory(headlessConfig));
+
+            HeadlessReportGenerator reportGenerator = new HeadlessReportGenerator(headlessConfig);
+
+            // Each report is uploaded as soon as it is written so uploads overlap the generation of later reports
+            ConfluenceUploader confluenceUploader = new ConfluenceUploader(confluenceBaseUrl, username, password,
+                    headlessConfig.hasPath(UPLOAD_THREADS_KEY) ? headlessConfig.getInt(UPLOAD_THREADS_KEY) : 4,
+                    headlessConfig.hasPath(UPLOAD_ATTEMPTS_KEY) ? headlessConfig.getInt(UPLOAD_ATTEMPTS_KEY) : 3,
+                    new File(UPLOAD_CACHE_FILE));
+
+            if (arguments.size() > 1)
+            {
+                // The page id can be found by selecting the ellipses in the right hand corner in confluence and
+                // selecting `Page Information` and then copying the number out of the resulting page's URL.
+                confluenceUploader.setDefaultPageId("Master", arguments.get(1));
+            }
+
+            reportGenerator.addReportListener(confluenceUploader);
+
+            boolean includeInitiatives = headlessConfig.getBoolean("jira-excel-analysis.includeInitiatives");
+            File snapshotFile = IssueSnapshot.getSnapshotFile(headlessConfig);
+
+            if (daemonMode)
+            {
+                RefreshScheduler refreshScheduler = new RefreshScheduler(headlessConfig, reportGenerator, requestClient,
+                        includeInitiatives, projects, usernames);
+                ReportDaemon reportDaemon = new ReportDaemon(headlessConfig, reportGenerator, refreshScheduler);
+
+                // The snapshot holds every project rather than the last project refreshed
+                refreshScheduler.addIssueListener(new IssueSnapshotWriter(snapshotFile));
+
+                // Requests are served from the previous process's issues until the first load completes
+                if (snapshotFile.exists())
+                {
+                    try
+                    {
+                        IssueSnapshot.open(snapshotFile).replay(reportDaemon);
+                    } catch (IOException exception)
+                    {
+                        logger.warn("Failed to open the issue snapshot, waiting for the first load: ", exception);
+                    }
+                }
+
+                reportDaemon.start();
+
+                stopOnExit(reportDaemon::stop, confluenceUploader);
+            } else if (scheduledMode)
+            {
+                RefreshScheduler refreshScheduler = new RefreshScheduler(headlessConfig, reportGenerator, requestClient,
+                        includeInitiatives, projects, usernames);
+
+                refreshScheduler.start();
+
+                stopOnExit(refreshScheduler::stop, confluenceUploader);
+            } else
+            {
+                requestClient.addIssueListener(reportGenerator);
+                requestClient.addIssueListener(new IssueSnapshotWriter(snapshotFile));
+                requestClient.loadJiraIssues(includeInitiatives, projects, usernames);
+
+                confluenceUploader.awaitUploads();
+
+                RunMetrics.getDefault().writeSummary(RunMetrics.getSummaryFile(headlessConfig));
+            }
+        } else
+        {
+            logger.warn("Failed to build jira report: please specify a configuration file");
+        }
+    }
+
+    /**
+     * Stops a long running mode and finishes the queued uploads when the process is asked to exit.
+     *
+     * @param stopAction         Stops the refreshes and requests of the running mode.
+     * @param confluenceUploader The uploader whose queued uploads are completed.
+     */
+    private static void stopOnExit(Runnable stopAction, ConfluenceUploader confluenceUploader)
+    {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopAction.run();
+
+            try
+            {
+                confluenceUploader.awaitUploads();
+            } catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+}
@@ -1,19 +1,31 @@
 package com.chesapeaketechnology;
 
+import com.chesapeaketechnology.metrics.PhaseTimer;
+import com.chesapeaketechnology.metrics.RunMetrics;
 import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.chesapeaketechnology.model.LoadProgress;
+import com.chesapeaketechnology.model.TextArena;
 import net.rcarz.jiraclient.BasicCredentials;
 import net.rcarz.jiraclient.ICredentials;
 import net.rcarz.jiraclient.Issue;
 import net.rcarz.jiraclient.JiraClient;
 import net.rcarz.jiraclient.JiraException;
+import net.rcarz.jiraclient.RestException;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONNull;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
@@ -24,9 +36,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +62,11 @@ public class JiraRestClient
     public static final String SPRINT_KEY = "Sprint";
     public static final String EPIC_LINK = "Epic Link";
 
+    private static final int SEARCH_PAGE_SIZE = 10_000;
+    private static final int MAX_SEARCH_ATTEMPTS = 5;
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 1_000;
+    private static final long FETCHER_POLL_MILLIS = 1_000;
+
     private final boolean includeChangeLogs;
 
     private Set<IJiraIssueListener> jiraIssueListeners = new CopyOnWriteArraySet<>();
@@ -55,9 +80,28 @@ public class JiraRestClient
     private String baseUrl;
 
     private EmptyIssue unassignedEpic = new EmptyIssue("Unassigned Epic");
+    // The initiative of epics loaded without initiatives, shared by every load so the loads can be merged
+    private EmptyIssue unassignedInitiative = new EmptyIssue("Unassigned Epic");
+
+    private int pipelineDepth = 2;
+    private File textArenaDirectory;
+    // The text of the current load's issues, or null if their text is kept on the heap
+    private volatile TextArena textArena;
+
+    // The progress of the current load, reported to listeners after each page of search results. Pages are fetched on
+    // the fetching thread while initiatives are completed on the loading thread.
+    private volatile long loadStartNanos;
+    private volatile int issuesLoaded;
+    private volatile int initiativesCompleted;
+    private volatile int initiativeCount;
+    // Set when a search of the current load fails, which may happen on the fetching thread
+    private volatile boolean loadFailed;
 
     private static Map<String, String> fieldCustomIdMapping = new HashMap<>();
 
+    // The bytes of JIRA responses read by each thread, which lets each request attribute the bytes it read to itself
+    private static final ThreadLocal<long[]> responseBytes = ThreadLocal.withInitial(() -> new long[1]);
+
     private static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     private CloseableHttpClient getHttpClient()
@@ -66,6 +110,12 @@ public class JiraRestClient
 
         return HttpClients.custom()
                 .setConnectionManager(connectionManager)
+                .addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+                    if (response.getEntity() != null)
+                    {
+                        response.setEntity(new CountingEntity(response.getEntity()));
+                    }
+                })
                 .build();
     }
 
@@ -94,6 +144,30 @@ public class JiraRestClient
         new JiraClient(baseUrl, credentials);
     }
 
+    /**
+     * Sets how far the fetching of initiatives' children may run ahead of their indexing. The children of up to
+     * {@code pipelineDepth} initiatives are held while waiting to be indexed, and the fetching waits once that many are
+     * held, so memory stays bounded when listeners process initiatives slower than JIRA returns them.
+     *
+     * @param pipelineDepth The number of initiatives that may be fetched ahead, or 0 to fetch and index each initiative
+     *                      in turn on the loading thread.
+     */
+    public void setPipelineDepth(int pipelineDepth)
+    {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * Sets where the summaries, descriptions, and change histories of loaded issues are stored. Each load stores its
+     * issues' text in a new {@link TextArena}, which is released along with the issues.
+     *
+     * @param textArenaDirectory The directory of the memory-mapped text, or null to keep the text on the heap.
+     */
+    public void setTextArenaDirectory(File textArenaDirectory)
+    {
+        this.textArenaDirectory = textArenaDirectory;
+    }
+
     /**
      * Gets the properties of all sprints that an issue was part of.
      *
@@ -128,16 +202,33 @@ public class JiraRestClient
     }
 
     /**
-     * Performs a series of JIRA queries to retrieve information about Initiatives, Epics, and User Stories.
+     * Performs a series of JIRA queries to retrieve information about Initiatives, Epics, and User Stories. Listeners
+     * are notified through {@link IJiraIssueListener#allIssuesRetrieved} once every search succeeded, otherwise through
+     * {@link IJiraIssueListener#loadFailed}.
+     *
+     * @return True if every issue was loaded, false if a search failed and the loaded issues are incomplete.
      */
-    public void loadJiraIssues(boolean includeInitatives, Collection<String> projects, Collection<String> usernames)
+    public boolean loadJiraIssues(boolean includeInitatives, Collection<String> projects, Collection<String> usernames)
     {
         logger.info("Loading Initiatives, epics, and stories");
 
         long startTime = System.nanoTime();
 
+        // Each load starts from new maps so the results handed to listeners by a previous load are left untouched
+        initiativeEpicMap = new ConcurrentHashMap<>();
+        epicStoryMap = new ConcurrentHashMap<>();
+
+        loadStartNanos = startTime;
+        issuesLoaded = 0;
+        initiativesCompleted = 0;
+        loadFailed = false;
+        // Loading epics directly is a single search, so its progress is the progress of that search
+        initiativeCount = includeInitatives ? 0 : -1;
+
         loadCustomFields(projects.iterator().next());
 
+        textArena = textArenaDirectory == null ? null : new TextArena(textArenaDirectory, getRequestedCustomFields());
+
         if (includeInitatives)
         {
             loadIssueMapsFromInitiatives(projects);
@@ -146,17 +237,42 @@ public class JiraRestClient
             loadEpicsDirectly(projects, usernames);
         }
 
-        epicStoryMap.entrySet().removeIf(entry -> entry.getValue().isEmpty());
-        initiativeEpicMap.values()
-                .forEach(epics -> epics
-                        .removeIf(epic -> !epicStoryMap.containsKey(epic)));
-        initiativeEpicMap.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+        try (PhaseTimer timer = RunMetrics.getDefault().start("jira.hierarchy"))
+        {
+            epicStoryMap.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+            initiativeEpicMap.values()
+                    .forEach(epics -> epics
+                            .removeIf(epic -> !epicStoryMap.containsKey(epic)));
+            initiativeEpicMap.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+            timer.addIssues(epicStoryMap.size());
+        }
 
         long endTime = System.nanoTime();
+        int storyCount = epicStoryMap.values().stream().mapToInt(List::size).sum();
 
         logger.info("Finished querying in: {} seconds", ((endTime - startTime) / 1_000_000_000.0));
 
-        jiraIssueListeners.forEach(listener -> listener.allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMapping));
+        if (textArena != null)
+        {
+            logger.info("Stored {} KB of issue text off the heap", textArena.getSize() / 1024);
+        }
+
+        RunMetrics.getDefault().record("jira.load", "", endTime - startTime, storyCount, 0);
+
+        if (loadFailed)
+        {
+            logger.warn("Failed to load every issue, {} stories were loaded", storyCount);
+
+            notifyListeners("loadFailed", storyCount,
+                    listener -> listener.loadFailed(initiativeEpicMap, epicStoryMap, fieldCustomIdMapping));
+
+            return false;
+        }
+
+        notifyListeners("allIssuesRetrieved", storyCount,
+                listener -> listener.allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMapping));
+
+        return true;
     }
 
     /**
@@ -184,40 +300,172 @@ public class JiraRestClient
         {
             Issue.SearchResult initiativeQueryResult = searchIssues(initiativeJQL, "names");
 
-            jiraIssueListeners.forEach(listener -> listener.initiativesLoaded(initiativeQueryResult.issues));
+            notifyListeners("initiativesLoaded", initiativeQueryResult.issues.size(),
+                    listener -> listener.initiativesLoaded(initiativeQueryResult.issues));
+
+            initiativeCount = initiativeQueryResult.issues.size();
 
             logger.info("Querying children of {} initiatives", initiativeQueryResult.issues.size());
 
-            initiativeQueryResult.issues.forEach(initiative -> {
-                //We need to requery for each initiative to find the associated child tickets. This query will include both Epics and User Stories
-                try
+            //We need to requery for each initiative to find the associated child tickets. This query will include both Epics and User Stories
+            List<Issue> initiatives = initiativeQueryResult.issues;
+
+            if (pipelineDepth <= 0)
+            {
+                for (Issue initiative : initiatives)
                 {
-                    Issue.SearchResult epicQueryResult;
+                    indexChildren(fetchChildren(children, initiative));
+                }
+
+                return;
+            }
 
-                    String changeLog = "";
+            // Children are fetched on another thread while the initiatives already fetched are indexed. The fetcher
+            // blocks once it is pipelineDepth initiatives ahead, which caps the number of unindexed results in memory.
+            BlockingQueue<ChildQueryResult> fetchedChildren = new ArrayBlockingQueue<>(pipelineDepth);
+            ExecutorService fetcher = Executors.newSingleThreadExecutor();
 
-                    if (includeChangeLogs)
+            try
+            {
+                Future<?> fetch = fetcher.submit(() -> {
+                    try
+                    {
+                        for (Issue initiative : initiatives)
+                        {
+                            fetchedChildren.put(fetchChildren(children, initiative));
+                        }
+                    } catch (InterruptedException exception)
                     {
-                        changeLog = "changelog";
+                        Thread.currentThread().interrupt();
                     }
+                });
 
-                    epicQueryResult = searchIssues(children + initiative.getKey() + ")", changeLog);
+                for (int index = 0; index < initiatives.size(); index++)
+                {
+                    indexChildren(takeFetchedChildren(fetchedChildren, fetch));
+                }
+            } finally
+            {
+                fetcher.shutdownNow();
+            }
+        } catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            loadFailed = true;
+            logger.warn("Interrupted while loading the children of initiatives");
+        } catch (Exception exception)
+        {
+            loadFailed = true;
+            logger.warn("Failed to search issues: ", exception);
+        }
+    }
 
-                    epicStoryMap.putAll(getEpicStoryMap(epicQueryResult));
-                    logger.info("Successfully queried children of: {}", initiative.getKey());
-                    jiraIssueListeners.forEach(listener -> listener.childrenRetrieved(initiative, epicQueryResult.issues));
+    /**
+     * Waits for the fetcher to query the children of the next initiative. The fetcher is checked while waiting so an
+     * error that stops it fails the load instead of blocking it forever.
+     *
+     * @param fetchedChildren The children queried by the fetcher that have not been indexed yet.
+     * @param fetch           The fetcher's task.
+     * @return The next initiative and its children.
+     * @throws InterruptedException If the loading thread is interrupted while waiting.
+     * @throws ExecutionException   If the fetcher failed.
+     */
+    private ChildQueryResult takeFetchedChildren(BlockingQueue<ChildQueryResult> fetchedChildren, Future<?> fetch)
+            throws InterruptedException, ExecutionException
+    {
+        ChildQueryResult childQueryResult = fetchedChildren.poll(FETCHER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+        while (childQueryResult == null)
+        {
+            if (fetch.isDone())
+            {
+                fetch.get();
 
-                    initiativeEpicMap.put(initiative, epicQueryResult.issues.stream()
-                            .filter(issue -> issue.getIssueType().getName().equalsIgnoreCase("Epic"))
-                            .collect(Collectors.toList()));
-                } catch (Exception exception)
+                // The fetcher may have queued its last result after the poll timed out
+                childQueryResult = fetchedChildren.poll();
+
+                if (childQueryResult == null)
                 {
-                    logger.warn("Failed to query children of: {}", initiative.getKey(), exception);
+                    throw new IllegalStateException("The fetcher stopped before querying every initiative");
                 }
-            });
+            } else
+            {
+                childQueryResult = fetchedChildren.poll(FETCHER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        return childQueryResult;
+    }
+
+    /**
+     * Queries the epics and stories below an initiative.
+     *
+     * @param children   The start of the JQL query, which is completed by the initiative's key.
+     * @param initiative The initiative to query the children of.
+     * @return The initiative and its children, or no children if the query failed.
+     */
+    private ChildQueryResult fetchChildren(String children, Issue initiative)
+    {
+        String changeLog = "";
+
+        if (includeChangeLogs)
+        {
+            changeLog = "changelog";
+        }
+
+        try
+        {
+            return new ChildQueryResult(initiative, searchIssues(children + initiative.getKey() + ")", changeLog));
         } catch (Exception exception)
         {
-            logger.warn("Failed to search issues: ", exception);
+            loadFailed = true;
+            logger.warn("Failed to query children of: {}", initiative.getKey(), exception);
+
+            return new ChildQueryResult(initiative, null);
+        } finally
+        {
+            // A failed initiative still counts towards the progress so the estimate keeps moving
+            initiativesCompleted++;
+        }
+    }
+
+    /**
+     * Groups the children of an initiative by epic, adds them to the loaded issues, and notifies the listeners.
+     *
+     * @param childQueryResult The initiative and its children.
+     */
+    private void indexChildren(ChildQueryResult childQueryResult)
+    {
+        Issue initiative = childQueryResult.initiative;
+        Issue.SearchResult epicQueryResult = childQueryResult.result;
+
+        if (epicQueryResult == null)
+        {
+            return;
+        }
+
+        try
+        {
+            Map<Issue, List<Issue>> initiativeStoryMap = getEpicStoryMap(epicQueryResult);
+
+            epicStoryMap.putAll(initiativeStoryMap);
+            logger.info("Successfully queried children of: {}", initiative.getKey());
+            notifyListeners("childrenRetrieved", epicQueryResult.issues.size(),
+                    listener -> listener.childrenRetrieved(initiative, epicQueryResult.issues));
+
+            initiativeEpicMap.put(initiative, epicQueryResult.issues.stream()
+                    .filter(issue -> issue.getIssueType().getName().equalsIgnoreCase("Epic"))
+                    .collect(Collectors.toList()));
+
+            LoadProgress progress = getProgress(0);
+
+            notifyListeners("initiativeCompleted", epicQueryResult.issues.size(),
+                    listener -> listener.initiativeCompleted(initiative,
+                            Collections.unmodifiableMap(initiativeStoryMap), fieldCustomIdMapping, progress));
+        } catch (Exception exception)
+        {
+            loadFailed = true;
+            logger.warn("Failed to query children of: {}", initiative.getKey(), exception);
         }
     }
 
@@ -240,9 +488,10 @@ public class JiraRestClient
             Issue.SearchResult epicQueryResult = searchIssues(epicsJQL, "changelog");
             logger.info("Successfully queried children of: {}", epicsJQL);
             epicStoryMap.putAll(getEpicStoryMap(epicQueryResult));
-            initiativeEpicMap.put(new EmptyIssue("Unassigned Epic"), new ArrayList<>(epicStoryMap.keySet()));
+            initiativeEpicMap.put(unassignedInitiative, new ArrayList<>(epicStoryMap.keySet()));
         } catch (Exception exception)
         {
+            loadFailed = true;
             logger.warn("Failed to search issues: ", exception);
         }
     }
@@ -254,6 +503,22 @@ public class JiraRestClient
      * @return The mapping of epics to low level tasks and stories.
      */
     private Map<Issue, List<Issue>> getEpicStoryMap(Issue.SearchResult epicQueryResult)
+    {
+        try (PhaseTimer timer = RunMetrics.getDefault().start("jira.hierarchy"))
+        {
+            timer.addIssues(epicQueryResult.issues.size());
+
+            return groupByEpic(epicQueryResult);
+        }
+    }
+
+    /**
+     * Groups the issues of a search by the epics they are linked to.
+     *
+     * @param epicQueryResult The data model representation of a group of Epics.
+     * @return The mapping of epics to low level tasks and stories.
+     */
+    private Map<Issue, List<Issue>> groupByEpic(Issue.SearchResult epicQueryResult)
     {
         String epicLink = fieldCustomIdMapping.get(EPIC_LINK);
 
@@ -293,7 +558,8 @@ public class JiraRestClient
     }
 
     /**
-     * Calls the REST API and parses the corresponding JSON object into data objects.
+     * Calls the REST API and parses the corresponding JSON object into data objects. JIRA limits the number of issues
+     * returned by a single request, so the remaining pages are requested until every matching issue is retrieved.
      *
      * @param query        A Jira Query Language (JQL) request. See https://confluence.atlassian.com/jiracore/blog/2015/07/search-jira-like-a-boss-with-jql
      *                     for additional details on how to create a request.
@@ -310,11 +576,150 @@ public class JiraRestClient
         String epicCustomField = fieldCustomIdMapping.get(EPIC_LINK);
         String programCustomField = fieldCustomIdMapping.get(PROGRAM_KEY);
 
-        String includedFields = "project, key, summary, description, status, issuetype, created, resolutiondate, " +
+        String includedFields = "project, key, summary, description, status, issuetype, created, updated, resolutiondate, " +
                 "issues, labels, assignee, assignee, reporter, priority, fixVersions, duedate, components, description," +
                 storyPointCustomField + ", " + sprintKeyCustomField + ", " + epicCustomField + ", " + programCustomField;
 
-        return jiraClient.searchIssues(query, includedFields, expandFields, 10_000, 0);
+        Issue.SearchResult searchResult = searchPage(jiraClient, query, includedFields, expandFields, 0);
+        searchResult.issues = storeText(searchResult.issues);
+        List<Issue> issues = new ArrayList<>(searchResult.issues);
+
+        notifyPageFetched(query, expandFields, 0, searchResult.issues, searchResult.total);
+
+        while (issues.size() < searchResult.total)
+        {
+            int startAt = issues.size();
+            Issue.SearchResult page = searchPage(jiraClient, query, includedFields, expandFields, startAt);
+
+            if (page.issues.isEmpty())
+            {
+                logger.warn("Search returned {} of {} issues: {}", issues.size(), searchResult.total, query);
+                break;
+            }
+
+            page.issues = storeText(page.issues);
+            issues.addAll(page.issues);
+            notifyPageFetched(query, expandFields, startAt, page.issues, searchResult.total);
+        }
+
+        searchResult.issues = issues;
+
+        return searchResult;
+    }
+
+    /**
+     * Gets the ids of the custom fields requested by every search.
+     *
+     * @return The custom field ids of the story points, sprints, epic links, and programs.
+     */
+    private static List<String> getRequestedCustomFields()
+    {
+        List<String> customFieldIds = new ArrayList<>();
+
+        for (String fieldName : new String[]{STORY_POINTS_KEY, SPRINT_KEY, EPIC_LINK, PROGRAM_KEY})
+        {
+            if (fieldCustomIdMapping.containsKey(fieldName))
+            {
+                customFieldIds.add(fieldCustomIdMapping.get(fieldName));
+            }
+        }
+
+        return customFieldIds;
+    }
+
+    /**
+     * Moves the text of a page of issues into the current load's text arena, if there is one, so only a single page
+     * of issues is held with its text on the heap.
+     *
+     * @param pageIssues The issues of a page of search results.
+     * @return The issues to keep.
+     */
+    private List<Issue> storeText(List<Issue> pageIssues)
+    {
+        TextArena currentArena = textArena;
+
+        if (currentArena == null)
+        {
+            return pageIssues;
+        }
+
+        try (PhaseTimer timer = RunMetrics.getDefault().start("text.arena"))
+        {
+            long sizeBefore = currentArena.getSize();
+            List<Issue> compactIssues = pageIssues.stream().map(currentArena::compact).collect(Collectors.toList());
+
+            timer.addIssues(compactIssues.size());
+            timer.addBytes(currentArena.getSize() - sizeBefore);
+
+            return compactIssues;
+        }
+    }
+
+    /**
+     * Requests a single page of search results. Requests rejected because of rate limiting or failed by the server are
+     * attempted again after a delay that doubles with each attempt.
+     *
+     * @param jiraClient     The client to search with.
+     * @param query          The JQL query.
+     * @param includedFields The fields to retrieve.
+     * @param expandFields   The fields to expand.
+     * @param startAt        The index of the first issue of the page.
+     * @return A page of search results.
+     * @throws JiraException If the search failed with an error that is not temporary, or failed on every attempt.
+     */
+    private Issue.SearchResult searchPage(JiraClient jiraClient, String query, String includedFields,
+                                          String expandFields, int startAt) throws JiraException
+    {
+        long retryDelay = INITIAL_RETRY_DELAY_MILLIS;
+
+        for (int attempt = 1; ; attempt++)
+        {
+            // Parsing is timed with the request since the JIRA client parses each response as it is read
+            try (PhaseTimer timer = RunMetrics.getDefault().start("jira.search"))
+            {
+                long bytesBefore = responseBytes.get()[0];
+
+                timer.setDetail(query);
+                timer.setOffset(startAt);
+
+                try
+                {
+                    Issue.SearchResult page =
+                            jiraClient.searchIssues(query, includedFields, expandFields, SEARCH_PAGE_SIZE, startAt);
+
+                    timer.addIssues(page.issues.size());
+
+                    return page;
+                } finally
+                {
+                    timer.addBytes(responseBytes.get()[0] - bytesBefore);
+                }
+            } catch (JiraException exception)
+            {
+                int status = exception.getCause() instanceof RestException
+                        ? ((RestException) exception.getCause()).getHttpStatusCode() : 0;
+
+                if (attempt >= MAX_SEARCH_ATTEMPTS || (status != 429 && status < 500))
+                {
+                    throw exception;
+                }
+
+                RunMetrics.getDefault().record("jira.searchRetry", String.valueOf(status), 0, 0, 0);
+
+                logger.warn("Search failed with status {}, retrying in {} ms: {}", status, retryDelay, query);
+            }
+
+            try
+            {
+                Thread.sleep(retryDelay);
+            } catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new JiraException("Interrupted while waiting to retry search", exception);
+            }
+
+            retryDelay *= 2;
+        }
     }
 
     /**
@@ -327,20 +732,97 @@ public class JiraRestClient
     {
         if (fieldCustomIdMapping.isEmpty())
         {
-            try
+            try (PhaseTimer timer = RunMetrics.getDefault().start("jira.customFields"))
             {
                 JiraClient jiraClient = new JiraClient(httpClient, baseUrl, credentials);
 
                 String epicsJQL = "project in (" + project + ")";
+                long bytesBefore = responseBytes.get()[0];
 
+                timer.setDetail(epicsJQL);
                 fieldCustomIdMapping = Issue.getCustomFieldMappings(jiraClient.getRestClient(), epicsJQL);
+                timer.addBytes(responseBytes.get()[0] - bytesBefore);
             } catch (Exception exception)
             {
+                loadFailed = true;
                 logger.warn("Failed to load custom fields for project {}: ", project, exception);
             }
         }
     }
 
+    /**
+     * Notifies the listeners that a page of search results has been fetched.
+     *
+     * @param query        The JQL of the search.
+     * @param expandFields The fields expanded by the search.
+     * @param startAt      The index of the first issue of the page.
+     * @param pageIssues   The issues of the page.
+     * @param total        The number of issues matched by the search.
+     */
+    private void notifyPageFetched(String query, String expandFields, int startAt, List<Issue> pageIssues, int total)
+    {
+        issuesLoaded += pageIssues.size();
+
+        LoadProgress progress = getProgress(total == 0 ? 1 : (startAt + pageIssues.size()) / (double) total);
+
+        notifyListeners("pageFetched", pageIssues.size(),
+                listener -> listener.pageFetched(query, startAt, pageIssues.size(), total, progress));
+
+        if (expandFields.contains("changelog"))
+        {
+            notifyListeners("changelogsFetched", pageIssues.size(), listener -> listener.changelogsFetched(pageIssues));
+        }
+    }
+
+    /**
+     * Gets the progress of the current load. The initiatives are assumed to take equally long to load, so while loading
+     * through initiatives the progress advances by one initiative at a time, with the current search filling in the
+     * progress within an initiative.
+     *
+     * @param searchFraction The fraction of the current search that has been fetched.
+     * @return The progress of the current load.
+     */
+    private LoadProgress getProgress(double searchFraction)
+    {
+        double completedFraction;
+
+        if (initiativeCount < 0)
+        {
+            completedFraction = searchFraction;
+        } else if (initiativeCount > 0)
+        {
+            completedFraction = (initiativesCompleted + (initiativesCompleted < initiativeCount ? searchFraction : 0))
+                    / initiativeCount;
+        } else
+        {
+            // The initiatives themselves are still being searched for, so the size of the load is not known yet
+            completedFraction = 0;
+        }
+
+        return new LoadProgress(issuesLoaded, initiativesCompleted, Math.max(initiativeCount, 0), completedFraction,
+                (System.nanoTime() - loadStartNanos) / 1_000_000);
+    }
+
+    /**
+     * Notifies every listener of progress, measuring each notification as a {@code listener} phase.
+     *
+     * @param callback     The name of the listener method being called.
+     * @param issues       The number of issues handed to the listeners.
+     * @param notification Calls the listener method.
+     */
+    private void notifyListeners(String callback, int issues, Consumer<IJiraIssueListener> notification)
+    {
+        for (IJiraIssueListener listener : jiraIssueListeners)
+        {
+            try (PhaseTimer timer = RunMetrics.getDefault().start("listener", callback))
+            {
+                timer.setDetail(listener.getClass().getName());
+                timer.addIssues(issues);
+                notification.accept(listener);
+            }
+        }
+    }
+
     /**
      * Converts the comma separated sprint characteristics into a map.
      *
@@ -363,6 +845,70 @@ public class JiraRestClient
         return properties;
     }
 
+    /**
+     * Counts the bytes of a JIRA response as the JIRA client reads it. The bytes are counted against the thread reading
+     * the response, which is the thread that made the request.
+     *
+     * @since 1.0.0
+     */
+    private static class CountingEntity extends HttpEntityWrapper
+    {
+        CountingEntity(HttpEntity entity)
+        {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException
+        {
+            return new FilterInputStream(super.getContent())
+            {
+                @Override
+                public int read() throws IOException
+                {
+                    int value = super.read();
+
+                    if (value != -1)
+                    {
+                        responseBytes.get()[0]++;
+                    }
+
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException
+                {
+                    int count = super.read(buffer, offset, length);
+
+                    if (count > 0)
+                    {
+                        responseBytes.get()[0] += count;
+                    }
+
+                    return count;
+                }
+            };
+        }
+    }
+
+    /**
+     * The children of an initiative waiting to be indexed.
+     *
+     * @since 1.0.0
+     */
+    private static class ChildQueryResult
+    {
+        final Issue initiative;
+        final Issue.SearchResult result;
+
+        ChildQueryResult(Issue initiative, Issue.SearchResult result)
+        {
+            this.initiative = initiative;
+            this.result = result;
+        }
+    }
+
     /**
      * A hollow JIRA issue representation to enable grouping tickets that don't have initiatives or epics.
      *
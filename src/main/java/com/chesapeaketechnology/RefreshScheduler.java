@@ -0,0 +1,427 @@
+package com.chesapeaketechnology;
+
+import com.chesapeaketechnology.excel.HeadlessReportGenerator;
+import com.chesapeaketechnology.excel.ReportAnalytics;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigUtil;
+import net.rcarz.jiraclient.Issue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refreshes each project on its own cadence and regenerates only the reports that read issues which changed. Every
+ * project's issues are kept in memory between refreshes along with a hash of their keys and last update times, so a
+ * refresh that finds no changes costs a single round of queries and no report generation. When a project changes each
+ * report is passed to {@link HeadlessReportGenerator#generateReport}, which skips the reports whose own issues did not
+ * change.
+ * <p>
+ * Refreshes run one at a time. A refresh requested while the same project is already waiting to be refreshed is merged
+ * into the waiting refresh, and reports are only regenerated once no other refresh is waiting so that several projects
+ * changing together regenerate each report once. Neither the reports nor the listeners added through
+ * {@link #addIssueListener(IJiraIssueListener)} are updated until every project has loaded once, so a project whose
+ * first load failed is not left out of the issues that replace the previous ones.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class RefreshScheduler implements IJiraIssueListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String REFRESH_MINUTES_KEY = "jira-excel-analysis.refresh.minutes";
+    private static final String PROJECT_MINUTES_KEY = "jira-excel-analysis.refresh.projectMinutes";
+
+    private final Config headlessConfig;
+    private final HeadlessReportGenerator reportGenerator;
+    private final JiraRestClient requestClient;
+    private final boolean includeInitiatives;
+    private final Collection<String> projects;
+    private final Collection<String> usernames;
+
+    private final ScheduledExecutorService timerExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService outputExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, CompletableFuture<Void>> queuedRefreshes = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingRefreshes = new AtomicInteger();
+    private final List<IJiraIssueListener> issueListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean generateReports = true;
+
+    // Only accessed by the refresh thread
+    private final Map<String, ProjectSnapshot> projectSnapshots = new LinkedHashMap<>();
+    private final Set<String> changedProjects = new LinkedHashSet<>();
+    private ProjectSnapshot loadedSnapshot;
+
+    /**
+     * Creates a scheduler. Nothing is refreshed until {@link #start()} is called.
+     *
+     * @param headlessConfig     The configuration that lists the reports and the refresh cadences.
+     * @param reportGenerator    Generates the configured reports.
+     * @param requestClient      Queries JIRA. The scheduler registers itself as a listener of the client.
+     * @param includeInitiatives True if the projects are organized by initiatives.
+     * @param projects           The projects to refresh.
+     * @param usernames          The users whose issues are loaded when initiatives are not included.
+     */
+    public RefreshScheduler(Config headlessConfig, HeadlessReportGenerator reportGenerator, JiraRestClient requestClient,
+                            boolean includeInitiatives, Collection<String> projects, Collection<String> usernames)
+    {
+        this.headlessConfig = headlessConfig;
+        this.reportGenerator = reportGenerator;
+        this.requestClient = requestClient;
+        this.includeInitiatives = includeInitiatives;
+        this.projects = projects;
+        this.usernames = usernames;
+
+        requestClient.addIssueListener(this);
+    }
+
+    /**
+     * Adds a listener that is notified with the issues of every project each time a refresh changes them, before the
+     * reports are regenerated. Listeners are notified on the refresh thread.
+     *
+     * @param issueListener The listener to notify.
+     */
+    public void addIssueListener(IJiraIssueListener issueListener)
+    {
+        issueListeners.add(issueListener);
+    }
+
+    /**
+     * Sets whether the configured reports are regenerated when a refresh changes the issues. Listeners added through
+     * {@link #addIssueListener(IJiraIssueListener)} are notified either way.
+     *
+     * @param generateReports True to regenerate the reports, which is the default.
+     */
+    public void setGenerateReports(boolean generateReports)
+    {
+        this.generateReports = generateReports;
+    }
+
+    /**
+     * Loads every project and schedules each project's refreshes at its configured cadence.
+     */
+    public void start()
+    {
+        long defaultMinutes = headlessConfig.hasPath(REFRESH_MINUTES_KEY) ? headlessConfig.getLong(REFRESH_MINUTES_KEY) : 60;
+
+        for (String project : projects)
+        {
+            String projectPath = PROJECT_MINUTES_KEY + "." + ConfigUtil.joinPath(project);
+            long minutes = headlessConfig.hasPath(projectPath) ? headlessConfig.getLong(projectPath) : defaultMinutes;
+
+            if (minutes > 0)
+            {
+                timerExecutor.scheduleAtFixedRate(() -> refresh(project), 0, minutes, TimeUnit.MINUTES);
+            } else
+            {
+                logger.warn("Ignoring refresh interval of {} minutes for {}, it will only be loaded once", minutes,
+                        project);
+                refresh(project);
+            }
+        }
+    }
+
+    /**
+     * Stops all refreshes. Reports that are being written are completed.
+     */
+    public void stop()
+    {
+        timerExecutor.shutdownNow();
+        refreshExecutor.shutdownNow();
+        outputExecutor.shutdown();
+    }
+
+    /**
+     * Queues a refresh of every project. Projects that are already waiting to be refreshed are not queued again.
+     *
+     * @return A future completed once every project has been refreshed.
+     */
+    public CompletableFuture<Void> refreshAll()
+    {
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+
+        for (String project : projects)
+        {
+            refreshes.add(refresh(project));
+        }
+
+        return CompletableFuture.allOf(refreshes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Queues a refresh of a project unless one is already waiting.
+     *
+     * @param project The project to refresh.
+     * @return A future completed once the project has been refreshed and, unless another refresh is waiting, the
+     * reports have been regenerated. A refresh merged into a waiting refresh returns the waiting refresh's future.
+     */
+    public CompletableFuture<Void> refresh(String project)
+    {
+        CompletableFuture<Void> queuedRefresh = new CompletableFuture<>();
+        CompletableFuture<Void> waitingRefresh = queuedRefreshes.putIfAbsent(project, queuedRefresh);
+
+        if (waitingRefresh != null)
+        {
+            return waitingRefresh;
+        }
+
+        pendingRefreshes.incrementAndGet();
+        refreshExecutor.execute(() -> {
+            queuedRefreshes.remove(project);
+
+            try
+            {
+                refreshProject(project);
+            } catch (Exception exception)
+            {
+                logger.warn("Failed to refresh {}, keeping its previously loaded issues: ", project, exception);
+            }
+
+            try
+            {
+                if (pendingRefreshes.decrementAndGet() == 0 && !changedProjects.isEmpty())
+                {
+                    if (projectSnapshots.keySet().containsAll(projects))
+                    {
+                        publishChanges();
+                    } else
+                    {
+                        logger.info("Waiting for every project to load before updating the reports after changes to {}",
+                                changedProjects);
+                    }
+                }
+            } finally
+            {
+                queuedRefresh.complete(null);
+            }
+        });
+
+        return queuedRefresh;
+    }
+
+    @Override
+    public void initiativesLoaded(Collection<Issue> initiatives)
+    {
+
+    }
+
+    @Override
+    public void childrenRetrieved(Issue parent, List<Issue> childIssues)
+    {
+
+    }
+
+    @Override
+    public void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                                   Map<String, String> fieldCustomIdMap)
+    {
+        loadedSnapshot = new ProjectSnapshot(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+
+    /**
+     * Loads a single project and records it as changed if its issues differ from the previous load. A load in which a
+     * search failed is discarded, so the project's reports are not regenerated from incomplete issues.
+     *
+     * @param project The project to load.
+     */
+    private void refreshProject(String project)
+    {
+        loadedSnapshot = null;
+
+        boolean loaded = requestClient.loadJiraIssues(includeInitiatives, Collections.singletonList(project),
+                usernames);
+
+        ProjectSnapshot snapshot = loadedSnapshot;
+        ProjectSnapshot previousSnapshot = projectSnapshots.get(project);
+
+        if (!loaded)
+        {
+            logger.warn("Failed to refresh {}, keeping its {}", project,
+                    previousSnapshot == null ? "reports until it is loaded" : "previously loaded issues");
+        } else if (snapshot == null)
+        {
+            logger.warn("No issues were retrieved for {}", project);
+        } else if (previousSnapshot != null && previousSnapshot.signature.equals(snapshot.signature))
+        {
+            logger.info("No changes found in {}", project);
+        } else
+        {
+            logger.info("Found changes in {}", project);
+
+            changedProjects.add(project);
+            projectSnapshots.put(project, snapshot);
+        }
+    }
+
+    /**
+     * Notifies the issue listeners of the issues of every project and generates the reports whose issues changed.
+     */
+    private void publishChanges()
+    {
+        Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+        Map<Issue, List<Issue>> epicStoryMap = new LinkedHashMap<>();
+        Map<String, String> fieldCustomIdMap = new HashMap<>();
+
+        for (ProjectSnapshot snapshot : projectSnapshots.values())
+        {
+            mergeChildren(initiativeEpicMap, snapshot.initiativeEpicMap);
+            mergeChildren(epicStoryMap, snapshot.epicStoryMap);
+            fieldCustomIdMap.putAll(snapshot.fieldCustomIdMap);
+        }
+
+        logger.info("Updating {} after changes to {}", generateReports ? "reports" : "issues", changedProjects);
+        changedProjects.clear();
+
+        for (IJiraIssueListener issueListener : issueListeners)
+        {
+            try
+            {
+                issueListener.allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+            } catch (Exception exception)
+            {
+                logger.warn("Issue listener failed: ", exception);
+            }
+        }
+
+        if (!generateReports)
+        {
+            return;
+        }
+
+        ReportAnalytics analytics = new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        List<CompletableFuture<List<File>>> reportFutures = new ArrayList<>();
+
+        for (Config config : reportGenerator.getReportConfigs())
+        {
+            reportFutures.add(reportGenerator.generateReport(config, analytics, outputExecutor));
+        }
+
+        for (CompletableFuture<List<File>> reportFuture : reportFutures)
+        {
+            try
+            {
+                reportFuture.join();
+            } catch (CompletionException exception)
+            {
+                // The failure has already been logged and the report's previous files are kept
+            }
+        }
+
+        RunMetrics.getDefault().writeSummary(RunMetrics.getSummaryFile(headlessConfig));
+    }
+
+    /**
+     * Adds a project's issues to the issues of every project. The placeholders for epics without an initiative and
+     * stories without an epic are shared by every project, so their children are appended rather than replaced. The
+     * placeholder for stories without an epic is listed by each project's placeholder initiative, and is only kept once.
+     *
+     * @param mergedMap The children of every project loaded so far.
+     * @param addedMap  The children of a single project.
+     */
+    private static void mergeChildren(Map<Issue, List<Issue>> mergedMap, Map<Issue, List<Issue>> addedMap)
+    {
+        addedMap.forEach((parent, children) -> mergedMap.merge(parent, children, (existing, added) -> {
+            Set<Issue> merged = new LinkedHashSet<>(existing);
+            merged.addAll(added);
+            return new ArrayList<>(merged);
+        }));
+    }
+
+    /**
+     * The issues loaded for a single project along with a hash of their keys and last update times.
+     *
+     * @since 1.0.0
+     */
+    private static class ProjectSnapshot
+    {
+        final Map<Issue, List<Issue>> initiativeEpicMap;
+        final Map<Issue, List<Issue>> epicStoryMap;
+        final Map<String, String> fieldCustomIdMap;
+        final String signature;
+
+        ProjectSnapshot(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                        Map<String, String> fieldCustomIdMap)
+        {
+            this.initiativeEpicMap = initiativeEpicMap;
+            this.epicStoryMap = epicStoryMap;
+            this.fieldCustomIdMap = fieldCustomIdMap;
+
+            signature = computeSignature();
+        }
+
+        /**
+         * Hashes the key, parent, and last update time of every issue. Issues are sorted by key since the maps are not
+         * ordered.
+         *
+         * @return The hexadecimal SHA-256 hash of the issues.
+         */
+        private String computeSignature()
+        {
+            Map<String, String> issueVersions = new TreeMap<>();
+
+            initiativeEpicMap.forEach((initiative, epics) -> {
+                issueVersions.put(initiative.getKey(), String.valueOf(initiative.getField("updated")));
+                epics.forEach(epic -> issueVersions.put(epic.getKey() + "<" + initiative.getKey(), ""));
+            });
+            epicStoryMap.forEach((epic, stories) -> {
+                issueVersions.put(epic.getKey(), String.valueOf(epic.getField("updated")));
+                stories.forEach(story -> issueVersions.put(story.getKey() + "<" + epic.getKey(),
+                        String.valueOf(story.getField("updated"))));
+            });
+
+            try
+            {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+                issueVersions.forEach((key, updated) -> {
+                    digest.update(key.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    digest.update(updated.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                });
+
+                StringBuilder hash = new StringBuilder();
+
+                for (byte hashByte : digest.digest())
+                {
+                    hash.append(String.format("%02x", hashByte));
+                }
+
+                return hash.toString();
+            } catch (NoSuchAlgorithmException exception)
+            {
+                // Every JVM provides SHA-256, an unmatched signature regenerates the project's reports every refresh
+                logger.warn("Failed to hash issues: ", exception);
+
+                return Long.toString(System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.chesapeaketechnology;
+
+import com.chesapeaketechnology.excel.HeadlessReportGenerator;
+import com.chesapeaketechnology.excel.ReportAnalytics;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.typesafe.config.Config;
+import net.rcarz.jiraclient.Issue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the loaded JIRA issues and the analytics derived from them in memory and generates configured reports on
+ * request over a local HTTP endpoint. Each project is refreshed in the background on a fixed cadence through a
+ * {@link RefreshScheduler}, which keeps every project's issues between refreshes and only replaces the model when a
+ * refresh changes them. A project whose refresh fails keeps its previously loaded issues, and the first model is only
+ * built once every project has loaded, so requests are always served from a complete model.
+ * <p>
+ * The endpoint is bound to the loopback address and accepts:
+ * <ul>
+ * <li>{@code GET /reports} to list the configured reports.</li>
+ * <li>{@code POST /reports/<fileName>} to generate a report, responding with the paths of its files.</li>
+ * <li>{@code POST /refresh} to refresh every project without waiting for the next scheduled refresh.</li>
+ * <li>{@code GET /metrics} to read the time spent in each phase of loading issues and generating reports in the
+ * Prometheus text format.</li>
+ * </ul>
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ReportDaemon implements IJiraIssueListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String PORT_KEY = "jira-excel-analysis.daemon.port";
+    private static final String REFRESH_MINUTES_KEY = "jira-excel-analysis.daemon.refreshMinutes";
+    private static final String REPORTS_PATH = "/reports";
+    private static final String REFRESH_PATH = "/refresh";
+    private static final String METRICS_PATH = "/metrics";
+
+    private final HeadlessReportGenerator reportGenerator;
+    private final RefreshScheduler refreshScheduler;
+    private final int port;
+    private final long refreshMinutes;
+
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService outputExecutor = Executors.newSingleThreadExecutor();
+    // Requests are handled one at a time so two requests never write the same report at once
+    private final ExecutorService requestExecutor = Executors.newSingleThreadExecutor();
+
+    private volatile ReportAnalytics analytics;
+    private volatile long loadedTimeMillis;
+    private HttpServer server;
+
+    /**
+     * Creates a daemon. Nothing is loaded or served until {@link #start()} is called. The daemon registers itself as a
+     * listener of the scheduler and generates reports on request only, so the scheduler no longer regenerates them.
+     *
+     * @param headlessConfig   The configuration that lists the reports and the daemon's settings.
+     * @param reportGenerator  Generates the configured reports.
+     * @param refreshScheduler Refreshes the projects and notifies this daemon through {@link #allIssuesRetrieved}.
+     */
+    public ReportDaemon(Config headlessConfig, HeadlessReportGenerator reportGenerator,
+                        RefreshScheduler refreshScheduler)
+    {
+        this.reportGenerator = reportGenerator;
+        this.refreshScheduler = refreshScheduler;
+
+        port = headlessConfig.hasPath(PORT_KEY) ? headlessConfig.getInt(PORT_KEY) : 8085;
+        refreshMinutes = headlessConfig.hasPath(REFRESH_MINUTES_KEY) ? headlessConfig.getLong(REFRESH_MINUTES_KEY) : 15;
+
+        refreshScheduler.setGenerateReports(false);
+        refreshScheduler.addIssueListener(this);
+    }
+
+    /**
+     * Starts serving requests and schedules the initial load followed by the periodic refreshes.
+     *
+     * @throws IOException If the HTTP endpoint could not be bound.
+     */
+    public void start() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(REPORTS_PATH, this::handleReports);
+        server.createContext(REFRESH_PATH, this::handleRefresh);
+        server.createContext(METRICS_PATH, this::handleMetrics);
+        server.setExecutor(requestExecutor);
+        server.start();
+
+        if (refreshMinutes > 0)
+        {
+            refreshExecutor.scheduleWithFixedDelay(this::refresh, 0, refreshMinutes, TimeUnit.MINUTES);
+        } else
+        {
+            refresh();
+        }
+
+        logger.info("Serving reports at http://{}:{}{}", server.getAddress().getHostString(), port, REPORTS_PATH);
+    }
+
+    /**
+     * Stops serving requests and cancels the scheduled refreshes.
+     */
+    public void stop()
+    {
+        if (server != null)
+        {
+            server.stop(0);
+        }
+
+        requestExecutor.shutdown();
+        refreshExecutor.shutdownNow();
+        refreshScheduler.stop();
+        outputExecutor.shutdown();
+    }
+
+    /**
+     * Refreshes every project in the background. A project that is already waiting to be refreshed is not queued
+     * again.
+     */
+    public void refresh()
+    {
+        refreshScheduler.refreshAll();
+    }
+
+    @Override
+    public void initiativesLoaded(Collection<Issue> initiatives)
+    {
+
+    }
+
+    @Override
+    public void childrenRetrieved(Issue parent, List<Issue> childIssues)
+    {
+
+    }
+
+    @Override
+    public void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                                   Map<String, String> fieldCustomIdMap)
+    {
+        analytics = new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        loadedTimeMillis = System.currentTimeMillis();
+
+        logger.info("Loaded {} epics across {} initiatives", epicStoryMap.size(), initiativeEpicMap.size());
+    }
+
+    /**
+     * Lists the configured reports or generates the report named by the request's path.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handleReports(HttpExchange exchange) throws IOException
+    {
+        // The decoded path so report names containing spaces can be requested
+        String path = exchange.getRequestURI().getPath();
+        String fileName = path.startsWith(REPORTS_PATH + "/") ? path.substring(REPORTS_PATH.length() + 1) : "";
+
+        if (!path.equals(REPORTS_PATH) && fileName.isEmpty())
+        {
+            respond(exchange, 404, "Unknown path: " + path);
+            return;
+        }
+
+        if (fileName.isEmpty())
+        {
+            if (!"GET".equals(exchange.getRequestMethod()))
+            {
+                respond(exchange, 405, "Use GET to list the reports");
+                return;
+            }
+
+            String reports = reportGenerator.getReportConfigs().stream()
+                    .map(config -> config.getString("fileName"))
+                    .collect(Collectors.joining("\n"));
+
+            respond(exchange, 200, reports);
+            return;
+        }
+
+        if (!"POST".equals(exchange.getRequestMethod()))
+        {
+            respond(exchange, 405, "Use POST to generate a report");
+            return;
+        }
+
+        Config reportConfig = reportGenerator.getReportConfig(fileName);
+        ReportAnalytics currentAnalytics = analytics;
+
+        if (reportConfig == null)
+        {
+            respond(exchange, 404, "No report is configured with the file name: " + fileName);
+        } else if (currentAnalytics == null)
+        {
+            respond(exchange, 503, "Issues are still being loaded");
+        } else
+        {
+            try
+            {
+                long startTime = System.nanoTime();
+
+                List<File> files = reportGenerator.generateReport(reportConfig, currentAnalytics, outputExecutor).join();
+
+                logger.info("Generated {} in {} seconds from issues loaded at {}", fileName,
+                        (System.nanoTime() - startTime) / 1_000_000_000.0, new Date(loadedTimeMillis));
+
+                respond(exchange, 200, files.stream()
+                        .map(File::getAbsolutePath)
+                        .collect(Collectors.joining("\n")));
+            } catch (CompletionException exception)
+            {
+                logger.warn("Failed to generate {}: ", fileName, exception.getCause());
+                respond(exchange, 500, "Failed to generate " + fileName + ": " + exception.getCause());
+            }
+        }
+    }
+
+    /**
+     * Queues a refresh of every project.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handleRefresh(HttpExchange exchange) throws IOException
+    {
+        if (!"POST".equals(exchange.getRequestMethod()))
+        {
+            respond(exchange, 405, "Use POST to refresh the projects");
+            return;
+        }
+
+        refresh();
+        respond(exchange, 202, "Refresh queued");
+    }
+
+    /**
+     * Exposes the run metrics to a Prometheus scrape.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException
+    {
+        if (!"GET".equals(exchange.getRequestMethod()))
+        {
+            respond(exchange, 405, "Use GET to read the metrics");
+            return;
+        }
+
+        respond(exchange, 200, RunMetrics.getDefault().toPrometheusText().trim());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(bytes);
+        }
+    }
+}
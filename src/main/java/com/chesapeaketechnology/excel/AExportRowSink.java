@@ -0,0 +1,157 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * A row sink that exports sheet rows to a machine readable file. The first row written is the sheet's header row,
+ * whose values name the exported columns, and every following row is converted to the declared column types.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+abstract class AExportRowSink implements IRowSink, Closeable
+{
+    final ExportColumnType[] columnTypes;
+    String[] columnNames;
+
+    /**
+     * Prepares a sink.
+     *
+     * @param file        The file that will be written.
+     * @param columnTypes The type of each exported column.
+     */
+    AExportRowSink(File file, ExportColumnType[] columnTypes)
+    {
+        this.columnTypes = columnTypes;
+
+        file.getAbsoluteFile().getParentFile().mkdirs();
+    }
+
+    @Override
+    public void writeRow(SheetRowBuffer row) throws IOException
+    {
+        if (columnNames == null)
+        {
+            columnNames = new String[columnTypes.length];
+
+            for (int column = 0; column < columnTypes.length; column++)
+            {
+                String name = getText(row, column);
+                columnNames[column] = name == null ? "Column " + (column + 1) : name;
+            }
+
+            writeHeader();
+        } else
+        {
+            writeValues(row);
+        }
+    }
+
+    /**
+     * Writes the start of the file once the column names are known.
+     *
+     * @throws IOException If the header could not be written.
+     */
+    abstract void writeHeader() throws IOException;
+
+    /**
+     * Writes the values of a single data row.
+     *
+     * @param row The rendered row.
+     * @throws IOException If the row could not be written.
+     */
+    abstract void writeValues(SheetRowBuffer row) throws IOException;
+
+    /**
+     * Gets the value of a cell as text. Formulas are exported as their cached result and dates in ISO-8601 format.
+     *
+     * @param row    The rendered row.
+     * @param column The index of the column.
+     * @return The text of the cell or {@code null} if the cell is blank.
+     */
+    String getText(SheetRowBuffer row, int column)
+    {
+        if (!row.hasCell(column))
+        {
+            return null;
+        }
+
+        switch (row.getType(column))
+        {
+            case SheetRowBuffer.STRING:
+                return row.getString(column);
+            case SheetRowBuffer.NUMBER:
+                return columnTypes[column] == ExportColumnType.DATE
+                        ? getDate(row, column).toString() : formatNumber(row.getNumber(column));
+            case SheetRowBuffer.BOOLEAN:
+                return Boolean.toString(row.getBoolean(column));
+            case SheetRowBuffer.FORMULA:
+                return row.getFormulaCachedValue(column);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the numeric value of a cell.
+     *
+     * @param row    The rendered row.
+     * @param column The index of the column.
+     * @return The value of the cell or {@code null} if the cell does not hold a number.
+     */
+    Double getNumber(SheetRowBuffer row, int column)
+    {
+        if (row.hasCell(column)
+                && (row.getType(column) == SheetRowBuffer.NUMBER || row.getType(column) == SheetRowBuffer.BOOLEAN))
+        {
+            return row.getNumber(column);
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the boolean value of a cell.
+     *
+     * @param row    The rendered row.
+     * @param column The index of the column.
+     * @return The value of the cell or {@code null} if the cell does not hold a boolean.
+     */
+    Boolean getBoolean(SheetRowBuffer row, int column)
+    {
+        return row.hasCell(column) && row.getType(column) == SheetRowBuffer.BOOLEAN ? row.getBoolean(column) : null;
+    }
+
+    /**
+     * Gets the date held by a cell.
+     *
+     * @param row    The rendered row.
+     * @param column The index of the column.
+     * @return The date of the cell or {@code null} if the cell does not hold a date.
+     */
+    LocalDate getDate(SheetRowBuffer row, int column)
+    {
+        if (row.hasCell(column) && row.getType(column) == SheetRowBuffer.NUMBER)
+        {
+            return DateUtil.getJavaDate(row.getNumber(column)).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+
+        return null;
+    }
+
+    private static String formatNumber(double value)
+    {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            return Long.toString((long) value);
+        }
+
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,206 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports rows in the Apache Arrow IPC file format. Rows are collected into typed column vectors and written as a
+ * record batch every {@value #BATCH_SIZE} rows, so memory use is bounded by the batch rather than the report.
+ * <p>
+ * Arrow allocates its buffers off heap through {@code java.nio} internals. When running on Java 9 or later the JVM must
+ * be started with {@code --add-opens=java.base/java.nio=ALL-UNNAMED}, which the jar's manifest and the gradle run and
+ * test tasks already provide.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ArrowRowSink extends AExportRowSink
+{
+    private static final int BATCH_SIZE = 4096;
+
+    static
+    {
+        // Arrow's netty buffers only reach the opened java.nio internals when netty is allowed to use reflection
+        if (System.getProperty("io.netty.tryReflectionSetAccessible") == null)
+        {
+            System.setProperty("io.netty.tryReflectionSetAccessible", "true");
+        }
+    }
+
+    private final FileOutputStream outputStream;
+    private final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+
+    private VectorSchemaRoot root;
+    private ArrowFileWriter fileWriter;
+    private int batchRow;
+
+    /**
+     * Creates a sink backed by {@code file}.
+     *
+     * @param file        The file to write.
+     * @param columnTypes The type of each exported column.
+     * @throws IOException If the file could not be created.
+     */
+    ArrowRowSink(File file, ExportColumnType[] columnTypes) throws IOException
+    {
+        super(file, columnTypes);
+
+        outputStream = new FileOutputStream(file);
+    }
+
+    @Override
+    void writeHeader() throws IOException
+    {
+        List<Field> fields = new ArrayList<>();
+
+        for (int column = 0; column < columnTypes.length; column++)
+        {
+            fields.add(new Field(columnNames[column], FieldType.nullable(getArrowType(columnTypes[column])), null));
+        }
+
+        root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        root.allocateNew();
+        fileWriter = new ArrowFileWriter(root, null, outputStream.getChannel());
+        fileWriter.start();
+    }
+
+    @Override
+    void writeValues(SheetRowBuffer row) throws IOException
+    {
+        for (int column = 0; column < columnTypes.length; column++)
+        {
+            FieldVector vector = root.getVector(column);
+
+            switch (columnTypes[column])
+            {
+                case NUMBER:
+                    Double number = getNumber(row, column);
+
+                    if (number == null)
+                    {
+                        ((Float8Vector) vector).setNull(batchRow);
+                    } else
+                    {
+                        ((Float8Vector) vector).setSafe(batchRow, number);
+                    }
+                    break;
+                case BOOLEAN:
+                    Boolean value = getBoolean(row, column);
+
+                    if (value == null)
+                    {
+                        ((BitVector) vector).setNull(batchRow);
+                    } else
+                    {
+                        ((BitVector) vector).setSafe(batchRow, value ? 1 : 0);
+                    }
+                    break;
+                case DATE:
+                    LocalDate date = getDate(row, column);
+
+                    if (date == null)
+                    {
+                        ((DateDayVector) vector).setNull(batchRow);
+                    } else
+                    {
+                        ((DateDayVector) vector).setSafe(batchRow, (int) date.toEpochDay());
+                    }
+                    break;
+                default:
+                    String text = getText(row, column);
+
+                    if (text == null)
+                    {
+                        ((VarCharVector) vector).setNull(batchRow);
+                    } else
+                    {
+                        ((VarCharVector) vector).setSafe(batchRow, text.getBytes(StandardCharsets.UTF_8));
+                    }
+                    break;
+            }
+        }
+
+        if (++batchRow == BATCH_SIZE)
+        {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            if (fileWriter != null)
+            {
+                if (batchRow > 0)
+                {
+                    writeBatch();
+                }
+
+                fileWriter.end();
+                fileWriter.close();
+            }
+        } finally
+        {
+            if (root != null)
+            {
+                root.close();
+            }
+
+            allocator.close();
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Writes the buffered rows as a record batch and clears the vectors for the next batch.
+     *
+     * @throws IOException If the batch could not be written.
+     */
+    private void writeBatch() throws IOException
+    {
+        root.setRowCount(batchRow);
+        fileWriter.writeBatch();
+
+        root.clear();
+        root.allocateNew();
+        batchRow = 0;
+    }
+
+    private static ArrowType getArrowType(ExportColumnType columnType)
+    {
+        switch (columnType)
+        {
+            case NUMBER:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case BOOLEAN:
+                return ArrowType.Bool.INSTANCE;
+            case DATE:
+                return new ArrowType.Date(DateUnit.DAY);
+            default:
+                return ArrowType.Utf8.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.chesapeaketechnology.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes files atomically. Files are written to a hidden temporary file beside their destination, forced to disk,
+ * and then renamed over the destination, so a reader or a crash never observes a partially written report or issue
+ * snapshot.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class AtomicFiles
+{
+    static final String TEMP_EXTENSION = ".tmp";
+
+    private AtomicFiles()
+    {
+    }
+
+    /**
+     * Gets the temporary file that {@code target} is written to before it is published. The temporary file is within
+     * the same directory so the rename does not cross file systems.
+     *
+     * @param target The destination of the file.
+     * @return The temporary file to write.
+     */
+    public static File getTempFile(File target)
+    {
+        target.getAbsoluteFile().getParentFile().mkdirs();
+
+        return new File(target.getAbsoluteFile().getParentFile(), "." + target.getName() + TEMP_EXTENSION);
+    }
+
+    /**
+     * Forces a completely written temporary file to disk and renames it to its destination. The directory is then
+     * forced to disk as well so the rename itself survives a crash.
+     *
+     * @param tempFile The temporary file returned by {@link #getTempFile(File)}.
+     * @param target   The destination of the file.
+     * @throws IOException If the file could not be synced or renamed.
+     */
+    public static void publish(File tempFile, File target) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE))
+        {
+            channel.force(true);
+        }
+
+        try
+        {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception)
+        {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        syncDirectory(target.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Forces a directory's entries to disk. Not every platform can open a directory, e.g. Windows, in which case the
+     * rename is left to be flushed by the file system.
+     *
+     * @param directory The directory to sync.
+     */
+    private static void syncDirectory(File directory)
+    {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ))
+        {
+            channel.force(true);
+        } catch (IOException ignored)
+        {
+            // Directories cannot be synced on this platform
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.xssf.usermodel.XSSFChart;
+import org.apache.poi.xssf.usermodel.XSSFDrawing;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.drawingml.x2006.chart.CTChartSpace;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * A fully built chart whose XML is reused for charts that only differ in the cells they plot. Building a chart through
+ * POI's chart API creates many XMLBeans objects per chart, while cloning copies the finished XML in one step and only
+ * rewrites the data references.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ChartTemplate
+{
+    private static final String CHART_NAMESPACE = "declare namespace c='http://schemas.openxmlformats.org/drawingml/2006/chart' ";
+    private static final String DRAWING_NAMESPACE = "declare namespace a='http://schemas.openxmlformats.org/drawingml/2006/main' ";
+
+    private final CTChartSpace chartSpace;
+
+    /**
+     * Captures the XML of a chart. Changes made to {@code prototype} afterwards do not affect the template.
+     *
+     * @param prototype The chart to copy.
+     */
+    ChartTemplate(XSSFChart prototype)
+    {
+        chartSpace = (CTChartSpace) prototype.getCTChartSpace().copy();
+    }
+
+    /**
+     * Creates a copy of the template within a drawing.
+     *
+     * @param drawing         The drawing to add the chart to.
+     * @param anchor          The position of the chart.
+     * @param referenceMapper Maps each data reference of the template to the reference plotted by the new chart.
+     * @param title           The text of the chart's title or {@code null} to keep the template's title.
+     * @return The new chart.
+     */
+    XSSFChart createChart(XSSFDrawing drawing, ClientAnchor anchor, UnaryOperator<AreaReference> referenceMapper,
+                          String title)
+    {
+        XSSFChart chart = drawing.createChart(anchor);
+        CTChartSpace clonedChartSpace = chart.getCTChartSpace();
+
+        clonedChartSpace.set(chartSpace);
+
+        for (XmlObject formula : clonedChartSpace.selectPath(CHART_NAMESPACE + ".//c:f"))
+        {
+            XmlCursor cursor = formula.newCursor();
+            AreaReference reference = referenceMapper.apply(
+                    new AreaReference(cursor.getTextValue(), SpreadsheetVersion.EXCEL2007));
+
+            cursor.setTextValue(reference.isSingleCell()
+                    ? reference.getFirstCell().formatAsString() : reference.formatAsString());
+            cursor.dispose();
+        }
+
+        // Cached values belong to the template's cells and are recalculated by excel from the new references
+        removeAll(clonedChartSpace, CHART_NAMESPACE + ".//c:numCache");
+        removeAll(clonedChartSpace, CHART_NAMESPACE + ".//c:strCache");
+
+        if (title != null)
+        {
+            for (XmlObject text : clonedChartSpace.selectPath(DRAWING_NAMESPACE + ".//a:t"))
+            {
+                XmlCursor cursor = text.newCursor();
+                cursor.setTextValue(title);
+                cursor.dispose();
+            }
+        }
+
+        return chart;
+    }
+
+    private static void removeAll(XmlObject root, String path)
+    {
+        for (XmlObject element : root.selectPath(path))
+        {
+            XmlCursor cursor = element.newCursor();
+            cursor.removeXml();
+            cursor.dispose();
+        }
+    }
+}
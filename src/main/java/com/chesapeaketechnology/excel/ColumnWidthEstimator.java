@@ -0,0 +1,229 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estimates column widths from the number of characters written to each column. Lengths are recorded as rows are
+ * produced so the widths can be applied without {@link Sheet#autoSizeColumn(int)} measuring every cell with AWT font
+ * metrics after the sheet has been populated.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ColumnWidthEstimator
+{
+    private static final int MAX_CHARACTERS = 255;
+    private static final int PADDING_CHARACTERS = 2;
+    private static final int GENERAL_NUMBER_CHARACTERS = 11;
+    private static final int CHARACTER_WIDTH = 256;
+
+    private final Map<Integer, int[]> lengthHistograms = new HashMap<>();
+    private final double percentile;
+
+    /**
+     * Creates an estimator that tracks the lengths of text written to {@code columns}.
+     *
+     * @param percentile The fraction of each column's values, in the range (0, 1], whose text should fit within the
+     *                   column. A value of 1 sizes each column to its longest value.
+     * @param columns    The indices of the columns whose widths should be estimated.
+     */
+    ColumnWidthEstimator(double percentile, int... columns)
+    {
+        this.percentile = percentile;
+
+        for (int column : columns)
+        {
+            lengthHistograms.put(column, new int[MAX_CHARACTERS + 1]);
+        }
+    }
+
+    /**
+     * Records the length of a text value written to a column.
+     *
+     * @param column The index of the column the value was written to.
+     * @param text   The text that was written or {@code null} if the cell is blank.
+     */
+    void record(int column, String text)
+    {
+        int[] histogram = lengthHistograms.get(column);
+
+        if (histogram != null && text != null)
+        {
+            histogram[Math.min(getLongestLineLength(text), MAX_CHARACTERS)]++;
+        }
+    }
+
+    /**
+     * Records the displayed length of a number written to a column using Excel's "General" format.
+     *
+     * @param column The index of the column the value was written to.
+     * @param value  The number that was written.
+     */
+    void record(int column, double value)
+    {
+        if (value == Math.rint(value) && Math.abs(value) < 1e11)
+        {
+            record(column, Long.toString((long) value));
+        } else
+        {
+            int[] histogram = lengthHistograms.get(column);
+
+            if (histogram != null)
+            {
+                histogram[Math.min(String.valueOf(value).length(), GENERAL_NUMBER_CHARACTERS)]++;
+            }
+        }
+    }
+
+    /**
+     * Records the lengths of the values within every tracked column of a row.
+     *
+     * @param row The row whose values were just written.
+     */
+    void record(Row row)
+    {
+        for (Integer column : lengthHistograms.keySet())
+        {
+            Cell cell = row.getCell(column);
+
+            if (cell != null)
+            {
+                switch (cell.getCellType())
+                {
+                    case STRING:
+                        record(column, cell.getStringCellValue());
+                        break;
+                    case NUMERIC:
+                        record(column, cell.getNumericCellValue());
+                        break;
+                    case BOOLEAN:
+                        record(column, String.valueOf(cell.getBooleanCellValue()));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the lengths of the values within every tracked column of a buffered row.
+     *
+     * @param row The row that is about to be written.
+     */
+    void record(SheetRowBuffer row)
+    {
+        for (Integer column : lengthHistograms.keySet())
+        {
+            if (row.hasCell(column))
+            {
+                switch (row.getType(column))
+                {
+                    case SheetRowBuffer.STRING:
+                        record(column, row.getString(column));
+                        break;
+                    case SheetRowBuffer.NUMBER:
+                        record(column, row.getNumber(column));
+                        break;
+                    case SheetRowBuffer.BOOLEAN:
+                        record(column, String.valueOf(row.getBoolean(column)));
+                        break;
+                    case SheetRowBuffer.FORMULA:
+                        record(column, row.getFormulaCachedValue(column));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the estimated width of a column in units of 1/256th of a character.
+     *
+     * @param column The index of the column.
+     * @return The estimated width or -1 if no values were recorded for the column.
+     */
+    int getWidth(int column)
+    {
+        int[] histogram = lengthHistograms.get(column);
+
+        if (histogram == null)
+        {
+            return -1;
+        }
+
+        long total = 0;
+
+        for (int count : histogram)
+        {
+            total += count;
+        }
+
+        if (total == 0)
+        {
+            return -1;
+        }
+
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        int characters = 0;
+
+        for (int length = 0; length <= MAX_CHARACTERS && seen < threshold; length++)
+        {
+            seen += histogram[length];
+            characters = length;
+        }
+
+        return Math.min(characters + PADDING_CHARACTERS, MAX_CHARACTERS) * CHARACTER_WIDTH;
+    }
+
+    /**
+     * Sets the width of every tracked column with recorded values.
+     *
+     * @param sheet The sheet whose columns should be sized.
+     */
+    void apply(Sheet sheet)
+    {
+        for (Integer column : lengthHistograms.keySet())
+        {
+            int width = getWidth(column);
+
+            if (width > 0)
+            {
+                sheet.setColumnWidth(column, width);
+            }
+        }
+    }
+
+    /**
+     * Gets the length of the longest line within {@code text} as wrapped lines are sized independently.
+     *
+     * @param text The text to measure.
+     * @return The number of characters in the longest line.
+     */
+    private static int getLongestLineLength(String text)
+    {
+        int longest = 0;
+        int current = 0;
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            if (text.charAt(i) == '\n')
+            {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else
+            {
+                current++;
+            }
+        }
+
+        return Math.max(longest, current);
+    }
+}
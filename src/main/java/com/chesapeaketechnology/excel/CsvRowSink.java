@@ -0,0 +1,95 @@
+package com.chesapeaketechnology.excel;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports rows as comma separated values. Fields containing a delimiter, quote, or line break are quoted as described
+ * by RFC 4180 and blank cells are written as empty fields.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class CsvRowSink extends AExportRowSink
+{
+    private final Writer writer;
+
+    /**
+     * Creates a sink backed by {@code file}.
+     *
+     * @param file        The file to write.
+     * @param columnTypes The type of each exported column.
+     * @throws IOException If the file could not be created.
+     */
+    CsvRowSink(File file, ExportColumnType[] columnTypes) throws IOException
+    {
+        super(file, columnTypes);
+
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                64 * 1024);
+    }
+
+    @Override
+    void writeHeader() throws IOException
+    {
+        for (int column = 0; column < columnNames.length; column++)
+        {
+            writeField(column, columnNames[column]);
+        }
+
+        writer.write("\r\n");
+    }
+
+    @Override
+    void writeValues(SheetRowBuffer row) throws IOException
+    {
+        for (int column = 0; column < columnTypes.length; column++)
+        {
+            writeField(column, getText(row, column));
+        }
+
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+
+    private void writeField(int column, String value) throws IOException
+    {
+        if (column > 0)
+        {
+            writer.write(',');
+        }
+
+        if (value == null)
+        {
+            return;
+        }
+
+        boolean quote = false;
+
+        for (int i = 0; i < value.length() && !quote; i++)
+        {
+            char character = value.charAt(i);
+            quote = character == ',' || character == '"' || character == '\n' || character == '\r';
+        }
+
+        if (quote)
+        {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else
+        {
+            writer.write(value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.chesapeaketechnology.excel;
+
+/**
+ * The ways that sprint metrics are charted on the "Team Metrics" tab.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public enum DeveloperChartMode
+{
+    /**
+     * A chart is placed beside each developer's rows and beside the team's rows.
+     */
+    PER_DEVELOPER,
+
+    /**
+     * A single chart plots the rows of the developer or team chosen from a drop down list, which keeps the workbook
+     * small when there are many developers.
+     */
+    SELECTOR
+}
@@ -3,10 +3,15 @@ package com.chesapeaketechnology.excel;
 import com.chesapeaketechnology.JiraRestClient;
 import net.rcarz.jiraclient.Issue;
 import net.rcarz.jiraclient.User;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.DataValidation;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.AreaReference;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xddf.usermodel.chart.AxisCrosses;
 import org.apache.poi.xddf.usermodel.chart.AxisPosition;
 import org.apache.poi.xddf.usermodel.chart.ChartTypes;
@@ -17,9 +22,9 @@ import org.apache.poi.xddf.usermodel.chart.XDDFDataSourcesFactory;
 import org.apache.poi.xddf.usermodel.chart.XDDFNumericalDataSource;
 import org.apache.poi.xddf.usermodel.chart.XDDFValueAxis;
 import org.apache.poi.xssf.usermodel.XSSFChart;
+import org.apache.poi.xssf.usermodel.XSSFDataValidationHelper;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTBoolean;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTLineSer;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTMarker;
@@ -36,12 +41,14 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -55,6 +62,8 @@ import java.util.stream.Collectors;
  */
 class DeveloperExcelFileWriter extends AExcelFileWriter
 {
+    static final String SHEET_NAME = "Team Metrics";
+
     private static final int DEVELOPER_COLUMN = 0;
     private static final int SPRINT_COLUMN = 1;
     private static final int SPRINT_COMMITMENT_COLUMN = 2;
@@ -63,8 +72,16 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
     private static final int AVERAGE_TICKET_SIZE_COLUMN = 5;
     private static final int COMMITMENT_DELTA_SIZE_COLUMN = 6;
     private static final int NUMBER_OF_ROWS_PER_DEVELOPER = 25;
+    private static final int CHART_SELECTOR_COLUMN = COMMITMENT_DELTA_SIZE_COLUMN + 2;
+    private static final int CHART_DATA_COLUMN = CHART_SELECTOR_COLUMN + 14;
+    private static final int CHART_INDEX_COLUMN = CHART_DATA_COLUMN + 6;
+    private static final String TEAM_NAME = "Team";
 
     private final XSSFSheet developerSheet;
+    private ColumnWidthEstimator columnWidthEstimator;
+    private final DeveloperChartMode chartMode;
+    private final Map<String, int[]> chartBlocks = new LinkedHashMap<>();
+    private ChartTemplate lineChartTemplate;
     private final SimpleDateFormat jiraDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
     private final SimpleDateFormat sprintStartDateFormat = new SimpleDateFormat("MM/yy (W)");
 
@@ -73,34 +90,31 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
     /**
      * Initializes an excel sheet to store developer analytic information.
      *
-     * @param workbook          High level representation of a SpreadsheetML workbook.
-     * @param initiativeEpicMap Map of initiative issues to the epics that compose them.
-     * @param epicStoryMap      Map of epic issues to the user stories that compose them.
+     * @param context The workbook, analytics, and settings of the report being generated.
      */
-    DeveloperExcelFileWriter(XSSFWorkbook workbook, Map<Issue, List<Issue>> initiativeEpicMap,
-                             Map<Issue, List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap)
+    DeveloperExcelFileWriter(SheetContext context)
     {
-        super(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        super(context);
 
-        developerSheet = workbook.createSheet("Team Metrics");
+        chartMode = context.getDeveloperChartMode();
+        developerSheet = workbook.createSheet(SHEET_NAME);
     }
 
     /**
      * Adds metadata about developers jira ticket loads and completion rates across multiple sprints.
      */
-    void createJIRAReport()
+    @Override
+    public void writeSheet()
     {
         developerSheet.setRowSumsBelow(false);
 
+        columnWidthEstimator = new ColumnWidthEstimator(columnWidthPercentile, DEVELOPER_COLUMN, SPRINT_COLUMN,
+                SPRINT_COMMITMENT_COLUMN, COMPLETED_POINTS_COLUMN, POINTS_ADDED_COLUMN, AVERAGE_TICKET_SIZE_COLUMN,
+                COMMITMENT_DELTA_SIZE_COLUMN);
+
         configureDeveloperSheet();
 
-        developerSheet.autoSizeColumn(DEVELOPER_COLUMN);
-        developerSheet.autoSizeColumn(SPRINT_COLUMN);
-        developerSheet.autoSizeColumn(SPRINT_COMMITMENT_COLUMN, true);
-        developerSheet.autoSizeColumn(COMPLETED_POINTS_COLUMN, true);
-        developerSheet.autoSizeColumn(POINTS_ADDED_COLUMN, true);
-        developerSheet.autoSizeColumn(AVERAGE_TICKET_SIZE_COLUMN, true);
-        developerSheet.autoSizeColumn(COMMITMENT_DELTA_SIZE_COLUMN, true);
+        columnWidthEstimator.apply(developerSheet);
     }
 
     /**
@@ -129,6 +143,8 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
         {
             titleRow.getCell(i).setCellStyle(titleStyle);
         }
+
+        columnWidthEstimator.record(titleRow);
     }
 
     /**
@@ -141,7 +157,7 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
 
         addDeveloperHeaders();
 
-        List<Map.Entry<String, Date>> entries = new ArrayList<>(sprintDateMap.entrySet());
+        List<Map.Entry<String, Date>> entries = new ArrayList<>(analytics.getSprintDateMap().entrySet());
 
         List<String> sprints = new ArrayList<>();
 
@@ -152,17 +168,18 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
             Row excelRow = developerSheet.createRow(row);
 
             excelRow.createCell(DEVELOPER_COLUMN).setCellValue(username);
+            columnWidthEstimator.record(DEVELOPER_COLUMN, username);
 
             for (Map.Entry<String, Date> entry : entries)
             {
-                if (sprintDateMap.containsKey(entry.getKey()))
+                if (analytics.getSprintDateMap().containsKey(entry.getKey()))
                 {
                     if (!sprints.contains(entry.getKey()))
                     {
                         sprints.add(entry.getKey());
                     }
 
-                    Collection<Issue> filteredIssues = getUserSpecificIssues(username, sprintStoryBreakdown.get(entry.getKey()));
+                    Collection<Issue> filteredIssues = getUserSpecificIssues(username, analytics.getSprintStoryBreakdown().get(entry.getKey()));
 
                     if (filteredIssues.size() > 0)
                     {
@@ -181,7 +198,7 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
                         Cell deltaCell = excelRow.createCell(COMMITMENT_DELTA_SIZE_COLUMN);
 
                         Calendar sprintStartCalendar = Calendar.getInstance();
-                        sprintStartCalendar.setTime(sprintDateMap.get(entry.getKey()));
+                        sprintStartCalendar.setTime(analytics.getSprintDateMap().get(entry.getKey()));
                         sprintStartCalendar.add(Calendar.DAY_OF_WEEK, 1);
 
                         Collection<Issue> originalIssues = getOriginalIssues(filteredIssues, entry.getKey(), sprintStartCalendar.getTime());
@@ -197,13 +214,20 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
                         pointsAddedCell.setCellValue(numStoryPointsAdded);
                         averageCell.setCellValue(Double.parseDouble(decimalFormat.format(averageTicketSize)));
                         deltaCell.setCellValue(delta);
+
+                        columnWidthEstimator.record(SPRINT_COLUMN, sprintCell.getStringCellValue());
+                        columnWidthEstimator.record(SPRINT_COMMITMENT_COLUMN, numStoryPointsAtStart);
+                        columnWidthEstimator.record(COMPLETED_POINTS_COLUMN, numStoryPointsCompleted);
+                        columnWidthEstimator.record(POINTS_ADDED_COLUMN, numStoryPointsAdded);
+                        columnWidthEstimator.record(AVERAGE_TICKET_SIZE_COLUMN, averageCell.getNumericCellValue());
+                        columnWidthEstimator.record(COMMITMENT_DELTA_SIZE_COLUMN, delta);
                     }
                 }
             }
 
             if (developerSheet.getLastRowNum() > 1)
             {
-                generateLineChart(startingRow);
+                addChart(username, startingRow);
             }
 
             //Create groups of rows to add a buffer between user's data
@@ -213,9 +237,14 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
             }
         }
 
-        List<String> sprintDates = sprintDateMap.values().stream().map(sprintStartDateFormat::format).collect(Collectors.toList());
+        List<String> sprintDates = analytics.getSprintDateMap().values().stream().map(sprintStartDateFormat::format).collect(Collectors.toList());
 
         addTeamMetricsData(sprintDates, row);
+
+        if (chartMode == DeveloperChartMode.SELECTOR && !chartBlocks.isEmpty())
+        {
+            addChartSelector();
+        }
     }
 
     private void addTeamMetricsData(List<String> sprintDates, int row)
@@ -229,7 +258,7 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
 
                 if (i == 0)
                 {
-                    excelRow.createCell(DEVELOPER_COLUMN).setCellValue("Team");
+                    excelRow.createCell(DEVELOPER_COLUMN).setCellValue(TEAM_NAME);
                 }
 
                 Cell sprintCell = excelRow.createCell(SPRINT_COLUMN);
@@ -247,9 +276,11 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
                 pointsAddedCell.setCellValue(getSumOfSprintValues(sprintName, POINTS_ADDED_COLUMN, row));
                 averageCell.setCellValue(getAverageTicketSizeForSprint(sprintName, AVERAGE_TICKET_SIZE_COLUMN, row));
                 deltaCell.setCellValue(getSumOfSprintValues(sprintName, COMMITMENT_DELTA_SIZE_COLUMN, row));
+
+                columnWidthEstimator.record(excelRow);
             }
 
-            generateLineChart(row);
+            addChart(TEAM_NAME, row);
         }
     }
 
@@ -319,17 +350,18 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
     /**
      * Get a unique set of user's display names that are assigned to active tickets.
      *
-     * @return A unique set of user's display names that are assigned to active tickets.
+     * @return A unique set of user's display names that are assigned to active tickets, sorted so that developers are
+     * always written in the same order.
      */
     private Set<String> getUsernames()
     {
-        return sprintStoryBreakdown.values().stream()
+        return analytics.getSprintStoryBreakdown().values().stream()
                 .flatMap(Collection::stream)
                 .filter(this::containsActiveLabels)
                 .map(Issue::getAssignee)
                 .filter(Objects::nonNull)
                 .map(User::getDisplayName)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(TreeSet::new));
     }
 
     /**
@@ -344,16 +376,166 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
     }
 
     /**
-     * Draws a line chart using a combination of metadata and data from excel rows.
+     * Charts a block of sprint rows. In {@link DeveloperChartMode#SELECTOR} mode the block is only recorded so that it
+     * can be chosen from the sheet's single chart.
      *
-     * @param dataStartingRow The first row that data should be pulled from.
+     * @param name            The name of the developer or team the rows belong to.
+     * @param dataStartingRow The first row of the block.
      */
-    private void generateLineChart(int dataStartingRow)
+    private void addChart(String name, int dataStartingRow)
+    {
+        int lastRow = dataStartingRow;
+
+        while (!isRowEmpty(lastRow))
+        {
+            lastRow++;
+        }
+
+        lastRow -= 1;
+
+        if (chartMode == DeveloperChartMode.SELECTOR)
+        {
+            if (lastRow >= dataStartingRow)
+            {
+                chartBlocks.put(name, new int[]{dataStartingRow, lastRow - dataStartingRow + 1});
+            }
+        } else
+        {
+            generateLineChart(dataStartingRow, lastRow);
+        }
+    }
+
+    /**
+     * Adds a line chart beside a block of sprint rows. The first chart is built through POI's chart API and every
+     * following chart is cloned from it with only its data references changed.
+     *
+     * @param dataStartingRow The first row of the block.
+     * @param lastRow         The last row of the block.
+     */
+    private void generateLineChart(int dataStartingRow, int lastRow)
     {
         XSSFDrawing drawing = developerSheet.createDrawingPatriarch();
         ClientAnchor anchor = drawing.createAnchor(0, 0, 0, 0, COMMITMENT_DELTA_SIZE_COLUMN + 2, dataStartingRow,
                 AVERAGE_TICKET_SIZE_COLUMN + 15, dataStartingRow + 19);
 
+        if (lineChartTemplate == null)
+        {
+            lineChartTemplate = new ChartTemplate(buildLineChart(drawing, anchor, dataStartingRow, lastRow, 0));
+        } else
+        {
+            String sheetName = developerSheet.getSheetName();
+
+            lineChartTemplate.createChart(drawing, anchor, reference -> new AreaReference(
+                    new CellReference(sheetName, dataStartingRow, reference.getFirstCell().getCol(), true, true),
+                    new CellReference(sheetName, lastRow, reference.getLastCell().getCol(), true, true),
+                    SpreadsheetVersion.EXCEL2007), null);
+        }
+    }
+
+    /**
+     * Adds a single chart whose data is chosen with a drop down list instead of a chart per developer. A lookup table
+     * records where each developer's rows are and a block of formulas copies the chosen rows into the cells the chart
+     * plots.
+     */
+    private void addChartSelector()
+    {
+        String sheetName = developerSheet.getSheetName();
+        int lastIndexRow = chartBlocks.size();
+        int chartRows = chartBlocks.values().stream().mapToInt(block -> block[1]).max().orElse(0);
+
+        Row headerRow = developerSheet.getRow(0);
+        Cell selectorLabelCell = headerRow.createCell(CHART_SELECTOR_COLUMN);
+        Cell selectorCell = headerRow.createCell(CHART_SELECTOR_COLUMN + 1);
+
+        selectorLabelCell.setCellValue("Chart");
+        selectorLabelCell.setCellStyle(titleStyle);
+        selectorCell.setCellValue(chartBlocks.containsKey(TEAM_NAME) ? TEAM_NAME : chartBlocks.keySet().iterator().next());
+
+        String[] indexHeaders = {"Name", "First Row", "Rows"};
+
+        for (int column = 0; column < indexHeaders.length; column++)
+        {
+            Cell cell = headerRow.createCell(CHART_INDEX_COLUMN + column);
+            cell.setCellValue(indexHeaders[column]);
+            cell.setCellStyle(titleStyle);
+        }
+
+        int indexRow = 1;
+
+        for (Map.Entry<String, int[]> block : chartBlocks.entrySet())
+        {
+            Row row = getOrCreateRow(indexRow++);
+
+            row.createCell(CHART_INDEX_COLUMN).setCellValue(block.getKey());
+            row.createCell(CHART_INDEX_COLUMN + 1).setCellValue(block.getValue()[0] + 1);
+            row.createCell(CHART_INDEX_COLUMN + 2).setCellValue(block.getValue()[1]);
+        }
+
+        String selector = new CellReference(0, CHART_SELECTOR_COLUMN + 1, true, true).formatAsString();
+        String index = new AreaReference(new CellReference(1, CHART_INDEX_COLUMN, true, true),
+                new CellReference(lastIndexRow, CHART_INDEX_COLUMN + 2, true, true),
+                SpreadsheetVersion.EXCEL2007).formatAsString();
+        String firstRow = "VLOOKUP(" + selector + "," + index + ",2,FALSE)";
+        String rowCount = "VLOOKUP(" + selector + "," + index + ",3,FALSE)";
+
+        for (int column = SPRINT_COLUMN; column <= AVERAGE_TICKET_SIZE_COLUMN; column++)
+        {
+            Cell headerCell = headerRow.createCell(CHART_DATA_COLUMN + column - SPRINT_COLUMN);
+            headerCell.setCellValue(headerRow.getCell(column).getStringCellValue());
+            headerCell.setCellStyle(titleStyle);
+
+            String columnName = CellReference.convertNumToColString(column);
+            String missingValue = column == SPRINT_COLUMN ? "\"\"" : "NA()";
+
+            for (int offset = 0; offset < chartRows; offset++)
+            {
+                Cell cell = getOrCreateRow(offset + 1).createCell(CHART_DATA_COLUMN + column - SPRINT_COLUMN);
+
+                cell.setCellFormula("IF(" + offset + "<" + rowCount + ",INDEX($" + columnName + ":$" + columnName + ","
+                        + firstRow + "+" + offset + ")," + missingValue + ")");
+            }
+        }
+
+        XSSFDataValidationHelper validationHelper = new XSSFDataValidationHelper(developerSheet);
+        DataValidation validation = validationHelper.createValidation(
+                validationHelper.createFormulaListConstraint(new AreaReference(
+                        new CellReference(sheetName, 1, CHART_INDEX_COLUMN, true, true),
+                        new CellReference(sheetName, lastIndexRow, CHART_INDEX_COLUMN, true, true),
+                        SpreadsheetVersion.EXCEL2007).formatAsString()),
+                new CellRangeAddressList(0, 0, CHART_SELECTOR_COLUMN + 1, CHART_SELECTOR_COLUMN + 1));
+        validation.setSuppressDropDownArrow(true);
+        developerSheet.addValidationData(validation);
+
+        XSSFDrawing drawing = developerSheet.createDrawingPatriarch();
+        ClientAnchor anchor = drawing.createAnchor(0, 0, 0, 0, CHART_SELECTOR_COLUMN, 2,
+                CHART_SELECTOR_COLUMN + 13, 21);
+
+        buildLineChart(drawing, anchor, 1, chartRows, CHART_DATA_COLUMN - SPRINT_COLUMN);
+
+        // The copied values are only calculated by excel
+        workbook.setForceFormulaRecalculation(true);
+    }
+
+    private Row getOrCreateRow(int rowIndex)
+    {
+        Row row = developerSheet.getRow(rowIndex);
+
+        return row == null ? developerSheet.createRow(rowIndex) : row;
+    }
+
+    /**
+     * Builds a line chart of the sprint columns through POI's chart API.
+     *
+     * @param drawing         The drawing to add the chart to.
+     * @param anchor          The position of the chart.
+     * @param dataStartingRow The first row of the plotted data.
+     * @param lastRow         The last row of the plotted data.
+     * @param columnOffset    The distance of the plotted columns from the sprint columns of the sheet.
+     * @return The new chart.
+     */
+    private XSSFChart buildLineChart(XSSFDrawing drawing, ClientAnchor anchor, int dataStartingRow, int lastRow,
+                                     int columnOffset)
+    {
         XSSFChart chart = drawing.createChart(anchor);
 
         XDDFChartLegend legend = chart.getOrAddLegend();
@@ -365,25 +547,16 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
 
         valueAxis.setCrosses(AxisCrosses.AUTO_ZERO);
 
-        int lastRow = dataStartingRow;
-
-        while (!isRowEmpty(lastRow))
-        {
-            lastRow++;
-        }
-
-        lastRow -= 1;
-
         XDDFNumericalDataSource<?> sprintDataSource = XDDFDataSourcesFactory.fromNumericCellRange(developerSheet,
-                new CellRangeAddress(dataStartingRow, lastRow, SPRINT_COLUMN, SPRINT_COLUMN));
+                new CellRangeAddress(dataStartingRow, lastRow, SPRINT_COLUMN + columnOffset, SPRINT_COLUMN + columnOffset));
         XDDFNumericalDataSource<Double> completedDataSource = XDDFDataSourcesFactory.fromNumericCellRange(developerSheet,
-                new CellRangeAddress(dataStartingRow, lastRow, COMPLETED_POINTS_COLUMN, COMPLETED_POINTS_COLUMN));
+                new CellRangeAddress(dataStartingRow, lastRow, COMPLETED_POINTS_COLUMN + columnOffset, COMPLETED_POINTS_COLUMN + columnOffset));
         XDDFNumericalDataSource<Double> commitmentDataSource = XDDFDataSourcesFactory.fromNumericCellRange(developerSheet,
-                new CellRangeAddress(dataStartingRow, lastRow, SPRINT_COMMITMENT_COLUMN, SPRINT_COMMITMENT_COLUMN));
+                new CellRangeAddress(dataStartingRow, lastRow, SPRINT_COMMITMENT_COLUMN + columnOffset, SPRINT_COMMITMENT_COLUMN + columnOffset));
         XDDFNumericalDataSource<Double> pointsAddedDataSource = XDDFDataSourcesFactory.fromNumericCellRange(developerSheet,
-                new CellRangeAddress(dataStartingRow, lastRow, POINTS_ADDED_COLUMN, POINTS_ADDED_COLUMN));
+                new CellRangeAddress(dataStartingRow, lastRow, POINTS_ADDED_COLUMN + columnOffset, POINTS_ADDED_COLUMN + columnOffset));
         XDDFNumericalDataSource<Double> averageTicketSizeSource = XDDFDataSourcesFactory.fromNumericCellRange(developerSheet,
-                new CellRangeAddress(dataStartingRow, lastRow, AVERAGE_TICKET_SIZE_COLUMN, AVERAGE_TICKET_SIZE_COLUMN));
+                new CellRangeAddress(dataStartingRow, lastRow, AVERAGE_TICKET_SIZE_COLUMN + columnOffset, AVERAGE_TICKET_SIZE_COLUMN + columnOffset));
 
         XDDFChartData.Series completedSeries = chartData.addSeries(sprintDataSource, completedDataSource);
         XDDFChartData.Series commitmentSeries = chartData.addSeries(sprintDataSource, commitmentDataSource);
@@ -423,6 +596,8 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
         {
             ser.setMarker(ctMarker);
         }
+
+        return chart;
     }
 
     private boolean isRowEmpty(int rowNum)
@@ -478,8 +653,7 @@ class DeveloperExcelFileWriter extends AExcelFileWriter
      */
     private long getCompletionDateMilliseconds(Issue issue, String sprintName)
     {
-        String customSprintId = fieldCustomIdMap.get(JiraRestClient.SPRINT_KEY);
-        List<Properties> properties = JiraRestClient.getSprintProperties(issue, customSprintId);
+        List<Properties> properties = analytics.getSprints(issue);
 
         jiraDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 
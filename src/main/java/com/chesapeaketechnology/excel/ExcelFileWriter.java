@@ -1,14 +1,40 @@
 package com.chesapeaketechnology.excel;
 
+import com.chesapeaketechnology.metrics.PhaseTimer;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.IReportListener;
 import net.rcarz.jiraclient.Issue;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 
 /**
  * Writes JIRA analytic information to an excel file.
@@ -20,18 +46,17 @@ public class ExcelFileWriter
 {
     private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private MasterExcelFileWriter masterExcelFileWriter;
-    private DeveloperExcelFileWriter developerExcelFileWriter;
-    private SummaryExcelFileWriter summaryExcelFileWriter;
-    private XSSFWorkbook workbook;
-    private boolean includeMasterReport = true;
-    private boolean includeDeveloperMetrics = true;
-    private boolean includeSummaryMetrics = true;
+    private final XSSFWorkbook workbook;
+    private final SheetContext sheetContext;
+    private final SheetWriterRegistry sheetWriterRegistry = SheetWriterRegistry.createDefault();
+    private final List<IReportListener> reportListeners = new CopyOnWriteArrayList<>();
 
     private String fileName = "JIRA_Report";
+    private ShardMode shardMode = ShardMode.INITIATIVE;
+    private int maxRowsPerShard = 0;
 
     /**
-     * Initializes an excel workbook and creates the sheets that will show analytics within it.
+     * Initializes an excel workbook whose sheets will show analytics of the given issues.
      *
      * @param initiativeEpicMap A mapping of initiatives to epics.
      * @param epicStoryMap      A mapping of epics to user stories.
@@ -39,16 +64,33 @@ public class ExcelFileWriter
     public ExcelFileWriter(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue,
             List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap)
     {
-        try
-        {
-            workbook = new XSSFWorkbook();
-            developerExcelFileWriter = new DeveloperExcelFileWriter(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
-            masterExcelFileWriter = new MasterExcelFileWriter(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
-            summaryExcelFileWriter = new SummaryExcelFileWriter(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
-        } catch (Exception exception)
-        {
-            logger.warn("Failed to construct workbook: ", exception);
-        }
+        this(new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap));
+    }
+
+    /**
+     * Initializes an excel workbook whose sheets will show the given analytics. Sharing one {@link ReportAnalytics}
+     * between reports generated from the same issues avoids computing the analytics more than once.
+     *
+     * @param analytics The issues and derived analytics to report on.
+     */
+    public ExcelFileWriter(ReportAnalytics analytics)
+    {
+        workbook = new XSSFWorkbook();
+        sheetContext = new SheetContext(workbook, analytics);
+    }
+
+    /**
+     * Initializes an excel workbook holding a shard of another report.
+     *
+     * @param settings The context of the report being sharded.
+     * @param shard    The initiatives and epics within the shard.
+     */
+    private ExcelFileWriter(SheetContext settings, ReportShard shard)
+    {
+        workbook = new XSSFWorkbook();
+        sheetContext = new SheetContext(workbook, settings);
+        sheetContext.setActiveData(shard.getInitiatives(), shard.getActiveEpics(settings.getActiveEpics()),
+                settings.getActiveSprints(), settings.getActiveLabels(), settings.getPresenceChecks());
     }
 
     /**
@@ -69,69 +111,455 @@ public class ExcelFileWriter
                               Collection<String> activeSprints, Collection<String> activeLabels,
                               List<String> presenceChecks)
     {
-        developerExcelFileWriter.setActiveData(activeInitiatives, activeEpics, activeSprints, activeLabels, presenceChecks);
-        masterExcelFileWriter.setActiveData(activeInitiatives, activeEpics, activeSprints, activeLabels, presenceChecks);
-        summaryExcelFileWriter.setActiveData(activeInitiatives, activeEpics, activeSprints, activeLabels, presenceChecks);
+        sheetContext.setActiveData(activeInitiatives, activeEpics, activeSprints, activeLabels, presenceChecks);
     }
 
     /**
      * Writes the content to the excel report file. To configure which tabs are included in the report use
      * {@link #setIncludeMasterReport(boolean)}, {@link #setIncludeDeveloperMetrics(boolean)},
-     * {@link #setIncludeSummaryMetrics(boolean)}. To configure what content is included within each of the
-     * tabs use {@link #setActiveData(Collection, Collection, Collection, Collection, List)}.
+     * {@link #setIncludeSummaryMetrics(boolean)}, or {@link #getSheetWriterRegistry()}. To configure what content is
+     * included within each of the tabs use {@link #setActiveData(Collection, Collection, Collection, Collection, List)}.
+     * <p>
+     * When the "master" tab would not fit within a single sheet, or within the budget set by
+     * {@link #setSharding(ShardMode, int)}, its rows are written concurrently to several shard workbooks and the report
+     * file instead starts with a tab linking to each shard.
+     * <p>
+     * Failures are logged rather than thrown.
      */
     public void createJIRAReport()
+    {
+        try
+        {
+            createJIRAReport(Runnable::run).join();
+        } catch (CompletionException exception)
+        {
+            // The failure has already been logged
+        }
+    }
+
+    /**
+     * Populates the report's workbooks on the calling thread and writes their files on {@code outputExecutor}, which
+     * allows the next report to be populated while the files of this report are compressed and written to disk. Each
+     * file is written to a temporary file and renamed into place once complete, so a failed report never replaces or
+     * corrupts an existing file.
+     *
+     * @param outputExecutor Writes the report's files.
+     * @return Completes with every file of the report once they have all been written, or exceptionally if the report
+     * could not be created. Failures are logged before the future completes.
+     * @see #createJIRAReport()
+     */
+    public CompletableFuture<List<File>> createJIRAReport(Executor outputExecutor)
     {
         logger.info("Attempting to create Excel file");
 
+        ExecutorService shardExecutor = null;
+        // Each shard stages its files and returns them, they are only published together with the index
+        List<Future<Map<File, File>>> shardFutures = new ArrayList<>();
+        AtomicBoolean reportFailed = new AtomicBoolean();
+
+        try
+        {
+            DateTimeFormatter timeStampPattern = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+            String timeStamp = timeStampPattern.format(java.time.LocalDateTime.now());
+
+            List<ISheetWriterFactory> factories = sheetWriterRegistry.getEnabledFactories();
+            Set<ReportAnalytics.Input> requiredInputs = EnumSet.noneOf(ReportAnalytics.Input.class);
+
+            factories.forEach(factory -> requiredInputs.addAll(factory.getRequiredInputs()));
+            sheetContext.getAnalytics().prepare(requiredInputs);
+
+            File reportFile = getReportFile(timeStamp, "");
+            sheetContext.setReportFile(reportFile);
+
+            List<ReportShard> shards = planShards(factories);
+
+            if (!shards.isEmpty())
+            {
+                shardExecutor = Executors.newFixedThreadPool(
+                        Math.min(shards.size(), Runtime.getRuntime().availableProcessors()));
+
+                List<ISheetWriterFactory> shardFactories = factories.stream()
+                        .filter(factory -> factory.getSheetName().equals(MasterExcelFileWriter.SHEET_NAME))
+                        .collect(Collectors.toList());
+
+                for (ReportShard shard : shards)
+                {
+                    ExcelFileWriter shardWriter = new ExcelFileWriter(sheetContext, shard);
+
+                    // Shards report their sheets under the name of the report they belong to
+                    shardWriter.fileName = fileName;
+                    shardWriter.reportListeners.addAll(reportListeners);
+                    shard.setFile(getReportFile(timeStamp, " - Part " + shard.getNumber()));
+                    shardWriter.sheetContext.setReportFile(shard.getFile());
+                    shardFutures.add(shardExecutor.submit(() -> {
+                        if (reportFailed.get())
+                        {
+                            return Collections.<File, File>emptyMap();
+                        }
+
+                        logger.info("Writing shard {} of {}", shard.getNumber(), shards.size());
+
+                        try
+                        {
+                            shardWriter.populateWorkbook(shardFactories);
+                            shardWriter.stageWorkbook(shard.getFile());
+
+                            return new LinkedHashMap<>(shardWriter.sheetContext.getStagedFiles());
+                        } catch (Exception exception)
+                        {
+                            shardWriter.discardStagedFiles();
+                            throw exception;
+                        }
+                    }));
+                }
+
+                factories.removeAll(shardFactories);
+                factories.add(0, new SheetWriterFactory(ShardIndexExcelFileWriter.SHEET_NAME,
+                        EnumSet.noneOf(ReportAnalytics.Input.class),
+                        context -> new ShardIndexExcelFileWriter(context, shards)));
+            }
+
+            populateWorkbook(factories);
+
+            CompletableFuture<List<File>> reportFuture = CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    // The shards are published with the index so no part is published without an index linking it
+                    for (Future<Map<File, File>> shardFuture : shardFutures)
+                    {
+                        sheetContext.getStagedFiles().putAll(shardFuture.get());
+                    }
+
+                    logger.info("Preparing to write excel file");
+                    List<File> files = writeReportFiles(reportFile);
+
+                    logger.info("Successfully finished writing Excel file");
+
+                    return files;
+                } catch (Exception exception)
+                {
+                    discardShards(shardFutures, reportFailed);
+                    discardStagedFiles();
+                    throw new CompletionException(exception);
+                }
+            }, outputExecutor);
+
+            reportFuture.whenComplete((files, throwable) -> {
+                if (throwable != null)
+                {
+                    logger.warn("Failed to create JIRA Report: ", throwable);
+                }
+            });
+
+            return reportFuture;
+        } catch (Exception exception)
+        {
+            logger.warn("Failed to create JIRA Report: ", exception);
+
+            discardShards(shardFutures, reportFailed);
+            discardStagedFiles();
+
+            CompletableFuture<List<File>> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(exception);
+
+            return failedFuture;
+        } finally
+        {
+            if (shardExecutor != null)
+            {
+                // Shards that are still being written finish before the pool's threads exit
+                shardExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates and populates the sheets of the workbook.
+     *
+     * @param factories The factories of the sheets to include in tab order.
+     * @throws Exception If a sheet could not be written.
+     */
+    private void populateWorkbook(List<ISheetWriterFactory> factories) throws Exception
+    {
+        ExecutorService sheetExecutor = null;
+        Map<ISheetWriter, Future<Void>> concurrentWriters = new LinkedHashMap<>();
+        boolean populated = false;
+
         try
         {
-            if (includeSummaryMetrics)
+            // Writers are created in registry order so their sheets appear in that order
+            Map<ISheetWriter, String> sheetWriters = new LinkedHashMap<>();
+
+            for (ISheetWriterFactory factory : factories)
             {
-                logger.info("Including goal summary information in excel file");
+                logger.info("Including {} in excel file", factory.getSheetName());
+
+                sheetWriters.put(factory.create(sheetContext), factory.getSheetName());
+            }
+
+            // The time each concurrent sheet spent being prepared, written, and finished, excluding time spent waiting
+            Map<ISheetWriter, Long> concurrentNanos = new ConcurrentHashMap<>();
+            // Flight recorder events of the concurrent sheets, which span from preparing the sheet to finishing it
+            Map<ISheetWriter, PhaseTimer> concurrentEvents = new LinkedHashMap<>();
 
-                summaryExcelFileWriter.generateReport();
-            } else
+            for (ISheetWriter sheetWriter : sheetWriters.keySet())
             {
-                logger.info("Clearing goal summary information in excel file");
+                if (sheetWriter.isConcurrent())
+                {
+                    if (sheetExecutor == null)
+                    {
+                        sheetExecutor = Executors.newCachedThreadPool();
+                    }
 
-                workbook.removeSheetAt(0);
+                    long prepareStart = System.nanoTime();
+
+                    notifySheetStarted(sheetWriters.get(sheetWriter));
+                    concurrentEvents.put(sheetWriter, RunMetrics.getDefault()
+                            .trace("sheet", fileName + "/" + sheetWriters.get(sheetWriter)));
+                    sheetWriter.prepareSheet();
+                    concurrentNanos.put(sheetWriter, System.nanoTime() - prepareStart);
+                    concurrentWriters.put(sheetWriter, sheetExecutor.submit(() -> {
+                        long writeStart = System.nanoTime();
+
+                        sheetWriter.writeSheet();
+                        concurrentNanos.merge(sheetWriter, System.nanoTime() - writeStart, Long::sum);
+                        return null;
+                    }));
+                }
             }
 
-            if (includeDeveloperMetrics)
+            for (Map.Entry<ISheetWriter, String> sheetWriter : sheetWriters.entrySet())
             {
-                logger.info("Including individual metrics in excel file");
+                if (!sheetWriter.getKey().isConcurrent())
+                {
+                    long sheetStart = System.nanoTime();
+
+                    notifySheetStarted(sheetWriter.getValue());
+
+                    try (PhaseTimer timer = RunMetrics.getDefault()
+                            .start("sheet", fileName + "/" + sheetWriter.getValue()))
+                    {
+                        sheetWriter.getKey().prepareSheet();
+                        sheetWriter.getKey().writeSheet();
+                        sheetWriter.getKey().finishSheet();
+                        describeSheet(timer, sheetWriter.getKey(), sheetWriter.getValue());
+                    }
 
-                developerExcelFileWriter.createJIRAReport();
-            } else
+                    notifySheetFinished(sheetWriter.getValue(), System.nanoTime() - sheetStart);
+                }
+            }
+
+            for (Map.Entry<ISheetWriter, Future<Void>> concurrentWriter : concurrentWriters.entrySet())
             {
-                logger.info("Clearing the individual metrics sheet from the excel file");
+                concurrentWriter.getValue().get();
+
+                long finishStart = System.nanoTime();
+
+                concurrentWriter.getKey().finishSheet();
+
+                String sheetName = sheetWriters.get(concurrentWriter.getKey());
+                long sheetNanos = concurrentNanos.get(concurrentWriter.getKey()) + System.nanoTime() - finishStart;
 
-                workbook.removeSheetAt(1);
+                RunMetrics.getDefault().record("sheet", fileName + "/" + sheetName, sheetNanos, 0, 0);
+
+                try (PhaseTimer event = concurrentEvents.get(concurrentWriter.getKey()))
+                {
+                    describeSheet(event, concurrentWriter.getKey(), sheetName);
+                }
+
+                notifySheetFinished(sheetName, sheetNanos);
             }
 
-            if (includeMasterReport)
+            populated = true;
+        } finally
+        {
+            if (!populated)
             {
-                logger.info("Including master report information in excel file");
+                // The sheets still being written are waited for so none of them writes to a streamed sheet once it is
+                // disposed
+                awaitSheets(concurrentWriters.values());
+                disposeStreamedSheets();
+            }
 
-                masterExcelFileWriter.createJIRAReport();
-            } else
+            if (sheetExecutor != null)
             {
-                logger.info("Clearing goal summary information in excel file");
+                sheetExecutor.shutdownNow();
+            }
+        }
+    }
 
-                workbook.removeSheetAt(0);
+    /**
+     * Waits for the concurrent sheets of a workbook that failed to be populated, ignoring their own failures.
+     *
+     * @param sheetFutures The sheets being written.
+     */
+    private void awaitSheets(Collection<Future<Void>> sheetFutures)
+    {
+        for (Future<Void> sheetFuture : sheetFutures)
+        {
+            try
+            {
+                sheetFuture.get();
+            } catch (ExecutionException exception)
+            {
+                // Only the first failure is reported
+            } catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                return;
             }
+        }
+    }
 
-            logger.info("Preparing to write excel file");
-            masterExcelFileWriter.writeExcelFile(fileName);
+    /**
+     * Closes the streamed sheets of the workbook and removes their temporary files.
+     */
+    private void disposeStreamedSheets()
+    {
+        sheetContext.getStreamedSheets().values().forEach(StreamingSheetWriter::dispose);
+        sheetContext.getStreamedSheets().clear();
+    }
 
-            logger.info("Successfully finished writing Excel file");
-        } catch (Exception exception)
+    /**
+     * Adds the writer and the number of rows and cells of a finished sheet to its flight recorder event. The sheet is
+     * only counted while the event is being recorded since counting visits every row.
+     *
+     * @param timer       The measurement of the sheet.
+     * @param sheetWriter The writer that populated the sheet.
+     * @param sheetName   The name of the sheet.
+     */
+    private void describeSheet(PhaseTimer timer, ISheetWriter sheetWriter, String sheetName)
+    {
+        if (!timer.isRecording())
         {
-            logger.warn("Failed to create JIRA Report: ", exception);
+            return;
+        }
+
+        timer.setDetail(sheetWriter.getClass().getSimpleName());
+        timer.addRows(getRowCount(sheetName));
+
+        XSSFSheet sheet = sheetContext.getWorkbook().getSheet(sheetName);
+
+        if (sheet == null)
+        {
+            return;
+        }
+
+        StreamingSheetWriter streamedSheet = sheetContext.getStreamedSheets().get(sheet);
+
+        if (streamedSheet != null)
+        {
+            timer.addCells(streamedSheet.getCellCount());
+        } else
+        {
+            for (Row row : sheet)
+            {
+                timer.addCells(row.getPhysicalNumberOfCells());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of rows written to a sheet, whether they are held by the workbook or were streamed.
+     *
+     * @param sheetName The name of the sheet.
+     * @return The number of rows, or 0 if the workbook has no such sheet.
+     */
+    private int getRowCount(String sheetName)
+    {
+        XSSFSheet sheet = sheetContext.getWorkbook().getSheet(sheetName);
+
+        if (sheet == null)
+        {
+            return 0;
+        }
+
+        StreamingSheetWriter streamedSheet = sheetContext.getStreamedSheets().get(sheet);
+
+        return streamedSheet != null ? streamedSheet.getRowCount() : sheet.getPhysicalNumberOfRows();
+    }
+
+    /**
+     * Notifies the report listeners that a sheet is about to be populated.
+     *
+     * @param sheetName The name of the sheet.
+     */
+    private void notifySheetStarted(String sheetName)
+    {
+        for (IReportListener reportListener : reportListeners)
+        {
+            try
+            {
+                reportListener.sheetStarted(fileName, sheetName);
+            } catch (Exception exception)
+            {
+                logger.warn("Report listener failed for {}: ", sheetName, exception);
+            }
+        }
+    }
+
+    /**
+     * Notifies the report listeners that a sheet has been populated.
+     *
+     * @param sheetName  The name of the sheet.
+     * @param sheetNanos The time spent populating the sheet in nanoseconds.
+     */
+    private void notifySheetFinished(String sheetName, long sheetNanos)
+    {
+        if (reportListeners.isEmpty())
+        {
+            return;
+        }
+
+        int rowCount = getRowCount(sheetName);
+
+        for (IReportListener reportListener : reportListeners)
+        {
+            try
+            {
+                reportListener.sheetFinished(fileName, sheetName, rowCount, sheetNanos / 1_000_000);
+            } catch (Exception exception)
+            {
+                logger.warn("Report listener failed for {}: ", sheetName, exception);
+            }
         }
     }
 
+    /**
+     * Registers a listener that is notified as each sheet of the report is populated.
+     *
+     * @param reportListener The listener to notify.
+     */
+    public void addReportListener(IReportListener reportListener)
+    {
+        reportListeners.add(reportListener);
+    }
+
+    /**
+     * Gets the registry of sheets that can be included in the report. Custom sheets can be registered and any sheet
+     * can be enabled or disabled through the registry.
+     *
+     * @return The registry of this report's sheets.
+     */
+    public SheetWriterRegistry getSheetWriterRegistry()
+    {
+        return sheetWriterRegistry;
+    }
+
+    /**
+     * Configures when and how the "master" tab is split into several workbooks. Reports whose "master" tab would exceed
+     * excel's row limit are always sharded.
+     *
+     * @param shardMode       The units that are kept whole within a shard.
+     * @param maxRowsPerShard The most rows each shard should contain or 0 to only shard reports that exceed excel's
+     *                        row limit.
+     */
+    public void setSharding(ShardMode shardMode, int maxRowsPerShard)
+    {
+        this.shardMode = shardMode;
+        this.maxRowsPerShard = maxRowsPerShard;
+    }
+
     /**
      * Configures if the "master" tab will be included in the report. The "master" tab contains a breakdown
      * of all initiatives, epics, issues listed in a tree structure with some additional metadata on the issues.
@@ -140,7 +568,7 @@ public class ExcelFileWriter
      */
     public void setIncludeMasterReport(boolean include)
     {
-        includeMasterReport = include;
+        sheetWriterRegistry.setEnabled(MasterExcelFileWriter.SHEET_NAME, include);
     }
 
     /**
@@ -151,7 +579,7 @@ public class ExcelFileWriter
      */
     public void setIncludeDeveloperMetrics(boolean include)
     {
-        includeDeveloperMetrics = include;
+        sheetWriterRegistry.setEnabled(DeveloperExcelFileWriter.SHEET_NAME, include);
     }
 
     /**
@@ -162,7 +590,100 @@ public class ExcelFileWriter
      */
     public void setIncludeSummaryMetrics(boolean include)
     {
-        includeSummaryMetrics = include;
+        sheetWriterRegistry.setEnabled(SummaryExcelFileWriter.SHEET_NAME, include);
+    }
+
+    /**
+     * Configures if the stories beneath each epic on the "master" tab start out collapsed when the report is opened.
+     *
+     * @param collapseGroups {@code true} if the stories should be collapsed beneath their epics.
+     */
+    public void setCollapseGroups(boolean collapseGroups)
+    {
+        sheetContext.setCollapseGroups(collapseGroups);
+    }
+
+    /**
+     * Configures how the issue keys on the "master" tab link to JIRA. {@link HyperlinkMode#FORMULA} keeps large
+     * reports small and quick to open while {@link HyperlinkMode#RELATIONSHIP} produces native excel hyperlinks.
+     *
+     * @param hyperlinkMode The strategy used to link key cells.
+     * @param jiraBaseUrl   The root URL of the JIRA instance the issues were loaded from.
+     */
+    public void setHyperlinks(HyperlinkMode hyperlinkMode, String jiraBaseUrl)
+    {
+        sheetContext.setHyperlinks(hyperlinkMode, jiraBaseUrl);
+    }
+
+    /**
+     * Configures how the rows of the "master" tab are written. {@link WriterBackend#STREAMING} keeps memory use flat
+     * for very large reports.
+     *
+     * @param writerBackend The backend that rows are written with.
+     */
+    public void setWriterBackend(WriterBackend writerBackend)
+    {
+        sheetContext.setWriterBackend(writerBackend);
+    }
+
+    /**
+     * Configures how sprint metrics are charted on the "developer metrics" tab. {@link DeveloperChartMode#SELECTOR}
+     * replaces the chart per developer with a single chart and a drop down list.
+     *
+     * @param developerChartMode The way sprint metrics are charted.
+     */
+    public void setDeveloperChartMode(DeveloperChartMode developerChartMode)
+    {
+        sheetContext.setDeveloperChartMode(developerChartMode);
+    }
+
+    /**
+     * Configures the formats that the rows of the "master" tab are exported to. Each export is written beside the excel
+     * report while the rows are rendered.
+     *
+     * @param exportFormats The formats to export to or an empty collection to only write the excel report.
+     */
+    public void setExportFormats(Collection<ExportFormat> exportFormats)
+    {
+        sheetContext.setExportFormats(exportFormats.isEmpty()
+                ? EnumSet.noneOf(ExportFormat.class) : EnumSet.copyOf(exportFormats));
+    }
+
+    /**
+     * Configures how strongly the report's workbooks are compressed. Lower levels write large reports noticeably faster
+     * at the cost of larger files.
+     *
+     * @param compressionLevel The zip compression level in the range [0, 9] or {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public void setCompressionLevel(int compressionLevel)
+    {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION
+                && (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION))
+        {
+            logger.warn("Ignoring invalid compression level: {}", compressionLevel);
+        } else
+        {
+            sheetContext.setCompressionLevel(compressionLevel);
+        }
+    }
+
+    /**
+     * Configures how wide content sized columns are. Column widths are estimated from the text written to each column
+     * rather than measured with font metrics.
+     *
+     * @param columnWidthPercentile The fraction of each column's values, in the range (0, 1], whose text should fit
+     *                              within the column. A value of 1 sizes each column to its longest value.
+     * @throws IllegalArgumentException If the percentile is outside of the range (0, 1].
+     */
+    public void setColumnWidthPercentile(double columnWidthPercentile)
+    {
+        if (!(columnWidthPercentile > 0 && columnWidthPercentile <= 1))
+        {
+            throw new IllegalArgumentException("The column width percentile must be greater than 0 and at most 1: "
+                    + columnWidthPercentile);
+        }
+
+        sheetContext.setColumnWidthPercentile(columnWidthPercentile);
     }
 
     /**
@@ -174,4 +695,166 @@ public class ExcelFileWriter
     {
         this.fileName = fileName;
     }
+
+    /**
+     * Plans the shards of the "master" tab.
+     *
+     * @param factories The factories of the enabled sheets.
+     * @return The shards of the report or an empty list if the report should not be sharded.
+     */
+    private List<ReportShard> planShards(List<ISheetWriterFactory> factories)
+    {
+        if (factories.stream().noneMatch(factory -> factory.getSheetName().equals(MasterExcelFileWriter.SHEET_NAME)))
+        {
+            return new ArrayList<>();
+        }
+
+        return new ReportSharder(shardMode, maxRowsPerShard).plan(sheetContext);
+    }
+
+    /**
+     * Gets the file that a workbook of this report is written to.
+     *
+     * @param timeStamp The time the report was generated.
+     * @param suffix    Distinguishes the workbooks of a sharded report.
+     * @return The destination of the workbook.
+     */
+    private File getReportFile(String timeStamp, String suffix)
+    {
+        return new File("reports/" + fileName + "/Jira-Report - " + timeStamp + suffix + ".xlsx");
+    }
+
+    /**
+     * Writes the workbook to a temporary file and then publishes it together with the report's other staged files.
+     * Nothing is published unless every file was written successfully.
+     *
+     * @param file The destination of the workbook.
+     * @return The published files.
+     * @throws IOException If a file could not be written or published.
+     */
+    private List<File> writeReportFiles(File file) throws IOException
+    {
+        try
+        {
+            stageWorkbook(file);
+
+            return publishStagedFiles();
+        } finally
+        {
+            discardStagedFiles();
+        }
+    }
+
+    /**
+     * Writes the workbook to a temporary file that is published with the report's other staged files.
+     *
+     * @param file The destination of the workbook.
+     * @throws IOException If the workbook could not be written.
+     */
+    private void stageWorkbook(File file) throws IOException
+    {
+        Map<XSSFSheet, StreamingSheetWriter> streamedSheets = sheetContext.getStreamedSheets();
+        int compressionLevel = sheetContext.getCompressionLevel();
+
+        try
+        {
+            File tempFile = sheetContext.createStagedFile(file);
+
+            try (PhaseTimer timer = RunMetrics.getDefault().start("serialize", fileName);
+                 FileOutputStream outputStream = new FileOutputStream(tempFile))
+            {
+                if (streamedSheets.isEmpty() && compressionLevel == Deflater.DEFAULT_COMPRESSION)
+                {
+                    workbook.write(outputStream);
+                } else
+                {
+                    StreamingWorkbookWriter.write(workbook, streamedSheets, outputStream, compressionLevel);
+                }
+
+                outputStream.flush();
+                timer.addBytes(outputStream.getChannel().position());
+            }
+        } finally
+        {
+            disposeStreamedSheets();
+        }
+    }
+
+    /**
+     * Publishes every staged file of the report. If a file cannot be published the files already published are
+     * removed, so a report is never left with some of its files.
+     *
+     * @return The published files.
+     * @throws IOException If a file could not be published.
+     */
+    private List<File> publishStagedFiles() throws IOException
+    {
+        Map<File, File> stagedFiles = sheetContext.getStagedFiles();
+        List<File> publishedFiles = new ArrayList<>();
+
+        try
+        {
+            for (Map.Entry<File, File> stagedFile : stagedFiles.entrySet())
+            {
+                AtomicFiles.publish(stagedFile.getKey(), stagedFile.getValue());
+                publishedFiles.add(stagedFile.getValue());
+            }
+        } catch (IOException exception)
+        {
+            deleteFiles(publishedFiles);
+            throw exception;
+        }
+
+        stagedFiles.clear();
+
+        return publishedFiles;
+    }
+
+    /**
+     * Waits for the shards of a failed report and removes the files they staged. Shards that have not started yet are
+     * skipped.
+     *
+     * @param shardFutures The shards of the report, each completing with the files it staged.
+     * @param reportFailed Set so that shards which have not started yet are skipped.
+     */
+    private void discardShards(List<Future<Map<File, File>>> shardFutures, AtomicBoolean reportFailed)
+    {
+        reportFailed.set(true);
+
+        for (Future<Map<File, File>> shardFuture : shardFutures)
+        {
+            try
+            {
+                deleteFiles(shardFuture.get().keySet());
+            } catch (ExecutionException exception)
+            {
+                // A failed shard has already removed its own files
+            } catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the temporary files of a report that will not be published, including the rows of its streamed sheets.
+     */
+    private void discardStagedFiles()
+    {
+        disposeStreamedSheets();
+        deleteFiles(sheetContext.getStagedFiles().keySet());
+        sheetContext.getStagedFiles().clear();
+    }
+
+    private void deleteFiles(Collection<File> files)
+    {
+        for (File file : files)
+        {
+            if (file.exists() && !file.delete())
+            {
+                logger.warn("Failed to remove file: {}", file);
+            }
+        }
+    }
 }
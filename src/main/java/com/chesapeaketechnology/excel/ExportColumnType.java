@@ -0,0 +1,20 @@
+package com.chesapeaketechnology.excel;
+
+/**
+ * The types that exported columns are written as. Cells whose value does not match their column's type are converted
+ * so every value of a column has the same type.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+enum ExportColumnType
+{
+    STRING,
+    NUMBER,
+    BOOLEAN,
+
+    /**
+     * A calendar date held in the sheet as an excel serial date number.
+     */
+    DATE
+}
@@ -0,0 +1,62 @@
+package com.chesapeaketechnology.excel;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The machine readable formats that the rows of the "master" tab can be exported to alongside the excel report. Every
+ * format is written row by row while the sheet is rendered.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public enum ExportFormat
+{
+    /**
+     * Comma separated values with a header row, quoted as described by RFC 4180.
+     */
+    CSV(".csv"),
+
+    /**
+     * One JSON object per line keyed by the sheet's column headers.
+     */
+    JSON_LINES(".jsonl"),
+
+    /**
+     * The Apache Arrow IPC file format. Columns are typed so the file can be loaded without parsing any text.
+     */
+    ARROW(".arrow");
+
+    private final String extension;
+
+    ExportFormat(String extension)
+    {
+        this.extension = extension;
+    }
+
+    public String getExtension()
+    {
+        return extension;
+    }
+
+    /**
+     * Creates a sink that writes rows in this format.
+     *
+     * @param file        The file to write.
+     * @param columnTypes The type of each column of the exported rows.
+     * @return A new sink. The first row written to the sink must be the header row.
+     * @throws IOException If the file could not be created.
+     */
+    AExportRowSink createSink(File file, ExportColumnType[] columnTypes) throws IOException
+    {
+        switch (this)
+        {
+            case JSON_LINES:
+                return new JsonLinesRowSink(file, columnTypes);
+            case ARROW:
+                return new ArrowRowSink(file, columnTypes);
+            default:
+                return new CsvRowSink(file, columnTypes);
+        }
+    }
+}
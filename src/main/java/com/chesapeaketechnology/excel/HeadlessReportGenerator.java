@@ -1,7 +1,12 @@
 package com.chesapeaketechnology.excel;
 
+import com.chesapeaketechnology.JiraRestClient;
+import com.chesapeaketechnology.metrics.RunMetrics;
 import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.chesapeaketechnology.model.IReportListener;
+import com.chesapeaketechnology.model.LoadProgress;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
 import net.rcarz.jiraclient.Issue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,8 +16,20 @@ import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -22,7 +39,17 @@ import java.util.stream.Collectors;
  */
 public class HeadlessReportGenerator implements IJiraIssueListener
 {
+    private static final String REPORT_DIRECTORY = "reports/";
+    private static final String REPORT_CACHE_FILE = ".report-cache.properties";
+    private static final String PIPELINE_DEPTH_KEY = "jira-excel-analysis.pipelineDepth";
+
     private Config headlessPreferences;
+    private final List<IReportListener> reportListeners = new CopyOnWriteArrayList<>();
+    private final ReportCache reportCache = new ReportCache(new File(REPORT_CACHE_FILE));
+
+    // Indexes initiatives that finished loading while the remaining initiatives are still being fetched
+    private ThreadPoolExecutor indexer;
+    private IssueIndex issueIndex = new IssueIndex();
 
     private Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
@@ -31,6 +58,83 @@ public class HeadlessReportGenerator implements IJiraIssueListener
         this.headlessPreferences = headlessPreferences;
     }
 
+    /**
+     * Registers a listener that is notified as each report is written.
+     *
+     * @param reportListener The listener to notify.
+     */
+    public void addReportListener(IReportListener reportListener)
+    {
+        reportListeners.add(reportListener);
+    }
+
+    /**
+     * Gets the number of initiatives that may be fetched ahead of, or wait to be indexed behind, the initiative being
+     * processed.
+     *
+     * @param config The configuration of the run.
+     * @return The configured {@code pipelineDepth}, or 2 if none is configured. 0 processes one initiative at a time.
+     */
+    public static int getPipelineDepth(Config config)
+    {
+        return config.hasPath(PIPELINE_DEPTH_KEY) ? config.getInt(PIPELINE_DEPTH_KEY) : 2;
+    }
+
+    /**
+     * Gets the configuration of every report.
+     *
+     * @return The configured reports in the order they are listed.
+     */
+    public List<? extends Config> getReportConfigs()
+    {
+        return headlessPreferences.getObject("jira-excel-analysis").toConfig().getConfigList("reports");
+    }
+
+    /**
+     * Gets the configuration of a single report.
+     *
+     * @param fileName The file name configured for the report.
+     * @return The report's configuration or {@code null} if no report uses that file name.
+     */
+    public Config getReportConfig(String fileName)
+    {
+        return getReportConfigs().stream()
+                .filter(config -> config.getString("fileName").equals(fileName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Generates a single report from issues that have already been loaded. The report listeners are notified once the
+     * files are written and the report's previous files are then removed. A report whose issues and configuration have
+     * not changed since it was last generated is not generated again.
+     *
+     * @param config         The report's configuration.
+     * @param analytics      The loaded issues and the analytics shared by every report.
+     * @param outputExecutor The executor that writes the report's files.
+     * @return A future completed with the report's files, or exceptionally if the report could not be generated.
+     */
+    public CompletableFuture<List<File>> generateReport(Config config, ReportAnalytics analytics, Executor outputExecutor)
+    {
+        String fileName = config.getString("fileName");
+
+        try
+        {
+            return writeReport(config, analytics, outputExecutor).thenApply(files -> {
+                Set<File> reportFiles = files.stream().map(File::getAbsoluteFile).collect(Collectors.toSet());
+                deleteOldReports(new File(REPORT_DIRECTORY, fileName), reportFiles);
+
+                return files;
+            });
+        } catch (Exception exception)
+        {
+            CompletableFuture<List<File>> failure = new CompletableFuture<>();
+            failure.completeExceptionally(exception);
+
+            return failure;
+        }
+    }
+
     @Override
     public void initiativesLoaded(Collection<Issue> initiatives)
     {
@@ -43,58 +147,280 @@ public class HeadlessReportGenerator implements IJiraIssueListener
 
     }
 
+    @Override
+    public void pageFetched(String query, int startAt, int issues, int total, LoadProgress progress)
+    {
+        logger.info("Fetched {} of {} issues of the current search, {}", startAt + issues, total, progress);
+    }
+
+    /**
+     * Indexes the initiative's stories in the background so the report independent work is mostly done by the time
+     * every issue has been retrieved. At most {@code pipelineDepth} initiatives wait to be indexed; once that many are
+     * waiting the initiative is indexed on the loading thread, which holds back the fetching of further initiatives.
+     */
+    @Override
+    public void initiativeCompleted(Issue initiative, Map<Issue, List<Issue>> epicStoryMap,
+                                    Map<String, String> fieldCustomIdMap, LoadProgress progress)
+    {
+        logger.info("Loaded initiative {} of {}: {}", progress.getInitiativesCompleted(), progress.getInitiativeCount(),
+                initiative.getKey());
+
+        IssueIndex index = issueIndex;
+        String sprintCustomId = fieldCustomIdMap.get(JiraRestClient.SPRINT_KEY);
+        int pipelineDepth = getPipelineDepth(headlessPreferences);
+
+        if (pipelineDepth <= 0)
+        {
+            index.addInitiative(epicStoryMap, sprintCustomId);
+            return;
+        }
+
+        if (indexer == null)
+        {
+            indexer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(pipelineDepth),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+
+        indexer.execute(() -> index.addInitiative(epicStoryMap, sprintCustomId));
+    }
+
+    /**
+     * Generates the reports from the issues that were loaded, since a single run has no previous issues to fall back
+     * on.
+     */
+    @Override
+    public void loadFailed(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                           Map<String, String> fieldCustomIdMap)
+    {
+        logger.warn("Generating reports from incomplete issues since some searches failed");
+
+        allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+
     @Override
     public void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
                                    Map<String, String> fieldCustomIdMap)
     {
         logger.info("Retrieved all issues");
 
-        File directory = new File("reports/");
+        File directory = new File(REPORT_DIRECTORY);
+
+        if (indexer != null)
+        {
+            // Issues that have not been indexed yet are indexed by the analytics as they are used
+            indexer.shutdownNow();
+            indexer = null;
+        }
+
+        // Analytics do not depend on a report's filters so they are computed once and shared by every report
+        ReportAnalytics analytics = new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap, issueIndex);
 
-        deleteOldReports(directory);
+        issueIndex = new IssueIndex();
 
-        headlessPreferences.getObject("jira-excel-analysis").toConfig().getConfigList("reports").forEach(config -> {
+        // Files are written on a background thread so the next report is populated while the previous one is saved
+        ExecutorService outputExecutor = Executors.newSingleThreadExecutor();
+        Map<File, CompletableFuture<List<File>>> reportFutures = new LinkedHashMap<>();
+        List<String> failedReports = new ArrayList<>();
+
+        getReportConfigs().forEach(config -> {
             String fileName = config.getString("fileName");
-            Collection<String> labels = config.getStringList("labelFilters");
 
             try
             {
-                logger.info("Generating report for: {}", fileName);
+                reportFutures.put(new File(directory, fileName), writeReport(config, analytics, outputExecutor));
+            } catch (Exception exception)
+            {
+                failedReports.add(fileName);
+                exception.printStackTrace();
+            }
+        });
 
-                ExcelFileWriter excelFileWriter = new ExcelFileWriter(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        Set<File> reportFiles = new HashSet<>();
+        List<File> completedReportDirectories = new ArrayList<>();
 
-                // Disabled because this feature is no longer operational
-                // TODO: Evaluate the level of effort required to restore this project
+        for (Map.Entry<File, CompletableFuture<List<File>>> reportFuture : reportFutures.entrySet())
+        {
+            try
+            {
+                reportFuture.getValue().join().forEach(file -> reportFiles.add(file.getAbsoluteFile()));
+                completedReportDirectories.add(reportFuture.getKey());
+            } catch (CompletionException exception)
+            {
+                failedReports.add(reportFuture.getKey().getName());
+            }
+        }
+
+        outputExecutor.shutdown();
+
+        // Previous reports are only removed once their replacements exist
+        if (failedReports.isEmpty())
+        {
+            deleteOldReports(directory, reportFiles);
+        } else
+        {
+            logger.warn("Keeping previous reports because these reports failed: {}", failedReports);
+
+            completedReportDirectories.forEach(reportDirectory -> deleteOldReports(reportDirectory, reportFiles));
+        }
+    }
+
+    /**
+     * Writes a report unless the cache shows that it was already generated from the same inputs, in which case the
+     * files of the previous report are kept and the report listeners are not notified.
+     *
+     * @param config         The report's configuration.
+     * @param analytics      The loaded issues and the analytics shared by every report.
+     * @param outputExecutor The executor that writes the report's files.
+     * @return A future completed with the report's files.
+     */
+    private CompletableFuture<List<File>> writeReport(Config config, ReportAnalytics analytics, Executor outputExecutor)
+    {
+        String fileName = config.getString("fileName");
+        String fingerprint = ReportCache.computeFingerprint(config, getJiraBaseUrl(), analytics);
+        List<File> unchangedFiles = reportCache.getUnchangedFiles(fileName, fingerprint);
+
+        if (unchangedFiles != null)
+        {
+            logger.info("Skipping {} because its issues and configuration have not changed", fileName);
+            RunMetrics.getDefault().record("report.skipped", fileName, 0, 0, 0);
+
+            return CompletableFuture.completedFuture(unchangedFiles);
+        }
+
+        logger.info("Generating report for: {}", fileName);
+
+        long startTime = System.nanoTime();
+
+        return createReportWriter(config, analytics).createJIRAReport(outputExecutor).thenApply(files -> {
+            RunMetrics.getDefault().record("report", fileName, System.nanoTime() - startTime,
+                    analytics.getEpicStoryMap().values().stream().mapToInt(List::size).sum(),
+                    files.stream().mapToLong(File::length).sum());
+            reportCache.record(fileName, fingerprint, files);
+            notifyReportWritten(fileName, config, files);
+
+            return files;
+        });
+    }
+
+    /**
+     * Creates the writer of a configured report.
+     *
+     * @param config    The report's configuration.
+     * @param analytics The loaded issues and the analytics shared by every report.
+     * @return A writer configured with the report's filters and options.
+     */
+    private ExcelFileWriter createReportWriter(Config config, ReportAnalytics analytics)
+    {
+        String fileName = config.getString("fileName");
+        Collection<String> labels = config.getStringList("labelFilters");
+        String jiraBaseUrl = getJiraBaseUrl();
+
+        ExcelFileWriter excelFileWriter = new ExcelFileWriter(analytics);
+
+        reportListeners.forEach(excelFileWriter::addReportListener);
+
+        // Disabled because this feature is no longer operational
+        // TODO: Evaluate the level of effort required to restore this project
 //                excelFileWriter.setIncludeSummaryMetrics(false);
 
-                List<Issue> activeEpics = epicStoryMap.keySet().stream().filter(epic -> epic.getLabels().containsAll(labels)).collect(Collectors.toList());
-                List<Issue> finalActiveEpics = activeEpics;
-                List<Issue> activeInitiatives = initiativeEpicMap.entrySet().stream()
-                        .filter(initiativeEntry -> initiativeEntry.getValue().stream().anyMatch(finalActiveEpics::contains))
-                        .map(Map.Entry::getKey)
-                        .collect(Collectors.toList());
+        IssueGraph graph = analytics.getGraph();
+        Collection<Issue> activeEpics = graph.select(graph.getEpics().stream()
+                .filter(epic -> epic.getLabels().containsAll(labels))
+                .collect(Collectors.toList()));
+        Collection<Issue> finalActiveEpics = activeEpics;
+        Collection<Issue> activeInitiatives = graph.select(graph.getInitiatives().stream()
+                .filter(initiative -> graph.getEpics(initiative).stream().anyMatch(finalActiveEpics::contains))
+                .collect(Collectors.toList()));
 
-                if (labels.contains("Unassigned"))
-                {
-                    activeInitiatives = new ArrayList<>();
-                    activeEpics = Collections.emptyList();
-                }
-                excelFileWriter.setActiveData(activeInitiatives, activeEpics, Collections.emptyList(), labels, Collections.emptyList());
-                excelFileWriter.setFileName(fileName);
-                excelFileWriter.createJIRAReport();
+        if (labels.contains("Unassigned"))
+        {
+            activeInitiatives = new ArrayList<>();
+            activeEpics = Collections.emptyList();
+        }
+        excelFileWriter.setActiveData(activeInitiatives, activeEpics, Collections.emptyList(), labels, Collections.emptyList());
+        excelFileWriter.setFileName(fileName);
+        excelFileWriter.setCollapseGroups(config.hasPath("collapseGroups") && config.getBoolean("collapseGroups"));
+
+        HyperlinkMode hyperlinkMode = config.hasPath("hyperlinkMode")
+                ? config.getEnum(HyperlinkMode.class, "hyperlinkMode") : HyperlinkMode.FORMULA;
+        excelFileWriter.setHyperlinks(hyperlinkMode, jiraBaseUrl);
+
+        if (config.hasPath("writerBackend"))
+        {
+            excelFileWriter.setWriterBackend(config.getEnum(WriterBackend.class, "writerBackend"));
+        }
+
+        if (config.hasPath("developerChartMode"))
+        {
+            excelFileWriter.setDeveloperChartMode(config.getEnum(DeveloperChartMode.class, "developerChartMode"));
+        }
+
+        if (config.hasPath("shardBy") || config.hasPath("maxRowsPerShard"))
+        {
+            excelFileWriter.setSharding(
+                    config.hasPath("shardBy") ? config.getEnum(ShardMode.class, "shardBy") : ShardMode.INITIATIVE,
+                    config.hasPath("maxRowsPerShard") ? config.getInt("maxRowsPerShard") : 0);
+        }
+
+        if (config.hasPath("exportFormats"))
+        {
+            excelFileWriter.setExportFormats(config.getEnumList(ExportFormat.class, "exportFormats"));
+        }
+
+        if (config.hasPath("columnWidthPercentile"))
+        {
+            double columnWidthPercentile = config.getDouble("columnWidthPercentile");
+
+            if (!(columnWidthPercentile > 0 && columnWidthPercentile <= 1))
+            {
+                throw new ConfigException.BadValue(config.origin(), "columnWidthPercentile",
+                        "must be greater than 0 and at most 1, but was " + columnWidthPercentile);
+            }
+
+            excelFileWriter.setColumnWidthPercentile(columnWidthPercentile);
+        }
+        if (config.hasPath("compressionLevel"))
+        {
+            excelFileWriter.setCompressionLevel(config.getInt("compressionLevel"));
+        }
+
+        return excelFileWriter;
+    }
+
+    private String getJiraBaseUrl()
+    {
+        return headlessPreferences.hasPath("jira-excel-analysis.jiraBaseUrl")
+                ? headlessPreferences.getString("jira-excel-analysis.jiraBaseUrl") : null;
+    }
+
+    /**
+     * Notifies the report listeners that a report has been written.
+     *
+     * @param fileName The file name configured for the report.
+     * @param config   The report's configuration.
+     * @param files    The files of the report.
+     */
+    private void notifyReportWritten(String fileName, Config config, List<File> files)
+    {
+        for (IReportListener reportListener : reportListeners)
+        {
+            try
+            {
+                reportListener.reportWritten(fileName, config, files);
             } catch (Exception exception)
             {
-                exception.printStackTrace();
+                logger.warn("Report listener failed for {}: ", fileName, exception);
             }
-        });
+        }
     }
 
     /**
      * Recursively removes all previously generated reports.
      *
-     * @param directory The root directory to remove all files below.
+     * @param directory   The root directory to remove all files below.
+     * @param reportFiles The files of the reports that were just generated, which are kept.
      */
-    private void deleteOldReports(File directory)
+    private void deleteOldReports(File directory, Set<File> reportFiles)
     {
         if (directory.exists())
         {
@@ -106,8 +432,8 @@ public class HeadlessReportGenerator implements IJiraIssueListener
                 {
                     if (file.isDirectory())
                     {
-                        deleteOldReports(file);
-                    } else
+                        deleteOldReports(file, reportFiles);
+                    } else if (!reportFiles.contains(file.getAbsoluteFile()))
                     {
                         file.delete();
                     }
@@ -0,0 +1,27 @@
+package com.chesapeaketechnology.excel;
+
+/**
+ * The ways that issue key cells can be linked to their corresponding issues in JIRA.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public enum HyperlinkMode
+{
+    /**
+     * Each key cell receives its own hyperlink relationship. Excel shows these as native links but every link adds an
+     * entry to the sheet's relationship part, which grows the file and slows opening it.
+     */
+    RELATIONSHIP,
+
+    /**
+     * Each key cell contains a {@code HYPERLINK()} formula built from a single workbook level name holding the JIRA
+     * browse URL. No relationships are created.
+     */
+    FORMULA,
+
+    /**
+     * Key cells contain plain text.
+     */
+    NONE
+}
@@ -0,0 +1,21 @@
+package com.chesapeaketechnology.excel;
+
+import java.io.IOException;
+
+/**
+ * A destination for fully rendered sheet rows. Rows are handed over in ascending row order and the buffer may be reused
+ * for the next row as soon as {@link #writeRow(SheetRowBuffer)} returns.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+interface IRowSink
+{
+    /**
+     * Writes a single row.
+     *
+     * @param row The values and outline state of the row.
+     * @throws IOException If the row could not be written.
+     */
+    void writeRow(SheetRowBuffer row) throws IOException;
+}
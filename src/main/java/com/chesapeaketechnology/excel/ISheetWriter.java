@@ -0,0 +1,50 @@
+package com.chesapeaketechnology.excel;
+
+import java.io.IOException;
+
+/**
+ * Populates a single sheet of a report. Writers are created by an {@link ISheetWriterFactory} only when their sheet is
+ * enabled, and are driven through {@link #prepareSheet()}, {@link #writeSheet()}, and {@link #finishSheet()}.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public interface ISheetWriter
+{
+    /**
+     * Performs setup that touches the workbook. Always called on the thread that owns the workbook.
+     *
+     * @throws IOException If the sheet could not be prepared.
+     */
+    default void prepareSheet() throws IOException
+    {
+    }
+
+    /**
+     * Writes the content of the sheet. Called on a background thread when {@link #isConcurrent()} is true.
+     *
+     * @throws IOException If the sheet could not be written.
+     */
+    void writeSheet() throws IOException;
+
+    /**
+     * Applies settings that depend on the written content. Always called on the thread that owns the workbook after
+     * {@link #writeSheet()} has completed.
+     *
+     * @throws IOException If the sheet could not be finished.
+     */
+    default void finishSheet() throws IOException
+    {
+    }
+
+    /**
+     * Evaluates if {@link #writeSheet()} can run while other sheets are populated. Only writers that do not touch the
+     * workbook during {@link #writeSheet()} may return true.
+     *
+     * @return True if the sheet can be written concurrently.
+     */
+    default boolean isConcurrent()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.chesapeaketechnology.excel;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Creates the writer of a single report sheet. Factories are registered with a {@link SheetWriterRegistry}, either
+ * directly or through {@link java.util.ServiceLoader}, and are only invoked for enabled sheets.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public interface ISheetWriterFactory
+{
+    /**
+     * Gets the name of the sheet. The name identifies the sheet when enabling or disabling it.
+     *
+     * @return The name of the sheet.
+     */
+    String getSheetName();
+
+    /**
+     * Gets the analytics the sheet reads so they can be computed before any sheet is written.
+     *
+     * @return The analytics inputs used by the sheet.
+     */
+    default Set<ReportAnalytics.Input> getRequiredInputs()
+    {
+        return EnumSet.noneOf(ReportAnalytics.Input.class);
+    }
+
+    /**
+     * Creates the writer and the sheet it populates.
+     *
+     * @param context The workbook, analytics, and settings of the report being generated.
+     * @return The writer of the sheet.
+     */
+    ISheetWriter create(SheetContext context);
+}
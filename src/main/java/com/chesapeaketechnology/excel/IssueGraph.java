@@ -0,0 +1,468 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable graph of the initiative, epic, and story hierarchy of the loaded issues. Each issue is numbered once
+ * and the children of each issue are stored as a range of a single array of node ids, the same layout is kept in
+ * reverse for the parents of each issue. Walking the hierarchy and testing whether an issue belongs to a group of
+ * issues only touch arrays and bit sets instead of hashing issues.
+ * <p>
+ * Issues are numbered by identity since two issues loaded by different searches are different rows of a report.
+ * Initiatives are numbered first in the order of the loaded initiatives, followed by the epics in the order of the
+ * loaded epics, so a {@link NodeSet} of initiatives or epics iterates in the same order as the loaded maps.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class IssueGraph
+{
+    private final Issue[] nodes;
+    private final Map<Issue, Integer> ids;
+    private final Adjacency initiativeEpics;
+    private final Adjacency epicStories;
+    private final NodeSet initiatives;
+    private final NodeSet epics;
+
+    /**
+     * Builds the graph of the loaded issues.
+     *
+     * @param initiativeEpicMap A mapping of JIRA initiatives to JIRA epics.
+     * @param epicStoryMap      A mapping of JIRA epics to JIRA stories.
+     */
+    IssueGraph(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap)
+    {
+        Map<Issue, Integer> nodeIds = new IdentityHashMap<>();
+        List<Issue> nodeList = new ArrayList<>();
+
+        initiativeEpicMap.keySet().forEach(initiative -> addNode(initiative, nodeIds, nodeList));
+        epicStoryMap.keySet().forEach(epic -> addNode(epic, nodeIds, nodeList));
+        initiativeEpicMap.values().forEach(epicList -> epicList.forEach(epic -> addNode(epic, nodeIds, nodeList)));
+        epicStoryMap.values().forEach(storyList -> storyList.forEach(story -> addNode(story, nodeIds, nodeList)));
+
+        this.nodes = nodeList.toArray(new Issue[0]);
+        this.ids = nodeIds;
+        this.initiativeEpics = new Adjacency(initiativeEpicMap, nodeIds, nodes.length);
+        this.epicStories = new Adjacency(epicStoryMap, nodeIds, nodes.length);
+        this.initiatives = select(initiativeEpicMap.keySet());
+        this.epics = select(epicStoryMap.keySet());
+    }
+
+    private static void addNode(Issue issue, Map<Issue, Integer> nodeIds, List<Issue> nodeList)
+    {
+        if (issue != null && !nodeIds.containsKey(issue))
+        {
+            nodeIds.put(issue, nodeList.size());
+            nodeList.add(issue);
+        }
+    }
+
+    /**
+     * Gets the number of issues in the graph.
+     *
+     * @return The number of distinct initiatives, epics, and stories.
+     */
+    int size()
+    {
+        return nodes.length;
+    }
+
+    /**
+     * Gets the node id of an issue.
+     *
+     * @param issue The issue.
+     * @return The issue's node id, or -1 if the issue is not part of the graph.
+     */
+    int getId(Object issue)
+    {
+        Integer id = ids.get(issue);
+
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the issue of a node.
+     *
+     * @param id The node id.
+     * @return The issue numbered {@code id}.
+     */
+    Issue getIssue(int id)
+    {
+        return nodes[id];
+    }
+
+    /**
+     * Gets the loaded initiatives.
+     *
+     * @return The initiatives in the order they were loaded.
+     */
+    NodeSet getInitiatives()
+    {
+        return initiatives;
+    }
+
+    /**
+     * Gets the epics that were loaded with their stories.
+     *
+     * @return The epics in the order they were loaded.
+     */
+    NodeSet getEpics()
+    {
+        return epics;
+    }
+
+    /**
+     * Gets the epics of an initiative.
+     *
+     * @param initiative The initiative.
+     * @return A read only view of the initiative's epics in the order they were loaded.
+     */
+    List<Issue> getEpics(Issue initiative)
+    {
+        return initiativeEpics.getChildren(getId(initiative));
+    }
+
+    /**
+     * Gets the stories of an epic.
+     *
+     * @param epic The epic.
+     * @return A read only view of the epic's stories in the order they were loaded.
+     */
+    List<Issue> getStories(Issue epic)
+    {
+        return epicStories.getChildren(getId(epic));
+    }
+
+    /**
+     * Gets the initiatives an epic belongs to.
+     *
+     * @param epic The epic.
+     * @return A read only view of the initiatives listing the epic.
+     */
+    List<Issue> getParentInitiatives(Issue epic)
+    {
+        return initiativeEpics.getParents(getId(epic));
+    }
+
+    /**
+     * Gets the epics a story belongs to.
+     *
+     * @param story The story.
+     * @return A read only view of the epics listing the story.
+     */
+    List<Issue> getParentEpics(Issue story)
+    {
+        return epicStories.getParents(getId(story));
+    }
+
+    /**
+     * Gets the unique stories nested within an initiative or an epic.
+     *
+     * @param issue An initiative or an epic.
+     * @return The stories of every epic of {@code issue} if it is an initiative, otherwise the stories of
+     * {@code issue}.
+     */
+    NodeSet getNestedStories(Issue issue)
+    {
+        int id = getId(issue);
+        BitSet stories = new BitSet(nodes.length);
+
+        if (id >= 0 && initiativeEpics.hasChildren(id))
+        {
+            for (int epicIndex = initiativeEpics.childOffsets[id]; epicIndex < initiativeEpics.childOffsets[id + 1];
+                 epicIndex++)
+            {
+                epicStories.addChildren(initiativeEpics.children[epicIndex], stories);
+            }
+        } else if (id >= 0)
+        {
+            epicStories.addChildren(id, stories);
+        }
+
+        return new NodeSet(stories);
+    }
+
+    /**
+     * Selects a group of issues, e.g. the initiatives or epics included by a report's filters, so the report can test
+     * whether an issue is part of the group in constant time.
+     *
+     * @param issues The issues to select. Issues that are not part of the graph are ignored.
+     * @return The selected issues.
+     */
+    NodeSet select(Collection<Issue> issues)
+    {
+        if (issues instanceof NodeSet && ((NodeSet) issues).getGraph() == this)
+        {
+            return (NodeSet) issues;
+        }
+
+        BitSet selection = new BitSet(nodes.length);
+
+        for (Issue issue : issues)
+        {
+            int id = getId(issue);
+
+            if (id >= 0)
+            {
+                selection.set(id);
+            }
+        }
+
+        return new NodeSet(selection);
+    }
+
+    /**
+     * The edges of one level of the hierarchy stored as compressed rows, once from each parent to its children and
+     * once from each child to its parents.
+     *
+     * @since 1.0.0
+     */
+    private final class Adjacency
+    {
+        private final int[] childOffsets;
+        private final int[] children;
+        private final int[] parentOffsets;
+        private final int[] parents;
+
+        /**
+         * Numbers the edges of a level of the hierarchy.
+         *
+         * @param parentChildMap A mapping of parents to their children.
+         * @param nodeIds        The node id of each issue.
+         * @param nodeCount      The number of issues in the graph.
+         */
+        private Adjacency(Map<Issue, List<Issue>> parentChildMap, Map<Issue, Integer> nodeIds, int nodeCount)
+        {
+            int[] childCounts = new int[nodeCount];
+            int[] parentCounts = new int[nodeCount];
+            int edgeCount = 0;
+
+            for (Map.Entry<Issue, List<Issue>> parentEntry : parentChildMap.entrySet())
+            {
+                if (parentEntry.getKey() == null)
+                {
+                    continue;
+                }
+                int parent = nodeIds.get(parentEntry.getKey());
+
+                for (Issue child : parentEntry.getValue())
+                {
+                    if (child != null)
+                    {
+                        childCounts[parent]++;
+                        parentCounts[nodeIds.get(child)]++;
+                        edgeCount++;
+                    }
+                }
+            }
+
+            childOffsets = toOffsets(childCounts);
+            parentOffsets = toOffsets(parentCounts);
+            children = new int[edgeCount];
+            parents = new int[edgeCount];
+
+            // The counts are reused as the next free position within each row
+            System.arraycopy(childOffsets, 0, childCounts, 0, nodeCount);
+            System.arraycopy(parentOffsets, 0, parentCounts, 0, nodeCount);
+
+            for (Map.Entry<Issue, List<Issue>> parentEntry : parentChildMap.entrySet())
+            {
+                if (parentEntry.getKey() == null)
+                {
+                    continue;
+                }
+                int parent = nodeIds.get(parentEntry.getKey());
+
+                for (Issue childIssue : parentEntry.getValue())
+                {
+                    if (childIssue != null)
+                    {
+                        int child = nodeIds.get(childIssue);
+
+                        children[childCounts[parent]++] = child;
+                        parents[parentCounts[child]++] = parent;
+                    }
+                }
+            }
+        }
+
+        private int[] toOffsets(int[] counts)
+        {
+            int[] offsets = new int[counts.length + 1];
+
+            for (int node = 0; node < counts.length; node++)
+            {
+                offsets[node + 1] = offsets[node] + counts[node];
+            }
+
+            return offsets;
+        }
+
+        private boolean hasChildren(int node)
+        {
+            return childOffsets[node + 1] > childOffsets[node];
+        }
+
+        private void addChildren(int node, BitSet nodeSet)
+        {
+            for (int childIndex = childOffsets[node]; childIndex < childOffsets[node + 1]; childIndex++)
+            {
+                nodeSet.set(children[childIndex]);
+            }
+        }
+
+        private List<Issue> getChildren(int node)
+        {
+            return node < 0 ? Collections.emptyList() : new NodeList(children, childOffsets[node],
+                    childOffsets[node + 1]);
+        }
+
+        private List<Issue> getParents(int node)
+        {
+            return node < 0 ? Collections.emptyList() : new NodeList(parents, parentOffsets[node],
+                    parentOffsets[node + 1]);
+        }
+    }
+
+    /**
+     * A read only view of a range of node ids as the issues they number.
+     *
+     * @since 1.0.0
+     */
+    private final class NodeList extends AbstractList<Issue>
+    {
+        private final int[] nodeIds;
+        private final int from;
+        private final int to;
+
+        private NodeList(int[] nodeIds, int from, int to)
+        {
+            this.nodeIds = nodeIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Issue get(int index)
+        {
+            if (index < 0 || index >= size())
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            return nodes[nodeIds[from + index]];
+        }
+
+        @Override
+        public int size()
+        {
+            return to - from;
+        }
+    }
+
+    /**
+     * An immutable group of issues of the graph backed by a bit per node, iterated in the order of the node ids.
+     *
+     * @since 1.0.0
+     */
+    final class NodeSet extends AbstractSet<Issue>
+    {
+        private final BitSet members;
+        private final int size;
+
+        private NodeSet(BitSet members)
+        {
+            this.members = members;
+            this.size = members.cardinality();
+        }
+
+        private IssueGraph getGraph()
+        {
+            return IssueGraph.this;
+        }
+
+        @Override
+        public boolean contains(Object issue)
+        {
+            int id = getId(issue);
+
+            return id >= 0 && members.get(id);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public Iterator<Issue> iterator()
+        {
+            return new Iterator<Issue>()
+            {
+                private int next = members.nextSetBit(0);
+
+                @Override
+                public boolean hasNext()
+                {
+                    return next >= 0;
+                }
+
+                @Override
+                public Issue next()
+                {
+                    if (next < 0)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    Issue issue = nodes[next];
+                    next = members.nextSetBit(next + 1);
+
+                    return issue;
+                }
+            };
+        }
+
+        /**
+         * Counts the issues that are also part of another group.
+         *
+         * @param issues The other group.
+         * @return The number of issues in both groups.
+         */
+        int countCommon(Set<Issue> issues)
+        {
+            if (issues instanceof NodeSet && ((NodeSet) issues).getGraph() == IssueGraph.this)
+            {
+                BitSet common = (BitSet) members.clone();
+                common.and(((NodeSet) issues).members);
+
+                return common.cardinality();
+            }
+
+            int count = 0;
+
+            for (Issue issue : this)
+            {
+                if (issues.contains(issue))
+                {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+    }
+}
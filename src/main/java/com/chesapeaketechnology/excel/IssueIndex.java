@@ -0,0 +1,113 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.chesapeaketechnology.model.StoryIssueComparator;
+import net.rcarz.jiraclient.Issue;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Work on the loaded issues that does not depend on any report: the parsed sprints of each story and the sorted
+ * stories of each epic. Initiatives can be indexed as soon as they finish loading, while later initiatives are still
+ * being fetched, and anything that was not indexed ahead of time is indexed on first use.
+ * <p>
+ * The sorted stories of an epic are only reused while the epic still maps to the same list of stories, since stories
+ * without an epic share a placeholder epic whose stories are replaced by each initiative that has some.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class IssueIndex
+{
+    private static final Comparator<Issue> STORY_ORDER = new StoryIssueComparator();
+
+    private final Map<Issue, List<Properties>> sprints = new ConcurrentHashMap<>();
+    private final Map<Issue, SortedStories> sortedStories = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes the epics and stories of an initiative. Stops early if the thread is interrupted, leaving the remaining
+     * issues to be indexed on first use.
+     *
+     * @param epicStoryMap   A mapping of the initiative's epics to their stories.
+     * @param sprintCustomId The custom field id of the sprint field.
+     */
+    void addInitiative(Map<Issue, List<Issue>> epicStoryMap, String sprintCustomId)
+    {
+        for (Map.Entry<Issue, List<Issue>> epicEntry : epicStoryMap.entrySet())
+        {
+            if (Thread.currentThread().isInterrupted())
+            {
+                return;
+            }
+
+            getSortedStories(epicEntry.getKey(), epicEntry.getValue());
+
+            for (Issue story : epicEntry.getValue())
+            {
+                if (story != null)
+                {
+                    getSprints(story, sprintCustomId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the sprints a story was part of.
+     *
+     * @param story          The story.
+     * @param sprintCustomId The custom field id of the sprint field.
+     * @return The properties of each of the story's sprints.
+     */
+    List<Properties> getSprints(Issue story, String sprintCustomId)
+    {
+        return sprints.computeIfAbsent(story, key -> JiraRestClient.getSprintProperties(key, sprintCustomId));
+    }
+
+    /**
+     * Gets the stories of an epic in the order they are listed in the master sheet.
+     *
+     * @param epic    The epic.
+     * @param stories The stories the epic currently maps to.
+     * @return The epic's stories without null entries, sorted by project and then status.
+     */
+    List<Issue> getSortedStories(Issue epic, List<Issue> stories)
+    {
+        SortedStories sorted = sortedStories.get(epic);
+
+        if (sorted == null || sorted.source != stories)
+        {
+            List<Issue> sortedList = stories.stream().filter(Objects::nonNull).collect(Collectors.toList());
+
+            sortedList.sort(STORY_ORDER);
+            sorted = new SortedStories(stories, Collections.unmodifiableList(sortedList));
+            sortedStories.put(epic, sorted);
+        }
+
+        return sorted.stories;
+    }
+
+    /**
+     * The sorted stories of an epic along with the list they were sorted from.
+     *
+     * @since 1.0.0
+     */
+    private static class SortedStories
+    {
+        final List<Issue> source;
+        final List<Issue> stories;
+
+        SortedStories(List<Issue> source, List<Issue> stories)
+        {
+            this.source = source;
+            this.stories = stories;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.chesapeaketechnology.excel;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Exports rows as JSON Lines, one object per row keyed by the column headers. Blank cells are written as {@code null}
+ * so every object has the same keys.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class JsonLinesRowSink extends AExportRowSink
+{
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private SerializedString[] fieldNames;
+
+    /**
+     * Creates a sink backed by {@code file}.
+     *
+     * @param file        The file to write.
+     * @param columnTypes The type of each exported column.
+     * @throws IOException If the file could not be created.
+     */
+    JsonLinesRowSink(File file, ExportColumnType[] columnTypes) throws IOException
+    {
+        super(file, columnTypes);
+
+        generator = JSON_FACTORY.createGenerator(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024),
+                JsonEncoding.UTF8);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    void writeHeader()
+    {
+        // Names are serialized once rather than escaped again for every row
+        fieldNames = new SerializedString[columnNames.length];
+
+        for (int column = 0; column < columnNames.length; column++)
+        {
+            fieldNames[column] = new SerializedString(columnNames[column]);
+        }
+    }
+
+    @Override
+    void writeValues(SheetRowBuffer row) throws IOException
+    {
+        generator.writeStartObject();
+
+        for (int column = 0; column < columnTypes.length; column++)
+        {
+            generator.writeFieldName(fieldNames[column]);
+
+            switch (columnTypes[column])
+            {
+                case NUMBER:
+                    Double number = getNumber(row, column);
+
+                    if (number == null)
+                    {
+                        generator.writeNull();
+                    } else
+                    {
+                        generator.writeNumber(number);
+                    }
+                    break;
+                case BOOLEAN:
+                    Boolean value = getBoolean(row, column);
+
+                    if (value == null)
+                    {
+                        generator.writeNull();
+                    } else
+                    {
+                        generator.writeBoolean(value);
+                    }
+                    break;
+                case DATE:
+                    LocalDate date = getDate(row, column);
+
+                    generator.writeString(date == null ? null : date.toString());
+                    break;
+                default:
+                    generator.writeString(getText(row, column));
+                    break;
+            }
+        }
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (generator.getOutputContext().getEntryCount() > 0)
+        {
+            generator.writeRaw('\n');
+        }
+
+        generator.close();
+    }
+}
@@ -1,28 +1,31 @@
 package com.chesapeaketechnology.excel;
 
 import com.chesapeaketechnology.JiraRestClient;
-import com.chesapeaketechnology.model.StoryIssueComparator;
 import net.rcarz.jiraclient.Component;
 import net.rcarz.jiraclient.Issue;
 import net.rcarz.jiraclient.Version;
 import net.sf.json.JSONObject;
-import org.apache.poi.common.usermodel.HyperlinkType;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFHyperlink;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Properties;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -35,7 +38,8 @@ class MasterExcelFileWriter extends AExcelFileWriter
 {
     private XSSFSheet bigPictureSheet;
 
-    private StoryIssueComparator storyIssueComparator = new StoryIssueComparator();
+    private final MasterRowPlanner rowPlanner;
+    private final Map<ExportFormat, File> exportFiles = new EnumMap<>(ExportFormat.class);
 
     private static final int KEY_COLUMN = 0;
     private static final int INITIATIVE_COLUMN = 1;
@@ -56,21 +60,38 @@ class MasterExcelFileWriter extends AExcelFileWriter
     private static final int DUE_DATE_COLUMN = 16;
     private static final int DESCRIPTION_COLUMN = 17;
 
+    static final String SHEET_NAME = "All Issues";
+    static final String JIRA_BROWSE_URL_NAME = "JiraBrowseUrl";
+
     private CellStyle hiddenStyle;
+    private ColumnWidthEstimator columnWidthEstimator;
+
+    private HyperlinkMode hyperlinkMode;
+    private String jiraBrowseUrl;
+    private WriterBackend writerBackend;
+    private IRowSink rowSink;
+    private List<AExportRowSink> exportSinks;
+    private Map<String, Integer> presenceCheckColumns;
+    private int maxOutlineLevel;
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     /**
      * Creates an excel sheet and initializes fonts and styles.
      *
-     * @param workbook          A excel sheet wrapper.
-     * @param initiativeEpicMap A decomposition of initiatives into epics.
-     * @param epicStoryMap      A decomposition of epics into initiatives.
+     * @param context The workbook, analytics, and settings of the report being generated.
      */
-    MasterExcelFileWriter(XSSFWorkbook workbook, Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue,
-            List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap)
+    MasterExcelFileWriter(SheetContext context)
     {
-        super(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        super(context);
 
-        bigPictureSheet = workbook.createSheet("All Issues");
+        rowPlanner = createRowPlanner(context);
+        context.getExportFormats().forEach(format ->
+                exportFiles.put(format, context.createStagedFile(context.getExportFile(format))));
+        writerBackend = context.getWriterBackend();
+        setHyperlinks(context.getHyperlinkMode(), context.getJiraBaseUrl());
+
+        bigPictureSheet = workbook.createSheet(SHEET_NAME);
         hiddenStyle = workbook.createCellStyle();
 
         XSSFFont font = workbook.createFont();
@@ -80,369 +101,519 @@ class MasterExcelFileWriter extends AExcelFileWriter
     }
 
     /**
-     * Adds a summary of initiatives, epics, and user stories to an excel sheet.
+     * Performs the workbook level setup of the sheet.
+     *
+     * @throws IOException If the temporary file backing a streamed sheet or an export file could not be created.
      */
-    void createJIRAReport()
+    @Override
+    public void prepareSheet() throws IOException
     {
         bigPictureSheet.setRowSumsBelow(false);
 
-        initializeSummaryHeaders();
+        columnWidthEstimator = new ColumnWidthEstimator(columnWidthPercentile, KEY_COLUMN, PROGRAM_COLUMN,
+                SPACE_COLUMN, SPRINT_COLUMN, STORY_COLUMN, STATUS_COLUMN, STORY_POINT_COLUMN);
+
+        initializeHyperlinks();
+
+        rowSink = createRowSink();
+        exportSinks = createExportSinks();
+        presenceCheckColumns = getPresenceCheckColumns();
+        maxOutlineLevel = 0;
+    }
+
+    /**
+     * Adds a summary of initiatives, epics, and user stories to the sheet. When the rows are streamed neither the
+     * workbook nor its sheets are touched.
+     *
+     * @throws IOException If the rows could not be streamed to a temporary file or exported.
+     */
+    @Override
+    public void writeSheet() throws IOException
+    {
+        SheetRowBuffer rowBuffer = createRowBuffer();
 
-        int row = 1;
+        initializeSummaryHeaders(rowBuffer);
 
-        for (Map.Entry<Issue, List<Issue>> initiativeEntry : getInitativeEntriesMap())
+        try
         {
-            row = createHeaderCell(row, INITIATIVE_COLUMN, initiativeStyle, initiativeEntry.getKey());
-            int initiativeRowStart = row;
+            writeRow(rowSink, rowBuffer);
 
-            for (Issue epicIssue : initiativeEntry.getValue())
+            int row = 1;
+
+            for (MasterRowDescriptor rowDescriptor : rowPlanner.plan(getInitativeEntriesMap()))
             {
-                if (activeEpics.isEmpty() || activeEpics.contains(epicIssue))
+                rowBuffer.reset(row++);
+
+                switch (rowDescriptor.getRowType())
                 {
-                    row = createHeaderCell(row, EPIC_COLUMN, epicStyle, epicIssue);
-                    int epicRowStart = row;
-
-                    List<Issue> sortedStories = getSortedStories(epicIssue);
-
-                    if (sortedStories.size() > 0)
-                    {
-                        int projectRowStart = row + 1;
-                        boolean first = true;
-                        String project = sortedStories.get(0).getProject().getName();
-
-                        for (Issue storyIssue : sortedStories)
-                        {
-                            if (containsLabel(storyIssue, activeLabels) && containsSprint(storyIssue, activeSprints))
-                            {
-                                if (!storyIssue.getProject().getName().equals(project))
-                                {
-                                    if (!first)
-                                    {
-                                        projectRowStart += 1;
-                                    }
-                                    bigPictureSheet.groupRow(projectRowStart, row - 1);
-                                    projectRowStart = row;
-                                    project = storyIssue.getProject().getName();
-
-                                    first = false;
-                                }
-
-                                row = createFieldCells(row, storyIssue);
-                            }
-                        }
-                        bigPictureSheet.groupRow(projectRowStart + 1, row - 1);
-                    }
-
-                    bigPictureSheet.groupRow(epicRowStart, row - 1);
+                    case INITIATIVE:
+                        createHeaderCells(rowBuffer, INITIATIVE_COLUMN, initiativeStyle, rowDescriptor);
+                        break;
+                    case EPIC:
+                        createHeaderCells(rowBuffer, EPIC_COLUMN, epicStyle, rowDescriptor);
+                        break;
+                    default:
+                        createFieldCells(rowBuffer, rowDescriptor);
+                        break;
                 }
-            }
 
-            bigPictureSheet.groupRow(initiativeRowStart, row - 1);
+                rowBuffer.setOutline(rowDescriptor.getOutlineLevel(), rowDescriptor.isCollapsed(), rowDescriptor.isHidden());
+                writePresenceTests(rowBuffer, rowDescriptor);
+                writeRow(rowSink, rowBuffer);
+                maxOutlineLevel = Math.max(maxOutlineLevel, rowDescriptor.getOutlineLevel());
+            }
+        } finally
+        {
+            for (AExportRowSink exportSink : exportSinks)
+            {
+                exportSink.close();
+            }
         }
+    }
+
+    /**
+     * Creates a row buffer with a cell for every column of the sheet.
+     *
+     * @return A row buffer wide enough for the sheet's rows.
+     */
+    SheetRowBuffer createRowBuffer()
+    {
+        return new SheetRowBuffer(DESCRIPTION_COLUMN + 1 + presenceChecks.size());
+    }
 
-        writePresenceTests();
+    /**
+     * Applies the sheet level settings that depend on the written rows.
+     */
+    @Override
+    public void finishSheet()
+    {
+        bigPictureSheet.getCTWorksheet().getSheetFormatPr().setOutlineLevelRow((short) maxOutlineLevel);
         bigPictureSheet.setAutoFilter(new CellRangeAddress(0, 0, 0, DESCRIPTION_COLUMN + presenceChecks.size()));
         setColumnWidths();
     }
 
     /**
-     * Writes out a column per label whose presence should be tested for a given row.
+     * Evaluates if the rows of the sheet are streamed rather than created in the workbook.
+     *
+     * @return True if the rows can be written concurrently with the population of other sheets.
+     */
+    @Override
+    public boolean isConcurrent()
+    {
+        return writerBackend == WriterBackend.STREAMING;
+    }
+
+    /**
+     * Creates the planner that lays out the rows of the sheet for the report's filters. The planner does not touch the
+     * workbook so the rows of a report can be counted before the sheet is written.
+     *
+     * @param context The analytics and filters of the report.
+     * @return A planner of the sheet's rows.
      */
-    private void writePresenceTests()
+    static MasterRowPlanner createRowPlanner(SheetContext context)
     {
-        for (int rowIndex = bigPictureSheet.getFirstRowNum(); rowIndex < bigPictureSheet.getLastRowNum(); rowIndex++)
+        ReportAnalytics analytics = context.getAnalytics();
+        Collection<Issue> activeEpics = analytics.getGraph().select(context.getActiveEpics());
+        Collection<String> activeLabels = context.getActiveLabels();
+        Collection<String> activeSprints = context.getActiveSprints();
+
+        return new MasterRowPlanner(analytics::getSortedStories,
+                epic -> activeEpics.isEmpty() || activeEpics.contains(epic),
+                story -> containsLabel(story, activeLabels) && containsSprint(analytics.getSprints(story), activeSprints),
+                context.isCollapseGroups());
+    }
+
+    /**
+     * Configures how issue key cells are linked to JIRA.
+     *
+     * @param hyperlinkMode The strategy used to link key cells.
+     * @param jiraBaseUrl   The root URL of the JIRA instance the issues were loaded from or {@code null} if key cells
+     *                      should not be linked.
+     */
+    private void setHyperlinks(HyperlinkMode hyperlinkMode, String jiraBaseUrl)
+    {
+        this.hyperlinkMode = hyperlinkMode;
+
+        if (jiraBaseUrl == null)
         {
-            for (int columnIndex = 0; columnIndex < presenceChecks.size(); columnIndex++)
-            {
-                int columnOffset = DESCRIPTION_COLUMN + 1;
-                Row presenceRow = bigPictureSheet.getRow(rowIndex);
-                Cell presenceCell = presenceRow.createCell(columnIndex + columnOffset);
-                Cell labelsCell = presenceRow.getCell(LABELS_COLUMN);
+            jiraBrowseUrl = null;
+        } else
+        {
+            jiraBrowseUrl = (jiraBaseUrl.endsWith("/") ? jiraBaseUrl : jiraBaseUrl + "/") + "browse/";
+        }
+    }
+
+    /**
+     * Creates the destination of the sheet's rows. Streamed rows are kept out of the POI object model and are spliced
+     * into the sheet when the workbook is written.
+     *
+     * @return The destination of the sheet's rows.
+     * @throws IOException If the temporary file backing a streamed sheet could not be created.
+     */
+    private IRowSink createRowSink() throws IOException
+    {
+        if (writerBackend == WriterBackend.STREAMING)
+        {
+            StreamingSheetWriter sheetWriter = new StreamingSheetWriter();
 
-                String label = presenceChecks.get(columnIndex);
+            streamedSheets.put(bigPictureSheet, sheetWriter);
 
-                if (rowIndex == bigPictureSheet.getFirstRowNum())
-                {
-                    presenceCell.setCellValue(label);
-                    presenceCell.setCellStyle(titleStyle);
-                } else
+            return sheetWriter;
+        }
+
+        return new PoiRowSink(bigPictureSheet, creationHelper);
+    }
+
+    /**
+     * Creates a sink per configured export format. Exports receive the same rendered rows as the sheet, with the
+     * header row naming their columns.
+     *
+     * @return The export sinks of the sheet.
+     * @throws IOException If an export file could not be created.
+     */
+    private List<AExportRowSink> createExportSinks() throws IOException
+    {
+        ExportColumnType[] columnTypes = new ExportColumnType[DESCRIPTION_COLUMN + 1 + presenceChecks.size()];
+
+        Arrays.fill(columnTypes, ExportColumnType.STRING);
+        Arrays.fill(columnTypes, DESCRIPTION_COLUMN + 1, columnTypes.length, ExportColumnType.BOOLEAN);
+        columnTypes[STORY_POINT_COLUMN] = ExportColumnType.NUMBER;
+        columnTypes[DUE_DATE_COLUMN] = ExportColumnType.DATE;
+
+        List<AExportRowSink> sinks = new ArrayList<>();
+
+        for (Map.Entry<ExportFormat, File> exportFile : exportFiles.entrySet())
+        {
+            logger.info("Exporting {} as {}", SHEET_NAME, exportFile.getKey());
+
+            sinks.add(exportFile.getKey().createSink(exportFile.getValue(), columnTypes));
+        }
+
+        return sinks;
+    }
+
+    /**
+     * Hands a rendered row to its destination and exports after recording the width of its content.
+     *
+     * @param rowSink   The destination of the row.
+     * @param rowBuffer The rendered row.
+     * @throws IOException If the row could not be written.
+     */
+    private void writeRow(IRowSink rowSink, SheetRowBuffer rowBuffer) throws IOException
+    {
+        columnWidthEstimator.record(rowBuffer);
+        rowSink.writeRow(rowBuffer);
+
+        for (AExportRowSink exportSink : exportSinks)
+        {
+            exportSink.writeRow(rowBuffer);
+        }
+    }
+
+    /**
+     * Creates the workbook level name that every {@code HYPERLINK()} formula builds its address from so the browse URL
+     * is stored once instead of in every key cell.
+     */
+    private void initializeHyperlinks()
+    {
+        if (jiraBrowseUrl == null)
+        {
+            hyperlinkMode = HyperlinkMode.NONE;
+        } else if (hyperlinkMode == HyperlinkMode.RELATIONSHIP && writerBackend == WriterBackend.STREAMING)
+        {
+            logger.info("Hyperlink relationships are not supported when streaming rows, using formulas instead");
+
+            hyperlinkMode = HyperlinkMode.FORMULA;
+        }
+
+        if (hyperlinkMode == HyperlinkMode.FORMULA && workbook.getName(JIRA_BROWSE_URL_NAME) == null)
+        {
+            Name browseUrlName = workbook.createName();
+            browseUrlName.setNameName(JIRA_BROWSE_URL_NAME);
+            browseUrlName.setRefersToFormula(getFormulaString(jiraBrowseUrl));
+        }
+    }
+
+    /**
+     * Indexes the column of each label whose presence should be tested so a row's labels can be matched with a single
+     * lookup per label.
+     *
+     * @return A mapping of labels to the columns that test for their presence.
+     */
+    private Map<String, Integer> getPresenceCheckColumns()
+    {
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (int columnIndex = 0; columnIndex < presenceChecks.size(); columnIndex++)
+        {
+            columns.putIfAbsent(presenceChecks.get(columnIndex), DESCRIPTION_COLUMN + 1 + columnIndex);
+        }
+
+        return columns;
+    }
+
+    /**
+     * Writes out a column per label whose presence should be tested for a given row. Presence is evaluated from the
+     * story's labels while the row is rendered because streamed rows cannot be revisited once written.
+     *
+     * @param rowBuffer     The rendered row.
+     * @param rowDescriptor The planned row containing the issue whose labels should be checked.
+     */
+    private void writePresenceTests(SheetRowBuffer rowBuffer, MasterRowDescriptor rowDescriptor)
+    {
+        if (presenceCheckColumns.isEmpty())
+        {
+            return;
+        }
+
+        for (int column = DESCRIPTION_COLUMN + 1; column <= DESCRIPTION_COLUMN + presenceChecks.size(); column++)
+        {
+            rowBuffer.setBoolean(column, false);
+        }
+
+        List<String> labels = rowDescriptor.getIssue().getLabels();
+
+        if (rowDescriptor.getRowType() == MasterRowDescriptor.RowType.STORY && labels != null)
+        {
+            for (String label : labels)
+            {
+                Integer column = presenceCheckColumns.get(label);
+
+                if (column != null)
                 {
-                    boolean present = Arrays.asList(labelsCell.getStringCellValue().split(",")).contains(label);
-                    presenceCell.setCellValue(present);
+                    rowBuffer.setBoolean(column, true);
                 }
             }
         }
     }
 
     /**
-     * Specify which columns should be autosized and which should have concrete sizes.
+     * Specify which columns should be sized from their content and which should have concrete sizes.
      */
     private void setColumnWidths()
     {
         bigPictureSheet.setDefaultColumnWidth(20);
-        bigPictureSheet.autoSizeColumn(KEY_COLUMN);
+        columnWidthEstimator.apply(bigPictureSheet);
         bigPictureSheet.setColumnWidth(INITIATIVE_COLUMN, 3000);
         bigPictureSheet.setColumnWidth(EPIC_COLUMN, 2000);
-        bigPictureSheet.autoSizeColumn(PROGRAM_COLUMN);
-        bigPictureSheet.autoSizeColumn(SPACE_COLUMN);
-        bigPictureSheet.autoSizeColumn(SPRINT_COLUMN);
-        bigPictureSheet.autoSizeColumn(STORY_COLUMN);
-        bigPictureSheet.autoSizeColumn(STATUS_COLUMN);
-        bigPictureSheet.autoSizeColumn(STORY_POINT_COLUMN);
         bigPictureSheet.setColumnWidth(DESCRIPTION_COLUMN, 30000);
     }
 
     /**
      * Creates a row of header cells in the excel sheet to describe the content that can be found in each column.
+     *
+     * @param titleRow The buffer to render the header row into.
      */
-    private void initializeSummaryHeaders()
+    private void initializeSummaryHeaders(SheetRowBuffer titleRow)
     {
-        Row titleRow = bigPictureSheet.createRow(0);
-        Cell keyCell = titleRow.createCell(KEY_COLUMN);
-        Cell initiativeCell = titleRow.createCell(INITIATIVE_COLUMN);
-        Cell programCell = titleRow.createCell(PROGRAM_COLUMN);
-        Cell projectCell = titleRow.createCell(SPACE_COLUMN);
-        Cell sprintCell = titleRow.createCell(SPRINT_COLUMN);
-        Cell epicCell = titleRow.createCell(EPIC_COLUMN);
-        Cell storyCell = titleRow.createCell(STORY_COLUMN);
-        Cell statusCell = titleRow.createCell(STATUS_COLUMN);
-        Cell storyPointCell = titleRow.createCell(STORY_POINT_COLUMN);
-        Cell assigneeCell = titleRow.createCell(ASSIGNEE_COLUMN);
-        Cell issueTypeCell = titleRow.createCell(ISSUE_TYPE_COLUMN);
-        Cell reporterCell = titleRow.createCell(REPORTER_COLUMN);
-        Cell priorityCell = titleRow.createCell(PRIORITY_COLUMN);
-        Cell fixVersionCell = titleRow.createCell(FIX_VERSION_COLUMN);
-        Cell labelsCell = titleRow.createCell(LABELS_COLUMN);
-        Cell dueDateCell = titleRow.createCell(DUE_DATE_COLUMN);
-        Cell descriptionCell = titleRow.createCell(DESCRIPTION_COLUMN);
-        Cell componentsCell = titleRow.createCell(COMPONENTS_COLUMN);
-
-        keyCell.setCellValue("Key");
-        initiativeCell.setCellValue("Initiative");
-        epicCell.setCellValue("Epic");
-        programCell.setCellValue("Program / Project");
-        projectCell.setCellValue("Space");
-        sprintCell.setCellValue("Sprint");
-        storyCell.setCellValue("User Story");
-        statusCell.setCellValue("Status");
-        issueTypeCell.setCellValue("Issue Type");
-        storyPointCell.setCellValue("Story Points");
-        reporterCell.setCellValue("Reporter");
-        priorityCell.setCellValue("Priority");
-        fixVersionCell.setCellValue("Fix Version");
-        labelsCell.setCellValue("Labels");
-        dueDateCell.setCellValue("Due Date");
-        descriptionCell.setCellValue("Description");
-        componentsCell.setCellValue("Components");
-        assigneeCell.setCellValue("Assignee");
-
-        for (int i = 0; i <= DESCRIPTION_COLUMN; i++)
-        {
-            titleRow.getCell(i).setCellStyle(titleStyle);
+        titleRow.reset(0);
+        titleRow.setString(KEY_COLUMN, "Key");
+        titleRow.setString(INITIATIVE_COLUMN, "Initiative");
+        titleRow.setString(EPIC_COLUMN, "Epic");
+        titleRow.setString(PROGRAM_COLUMN, "Program / Project");
+        titleRow.setString(SPACE_COLUMN, "Space");
+        titleRow.setString(SPRINT_COLUMN, "Sprint");
+        titleRow.setString(STORY_COLUMN, "User Story");
+        titleRow.setString(STATUS_COLUMN, "Status");
+        titleRow.setString(ISSUE_TYPE_COLUMN, "Issue Type");
+        titleRow.setString(STORY_POINT_COLUMN, "Story Points");
+        titleRow.setString(REPORTER_COLUMN, "Reporter");
+        titleRow.setString(PRIORITY_COLUMN, "Priority");
+        titleRow.setString(FIX_VERSION_COLUMN, "Fix Version");
+        titleRow.setString(LABELS_COLUMN, "Labels");
+        titleRow.setString(DUE_DATE_COLUMN, "Due Date");
+        titleRow.setString(DESCRIPTION_COLUMN, "Description");
+        titleRow.setString(COMPONENTS_COLUMN, "Components");
+        titleRow.setString(ASSIGNEE_COLUMN, "Assignee");
+
+        for (int columnIndex = 0; columnIndex < presenceChecks.size(); columnIndex++)
+        {
+            titleRow.setString(DESCRIPTION_COLUMN + 1 + columnIndex, presenceChecks.get(columnIndex));
+        }
+
+        for (int i = 0; i <= titleRow.getLastColumn(); i++)
+        {
+            titleRow.setStyle(i, titleStyle);
         }
     }
 
     /**
-     * Links a cell to it's corresponding issue in JIRA.
+     * Writes an issue's key to a cell and links the cell to it's corresponding issue in JIRA.
      *
-     * @param issue The issue to extract URL information from.
-     * @param cell  The excel cell to link to the JIRA issue.
+     * @param issue     The issue to extract URL information from.
+     * @param rowBuffer The row containing the cell to link to the JIRA issue.
      */
-    private void addURLLink(Issue issue, Cell cell)
+    private void setKeyCell(Issue issue, SheetRowBuffer rowBuffer)
     {
-        XSSFHyperlink link = (XSSFHyperlink) creationHelper.createHyperlink(HyperlinkType.URL);
+        String key = issue.getKey();
 
-        if (issue.getKey().contains("https"))
+        if (issue.getId() == null || hyperlinkMode == HyperlinkMode.NONE)
         {
-            link.setAddress("https://jira.di2e.net/browse/" + issue.getKey());
-            cell.setHyperlink(link);
+            rowBuffer.setString(KEY_COLUMN, key);
+        } else if (hyperlinkMode == HyperlinkMode.FORMULA)
+        {
+            String formulaKey = getFormulaString(key);
+
+            rowBuffer.setFormula(KEY_COLUMN, "HYPERLINK(" + JIRA_BROWSE_URL_NAME + "&" + formulaKey + "," + formulaKey + ")", key);
+        } else
+        {
+            rowBuffer.setString(KEY_COLUMN, key);
+            rowBuffer.setLinkAddress(KEY_COLUMN, jiraBrowseUrl + key);
         }
+
+        // Keys are styled as links in every mode so the sheet looks the same whether or not the keys are linked
+        rowBuffer.setStyle(KEY_COLUMN, urlStyle);
     }
 
     /**
-     * Creates a special header row cell. These rows represent groups of cells and their content is spread over multiple cells.
+     * Quotes text so it can be used as a string literal within an excel formula.
      *
-     * @param row       The index of the row to create the new cell in the range [1, Integer.MAX_VALUE).
-     * @param column    The index of the column to create the new cell in the range [1, Integer.MAX_VALUE)
-     * @param cellStyle The color and font configuration used to decorate the cell and all subsequent cells in the same row.
-     * @param issue     The issue to be added to a cell.
-     * @return The next row to add new data to.
+     * @param text The text to quote.
+     * @return The quoted text.
      */
-    private int createHeaderCell(int row, int column, CellStyle cellStyle, Issue issue)
+    private static String getFormulaString(String text)
     {
-        Row excelRow = bigPictureSheet.createRow(row++);
-        Cell excelCell = excelRow.createCell(column);
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
 
-        excelCell.setCellStyle(cellStyle);
-        excelCell.setCellValue(issue.getSummary());
+    /**
+     * Creates a special header row. These rows represent groups of cells and their content is spread over multiple cells.
+     *
+     * @param rowBuffer     The row to create the new cells in.
+     * @param column        The index of the column to create the new cell in the range [1, Integer.MAX_VALUE)
+     * @param cellStyle     The color and font configuration used to decorate the cell and all subsequent cells in the same row.
+     * @param rowDescriptor The planned row containing the issue to be added to a cell.
+     */
+    private void createHeaderCells(SheetRowBuffer rowBuffer, int column, CellStyle cellStyle,
+                                   MasterRowDescriptor rowDescriptor)
+    {
+        rowBuffer.setString(column, rowDescriptor.getIssue().getSummary());
+        rowBuffer.setStyle(column, cellStyle);
 
-        configureCommonCells(excelRow, issue, false);
+        configureCommonCells(rowBuffer, rowDescriptor);
 
         for (int columnToStyle = column + 1; columnToStyle <= DESCRIPTION_COLUMN; columnToStyle++)
         {
-            Cell cellToStyle = excelRow.getCell(columnToStyle);
-
-            if (cellToStyle == null)
-            {
-                cellToStyle = excelRow.createCell(columnToStyle);
-            }
-
-            cellToStyle.setCellStyle(cellStyle);
+            rowBuffer.setStyle(columnToStyle, cellStyle);
         }
-
-        return row;
     }
 
     /**
-     * Sets the style and values of cells that all rows will contain.
+     * Sets the style and values of cells that all rows will contain. The initiative and epic that a row is nested under
+     * are written in hidden cells so that filtering the sheet retains each row's context.
      *
-     * @param excelRow    The index of the row to create the new cell in the range [1, Integer.MAX_VALUE).
-     * @param issue       The issue to create a URL link from.
-     * @param setEpicCell True if the epic cell should be overriden with the value of the row above it.
+     * @param rowBuffer     The row to create the common cells in.
+     * @param rowDescriptor The planned row containing the issue to create a URL link from.
      */
-    private void configureCommonCells(Row excelRow, Issue issue, boolean setEpicCell)
+    private void configureCommonCells(SheetRowBuffer rowBuffer, MasterRowDescriptor rowDescriptor)
     {
-        Cell keyCell = excelRow.createCell(KEY_COLUMN);
-        Cell statusCell = excelRow.createCell(STATUS_COLUMN);
+        Issue issue = rowDescriptor.getIssue();
 
-        Row previousRow = bigPictureSheet.getRow(excelRow.getRowNum() - 1);
-
-        if (previousRow != null)
+        if (!rowBuffer.hasCell(INITIATIVE_COLUMN))
         {
-            if (excelRow.getCell(INITIATIVE_COLUMN) == null && previousRow.getCell(INITIATIVE_COLUMN) != null)
-            {
-                Cell initiativeCell = excelRow.createCell(INITIATIVE_COLUMN);
-                initiativeCell.setCellValue(previousRow.getCell(INITIATIVE_COLUMN).getStringCellValue());
-                initiativeCell.setCellStyle(hiddenStyle);
-            }
-            if (setEpicCell && excelRow.getCell(EPIC_COLUMN) == null && previousRow.getCell(EPIC_COLUMN) != null)
-            {
-                Cell epicCell = excelRow.createCell(EPIC_COLUMN);
-                epicCell.setCellValue(previousRow.getCell(EPIC_COLUMN).getStringCellValue());
-                epicCell.setCellStyle(hiddenStyle);
-            }
+            rowBuffer.setString(INITIATIVE_COLUMN, rowDescriptor.getInitiative().getSummary());
+            rowBuffer.setStyle(INITIATIVE_COLUMN, hiddenStyle);
+        }
+        if (rowDescriptor.getRowType() == MasterRowDescriptor.RowType.STORY && !rowBuffer.hasCell(EPIC_COLUMN))
+        {
+            rowBuffer.setString(EPIC_COLUMN, rowDescriptor.getEpic().getSummary());
+            rowBuffer.setStyle(EPIC_COLUMN, hiddenStyle);
         }
 
-        keyCell.setCellValue(issue.getKey());
-        keyCell.setCellStyle(urlStyle);
-        addURLLink(issue, keyCell);
+        setKeyCell(issue, rowBuffer);
 
         String status = getStatus(issue);
 
         if (status.contains("%"))
         {
             double percent = Double.parseDouble(status.replace("%", ""));
-            statusCell.setCellValue(percent);
+            rowBuffer.setNumber(STATUS_COLUMN, percent);
         } else
         {
-            statusCell.setCellValue(status);
+            rowBuffer.setString(STATUS_COLUMN, status);
         }
     }
 
     /**
      * Create and populate the cells that display the values of fields within a story.
      *
-     * @param row        The index of the row to create the new cell in the range [1, Integer.MAX_VALUE).
-     * @param storyIssue The issue to retrieve information from.
-     * @return The next row to add new data to.
+     * @param rowBuffer     The row to create the new cells in.
+     * @param rowDescriptor The planned row containing the issue to retrieve information from.
      */
-    private int createFieldCells(int row, Issue storyIssue)
+    void createFieldCells(SheetRowBuffer rowBuffer, MasterRowDescriptor rowDescriptor)
     {
-        Row excelRow = bigPictureSheet.createRow(row++);
-
-        Cell programCell = excelRow.createCell(PROGRAM_COLUMN);
-        Cell projectCell = excelRow.createCell(SPACE_COLUMN);
-        Cell sprintCell = excelRow.createCell(SPRINT_COLUMN);
-        Cell summaryCell = excelRow.createCell(STORY_COLUMN);
-        Cell issueTypeCell = excelRow.createCell(ISSUE_TYPE_COLUMN);
-        Cell storyPointCell = excelRow.createCell(STORY_POINT_COLUMN);
-        Cell assigneeCell = excelRow.createCell(ASSIGNEE_COLUMN);
-        Cell reporterCell = excelRow.createCell(REPORTER_COLUMN);
-        Cell priorityCell = excelRow.createCell(PRIORITY_COLUMN);
-        Cell fixVersionCell = excelRow.createCell(FIX_VERSION_COLUMN);
-        Cell labelsCell = excelRow.createCell(LABELS_COLUMN);
-        Cell dueDateCell = excelRow.createCell(DUE_DATE_COLUMN);
-        Cell descriptionCell = excelRow.createCell(DESCRIPTION_COLUMN);
-        Cell componentsCell = excelRow.createCell(COMPONENTS_COLUMN);
+        Issue storyIssue = rowDescriptor.getIssue();
 
         String programCustomId = fieldCustomIdMap.get(JiraRestClient.PROGRAM_KEY);
         String storyPointCustomId = fieldCustomIdMap.get(JiraRestClient.STORY_POINTS_KEY);
-        String sprintCustomId = fieldCustomIdMap.get(JiraRestClient.SPRINT_KEY);
 
         Object jsonObject = storyIssue.getField(programCustomId);
         Object storyPoints = storyIssue.getField(storyPointCustomId);
-        List<Properties> properties = JiraRestClient.getSprintProperties(storyIssue, sprintCustomId);
+        List<Properties> properties = analytics.getSprints(storyIssue);
 
         if (jsonObject instanceof JSONObject)
         {
             String programProject = ((JSONObject) jsonObject).getString("value");
 
-            programCell.setCellValue(programProject);
+            rowBuffer.setString(PROGRAM_COLUMN, programProject);
         }
         if (storyIssue.getProject() != null)
         {
-            projectCell.setCellValue(storyIssue.getProject().getName());
+            rowBuffer.setString(SPACE_COLUMN, storyIssue.getProject().getName());
         }
         if (storyIssue.getIssueType() != null)
         {
-            issueTypeCell.setCellValue(storyIssue.getIssueType().getName());
+            rowBuffer.setString(ISSUE_TYPE_COLUMN, storyIssue.getIssueType().getName());
         }
         if (storyIssue.getAssignee() != null)
         {
-            assigneeCell.setCellValue(storyIssue.getAssignee().getDisplayName());
+            rowBuffer.setString(ASSIGNEE_COLUMN, storyIssue.getAssignee().getDisplayName());
         }
         if (storyIssue.getReporter() != null)
         {
-            reporterCell.setCellValue(String.join(", ", storyIssue.getReporter().getName()));
+            rowBuffer.setString(REPORTER_COLUMN, String.join(", ", storyIssue.getReporter().getName()));
         }
         if (storyIssue.getPriority() != null)
         {
-            priorityCell.setCellValue(String.join(", ", storyIssue.getPriority().getName()));
+            rowBuffer.setString(PRIORITY_COLUMN, String.join(", ", storyIssue.getPriority().getName()));
         }
         if (storyIssue.getFixVersions() != null)
         {
-            fixVersionCell.setCellValue(storyIssue.getFixVersions().stream().map(Version::getName).collect(Collectors.joining(", ")));
+            rowBuffer.setString(FIX_VERSION_COLUMN, storyIssue.getFixVersions().stream().map(Version::getName).collect(Collectors.joining(", ")));
         }
         if (storyIssue.getLabels() != null)
         {
-            labelsCell.setCellValue(String.join(", ", storyIssue.getLabels()));
+            rowBuffer.setString(LABELS_COLUMN, String.join(", ", storyIssue.getLabels()));
         }
         if (storyIssue.getDueDate() != null)
         {
-            dueDateCell.setCellValue(storyIssue.getDueDate());
+            rowBuffer.setNumber(DUE_DATE_COLUMN, DateUtil.getExcelDate(storyIssue.getDueDate()));
         }
         if (storyIssue.getDescription() != null)
         {
-            descriptionCell.setCellValue(storyIssue.getDescription());
+            rowBuffer.setString(DESCRIPTION_COLUMN, storyIssue.getDescription());
         }
         if (storyIssue.getComponents() != null)
         {
-            componentsCell.setCellValue(storyIssue.getComponents().stream().map(Component::getName).collect(Collectors.joining(", ")));
+            rowBuffer.setString(COMPONENTS_COLUMN, storyIssue.getComponents().stream().map(Component::getName).collect(Collectors.joining(", ")));
         }
         if (properties.size() > 0)
         {
             //Get the name of the last sprint this ticket was in
-            sprintCell.setCellValue(properties.get(properties.size() - 1).getProperty("name"));
+            rowBuffer.setString(SPRINT_COLUMN, properties.get(properties.size() - 1).getProperty("name"));
         }
         if (storyPoints instanceof Double)
         {
-            storyPointCell.setCellValue((double) storyPoints);
+            rowBuffer.setNumber(STORY_POINT_COLUMN, (double) storyPoints);
         }
 
-        configureCommonCells(excelRow, storyIssue, true);
-        summaryCell.setCellValue(storyIssue.getSummary());
+        configureCommonCells(rowBuffer, rowDescriptor);
+        rowBuffer.setString(STORY_COLUMN, storyIssue.getSummary());
 
         for (int column = PROGRAM_COLUMN; column <= DESCRIPTION_COLUMN; column++)
         {
-            Cell cell = excelRow.getCell(column);
-
-            if (cell != null)
-            {
-                excelRow.getCell(column).setCellStyle(wrapStyle);
-            }
+            rowBuffer.setStyle(column, wrapStyle);
         }
-
-        return row;
     }
 
     /**
@@ -453,31 +624,15 @@ class MasterExcelFileWriter extends AExcelFileWriter
      */
     private String getStatus(Issue issue)
     {
-        Set<Issue> allNestedStories = getAllNestedIssues(issue);
+        IssueGraph.NodeSet allNestedStories = getAllNestedIssues(issue);
 
-        if (completedIssues.contains(issue) || allNestedStories.isEmpty())
+        if (analytics.getCompletedIssues().contains(issue) || allNestedStories.isEmpty())
         {
             return issue.getStatus().getName();
         }
 
-        double completedNestedStories = allNestedStories.stream().filter(completedIssues::contains).count();
+        double completedNestedStories = allNestedStories.countCommon(analytics.getCompletedIssues());
 
         return decimalFormat.format(completedNestedStories / allNestedStories.size()) + "%";
     }
-
-    /**
-     * Gets a sorted list of child issues from {@code epic}.
-     *
-     * @param epic The epic to get the sorted chidren of.
-     * @return A sorted list of child issues from {@code epic}.
-     */
-    private List<Issue> getSortedStories(Issue epic)
-    {
-        List<Issue> issues = epicStoryMap.get(epic);
-
-        issues = issues.stream().filter(Objects::nonNull).collect(Collectors.toList());
-        issues.sort(storyIssueComparator);
-
-        return issues;
-    }
 }
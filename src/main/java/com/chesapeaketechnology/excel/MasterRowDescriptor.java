@@ -0,0 +1,89 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+
+/**
+ * Describes a single row of the master sheet. The outline level and collapse state of the row are resolved when the
+ * row is planned so the row can be written without revisiting any previously written rows.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class MasterRowDescriptor
+{
+    /**
+     * The kinds of rows that make up the master sheet.
+     */
+    enum RowType
+    {
+        INITIATIVE,
+        EPIC,
+        STORY
+    }
+
+    private final RowType rowType;
+    private final Issue issue;
+    private final Issue initiative;
+    private final Issue epic;
+    private final int outlineLevel;
+    private final boolean collapsed;
+    private final boolean hidden;
+
+    /**
+     * Creates a description of a master sheet row.
+     *
+     * @param rowType      The kind of issue displayed in the row.
+     * @param issue        The issue displayed in the row.
+     * @param initiative   The initiative that the row is nested under.
+     * @param epic         The epic that the row is nested under or {@code null} if the row is an initiative row.
+     * @param outlineLevel The excel outline level of the row in the range [0, 7].
+     * @param collapsed    True if the group summarized by this row should be collapsed.
+     * @param hidden       True if the row is part of a collapsed group.
+     */
+    MasterRowDescriptor(RowType rowType, Issue issue, Issue initiative, Issue epic, int outlineLevel,
+                        boolean collapsed, boolean hidden)
+    {
+        this.rowType = rowType;
+        this.issue = issue;
+        this.initiative = initiative;
+        this.epic = epic;
+        this.outlineLevel = outlineLevel;
+        this.collapsed = collapsed;
+        this.hidden = hidden;
+    }
+
+    RowType getRowType()
+    {
+        return rowType;
+    }
+
+    Issue getIssue()
+    {
+        return issue;
+    }
+
+    Issue getInitiative()
+    {
+        return initiative;
+    }
+
+    Issue getEpic()
+    {
+        return epic;
+    }
+
+    int getOutlineLevel()
+    {
+        return outlineLevel;
+    }
+
+    boolean isCollapsed()
+    {
+        return collapsed;
+    }
+
+    boolean isHidden()
+    {
+        return hidden;
+    }
+}
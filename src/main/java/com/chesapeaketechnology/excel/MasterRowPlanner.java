@@ -0,0 +1,107 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Flattens the initiative, epic, and story hierarchy into the ordered list of rows that make up the master sheet.
+ * Each initiative is planned independently so large hierarchies can be planned in parallel.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class MasterRowPlanner
+{
+    static final int INITIATIVE_LEVEL = 0;
+    static final int EPIC_LEVEL = 1;
+    static final int STORY_LEVEL = 2;
+    static final int PROJECT_LEVEL = 3;
+
+    private final Function<Issue, List<Issue>> sortedStories;
+    private final Predicate<Issue> epicFilter;
+    private final Predicate<Issue> storyFilter;
+    private final boolean collapseEpics;
+
+    /**
+     * Creates a planner for the master sheet.
+     *
+     * @param sortedStories Gets the stories of an epic in the order they should be listed in.
+     * @param epicFilter    Evaluates if an epic should be included in the sheet.
+     * @param storyFilter   Evaluates if a story should be included in the sheet.
+     * @param collapseEpics True if the stories of each epic should start out collapsed.
+     */
+    MasterRowPlanner(Function<Issue, List<Issue>> sortedStories, Predicate<Issue> epicFilter,
+                     Predicate<Issue> storyFilter, boolean collapseEpics)
+    {
+        this.sortedStories = sortedStories;
+        this.epicFilter = epicFilter;
+        this.storyFilter = storyFilter;
+        this.collapseEpics = collapseEpics;
+    }
+
+    /**
+     * Plans the rows of every initiative in {@code initiativeEntries}. The initiatives are planned in parallel and the
+     * resulting rows are returned in the same order as {@code initiativeEntries}.
+     *
+     * @param initiativeEntries The initiatives and their epics that should be written to the sheet.
+     * @return The rows of the master sheet excluding the header row.
+     */
+    List<MasterRowDescriptor> plan(Collection<Map.Entry<Issue, List<Issue>>> initiativeEntries)
+    {
+        return new ArrayList<>(initiativeEntries).parallelStream()
+                .map(this::planInitiative)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Plans the rows of a single initiative. Stories within an epic are grouped by project where the first story of
+     * each project acts as the summary row for the remaining stories from the same project.
+     *
+     * @param initiativeEntry An initiative and the epics that compose it.
+     * @return The rows of the initiative starting with the initiative's own row.
+     */
+    List<MasterRowDescriptor> planInitiative(Map.Entry<Issue, List<Issue>> initiativeEntry)
+    {
+        List<MasterRowDescriptor> rows = new ArrayList<>();
+        Issue initiative = initiativeEntry.getKey();
+
+        rows.add(new MasterRowDescriptor(MasterRowDescriptor.RowType.INITIATIVE, initiative, initiative, null,
+                INITIATIVE_LEVEL, false, false));
+
+        for (Issue epic : initiativeEntry.getValue())
+        {
+            if (epicFilter.test(epic))
+            {
+                List<MasterRowDescriptor> storyRows = new ArrayList<>();
+                String project = null;
+
+                for (Issue story : sortedStories.apply(epic))
+                {
+                    if (storyFilter.test(story))
+                    {
+                        String storyProject = story.getProject().getName();
+                        int level = storyProject.equals(project) ? PROJECT_LEVEL : STORY_LEVEL;
+
+                        storyRows.add(new MasterRowDescriptor(MasterRowDescriptor.RowType.STORY, story, initiative,
+                                epic, level, false, collapseEpics));
+                        project = storyProject;
+                    }
+                }
+
+                rows.add(new MasterRowDescriptor(MasterRowDescriptor.RowType.EPIC, epic, initiative, epic, EPIC_LEVEL,
+                        collapseEpics && !storyRows.isEmpty(), false));
+                rows.addAll(storyRows);
+            }
+        }
+
+        return rows;
+    }
+}
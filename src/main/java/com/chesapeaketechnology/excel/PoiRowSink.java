@@ -0,0 +1,114 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFHyperlink;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+/**
+ * Writes rendered rows into a sheet of the POI object model.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class PoiRowSink implements IRowSink
+{
+    private final XSSFSheet sheet;
+    private final CreationHelper creationHelper;
+
+    /**
+     * Creates a sink that populates {@code sheet}.
+     *
+     * @param sheet          The sheet to create rows in.
+     * @param creationHelper Used to create hyperlinks for linked cells.
+     */
+    PoiRowSink(XSSFSheet sheet, CreationHelper creationHelper)
+    {
+        this.sheet = sheet;
+        this.creationHelper = creationHelper;
+    }
+
+    @Override
+    public void writeRow(SheetRowBuffer row)
+    {
+        XSSFRow excelRow = sheet.createRow(row.getRowIndex());
+
+        for (int column = 0; column <= row.getLastColumn(); column++)
+        {
+            if (row.hasCell(column))
+            {
+                writeCell(excelRow.createCell(column), row, column);
+            }
+        }
+
+        CTRow ctRow = excelRow.getCTRow();
+
+        if (row.getOutlineLevel() > 0)
+        {
+            ctRow.setOutlineLevel((short) row.getOutlineLevel());
+        }
+        if (row.isCollapsed())
+        {
+            ctRow.setCollapsed(true);
+        }
+        if (row.isHidden())
+        {
+            ctRow.setHidden(true);
+        }
+    }
+
+    /**
+     * Copies a buffered value into a cell.
+     *
+     * @param cell   The cell to populate.
+     * @param row    The buffered row.
+     * @param column The index of the buffered cell.
+     */
+    private void writeCell(XSSFCell cell, SheetRowBuffer row, int column)
+    {
+        switch (row.getType(column))
+        {
+            case SheetRowBuffer.STRING:
+                cell.setCellValue(row.getString(column));
+                break;
+            case SheetRowBuffer.NUMBER:
+                cell.setCellValue(row.getNumber(column));
+                break;
+            case SheetRowBuffer.BOOLEAN:
+                cell.setCellValue(row.getBoolean(column));
+                break;
+            case SheetRowBuffer.FORMULA:
+                // The formula is assigned directly to avoid parsing it for every row. The cached value is displayed
+                // until excel recalculates the formula.
+                CTCell ctCell = cell.getCTCell();
+                ctCell.addNewF().setStringValue(row.getFormula(column));
+                ctCell.setT(STCellType.STR);
+                ctCell.setV(row.getFormulaCachedValue(column));
+                break;
+            default:
+                break;
+        }
+
+        CellStyle style = row.getStyle(column);
+
+        if (style != null)
+        {
+            cell.setCellStyle(style);
+        }
+
+        String linkAddress = row.getLinkAddress(column);
+
+        if (linkAddress != null)
+        {
+            XSSFHyperlink link = (XSSFHyperlink) creationHelper.createHyperlink(HyperlinkType.URL);
+            link.setAddress(linkAddress);
+            cell.setHyperlink(link);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.chesapeaketechnology.metrics.PhaseTimer;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import net.rcarz.jiraclient.Field;
+import net.rcarz.jiraclient.Issue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * The JIRA issues a report is generated from along with analytics derived from them. Derived values do not depend on
+ * any report's filters, so they are computed at most once, on first use, and shared by every sheet and every report
+ * built from the same issues.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ReportAnalytics
+{
+    /**
+     * The derived values that a sheet can declare it needs.
+     */
+    public enum Input
+    {
+        /**
+         * The stories that have been marked as completed.
+         */
+        COMPLETED_ISSUES,
+
+        /**
+         * The assigned stories within each sprint and the start date of each past sprint.
+         */
+        SPRINT_BREAKDOWN
+    }
+
+    private final Map<Issue, List<Issue>> initiativeEpicMap;
+    private final Map<Issue, List<Issue>> epicStoryMap;
+    private final Map<String, String> fieldCustomIdMap;
+    private final IssueIndex issueIndex;
+
+    private IssueGraph graph;
+    private Set<Issue> completedIssues;
+    private Map<String, Set<Issue>> sprintStoryBreakdown;
+    private Map<String, Date> sprintDateMap;
+
+    /**
+     * Creates the analytics of a set of JIRA issues. Nothing is computed until it is requested.
+     *
+     * @param initiativeEpicMap A mapping of JIRA initiatives to JIRA epics.
+     * @param epicStoryMap      A mapping of JIRA epics to JIRA stories.
+     * @param fieldCustomIdMap  A mapping of JIRA field names to their custom field ids.
+     */
+    public ReportAnalytics(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                           Map<String, String> fieldCustomIdMap)
+    {
+        this(initiativeEpicMap, epicStoryMap, fieldCustomIdMap, new IssueIndex());
+    }
+
+    /**
+     * Creates the analytics of a set of JIRA issues that may already have been partly indexed, e.g. while the rest of
+     * the issues were still being loaded. Nothing else is computed until it is requested.
+     *
+     * @param initiativeEpicMap A mapping of JIRA initiatives to JIRA epics.
+     * @param epicStoryMap      A mapping of JIRA epics to JIRA stories.
+     * @param fieldCustomIdMap  A mapping of JIRA field names to their custom field ids.
+     * @param issueIndex        The index of the issues. Issues that have not been indexed yet are indexed on first use.
+     */
+    ReportAnalytics(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                    Map<String, String> fieldCustomIdMap, IssueIndex issueIndex)
+    {
+        this.initiativeEpicMap = initiativeEpicMap;
+        this.epicStoryMap = epicStoryMap;
+        this.fieldCustomIdMap = fieldCustomIdMap;
+        this.issueIndex = issueIndex;
+    }
+
+    /**
+     * Computes the requested inputs ahead of time so sheets that are written concurrently do not wait on each other.
+     *
+     * @param inputs The inputs required by the sheets about to be written.
+     */
+    void prepare(Set<Input> inputs)
+    {
+        if (inputs.contains(Input.COMPLETED_ISSUES))
+        {
+            try (PhaseTimer ignored = RunMetrics.getDefault().start("analytics", Input.COMPLETED_ISSUES.name()))
+            {
+                getCompletedIssues();
+            }
+        }
+        if (inputs.contains(Input.SPRINT_BREAKDOWN))
+        {
+            try (PhaseTimer ignored = RunMetrics.getDefault().start("analytics", Input.SPRINT_BREAKDOWN.name()))
+            {
+                getSprintStoryBreakdown();
+            }
+        }
+    }
+
+    public Map<Issue, List<Issue>> getInitiativeEpicMap()
+    {
+        return initiativeEpicMap;
+    }
+
+    public Map<Issue, List<Issue>> getEpicStoryMap()
+    {
+        return epicStoryMap;
+    }
+
+    public Map<String, String> getFieldCustomIdMap()
+    {
+        return fieldCustomIdMap;
+    }
+
+    /**
+     * Gets the graph of the initiative, epic, and story hierarchy. The graph is built once and shared by every report.
+     *
+     * @return The hierarchy of the loaded issues.
+     */
+    synchronized IssueGraph getGraph()
+    {
+        if (graph == null)
+        {
+            try (PhaseTimer ignored = RunMetrics.getDefault().start("analytics", "GRAPH"))
+            {
+                graph = new IssueGraph(initiativeEpicMap, epicStoryMap);
+            }
+        }
+
+        return graph;
+    }
+
+    /**
+     * Gets the stories of an epic in the order they are listed in the master sheet. The order is computed once and
+     * shared by every report.
+     *
+     * @param epic The epic.
+     * @return The epic's stories sorted by project and then status.
+     */
+    List<Issue> getSortedStories(Issue epic)
+    {
+        return issueIndex.getSortedStories(epic, epicStoryMap.getOrDefault(epic, Collections.emptyList()));
+    }
+
+    /**
+     * Gets the sprints a story was part of. The sprints of each story are parsed once and shared by every report.
+     *
+     * @param story The story.
+     * @return The properties of each of the story's sprints.
+     */
+    List<Properties> getSprints(Issue story)
+    {
+        return issueIndex.getSprints(story, fieldCustomIdMap.get(JiraRestClient.SPRINT_KEY));
+    }
+
+    /**
+     * Gets the unique stories that have been marked as completed.
+     *
+     * @return The stories whose status is done, resolved, or in testing.
+     */
+    public synchronized Set<Issue> getCompletedIssues()
+    {
+        if (completedIssues == null)
+        {
+            // Selected within the graph so the completion rate of an initiative or epic is a count of common bits
+            completedIssues = getGraph().select(epicStoryMap.values().stream()
+                    .flatMap(Collection::stream)
+                    .filter(Objects::nonNull)
+                    .filter(issue -> issue.getStatus() != null)
+                    .filter(issue -> {
+                        String name = issue.getStatus().getName();
+
+                        return name.equalsIgnoreCase("Done") || name.equalsIgnoreCase("Resolved")
+                                || name.equalsIgnoreCase("In Testing");
+                    })
+                    .collect(Collectors.toList()));
+        }
+
+        return completedIssues;
+    }
+
+    /**
+     * Gets a mapping of sprint names to their corresponding assigned stories.
+     *
+     * @return A mapping of sprint names to their corresponding issues.
+     */
+    public synchronized Map<String, Set<Issue>> getSprintStoryBreakdown()
+    {
+        if (sprintStoryBreakdown == null)
+        {
+            computeSprintBreakdown();
+        }
+
+        return sprintStoryBreakdown;
+    }
+
+    /**
+     * Gets the start dates of sprints that have already started, ordered from oldest to newest.
+     *
+     * @return A mapping of sprint names to their start dates.
+     */
+    public synchronized Map<String, Date> getSprintDateMap()
+    {
+        if (sprintDateMap == null)
+        {
+            computeSprintBreakdown();
+        }
+
+        return sprintDateMap;
+    }
+
+    /**
+     * Groups assigned stories by the sprints they were part of and records the start date of each past sprint.
+     */
+    private void computeSprintBreakdown()
+    {
+        Map<String, Set<Issue>> storyBreakdown = new HashMap<>();
+        // Sorted by name so sprints that start on the same date are always listed in the same order
+        Map<String, Date> dateMap = new TreeMap<>();
+
+        Collection<Issue> developerStories = epicStoryMap.values().stream().flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .filter(story -> story.getAssignee() != null)
+                .collect(Collectors.toSet());
+
+        String sprintCustomId = fieldCustomIdMap.get(JiraRestClient.SPRINT_KEY);
+
+        developerStories.forEach(story -> {
+            List<Properties> properties = issueIndex.getSprints(story, sprintCustomId);
+
+            properties.forEach(sprint -> {
+                String name = sprint.getProperty("name");
+                String startDate = sprint.getProperty("startDate");
+                Set<Issue> sprintIssues = storyBreakdown.getOrDefault(name, new HashSet<>());
+                boolean pastSprint = Field.getDate(startDate).before(Date.from(java.time.Instant.now()));
+
+                sprintIssues.add(story);
+
+                if (startDate != null && !startDate.contains("null") && pastSprint)
+                {
+                    dateMap.put(name, Field.getDate(startDate));
+                }
+                storyBreakdown.put(name, sprintIssues);
+            });
+        });
+
+        sprintStoryBreakdown = storyBreakdown;
+        sprintDateMap = MapUtil.sortByValue(dateMap);
+    }
+}
@@ -0,0 +1,234 @@
+package com.chesapeaketechnology.excel;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigRenderOptions;
+import net.rcarz.jiraclient.Issue;
+import net.rcarz.jiraclient.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers a fingerprint of the inputs of each generated report so a report whose inputs have not changed since it
+ * was last generated is not generated again. A fingerprint covers the report's configuration, the key, parent, and last
+ * update time of every issue the report can include, the sprints that have started, and the version of this tool.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ReportCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String FINGERPRINT_SUFFIX = ".fingerprint";
+    private static final String FILES_SUFFIX = ".files";
+    private static final String DEVELOPMENT_VERSION = "development";
+
+    private final File cacheFile;
+    private final Properties entries = new Properties();
+
+    /**
+     * Creates a cache backed by a properties file. A missing or unreadable file results in an empty cache.
+     *
+     * @param cacheFile Stores the fingerprints between runs.
+     */
+    ReportCache(File cacheFile)
+    {
+        this.cacheFile = cacheFile;
+
+        if (cacheFile.exists())
+        {
+            try (InputStream inputStream = new FileInputStream(cacheFile))
+            {
+                entries.load(inputStream);
+            } catch (IOException exception)
+            {
+                logger.warn("Failed to read the report cache, all reports will be generated: ", exception);
+            }
+        }
+    }
+
+    /**
+     * Gets the files of a report if it was last generated from inputs with the same fingerprint and its files still
+     * exist.
+     *
+     * @param fileName    The file name configured for the report.
+     * @param fingerprint The fingerprint of the report's current inputs.
+     * @return The files of the previously generated report or {@code null} if the report needs to be generated.
+     */
+    synchronized List<File> getUnchangedFiles(String fileName, String fingerprint)
+    {
+        String files = entries.getProperty(fileName + FILES_SUFFIX);
+
+        if (!fingerprint.equals(entries.getProperty(fileName + FINGERPRINT_SUFFIX)) || files == null)
+        {
+            return null;
+        }
+
+        List<File> reportFiles = new ArrayList<>();
+
+        for (String path : files.split(Pattern.quote(File.pathSeparator)))
+        {
+            File file = new File(path);
+
+            if (!file.exists())
+            {
+                return null;
+            }
+
+            reportFiles.add(file);
+        }
+
+        return reportFiles;
+    }
+
+    /**
+     * Records the fingerprint and files of a generated report and saves the cache.
+     *
+     * @param fileName    The file name configured for the report.
+     * @param fingerprint The fingerprint of the inputs the report was generated from.
+     * @param files       The files of the report.
+     */
+    synchronized void record(String fileName, String fingerprint, List<File> files)
+    {
+        entries.setProperty(fileName + FINGERPRINT_SUFFIX, fingerprint);
+        entries.setProperty(fileName + FILES_SUFFIX, files.stream()
+                .map(File::getPath)
+                .collect(Collectors.joining(File.pathSeparator)));
+
+        try (OutputStream outputStream = new FileOutputStream(cacheFile))
+        {
+            entries.store(outputStream, "Fingerprints of the inputs of each generated report");
+        } catch (IOException exception)
+        {
+            logger.warn("Failed to save the report cache: ", exception);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a report's inputs.
+     *
+     * @param config      The report's configuration.
+     * @param jiraBaseUrl The URL that issue keys link to.
+     * @param analytics   The loaded issues.
+     * @return The hexadecimal SHA-256 hash of the report's inputs.
+     */
+    static String computeFingerprint(Config config, String jiraBaseUrl, ReportAnalytics analytics)
+    {
+        String version = ReportCache.class.getPackage().getImplementationVersion();
+        Map<String, String> issueVersions = new TreeMap<>();
+
+        getIncludedIssues(config.getStringList("labelFilters"), analytics).forEach((issue, parent) ->
+                issueVersions.put(issue.getKey() + "<" + parent, String.valueOf(issue.getField("updated"))));
+
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            update(digest, version == null ? DEVELOPMENT_VERSION : version);
+            update(digest, config.root().render(ConfigRenderOptions.concise()));
+            update(digest, String.valueOf(jiraBaseUrl));
+
+            // Whether a sprint has started depends on the current date rather than on the issues
+            analytics.prepare(EnumSet.of(ReportAnalytics.Input.SPRINT_BREAKDOWN));
+            update(digest, String.join(",", new TreeMap<>(analytics.getSprintDateMap()).keySet()));
+
+            issueVersions.forEach((key, updated) -> {
+                update(digest, key);
+                update(digest, updated);
+            });
+
+            StringBuilder hash = new StringBuilder();
+
+            for (byte hashByte : digest.digest())
+            {
+                hash.append(String.format("%02x", hashByte));
+            }
+
+            return hash.toString();
+        } catch (NoSuchAlgorithmException exception)
+        {
+            // Every JVM provides SHA-256, a fingerprint that never matches generates the report every time
+            logger.warn("Failed to fingerprint report: ", exception);
+
+            return Long.toString(System.nanoTime());
+        }
+    }
+
+    /**
+     * Gets every issue whose content can appear in a report with the given label filters. This mirrors the filters
+     * applied by {@link HeadlessReportGenerator} and errs towards including too many issues, which only costs an
+     * unnecessary regeneration.
+     *
+     * @param labels    The report's label filters.
+     * @param analytics The loaded issues.
+     * @return The included issues mapped to the key of their parent.
+     */
+    private static Map<Issue, String> getIncludedIssues(Collection<String> labels, ReportAnalytics analytics)
+    {
+        boolean includeAll = labels.isEmpty() || labels.contains("Unassigned");
+        Map<Issue, String> issues = new HashMap<>();
+
+        analytics.getInitiativeEpicMap().forEach((initiative, epics) -> epics.stream()
+                .filter(epic -> includeAll || epic.getLabels().containsAll(labels))
+                .forEach(epic -> {
+                    issues.put(initiative, "");
+                    issues.put(epic, initiative.getKey());
+                }));
+
+        // The developer tab includes every story of the developers assigned to a story with any of the labels
+        Set<String> developers = analytics.getEpicStoryMap().values().stream()
+                .flatMap(List::stream)
+                .filter(Objects::nonNull)
+                .filter(story -> includeAll || story.getLabels().stream().anyMatch(labels::contains))
+                .map(Issue::getAssignee)
+                .filter(Objects::nonNull)
+                .map(User::getDisplayName)
+                .collect(Collectors.toSet());
+
+        analytics.getEpicStoryMap().forEach((epic, stories) -> {
+            boolean includedEpic = includeAll || epic.getLabels().containsAll(labels);
+
+            if (includedEpic)
+            {
+                issues.put(epic, issues.getOrDefault(epic, ""));
+            }
+
+            stories.stream()
+                    .filter(Objects::nonNull)
+                    .filter(story -> includedEpic || (story.getAssignee() != null
+                            && developers.contains(story.getAssignee().getDisplayName())))
+                    .forEach(story -> issues.put(story, epic.getKey()));
+        });
+
+        return issues;
+    }
+
+    private static void update(MessageDigest digest, String value)
+    {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
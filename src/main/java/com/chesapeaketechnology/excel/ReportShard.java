@@ -0,0 +1,112 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A subset of a report's initiatives whose "master" rows are written to their own workbook.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ReportShard
+{
+    private static final int MAX_LISTED_UNITS = 5;
+
+    private final int number;
+    private final List<Issue> initiatives = new ArrayList<>();
+    private final List<Issue> epics = new ArrayList<>();
+    private final List<String> unitNames = new ArrayList<>();
+
+    private int rowCount;
+    private boolean splitInitiative;
+    private File file;
+
+    /**
+     * Creates an empty shard.
+     *
+     * @param number The one based position of the shard within the report.
+     */
+    ReportShard(int number)
+    {
+        this.number = number;
+    }
+
+    /**
+     * Adds a unit of initiatives to the shard.
+     *
+     * @param unitName        The name of the initiative, epic, or project the unit represents.
+     * @param initiatives     The initiatives of the unit.
+     * @param epics           The epics of the unit that pass the report's filters.
+     * @param rowCount        The number of "master" rows written for the unit.
+     * @param splitInitiative True if the unit only holds some of the epics of one of its initiatives.
+     */
+    void add(String unitName, List<Issue> initiatives, List<Issue> epics, int rowCount, boolean splitInitiative)
+    {
+        unitNames.add(unitName);
+        initiatives.stream().filter(initiative -> !this.initiatives.contains(initiative)).forEach(this.initiatives::add);
+        this.epics.addAll(epics);
+        this.rowCount += rowCount;
+        this.splitInitiative |= splitInitiative;
+    }
+
+    int getNumber()
+    {
+        return number;
+    }
+
+    List<Issue> getInitiatives()
+    {
+        return initiatives;
+    }
+
+    /**
+     * Gets the epics written to the shard.
+     *
+     * @param activeEpics The epics included by the report's filters.
+     * @return The epics of the shard if one of its initiatives is split across shards, otherwise {@code activeEpics}.
+     */
+    Collection<Issue> getActiveEpics(Collection<Issue> activeEpics)
+    {
+        return splitInitiative ? epics : activeEpics;
+    }
+
+    List<String> getUnitNames()
+    {
+        return unitNames;
+    }
+
+    int getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Describes the initiatives or projects within the shard. Long lists are shortened to their first and last entry.
+     *
+     * @return A description of the shard's content.
+     */
+    String getDescription()
+    {
+        if (unitNames.size() <= MAX_LISTED_UNITS)
+        {
+            return String.join(", ", unitNames);
+        }
+
+        return unitNames.get(0) + " to " + unitNames.get(unitNames.size() - 1) + " (" + unitNames.size() + ")";
+    }
+
+    File getFile()
+    {
+        return file;
+    }
+
+    void setFile(File file)
+    {
+        this.file = file;
+    }
+}
@@ -0,0 +1,191 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the "master" tab of a report into shards when its rows would exceed excel's row limit or a configured budget.
+ * Rows are counted with the same planner that lays out the sheet, so the shards match the rows that will be written.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ReportSharder
+{
+    /**
+     * The most issue rows that fit on a sheet, leaving room for the header row.
+     */
+    static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String UNASSIGNED_PROJECT = "Unassigned";
+
+    private final ShardMode shardMode;
+    private final int rowBudget;
+
+    /**
+     * Creates a sharder.
+     *
+     * @param shardMode       The units that are kept whole within a shard.
+     * @param maxRowsPerShard The most rows a shard should contain or a value less than one to only shard reports that
+     *                        exceed excel's row limit.
+     */
+    ReportSharder(ShardMode shardMode, int maxRowsPerShard)
+    {
+        this.shardMode = shardMode;
+        rowBudget = maxRowsPerShard < 1 ? MAX_SHEET_ROWS : Math.min(maxRowsPerShard, MAX_SHEET_ROWS);
+    }
+
+    /**
+     * Plans the shards of a report.
+     *
+     * @param context The analytics and filters of the report.
+     * @return The shards of the report in the order of its initiatives, or an empty list if the report fits within
+     * the row budget.
+     */
+    List<ReportShard> plan(SheetContext context)
+    {
+        MasterRowPlanner rowPlanner = MasterExcelFileWriter.createRowPlanner(context);
+        IssueGraph graph = context.getAnalytics().getGraph();
+        Collection<Issue> activeInitiatives = graph.select(context.getActiveInitiatives());
+        Collection<Issue> activeEpics = graph.select(context.getActiveEpics());
+
+        Map<Issue, Integer> rowCounts = context.getAnalytics().getInitiativeEpicMap().entrySet().parallelStream()
+                .filter(entry -> activeInitiatives.isEmpty() || activeInitiatives.contains(entry.getKey()))
+                .sorted(Comparator.comparing(entry -> entry.getKey().getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> rowPlanner.planInitiative(entry).size(),
+                        Integer::sum, LinkedHashMap::new));
+
+        int totalRows = rowCounts.values().stream().mapToInt(Integer::intValue).sum();
+
+        if (totalRows <= rowBudget)
+        {
+            return new ArrayList<>();
+        }
+
+        logger.info("Sharding {} rows into files of at most {} rows by {}", totalRows, rowBudget, shardMode);
+
+        List<ReportShard> shards = new ArrayList<>();
+        ReportShard shard = null;
+
+        for (ShardUnit unit : getUnits(rowCounts, rowPlanner, graph, activeEpics))
+        {
+            if (unit.rowCount > rowBudget)
+            {
+                logger.warn("{} has {} rows which exceeds the shard budget of {} rows", unit.name, unit.rowCount,
+                        rowBudget);
+            }
+
+            if (shard == null || (shard.getRowCount() > 0 && shard.getRowCount() + unit.rowCount > rowBudget))
+            {
+                shard = new ReportShard(shards.size() + 1);
+                shards.add(shard);
+            }
+
+            shard.add(unit.name, unit.initiatives, unit.epics, unit.rowCount, unit.splitInitiative);
+        }
+
+        return shards;
+    }
+
+    /**
+     * Groups initiatives into the units that are kept whole within a shard. An initiative without a project is the
+     * placeholder that groups every epic without an initiative, so it is split along its epics instead of being kept
+     * whole, otherwise a report without initiatives could never be sharded.
+     *
+     * @param rowCounts   The number of rows of each initiative of the report in sheet order.
+     * @param rowPlanner  The planner of the report's rows.
+     * @param graph       The hierarchy of the report's issues.
+     * @param activeEpics The epics included by the report's filters or an empty collection if every epic is included.
+     * @return The units of the report in sheet order.
+     */
+    private Collection<ShardUnit> getUnits(Map<Issue, Integer> rowCounts, MasterRowPlanner rowPlanner,
+                                           IssueGraph graph, Collection<Issue> activeEpics)
+    {
+        Map<String, ShardUnit> units = new LinkedHashMap<>();
+
+        for (Map.Entry<Issue, Integer> initiativeRows : rowCounts.entrySet())
+        {
+            Issue initiative = initiativeRows.getKey();
+            List<Issue> epics = graph.getEpics(initiative).stream()
+                    .filter(epic -> activeEpics.isEmpty() || activeEpics.contains(epic))
+                    .collect(Collectors.toList());
+
+            if (initiative.getProject() != null)
+            {
+                String unitName = shardMode == ShardMode.PROJECT ? initiative.getProject().getKey()
+                        : initiative.getKey();
+
+                units.computeIfAbsent(unitName, ShardUnit::new).add(initiative, epics, initiativeRows.getValue());
+                continue;
+            }
+
+            // Every part of the placeholder repeats its row, which is counted once per unit
+            Map<Issue, Integer> epicRowCounts = epics.parallelStream()
+                    .collect(Collectors.toMap(Function.identity(), epic -> rowPlanner.planInitiative(
+                            new AbstractMap.SimpleImmutableEntry<>(initiative, Collections.singletonList(epic)))
+                            .size() - 1, Integer::sum, LinkedHashMap::new));
+
+            epicRowCounts.forEach((epic, epicRows) -> {
+                String unitName = shardMode == ShardMode.PROJECT ? getProjectKey(epic) : epic.getKey();
+                ShardUnit unit = units.computeIfAbsent(unitName, ShardUnit::new);
+
+                unit.splitInitiative = true;
+                unit.add(initiative, Collections.singletonList(epic),
+                        unit.initiatives.contains(initiative) ? epicRows : epicRows + 1);
+            });
+        }
+
+        return units.values();
+    }
+
+    private static String getProjectKey(Issue issue)
+    {
+        return issue.getProject() == null ? UNASSIGNED_PROJECT : issue.getProject().getKey();
+    }
+
+    /**
+     * Initiatives, or the epics of an initiative, that are kept together within a single shard.
+     *
+     * @since 1.0.0
+     */
+    private static class ShardUnit
+    {
+        private final String name;
+        private final List<Issue> initiatives = new ArrayList<>();
+        private final List<Issue> epics = new ArrayList<>();
+
+        private int rowCount;
+        private boolean splitInitiative;
+
+        private ShardUnit(String name)
+        {
+            this.name = name;
+        }
+
+        private void add(Issue initiative, List<Issue> initiativeEpics, int rows)
+        {
+            if (!initiatives.contains(initiative))
+            {
+                initiatives.add(initiative);
+            }
+            epics.addAll(initiativeEpics);
+            rowCount += rows;
+        }
+    }
+}
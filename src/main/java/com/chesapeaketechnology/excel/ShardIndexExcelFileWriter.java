@@ -0,0 +1,88 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import java.util.List;
+
+/**
+ * Generates an excel sheet that links to the workbooks holding the shards of an oversized "master" tab.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ShardIndexExcelFileWriter extends AExcelFileWriter
+{
+    static final String SHEET_NAME = "Report Index";
+
+    private static final int PART_COLUMN = 0;
+    private static final int FILE_COLUMN = 1;
+    private static final int ROWS_COLUMN = 2;
+    private static final int CONTENT_COLUMN = 3;
+
+    private final XSSFSheet indexSheet;
+    private final List<ReportShard> shards;
+
+    /**
+     * Creates an excel sheet listing the shards of a report.
+     *
+     * @param context The workbook, analytics, and settings of the report being generated.
+     * @param shards  The shards of the report. Each shard's file must be set.
+     */
+    ShardIndexExcelFileWriter(SheetContext context, List<ReportShard> shards)
+    {
+        super(context);
+
+        this.shards = shards;
+        indexSheet = workbook.createSheet(SHEET_NAME);
+    }
+
+    /**
+     * Writes a row per shard whose file name links to the shard's workbook. Links are relative so the report directory
+     * can be moved as a whole.
+     */
+    @Override
+    public void writeSheet()
+    {
+        ColumnWidthEstimator columnWidthEstimator = new ColumnWidthEstimator(columnWidthPercentile, PART_COLUMN,
+                FILE_COLUMN, ROWS_COLUMN, CONTENT_COLUMN);
+
+        Row row = indexSheet.createRow(0);
+        createTitleCell(row, PART_COLUMN, "Part");
+        createTitleCell(row, FILE_COLUMN, "File");
+        createTitleCell(row, ROWS_COLUMN, "Rows");
+        createTitleCell(row, CONTENT_COLUMN, MasterExcelFileWriter.SHEET_NAME);
+        columnWidthEstimator.record(row);
+
+        for (ReportShard shard : shards)
+        {
+            row = indexSheet.createRow(shard.getNumber());
+            row.createCell(PART_COLUMN).setCellValue(shard.getNumber());
+            row.createCell(ROWS_COLUMN).setCellValue(shard.getRowCount());
+            row.createCell(CONTENT_COLUMN).setCellValue(shard.getDescription());
+
+            Hyperlink link = creationHelper.createHyperlink(HyperlinkType.FILE);
+            link.setAddress(shard.getFile().getName().replace(" ", "%20"));
+
+            Cell fileCell = row.createCell(FILE_COLUMN);
+            fileCell.setCellValue(shard.getFile().getName());
+            fileCell.setHyperlink(link);
+            fileCell.setCellStyle(urlStyle);
+
+            columnWidthEstimator.record(row);
+        }
+
+        indexSheet.createFreezePane(0, 1);
+        columnWidthEstimator.apply(indexSheet);
+    }
+
+    private void createTitleCell(Row row, int column, String title)
+    {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(title);
+        cell.setCellStyle(titleStyle);
+    }
+}
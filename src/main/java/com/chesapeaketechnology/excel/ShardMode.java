@@ -0,0 +1,22 @@
+package com.chesapeaketechnology.excel;
+
+/**
+ * The units that the "master" tab of an oversized report is split along when it is sharded into several files.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public enum ShardMode
+{
+    /**
+     * Each initiative is kept whole within a single shard. When initiatives are not loaded, each epic is kept whole
+     * instead.
+     */
+    INITIATIVE,
+
+    /**
+     * All initiatives of a JIRA project are kept together within a single shard. When initiatives are not loaded, the
+     * epics of each project are kept together instead.
+     */
+    PROJECT
+}
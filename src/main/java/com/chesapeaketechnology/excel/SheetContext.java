@@ -0,0 +1,265 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * The workbook, analytics, and settings shared by the sheets of a single report.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class SheetContext
+{
+    private final XSSFWorkbook workbook;
+    private final ReportAnalytics analytics;
+    private final Map<XSSFSheet, StreamingSheetWriter> streamedSheets = new HashMap<>();
+
+    private Collection<Issue> activeInitiatives = new ArrayList<>();
+    private Collection<Issue> activeEpics = new ArrayList<>();
+    private Collection<String> activeSprints = new ArrayList<>();
+    private Collection<String> activeLabels = new ArrayList<>();
+    private List<String> presenceChecks = new ArrayList<>();
+    private double columnWidthPercentile = 1.0;
+
+    private boolean collapseGroups = false;
+    private HyperlinkMode hyperlinkMode = HyperlinkMode.FORMULA;
+    private String jiraBaseUrl;
+    private WriterBackend writerBackend = WriterBackend.POI;
+    private DeveloperChartMode developerChartMode = DeveloperChartMode.PER_DEVELOPER;
+    private Set<ExportFormat> exportFormats = EnumSet.noneOf(ExportFormat.class);
+    private File reportFile;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private final Map<File, File> stagedFiles = new LinkedHashMap<>();
+
+    /**
+     * Creates the context of a report.
+     *
+     * @param workbook  The workbook that sheets are created in.
+     * @param analytics The issues and derived analytics the report is generated from.
+     */
+    SheetContext(XSSFWorkbook workbook, ReportAnalytics analytics)
+    {
+        this.workbook = workbook;
+        this.analytics = analytics;
+    }
+
+    /**
+     * Creates the context of a report that shares the analytics, filters, and settings of another report.
+     *
+     * @param workbook The workbook that sheets are created in.
+     * @param settings The context whose analytics, filters, and settings are copied.
+     */
+    SheetContext(XSSFWorkbook workbook, SheetContext settings)
+    {
+        this(workbook, settings.analytics);
+
+        setActiveData(settings.activeInitiatives, settings.activeEpics, settings.activeSprints, settings.activeLabels,
+                settings.presenceChecks);
+        columnWidthPercentile = settings.columnWidthPercentile;
+        collapseGroups = settings.collapseGroups;
+        hyperlinkMode = settings.hyperlinkMode;
+        jiraBaseUrl = settings.jiraBaseUrl;
+        writerBackend = settings.writerBackend;
+        developerChartMode = settings.developerChartMode;
+        exportFormats = settings.exportFormats;
+        compressionLevel = settings.compressionLevel;
+    }
+
+    public XSSFWorkbook getWorkbook()
+    {
+        return workbook;
+    }
+
+    public ReportAnalytics getAnalytics()
+    {
+        return analytics;
+    }
+
+    public Collection<Issue> getActiveInitiatives()
+    {
+        return activeInitiatives;
+    }
+
+    public Collection<Issue> getActiveEpics()
+    {
+        return activeEpics;
+    }
+
+    public Collection<String> getActiveSprints()
+    {
+        return activeSprints;
+    }
+
+    public Collection<String> getActiveLabels()
+    {
+        return activeLabels;
+    }
+
+    public List<String> getPresenceChecks()
+    {
+        return presenceChecks;
+    }
+
+    public double getColumnWidthPercentile()
+    {
+        return columnWidthPercentile;
+    }
+
+    /**
+     * Sets the subsets of elements that should be processed when generating the report.
+     *
+     * @param activeInitiatives The JIRA initiatives that should be included in reports.
+     * @param activeEpics       The JIRA epics that should be included in reports.
+     * @param activeSprints     The JIRA sprints that should be included in reports.
+     * @param activeLabels      The JIRA labels that should be included in reports.
+     * @param presenceChecks    The JIRA labels that should be checked for presence.
+     */
+    void setActiveData(Collection<Issue> activeInitiatives, Collection<Issue> activeEpics,
+                       Collection<String> activeSprints, Collection<String> activeLabels,
+                       List<String> presenceChecks)
+    {
+        this.activeInitiatives = activeInitiatives;
+        this.activeEpics = activeEpics;
+        this.activeSprints = activeSprints;
+        this.activeLabels = activeLabels;
+        this.presenceChecks = presenceChecks;
+    }
+
+    void setColumnWidthPercentile(double columnWidthPercentile)
+    {
+        this.columnWidthPercentile = columnWidthPercentile;
+    }
+
+    boolean isCollapseGroups()
+    {
+        return collapseGroups;
+    }
+
+    void setCollapseGroups(boolean collapseGroups)
+    {
+        this.collapseGroups = collapseGroups;
+    }
+
+    HyperlinkMode getHyperlinkMode()
+    {
+        return hyperlinkMode;
+    }
+
+    String getJiraBaseUrl()
+    {
+        return jiraBaseUrl;
+    }
+
+    void setHyperlinks(HyperlinkMode hyperlinkMode, String jiraBaseUrl)
+    {
+        this.hyperlinkMode = hyperlinkMode;
+        this.jiraBaseUrl = jiraBaseUrl;
+    }
+
+    WriterBackend getWriterBackend()
+    {
+        return writerBackend;
+    }
+
+    void setWriterBackend(WriterBackend writerBackend)
+    {
+        this.writerBackend = writerBackend;
+    }
+
+    DeveloperChartMode getDeveloperChartMode()
+    {
+        return developerChartMode;
+    }
+
+    void setDeveloperChartMode(DeveloperChartMode developerChartMode)
+    {
+        this.developerChartMode = developerChartMode;
+    }
+
+    Set<ExportFormat> getExportFormats()
+    {
+        return exportFormats;
+    }
+
+    void setExportFormats(Set<ExportFormat> exportFormats)
+    {
+        this.exportFormats = exportFormats;
+    }
+
+    void setReportFile(File reportFile)
+    {
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Gets the file that rows are exported to, which sits beside the excel report and shares its name.
+     *
+     * @param exportFormat The format of the export.
+     * @return The destination of the export.
+     */
+    File getExportFile(ExportFormat exportFormat)
+    {
+        String path = reportFile.getPath();
+
+        return new File(path.substring(0, path.lastIndexOf('.')) + exportFormat.getExtension());
+    }
+
+    int getCompressionLevel()
+    {
+        return compressionLevel;
+    }
+
+    void setCompressionLevel(int compressionLevel)
+    {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Creates the temporary file that a file of the report is written to. The file is published to {@code target}
+     * together with the workbook, so the report's files only appear once all of them have been written.
+     *
+     * @param target The destination of the file.
+     * @return The temporary file to write.
+     */
+    File createStagedFile(File target)
+    {
+        File tempFile = AtomicFiles.getTempFile(target);
+
+        stagedFiles.put(tempFile, target);
+
+        return tempFile;
+    }
+
+    /**
+     * Gets the files written through {@link #createStagedFile(File)} that have not been published yet.
+     *
+     * @return A mutable mapping of temporary files to their destinations.
+     */
+    Map<File, File> getStagedFiles()
+    {
+        return stagedFiles;
+    }
+
+    /**
+     * Gets the sheets whose rows were streamed to temporary files rather than created in the workbook.
+     *
+     * @return A mutable mapping of sheets to the writers holding their rows.
+     */
+    Map<XSSFSheet, StreamingSheetWriter> getStreamedSheets()
+    {
+        return streamedSheets;
+    }
+}
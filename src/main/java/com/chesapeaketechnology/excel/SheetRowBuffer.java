@@ -0,0 +1,225 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, fixed width buffer holding the values of a single sheet row. Rows are filled in any column order and then
+ * handed to an {@link IRowSink}, which allows the same rendering code to target the POI object model or a streaming
+ * writer without creating an object per cell.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class SheetRowBuffer
+{
+    static final byte BLANK = 0;
+    static final byte STRING = 1;
+    static final byte NUMBER = 2;
+    static final byte BOOLEAN = 3;
+    static final byte FORMULA = 4;
+
+    private final byte[] types;
+    private final String[] strings;
+    private final double[] numbers;
+    private final CellStyle[] styles;
+    private final String[] formulaResults;
+    private final String[] linkAddresses;
+    private final boolean[] present;
+
+    private int rowIndex;
+    private int outlineLevel;
+    private boolean collapsed;
+    private boolean hidden;
+    private int lastColumn = -1;
+
+    /**
+     * Creates a buffer able to hold {@code columns} cells.
+     *
+     * @param columns The maximum number of columns in a row.
+     */
+    SheetRowBuffer(int columns)
+    {
+        types = new byte[columns];
+        strings = new String[columns];
+        numbers = new double[columns];
+        styles = new CellStyle[columns];
+        formulaResults = new String[columns];
+        linkAddresses = new String[columns];
+        present = new boolean[columns];
+    }
+
+    /**
+     * Clears the previous row's values so the buffer can be filled with the values of the row at {@code rowIndex}.
+     *
+     * @param rowIndex The zero based index of the row that will be buffered.
+     */
+    void reset(int rowIndex)
+    {
+        int clearTo = lastColumn + 1;
+
+        Arrays.fill(types, 0, clearTo, BLANK);
+        Arrays.fill(strings, 0, clearTo, null);
+        Arrays.fill(styles, 0, clearTo, null);
+        Arrays.fill(formulaResults, 0, clearTo, null);
+        Arrays.fill(linkAddresses, 0, clearTo, null);
+        Arrays.fill(present, 0, clearTo, false);
+
+        this.rowIndex = rowIndex;
+        outlineLevel = 0;
+        collapsed = false;
+        hidden = false;
+        lastColumn = -1;
+    }
+
+    /**
+     * Sets the outline state of the buffered row.
+     *
+     * @param outlineLevel The excel outline level of the row in the range [0, 7].
+     * @param collapsed    True if the group summarized by this row is collapsed.
+     * @param hidden       True if the row is part of a collapsed group.
+     */
+    void setOutline(int outlineLevel, boolean collapsed, boolean hidden)
+    {
+        this.outlineLevel = outlineLevel;
+        this.collapsed = collapsed;
+        this.hidden = hidden;
+    }
+
+    void setString(int column, String value)
+    {
+        touch(column);
+        types[column] = value == null ? BLANK : STRING;
+        strings[column] = value;
+    }
+
+    void setNumber(int column, double value)
+    {
+        touch(column);
+        types[column] = NUMBER;
+        numbers[column] = value;
+    }
+
+    void setBoolean(int column, boolean value)
+    {
+        touch(column);
+        types[column] = BOOLEAN;
+        numbers[column] = value ? 1 : 0;
+    }
+
+    /**
+     * Sets a formula whose result is a string.
+     *
+     * @param column      The index of the column to set.
+     * @param formula     The formula without a leading '='.
+     * @param cachedValue The result of the formula that should be displayed before excel recalculates it.
+     */
+    void setFormula(int column, String formula, String cachedValue)
+    {
+        touch(column);
+        types[column] = FORMULA;
+        strings[column] = formula;
+        formulaResults[column] = cachedValue;
+    }
+
+    void setStyle(int column, CellStyle style)
+    {
+        touch(column);
+        styles[column] = style;
+    }
+
+    /**
+     * Links a cell to an external address.
+     *
+     * @param column  The index of the column to link.
+     * @param address The URL the cell should link to.
+     */
+    void setLinkAddress(int column, String address)
+    {
+        touch(column);
+        linkAddresses[column] = address;
+    }
+
+    int getRowIndex()
+    {
+        return rowIndex;
+    }
+
+    int getOutlineLevel()
+    {
+        return outlineLevel;
+    }
+
+    boolean isCollapsed()
+    {
+        return collapsed;
+    }
+
+    boolean isHidden()
+    {
+        return hidden;
+    }
+
+    int getLastColumn()
+    {
+        return lastColumn;
+    }
+
+    /**
+     * Evaluates if a cell has been created in {@code column}, even if it only carries a style.
+     *
+     * @param column The index of the column.
+     * @return True if the cell was set.
+     */
+    boolean hasCell(int column)
+    {
+        return column < present.length && present[column];
+    }
+
+    byte getType(int column)
+    {
+        return types[column];
+    }
+
+    String getString(int column)
+    {
+        return types[column] == STRING ? strings[column] : null;
+    }
+
+    double getNumber(int column)
+    {
+        return numbers[column];
+    }
+
+    boolean getBoolean(int column)
+    {
+        return numbers[column] != 0;
+    }
+
+    String getFormula(int column)
+    {
+        return types[column] == FORMULA ? strings[column] : null;
+    }
+
+    String getFormulaCachedValue(int column)
+    {
+        return types[column] == FORMULA ? formulaResults[column] : null;
+    }
+
+    CellStyle getStyle(int column)
+    {
+        return styles[column];
+    }
+
+    String getLinkAddress(int column)
+    {
+        return linkAddresses[column];
+    }
+
+    private void touch(int column)
+    {
+        present[column] = true;
+        lastColumn = Math.max(lastColumn, column);
+    }
+}
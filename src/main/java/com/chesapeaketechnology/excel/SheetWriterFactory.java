@@ -0,0 +1,51 @@
+package com.chesapeaketechnology.excel;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A sheet writer factory backed by a constructor reference, used to register the built in sheets.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class SheetWriterFactory implements ISheetWriterFactory
+{
+    private final String sheetName;
+    private final Set<ReportAnalytics.Input> requiredInputs;
+    private final Function<SheetContext, ISheetWriter> constructor;
+
+    /**
+     * Creates a factory.
+     *
+     * @param sheetName      The name of the sheet.
+     * @param requiredInputs The analytics inputs used by the sheet.
+     * @param constructor    Creates the writer of the sheet.
+     */
+    SheetWriterFactory(String sheetName, Set<ReportAnalytics.Input> requiredInputs,
+                       Function<SheetContext, ISheetWriter> constructor)
+    {
+        this.sheetName = sheetName;
+        this.requiredInputs = EnumSet.copyOf(requiredInputs);
+        this.constructor = constructor;
+    }
+
+    @Override
+    public String getSheetName()
+    {
+        return sheetName;
+    }
+
+    @Override
+    public Set<ReportAnalytics.Input> getRequiredInputs()
+    {
+        return requiredInputs;
+    }
+
+    @Override
+    public ISheetWriter create(SheetContext context)
+    {
+        return constructor.apply(context);
+    }
+}
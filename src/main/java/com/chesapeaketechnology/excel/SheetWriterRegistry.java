@@ -0,0 +1,96 @@
+package com.chesapeaketechnology.excel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The sheets that can be included in a report, in the order their tabs appear. Sheets are enabled by default and their
+ * writers are only created for enabled sheets, so a disabled sheet costs nothing.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class SheetWriterRegistry
+{
+    private final Map<String, ISheetWriterFactory> factories = new LinkedHashMap<>();
+    private final Set<String> disabledSheets = new HashSet<>();
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Creates a registry containing the built in sheets followed by any {@link ISheetWriterFactory} found through
+     * {@link ServiceLoader}.
+     *
+     * @return A registry of every available sheet.
+     */
+    public static SheetWriterRegistry createDefault()
+    {
+        SheetWriterRegistry registry = new SheetWriterRegistry();
+
+        registry.register(new SheetWriterFactory(DeveloperExcelFileWriter.SHEET_NAME,
+                EnumSet.of(ReportAnalytics.Input.SPRINT_BREAKDOWN), DeveloperExcelFileWriter::new));
+        registry.register(new SheetWriterFactory(MasterExcelFileWriter.SHEET_NAME,
+                EnumSet.of(ReportAnalytics.Input.COMPLETED_ISSUES), MasterExcelFileWriter::new));
+        registry.register(new SheetWriterFactory(SummaryExcelFileWriter.SHEET_NAME,
+                EnumSet.of(ReportAnalytics.Input.COMPLETED_ISSUES), SummaryExcelFileWriter::new));
+
+        for (ISheetWriterFactory factory : ServiceLoader.load(ISheetWriterFactory.class))
+        {
+            registry.register(factory);
+        }
+
+        return registry;
+    }
+
+    /**
+     * Adds a sheet after the sheets that are already registered. A factory replaces any factory registered with the
+     * same sheet name while keeping its position.
+     *
+     * @param factory Creates the writer of the sheet.
+     */
+    public void register(ISheetWriterFactory factory)
+    {
+        logger.debug("Registering sheet: {}", factory.getSheetName());
+
+        factories.put(factory.getSheetName(), factory);
+    }
+
+    /**
+     * Configures if a sheet will be included in reports.
+     *
+     * @param sheetName The name of the sheet.
+     * @param enabled   {@code true} if the sheet should be included.
+     */
+    public void setEnabled(String sheetName, boolean enabled)
+    {
+        if (enabled)
+        {
+            disabledSheets.remove(sheetName);
+        } else
+        {
+            disabledSheets.add(sheetName);
+        }
+    }
+
+    /**
+     * Gets the factories of the enabled sheets in tab order.
+     *
+     * @return The factories of the enabled sheets.
+     */
+    List<ISheetWriterFactory> getEnabledFactories()
+    {
+        return factories.values().stream()
+                .filter(factory -> !disabledSheets.contains(factory.getSheetName()))
+                .collect(Collectors.toList());
+    }
+}
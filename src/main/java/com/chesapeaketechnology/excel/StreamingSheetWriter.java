@@ -0,0 +1,285 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.util.CellReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams rendered rows as SpreadsheetML {@code <row>} elements into a temporary file. Strings are written inline and
+ * styles are referenced by their precomputed workbook index so no per-cell objects are created regardless of the
+ * number of rows. The resulting sheet data is spliced into the workbook's sheet part by {@link StreamingWorkbookWriter}.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class StreamingSheetWriter implements IRowSink, Closeable
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String[] COLUMN_NAMES = new String[256];
+
+    static
+    {
+        for (int column = 0; column < COLUMN_NAMES.length; column++)
+        {
+            COLUMN_NAMES[column] = CellReference.convertNumToColString(column);
+        }
+    }
+
+    private final File sheetDataFile;
+    private final Writer writer;
+
+    private int rowCount;
+    private long cellCount;
+
+    /**
+     * Creates a writer backed by a new temporary file. The file is removed by {@link #dispose()}, which must be called
+     * once the sheet has been written or abandoned.
+     *
+     * @throws IOException If the temporary file could not be created.
+     */
+    StreamingSheetWriter() throws IOException
+    {
+        sheetDataFile = File.createTempFile("jira-report-sheet", ".xml");
+
+        try
+        {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(sheetDataFile),
+                    StandardCharsets.UTF_8), 64 * 1024);
+        } catch (IOException exception)
+        {
+            sheetDataFile.delete();
+            throw exception;
+        }
+    }
+
+    @Override
+    public void writeRow(SheetRowBuffer row) throws IOException
+    {
+        int rowNumber = row.getRowIndex() + 1;
+
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowNumber));
+        writer.write('"');
+
+        if (row.getOutlineLevel() > 0)
+        {
+            writer.write(" outlineLevel=\"");
+            writer.write(Integer.toString(row.getOutlineLevel()));
+            writer.write('"');
+        }
+        if (row.isHidden())
+        {
+            writer.write(" hidden=\"1\"");
+        }
+        if (row.isCollapsed())
+        {
+            writer.write(" collapsed=\"1\"");
+        }
+
+        writer.write('>');
+
+        for (int column = 0; column <= row.getLastColumn(); column++)
+        {
+            if (row.hasCell(column))
+            {
+                writeCell(row, column, rowNumber);
+                cellCount++;
+            }
+        }
+
+        writer.write("</row>");
+        rowCount++;
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     *
+     * @return The number of rows.
+     */
+    int getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of cells written so far.
+     *
+     * @return The number of cells.
+     */
+    long getCellCount()
+    {
+        return cellCount;
+    }
+
+    /**
+     * Gets the file containing the {@code <row>} elements written so far. The file is only complete after the writer
+     * has been closed.
+     *
+     * @return The file containing the sheet's rows.
+     */
+    File getSheetDataFile()
+    {
+        return sheetDataFile;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+
+    /**
+     * Closes the writer and removes its temporary file.
+     */
+    void dispose()
+    {
+        try
+        {
+            close();
+        } catch (IOException ignored)
+        {
+            // The file is removed regardless of whether it could be flushed
+        }
+
+        if (sheetDataFile.exists() && !sheetDataFile.delete())
+        {
+            logger.warn("Failed to remove temporary sheet data: {}", sheetDataFile);
+        }
+    }
+
+    /**
+     * Writes a single {@code <c>} element.
+     *
+     * @param row       The buffered row.
+     * @param column    The index of the cell within the row.
+     * @param rowNumber The one based row number used in the cell's reference.
+     * @throws IOException If the cell could not be written.
+     */
+    private void writeCell(SheetRowBuffer row, int column, int rowNumber) throws IOException
+    {
+        byte type = row.getType(column);
+
+        writer.write("<c r=\"");
+        writer.write(getColumnName(column));
+        writer.write(Integer.toString(rowNumber));
+        writer.write('"');
+
+        CellStyle style = row.getStyle(column);
+
+        if (style != null && style.getIndex() != 0)
+        {
+            writer.write(" s=\"");
+            writer.write(Short.toString(style.getIndex()));
+            writer.write('"');
+        }
+
+        switch (type)
+        {
+            case SheetRowBuffer.STRING:
+                writer.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(row.getString(column));
+                writer.write("</t></is></c>");
+                break;
+            case SheetRowBuffer.NUMBER:
+                writer.write("><v>");
+                writeNumber(row.getNumber(column));
+                writer.write("</v></c>");
+                break;
+            case SheetRowBuffer.BOOLEAN:
+                writer.write(" t=\"b\"><v>");
+                writer.write(row.getBoolean(column) ? '1' : '0');
+                writer.write("</v></c>");
+                break;
+            case SheetRowBuffer.FORMULA:
+                writer.write(" t=\"str\"><f>");
+                writeEscaped(row.getFormula(column));
+                writer.write("</f><v>");
+                writeEscaped(row.getFormulaCachedValue(column));
+                writer.write("</v></c>");
+                break;
+            default:
+                writer.write("/>");
+                break;
+        }
+    }
+
+    private void writeNumber(double value) throws IOException
+    {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            writer.write(Long.toString((long) value));
+        } else
+        {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    /**
+     * Writes text with XML special characters escaped. Control characters that are not allowed in XML are dropped.
+     *
+     * @param text The text to write.
+     * @throws IOException If the text could not be written.
+     */
+    private void writeEscaped(String text) throws IOException
+    {
+        if (text == null)
+        {
+            return;
+        }
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            char character = text.charAt(i);
+
+            switch (character)
+            {
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    writer.write(character);
+                    break;
+                default:
+                    if (character >= 0x20 && character != 0xFFFE && character != 0xFFFF)
+                    {
+                        writer.write(character);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Gets the letters identifying a column, e.g. "A" for the first column.
+     *
+     * @param column The zero based index of the column.
+     * @return The letters identifying the column.
+     */
+    private static String getColumnName(int column)
+    {
+        return column < COLUMN_NAMES.length ? COLUMN_NAMES[column] : CellReference.convertNumToColString(column);
+    }
+}
@@ -0,0 +1,145 @@
+package com.chesapeaketechnology.excel;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a workbook whose large sheets were streamed with {@link StreamingSheetWriter}. POI serializes the workbook
+ * with those sheets left empty, which produces the styles, charts, drawings, and every other part. The package is then
+ * copied into the destination and the streamed rows are spliced into the empty {@code <sheetData/>} element of their
+ * sheets.
+ * <p>
+ * Because the package is copied entry by entry, this is also how a workbook is written with a compression level other
+ * than POI's default, in which case no sheets need to have been streamed.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class StreamingWorkbookWriter
+{
+    private static final String EMPTY_SHEET_DATA = "<sheetData/>";
+    private static final String SHEET_DATA_START = "<sheetData>";
+    private static final String SHEET_DATA_END = "</sheetData>";
+
+    private StreamingWorkbookWriter()
+    {
+    }
+
+    /**
+     * Writes {@code workbook} and the rows of its streamed sheets as a single xlsx package.
+     *
+     * @param workbook         The workbook containing every sheet. Streamed sheets must not contain any rows.
+     * @param streamedSheets   The sheets whose rows were written to a {@link StreamingSheetWriter}.
+     * @param outputStream     The destination of the xlsx package.
+     * @param compressionLevel The zip compression level in the range [0, 9] or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @throws IOException If the workbook could not be written.
+     */
+    static void write(XSSFWorkbook workbook, Map<XSSFSheet, StreamingSheetWriter> streamedSheets,
+                      OutputStream outputStream, int compressionLevel) throws IOException
+    {
+        Map<String, StreamingSheetWriter> streamedParts = new HashMap<>();
+
+        for (Map.Entry<XSSFSheet, StreamingSheetWriter> entry : streamedSheets.entrySet())
+        {
+            // Part names are absolute (e.g. "/xl/worksheets/sheet1.xml") while zip entries omit the leading slash
+            streamedParts.put(entry.getKey().getPackagePart().getPartName().getName().substring(1), entry.getValue());
+            entry.getValue().close();
+        }
+
+        File template = File.createTempFile("jira-report-template", ".xlsx");
+
+        try
+        {
+            try (FileOutputStream templateStream = new FileOutputStream(template))
+            {
+                workbook.write(templateStream);
+            }
+
+            try (ZipFile templateZip = new ZipFile(template))
+            {
+                ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+                zipOutputStream.setLevel(compressionLevel);
+                Enumeration<? extends ZipEntry> entries = templateZip.entries();
+
+                while (entries.hasMoreElements())
+                {
+                    ZipEntry entry = entries.nextElement();
+                    StreamingSheetWriter sheetWriter = streamedParts.get(entry.getName());
+
+                    zipOutputStream.putNextEntry(new ZipEntry(entry.getName()));
+
+                    try (InputStream entryStream = templateZip.getInputStream(entry))
+                    {
+                        if (sheetWriter == null)
+                        {
+                            IOUtils.copy(entryStream, zipOutputStream);
+                        } else
+                        {
+                            injectSheetData(entryStream, sheetWriter.getSheetDataFile(), zipOutputStream);
+                        }
+                    }
+
+                    zipOutputStream.closeEntry();
+                }
+
+                zipOutputStream.finish();
+            }
+        } finally
+        {
+            template.delete();
+        }
+    }
+
+    /**
+     * Copies an empty sheet part while replacing its {@code <sheetData/>} element with the streamed rows.
+     *
+     * @param sheetStream   The sheet part written by POI.
+     * @param sheetDataFile The streamed {@code <row>} elements.
+     * @param outputStream  The destination of the combined sheet part.
+     * @throws IOException If the sheet could not be copied.
+     */
+    private static void injectSheetData(InputStream sheetStream, File sheetDataFile, OutputStream outputStream)
+            throws IOException
+    {
+        String sheetXml = IOUtils.toString(sheetStream, StandardCharsets.UTF_8);
+        int start = sheetXml.indexOf(EMPTY_SHEET_DATA);
+        int end = start + EMPTY_SHEET_DATA.length();
+
+        if (start < 0)
+        {
+            start = sheetXml.indexOf(SHEET_DATA_START);
+            end = sheetXml.indexOf(SHEET_DATA_END, start) + SHEET_DATA_END.length();
+        }
+        if (start < 0)
+        {
+            throw new IOException("Streamed sheet does not contain a sheetData element");
+        }
+
+        outputStream.write(sheetXml.substring(0, start).getBytes(StandardCharsets.UTF_8));
+        outputStream.write(SHEET_DATA_START.getBytes(StandardCharsets.UTF_8));
+
+        try (InputStream sheetDataStream = new FileInputStream(sheetDataFile))
+        {
+            IOUtils.copy(sheetDataStream, outputStream);
+        }
+
+        outputStream.write(SHEET_DATA_END.getBytes(StandardCharsets.UTF_8));
+        outputStream.write(sheetXml.substring(end).getBytes(StandardCharsets.UTF_8));
+    }
+}
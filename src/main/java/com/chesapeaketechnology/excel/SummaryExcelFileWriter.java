@@ -11,7 +11,6 @@ import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xssf.usermodel.XSSFChart;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTAxDataSource;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTBarChart;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTBarSer;
@@ -35,10 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
 
 /**
@@ -49,9 +48,13 @@ import java.util.function.BiConsumer;
  */
 class SummaryExcelFileWriter extends AExcelFileWriter
 {
+    static final String SHEET_NAME = "Issue Completion Rates";
+
     private XSSFSheet excelSheet;
-    private Map<Issue, Double> initiativeCompletions = new HashMap<>();
-    private Map<Issue, Double> epicCompletions = new HashMap<>();
+    private ColumnWidthEstimator columnWidthEstimator;
+    // Sorted by key so that the same issues always produce the same rows
+    private Map<Issue, Double> initiativeCompletions = new TreeMap<>(Comparator.comparing(Issue::getKey));
+    private Map<Issue, Double> epicCompletions = new TreeMap<>(Comparator.comparing(Issue::getKey));
 
     private static final int INITIATIVE_NAME_COLUMN = 0;
     private static final int INITIATIVE_VALUE_COLUMN = 1;
@@ -63,25 +66,25 @@ class SummaryExcelFileWriter extends AExcelFileWriter
     /**
      * Creates an excel sheet and initializes fonts and styles.
      *
-     * @param workbook          A excel sheet wrapper.
-     * @param initiativeEpicMap A decomposition of initiatives into epics.
-     * @param epicStoryMap      A decomposition of epics into initiatives.
+     * @param context The workbook, analytics, and settings of the report being generated.
      */
-    SummaryExcelFileWriter(XSSFWorkbook workbook, Map<Issue, List<Issue>> initiativeEpicMap,
-                           Map<Issue, List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap)
+    SummaryExcelFileWriter(SheetContext context)
     {
-        super(workbook, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+        super(context);
 
-        excelSheet = workbook.createSheet("Issue Completion Rates");
+        excelSheet = workbook.createSheet(SHEET_NAME);
     }
 
-    void generateReport()
+    @Override
+    public void writeSheet()
     {
+        columnWidthEstimator = new ColumnWidthEstimator(columnWidthPercentile, INITIATIVE_VALUE_COLUMN,
+                EPIC_VALUE_COLUMN);
+
         updateCompletionRates();
         writeAnaltyicsToExcel();
         excelSheet.setDefaultColumnWidth(30);
-        excelSheet.autoSizeColumn(1);
-        excelSheet.autoSizeColumn(3);
+        columnWidthEstimator.apply(excelSheet);
     }
 
     /**
@@ -131,11 +134,11 @@ class SummaryExcelFileWriter extends AExcelFileWriter
      * @param issue The issue to retrieve information from.
      * @return The progress stage that a ticket is in.
      */
-    private Double getPercentComplete(Issue issue)
+    Double getPercentComplete(Issue issue)
     {
-        Set<Issue> allNestedStories = getAllNestedIssues(issue);
+        IssueGraph.NodeSet allNestedStories = getAllNestedIssues(issue);
 
-        double completedNestedStories = allNestedStories.stream().filter(completedIssues::contains).count();
+        double completedNestedStories = allNestedStories.countCommon(analytics.getCompletedIssues());
 
         return completedNestedStories / allNestedStories.size();
     }
@@ -153,6 +156,7 @@ class SummaryExcelFileWriter extends AExcelFileWriter
         row.createCell(INITIATIVE_VALUE_COLUMN).setCellValue("Initiative");
         row.createCell(EPIC_NAME_COLUMN); //Epic Name Column
         row.createCell(EPIC_VALUE_COLUMN).setCellValue("Epic");
+        columnWidthEstimator.record(row);
 
         initiativeCompletions.forEach(new BiConsumer<Issue, Double>()
         {
@@ -168,6 +172,7 @@ class SummaryExcelFileWriter extends AExcelFileWriter
                 nameCell.setCellValue(issue.getSummary());
                 valueCell.setCellValue(percentComplete);
                 valueCell.setCellStyle(wrapStyle);
+                columnWidthEstimator.record(valueCell.getColumnIndex(), percentComplete);
             }
         });
 
@@ -190,6 +195,7 @@ class SummaryExcelFileWriter extends AExcelFileWriter
                 nameCell.setCellValue(issue.getSummary());
                 valueCell.setCellValue(percentComplete);
                 valueCell.setCellStyle(wrapStyle);
+                columnWidthEstimator.record(valueCell.getColumnIndex(), percentComplete);
             }
         });
 
@@ -201,18 +207,23 @@ class SummaryExcelFileWriter extends AExcelFileWriter
         ClientAnchor initiativeAnchor = drawing.createAnchor(0, 0, 0, 0, 4, 2, numInitiativeAnchorColumns, 20);
         ClientAnchor epicAnchor = drawing.createAnchor(0, 0, 0, 0, 4, 22, numEpicAnchorColumns, 42);
         XSSFChart initiativeChart = ((XSSFDrawing) drawing).createChart(initiativeAnchor);
-        XSSFChart epicChart = ((XSSFDrawing) drawing).createChart(epicAnchor);
 
         //create the references to the chart data
         CellReference firstInitiativeDataCell = new CellReference(excelSheet.getSheetName(), 0, 0, true, true);
         CellReference lastInitativeDataCell = new CellReference(excelSheet.getSheetName(), getNextEmptyInitiativeRow() - 1, 1, true, true);
 
-        //create the references to the chart data
-        CellReference firstEpicDataCell = new CellReference(excelSheet.getSheetName(), 0, 2, true, true);
-        CellReference lastEpicDataCell = new CellReference(excelSheet.getSheetName(), getNextEmptyEpicRow() - 1, 3, true, true);
-
         addChart(initiativeChart, "Initiatives", firstInitiativeDataCell, lastInitativeDataCell);
-        addChart(epicChart, "Epics", firstEpicDataCell, lastEpicDataCell);
+
+        // The epic chart only differs from the initiative chart in its title and the columns and rows it plots
+        String sheetName = excelSheet.getSheetName();
+        int lastEpicDataRow = getNextEmptyEpicRow() - 1;
+        int columnOffset = EPIC_NAME_COLUMN - INITIATIVE_NAME_COLUMN;
+
+        new ChartTemplate(initiativeChart).createChart((XSSFDrawing) drawing, epicAnchor, reference -> new AreaReference(
+                new CellReference(sheetName, reference.getFirstCell().getRow(), reference.getFirstCell().getCol() + columnOffset, true, true),
+                new CellReference(sheetName, reference.isSingleCell() ? reference.getLastCell().getRow() : lastEpicDataRow,
+                        reference.getLastCell().getCol() + columnOffset, true, true),
+                SpreadsheetVersion.EXCEL2007), "Epics");
     }
 
     /**
@@ -0,0 +1,21 @@
+package com.chesapeaketechnology.excel;
+
+/**
+ * The ways that the rows of the "master" tab can be written to a workbook.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public enum WriterBackend
+{
+    /**
+     * Rows are created in the POI object model. Every cell stays in memory until the workbook is written.
+     */
+    POI,
+
+    /**
+     * Rows are streamed as SpreadsheetML to a temporary file as they are rendered and spliced into the workbook when it
+     * is written. Memory use does not grow with the number of rows.
+     */
+    STREAMING
+}
@@ -0,0 +1,68 @@
+package com.chesapeaketechnology.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Creates the JDK Flight Recorder events of phases. Events are only created on JVMs that include the flight recorder
+ * and only while a recording has enabled them, so outside of a recording a phase costs no more than reading the clock.
+ * <p>
+ * The events are compiled in the {@code jfr} source set, which is skipped by JDKs without the flight recorder, e.g.
+ * Java 8 JDKs before 8u262. They are only reached through an {@link IPhaseRecorder} loaded by name, so the rest of the
+ * application compiles and runs without them.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class FlightEvents
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String RECORDER_CLASS = "com.chesapeaketechnology.metrics.FlightPhaseRecorder";
+
+    private static final IPhaseRecorder RECORDER = loadRecorder();
+
+    /**
+     * Begins the event of an occurrence of a phase.
+     *
+     * @param phase The kind of work.
+     * @return The event, or null if no recording has enabled events of the phase.
+     */
+    static Object begin(String phase)
+    {
+        return RECORDER != null ? RECORDER.begin(phase) : null;
+    }
+
+    /**
+     * Ends an event and commits it if the recording's settings, e.g. its duration threshold, accept it.
+     *
+     * @param event   An event returned by {@link #begin(String)}.
+     * @param phase   The kind of work.
+     * @param name    Distinguishes occurrences of the same kind of work.
+     * @param details The measurements and description of the occurrence.
+     */
+    static void commit(Object event, String phase, String name, PhaseTimer details)
+    {
+        RECORDER.commit(event, phase, name, details);
+    }
+
+    private static IPhaseRecorder loadRecorder()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.FlightRecorder");
+
+            IPhaseRecorder recorder = (IPhaseRecorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor()
+                    .newInstance();
+
+            return recorder.isAvailable() ? recorder : null;
+        } catch (ReflectiveOperationException | LinkageError exception)
+        {
+            logger.debug("The flight recorder is not available, report phases will not be recorded");
+
+            return null;
+        }
+    }
+}
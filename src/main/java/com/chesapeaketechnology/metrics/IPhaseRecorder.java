@@ -0,0 +1,36 @@
+package com.chesapeaketechnology.metrics;
+
+/**
+ * Records phases as JDK Flight Recorder events. The implementation is compiled separately from the rest of the
+ * application, only by JDKs that include the flight recorder, and is loaded by name so the application runs without it.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+interface IPhaseRecorder
+{
+    /**
+     * Checks whether the running JVM can record events.
+     *
+     * @return True if the flight recorder is available.
+     */
+    boolean isAvailable();
+
+    /**
+     * Begins the event of an occurrence of a phase.
+     *
+     * @param phase The kind of work.
+     * @return The event, or null if no recording has enabled events of the phase.
+     */
+    Object begin(String phase);
+
+    /**
+     * Ends an event and commits it if the recording's settings, e.g. its duration threshold, accept it.
+     *
+     * @param event   An event returned by {@link #begin(String)}.
+     * @param phase   The kind of work.
+     * @param name    Distinguishes occurrences of the same kind of work.
+     * @param details The measurements and description of the occurrence.
+     */
+    void commit(Object event, String phase, String name, PhaseTimer details);
+}
@@ -0,0 +1,120 @@
+package com.chesapeaketechnology.metrics;
+
+/**
+ * The accumulated measurements of one phase of a run, such as a JIRA search or the writing of a sheet. A phase can
+ * occur many times and each occurrence adds its duration, issue count, and byte count to the totals.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class PhaseStats
+{
+    private final String phase;
+    private final String name;
+
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long issues;
+    private long bytes;
+
+    /**
+     * Creates the statistics of a phase that has not occurred yet.
+     *
+     * @param phase The kind of work, e.g. {@code "jira.search"}.
+     * @param name  Distinguishes occurrences of the same kind of work, e.g. the name of a sheet, or an empty string.
+     */
+    PhaseStats(String phase, String name)
+    {
+        this.phase = phase;
+        this.name = name;
+    }
+
+    /**
+     * Adds an occurrence of the phase.
+     *
+     * @param nanos  The duration of the occurrence in nanoseconds.
+     * @param issues The number of issues handled by the occurrence.
+     * @param bytes  The number of bytes read or written by the occurrence.
+     */
+    synchronized void add(long nanos, long issues, long bytes)
+    {
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        this.issues += issues;
+        this.bytes += bytes;
+    }
+
+    /**
+     * Copies the current totals so they can be reported consistently while the phase keeps occurring.
+     *
+     * @return A copy of the statistics.
+     */
+    synchronized PhaseStats copy()
+    {
+        PhaseStats copy = new PhaseStats(phase, name);
+        copy.count = count;
+        copy.totalNanos = totalNanos;
+        copy.maxNanos = maxNanos;
+        copy.issues = issues;
+        copy.bytes = bytes;
+
+        return copy;
+    }
+
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public synchronized long getCount()
+    {
+        return count;
+    }
+
+    public synchronized double getTotalSeconds()
+    {
+        return totalNanos / 1_000_000_000.0;
+    }
+
+    public synchronized double getMaxSeconds()
+    {
+        return maxNanos / 1_000_000_000.0;
+    }
+
+    public synchronized long getIssues()
+    {
+        return issues;
+    }
+
+    public synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of issues handled per second spent in the phase.
+     *
+     * @return The issue throughput, or 0 if no time was spent in the phase.
+     */
+    public synchronized double getIssuesPerSecond()
+    {
+        return totalNanos == 0 ? 0 : issues / getTotalSeconds();
+    }
+
+    /**
+     * Gets the number of bytes read or written per second spent in the phase.
+     *
+     * @return The byte throughput, or 0 if no time was spent in the phase.
+     */
+    public synchronized double getBytesPerSecond()
+    {
+        return totalNanos == 0 ? 0 : bytes / getTotalSeconds();
+    }
+}
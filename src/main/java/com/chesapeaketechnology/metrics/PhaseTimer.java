@@ -0,0 +1,169 @@
+package com.chesapeaketechnology.metrics;
+
+/**
+ * Measures a single occurrence of a phase from its creation until it is closed, e.g.
+ * <pre>
+ * try (PhaseTimer timer = RunMetrics.getDefault().start("jira.search"))
+ * {
+ *     timer.addIssues(search().size());
+ * }
+ * </pre>
+ * While a JDK Flight Recorder recording is running, the occurrence is also recorded as an event carrying its details.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class PhaseTimer implements AutoCloseable
+{
+    private final PhaseStats stats;
+    private final String phase;
+    private final String name;
+    private final Object flightEvent;
+    private final long startNanos = System.nanoTime();
+
+    private long issues;
+    private long bytes;
+    private long rows;
+    private long cells;
+    private long offset;
+    private String detail = "";
+    private boolean closed;
+
+    /**
+     * Starts measuring an occurrence of a phase.
+     *
+     * @param stats The statistics the occurrence is added to when closed, or null if it is only recorded as an event.
+     * @param phase The kind of work.
+     * @param name  Distinguishes occurrences of the same kind of work.
+     */
+    PhaseTimer(PhaseStats stats, String phase, String name)
+    {
+        this.stats = stats;
+        this.phase = phase;
+        this.name = name;
+        this.flightEvent = FlightEvents.begin(phase);
+    }
+
+    /**
+     * Counts issues handled during the occurrence.
+     *
+     * @param issues The number of issues.
+     */
+    public void addIssues(long issues)
+    {
+        this.issues += issues;
+    }
+
+    /**
+     * Counts bytes read or written during the occurrence.
+     *
+     * @param bytes The number of bytes.
+     */
+    public void addBytes(long bytes)
+    {
+        this.bytes += bytes;
+    }
+
+    /**
+     * Counts rows written during the occurrence. Rows are only recorded in flight recorder events.
+     *
+     * @param rows The number of rows.
+     */
+    public void addRows(long rows)
+    {
+        this.rows += rows;
+    }
+
+    /**
+     * Counts cells written during the occurrence. Cells are only recorded in flight recorder events.
+     *
+     * @param cells The number of cells.
+     */
+    public void addCells(long cells)
+    {
+        this.cells += cells;
+    }
+
+    /**
+     * Sets the position of the occurrence within a larger piece of work, e.g. the index of the first issue of a page of
+     * search results.
+     *
+     * @param offset The position of the occurrence.
+     */
+    public void setOffset(long offset)
+    {
+        this.offset = offset;
+    }
+
+    /**
+     * Describes the occurrence in flight recorder events, e.g. with the JQL of a search.
+     *
+     * @param detail The description of the occurrence.
+     */
+    public void setDetail(String detail)
+    {
+        this.detail = detail;
+    }
+
+    /**
+     * Evaluates if the occurrence is being recorded as a flight recorder event. Details that are expensive to collect,
+     * such as the number of cells in a sheet, should only be collected when they will be recorded.
+     *
+     * @return True if the occurrence is being recorded by the flight recorder.
+     */
+    public boolean isRecording()
+    {
+        return flightEvent != null;
+    }
+
+    long getIssues()
+    {
+        return issues;
+    }
+
+    long getBytes()
+    {
+        return bytes;
+    }
+
+    long getRows()
+    {
+        return rows;
+    }
+
+    long getCells()
+    {
+        return cells;
+    }
+
+    long getOffset()
+    {
+        return offset;
+    }
+
+    String getDetail()
+    {
+        return detail;
+    }
+
+    /**
+     * Stops measuring and adds the occurrence to its phase. Closing a timer more than once has no effect.
+     */
+    @Override
+    public void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+
+            if (stats != null)
+            {
+                stats.add(System.nanoTime() - startNanos, issues, bytes);
+            }
+            if (flightEvent != null)
+            {
+                FlightEvents.commit(flightEvent, phase, name, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.chesapeaketechnology.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.typesafe.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Collects the duration, issue count, and byte count of every phase of a run: loading the custom fields, each JIRA
+ * search, building the issue hierarchy, preparing the analytics, writing each sheet, serializing each workbook,
+ * and uploading each file. The totals can be saved as a JSON summary or exposed in the Prometheus text format.
+ * <p>
+ * Phases are identified by their kind, e.g. {@code "sheet"}, and a name that distinguishes occurrences of the same
+ * kind, e.g. the sheet's name. The totals are cumulative for the life of the process. While a JDK Flight Recorder
+ * recording is running, each occurrence is also recorded as an event, see {@link PhaseTimer}.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class RunMetrics
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final RunMetrics DEFAULT = new RunMetrics();
+    private static final String SUMMARY_FILE_KEY = "jira-excel-analysis.metricsFile";
+    private static final String METRIC_PREFIX = "jira_report_phase_";
+
+    private final ConcurrentMap<String, PhaseStats> phases = new ConcurrentHashMap<>();
+    private final Instant startTime = Instant.now();
+
+    /**
+     * Gets the metrics shared by every phase of this process.
+     *
+     * @return The metrics of this process.
+     */
+    public static RunMetrics getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the file the metrics summary of a run is saved to.
+     *
+     * @param config The configuration of the run.
+     * @return The configured {@code metricsFile}, or {@code reports/metrics.json} if none is configured.
+     */
+    public static File getSummaryFile(Config config)
+    {
+        return new File(config.hasPath(SUMMARY_FILE_KEY) ? config.getString(SUMMARY_FILE_KEY) : "reports/metrics.json");
+    }
+
+    /**
+     * Starts measuring an occurrence of a phase that only occurs in one form.
+     *
+     * @param phase The kind of work, e.g. {@code "jira.hierarchy"}.
+     * @return A timer that adds the occurrence to the phase when closed.
+     */
+    public PhaseTimer start(String phase)
+    {
+        return start(phase, "");
+    }
+
+    /**
+     * Starts measuring an occurrence of a phase.
+     *
+     * @param phase The kind of work, e.g. {@code "sheet"}.
+     * @param name  Distinguishes occurrences of the same kind of work, e.g. the name of the sheet.
+     * @return A timer that adds the occurrence to the phase when closed.
+     */
+    public PhaseTimer start(String phase, String name)
+    {
+        return new PhaseTimer(getStats(phase, name), phase, name);
+    }
+
+    /**
+     * Starts a flight recorder event for an occurrence of a phase whose duration is added to the metrics separately
+     * through {@link #record(String, String, long, long, long)}, e.g. because it excludes time spent waiting.
+     *
+     * @param phase The kind of work.
+     * @param name  Distinguishes occurrences of the same kind of work.
+     * @return A timer that only records the occurrence as a flight recorder event when closed.
+     */
+    public PhaseTimer trace(String phase, String name)
+    {
+        return new PhaseTimer(null, phase, name);
+    }
+
+    /**
+     * Adds an occurrence of a phase that was measured elsewhere.
+     *
+     * @param phase  The kind of work.
+     * @param name   Distinguishes occurrences of the same kind of work.
+     * @param nanos  The duration of the occurrence in nanoseconds.
+     * @param issues The number of issues handled by the occurrence.
+     * @param bytes  The number of bytes read or written by the occurrence.
+     */
+    public void record(String phase, String name, long nanos, long issues, long bytes)
+    {
+        getStats(phase, name).add(nanos, issues, bytes);
+    }
+
+    /**
+     * Gets a copy of the totals of every phase that has occurred.
+     *
+     * @return The phases sorted by kind and name.
+     */
+    public List<PhaseStats> getPhases()
+    {
+        List<PhaseStats> copies = new ArrayList<>();
+
+        phases.values().forEach(stats -> copies.add(stats.copy()));
+        copies.sort(Comparator.comparing(PhaseStats::getPhase).thenComparing(PhaseStats::getName));
+
+        return copies;
+    }
+
+    /**
+     * Saves the totals of every phase, including their throughput, as JSON.
+     *
+     * @param file The summary file, which is replaced if it exists.
+     */
+    public void writeSummary(File file)
+    {
+        File directory = file.getAbsoluteFile().getParentFile();
+
+        if (directory != null && !directory.exists() && !directory.mkdirs())
+        {
+            logger.warn("Failed to create the directory of the metrics summary: {}", directory);
+        }
+
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file, JsonEncoding.UTF8))
+        {
+            Instant endTime = Instant.now();
+
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("startTime", startTime.toString());
+            generator.writeStringField("endTime", endTime.toString());
+            generator.writeNumberField("durationSeconds",
+                    (endTime.toEpochMilli() - startTime.toEpochMilli()) / 1_000.0);
+            generator.writeArrayFieldStart("phases");
+
+            for (PhaseStats stats : getPhases())
+            {
+                generator.writeStartObject();
+                generator.writeStringField("phase", stats.getPhase());
+                generator.writeStringField("name", stats.getName());
+                generator.writeNumberField("count", stats.getCount());
+                generator.writeNumberField("seconds", stats.getTotalSeconds());
+                generator.writeNumberField("maxSeconds", stats.getMaxSeconds());
+                generator.writeNumberField("issues", stats.getIssues());
+                generator.writeNumberField("bytes", stats.getBytes());
+                generator.writeNumberField("issuesPerSecond", stats.getIssuesPerSecond());
+                generator.writeNumberField("bytesPerSecond", stats.getBytesPerSecond());
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            logger.info("Saved run metrics to {}", file);
+        } catch (IOException exception)
+        {
+            logger.warn("Failed to save the run metrics: ", exception);
+        }
+    }
+
+    /**
+     * Formats the totals of every phase in the Prometheus text exposition format.
+     *
+     * @return The metrics as Prometheus text.
+     */
+    public String toPrometheusText()
+    {
+        List<PhaseStats> phaseList = getPhases();
+        StringBuilder text = new StringBuilder();
+
+        appendMetric(text, phaseList, "count_total", "Number of times each phase occurred.",
+                stats -> (double) stats.getCount());
+        appendMetric(text, phaseList, "seconds_total", "Time spent in each phase.", PhaseStats::getTotalSeconds);
+        appendMetric(text, phaseList, "max_seconds", "Longest single occurrence of each phase.",
+                PhaseStats::getMaxSeconds);
+        appendMetric(text, phaseList, "issues_total", "Issues handled by each phase.",
+                stats -> (double) stats.getIssues());
+        appendMetric(text, phaseList, "bytes_total", "Bytes read or written by each phase.",
+                stats -> (double) stats.getBytes());
+
+        return text.toString();
+    }
+
+    private PhaseStats getStats(String phase, String name)
+    {
+        return phases.computeIfAbsent(phase + "\n" + name, key -> new PhaseStats(phase, name));
+    }
+
+    private static void appendMetric(StringBuilder text, List<PhaseStats> phaseList, String suffix, String help,
+                                     ToDoubleFunction<PhaseStats> value)
+    {
+        String metric = METRIC_PREFIX + suffix;
+
+        text.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(metric).append(suffix.equals("max_seconds") ? " gauge" : " counter").append('\n');
+
+        for (PhaseStats stats : phaseList)
+        {
+            double metricValue = value.applyAsDouble(stats);
+
+            text.append(metric)
+                    .append("{phase=\"").append(escapeLabel(stats.getPhase()))
+                    .append("\",name=\"").append(escapeLabel(stats.getName()))
+                    .append("\"} ")
+                    .append(metricValue == Math.rint(metricValue) ? String.valueOf((long) metricValue)
+                            : String.format(Locale.ROOT, "%.6f", metricValue))
+                    .append('\n');
+        }
+    }
+
+    private static String escapeLabel(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,88 @@
+package com.chesapeaketechnology.model;
+
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONObject;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * An issue whose summary, description, and change history are kept in a {@link TextArena} and read each time they are
+ * requested. Every other field is parsed and kept on the heap as usual.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class ArenaIssue extends Issue
+{
+    private static final String SUMMARY_FIELD = "summary";
+    private static final String DESCRIPTION_FIELD = "description";
+
+    private final TextArena arena;
+    private final long summary;
+    private final long description;
+    private final long changeLog;
+
+    private volatile SoftReference<ChangeLog> changeLogCache = new SoftReference<>(null);
+
+    /**
+     * Creates an issue whose text is stored in an arena.
+     *
+     * @param json        The REST representation of the issue without its text.
+     * @param arena       The arena containing the issue's text.
+     * @param summary     The handle of the issue's summary.
+     * @param description The handle of the issue's description.
+     * @param changeLog   The handle of the issue's change history.
+     */
+    ArenaIssue(JSONObject json, TextArena arena, long summary, long description, long changeLog)
+    {
+        super(null, json);
+
+        this.arena = arena;
+        this.summary = summary;
+        this.description = description;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public String getSummary()
+    {
+        return arena.read(summary);
+    }
+
+    @Override
+    public String getDescription()
+    {
+        return arena.read(description);
+    }
+
+    @Override
+    public Object getField(String name)
+    {
+        if (SUMMARY_FIELD.equals(name))
+        {
+            return getSummary();
+        }
+        if (DESCRIPTION_FIELD.equals(name))
+        {
+            return getDescription();
+        }
+
+        return super.getField(name);
+    }
+
+    @Override
+    public ChangeLog getChangeLog()
+    {
+        // Developer sheets read the change history once per sprint, so it is kept until the heap needs the space
+        ChangeLog cachedChangeLog = changeLogCache.get();
+
+        if (cachedChangeLog == null && changeLog >= 0)
+        {
+            cachedChangeLog = arena.readChangeLog(changeLog);
+            changeLogCache = new SoftReference<>(cachedChangeLog);
+        }
+
+        return cachedChangeLog;
+    }
+}
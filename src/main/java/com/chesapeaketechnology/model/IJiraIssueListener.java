@@ -7,6 +7,11 @@ import java.util.List;
 import java.util.Map;
 
 /**
+ * Notified as issues are loaded from JIRA. The progress callbacks have empty default implementations so listeners only
+ * implement the ones they are interested in. Pages may be fetched ahead of the initiatives being completed, so
+ * {@link #pageFetched} and {@link #changelogsFetched} may be called from a separate fetching thread, while the remaining
+ * callbacks are made in order on the thread performing the load.
+ *
  * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
  * @since 1.0.0
  */
@@ -18,4 +23,56 @@ public interface IJiraIssueListener
 
     void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue,
             List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap);
+
+    /**
+     * Called instead of {@link #allIssuesRetrieved} when a search of the load failed, e.g. once its retries ran out,
+     * with the issues that were loaded before and after the failure. The issues are incomplete, so listeners that
+     * replace previously loaded issues should keep them instead. By default the incomplete issues are ignored.
+     *
+     * @param initiativeEpicMap A mapping of the loaded initiatives to their epics.
+     * @param epicStoryMap      A mapping of the loaded epics to their stories.
+     * @param fieldCustomIdMap  A mapping of JIRA field names to their custom field ids.
+     */
+    default void loadFailed(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                            Map<String, String> fieldCustomIdMap)
+    {
+    }
+
+    /**
+     * Called after each page of search results has been fetched and its issues parsed.
+     *
+     * @param query    The JQL of the search.
+     * @param startAt  The index of the first issue of the page.
+     * @param issues   The number of issues in the page.
+     * @param total    The number of issues matched by the search.
+     * @param progress The progress of the whole load.
+     */
+    default void pageFetched(String query, int startAt, int issues, int total, LoadProgress progress)
+    {
+    }
+
+    /**
+     * Called after a page of search results that includes the change logs of its issues has been fetched.
+     *
+     * @param issues The issues of the page, whose change logs are now available.
+     */
+    default void changelogsFetched(List<Issue> issues)
+    {
+    }
+
+    /**
+     * Called once the epics and stories below an initiative have been loaded and grouped, before the remaining
+     * initiatives are loaded, so consumers can start processing partial results. Stories without an epic are grouped
+     * under a placeholder epic that is shared by every initiative, so partial results may include stories that are
+     * replaced by a later initiative and must not be used in place of the results of {@link #allIssuesRetrieved}.
+     *
+     * @param initiative       The initiative that finished loading.
+     * @param epicStoryMap     A mapping of the initiative's epics to their stories.
+     * @param fieldCustomIdMap A mapping of JIRA field names to their custom field ids.
+     * @param progress         The progress of the whole load.
+     */
+    default void initiativeCompleted(Issue initiative, Map<Issue, List<Issue>> epicStoryMap,
+                                     Map<String, String> fieldCustomIdMap, LoadProgress progress)
+    {
+    }
 }
@@ -0,0 +1,50 @@
+package com.chesapeaketechnology.model;
+
+import com.typesafe.config.Config;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Notified as each pre configured report is written, while later reports may still be generating. The sheet callbacks
+ * have empty default implementations so listeners only implement the ones they are interested in.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public interface IReportListener
+{
+    /**
+     * Called once every file of a report has been published. Called on the thread that wrote the report's files, so
+     * long running work should be handed off to another thread.
+     *
+     * @param reportName   The file name configured for the report.
+     * @param reportConfig The report's configuration from the {@code reports} list.
+     * @param files        The files of the report.
+     */
+    void reportWritten(String reportName, Config reportConfig, List<File> files);
+
+    /**
+     * Called before a sheet of a report starts being populated. Sheets of sharded reports are populated concurrently,
+     * so this may be called from several threads at once.
+     *
+     * @param reportName The file name configured for the report.
+     * @param sheetName  The name of the sheet.
+     */
+    default void sheetStarted(String reportName, String sheetName)
+    {
+    }
+
+    /**
+     * Called once a sheet of a report has been populated. The report's files are written after all of its sheets have
+     * finished.
+     *
+     * @param reportName    The file name configured for the report.
+     * @param sheetName     The name of the sheet.
+     * @param rowsWritten   The number of rows in the sheet.
+     * @param elapsedMillis The time spent populating the sheet in milliseconds.
+     */
+    default void sheetFinished(String reportName, String sheetName, int rowsWritten, long elapsedMillis)
+    {
+    }
+}
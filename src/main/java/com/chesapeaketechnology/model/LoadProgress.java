@@ -0,0 +1,111 @@
+package com.chesapeaketechnology.model;
+
+/**
+ * A snapshot of how far a load of JIRA issues has progressed, including an estimate of the time remaining.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class LoadProgress
+{
+    private final int issuesLoaded;
+    private final int initiativesCompleted;
+    private final int initiativeCount;
+    private final double completedFraction;
+    private final long elapsedMillis;
+
+    /**
+     * Creates a snapshot of a load's progress.
+     *
+     * @param issuesLoaded         The number of issues fetched so far by every search of the load.
+     * @param initiativesCompleted The number of initiatives whose children have been loaded.
+     * @param initiativeCount      The number of initiatives being loaded, or 0 if issues are not loaded through
+     *                             initiatives or the initiatives are not known yet.
+     * @param completedFraction    The fraction of the load that has completed, from 0 to 1.
+     * @param elapsedMillis        The time since the load started in milliseconds.
+     */
+    public LoadProgress(int issuesLoaded, int initiativesCompleted, int initiativeCount, double completedFraction,
+                        long elapsedMillis)
+    {
+        this.issuesLoaded = issuesLoaded;
+        this.initiativesCompleted = initiativesCompleted;
+        this.initiativeCount = initiativeCount;
+        this.completedFraction = Math.max(0, Math.min(1, completedFraction));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the number of issues fetched so far.
+     *
+     * @return The number of issues fetched by every search of the load, including initiatives and epics.
+     */
+    public int getIssuesLoaded()
+    {
+        return issuesLoaded;
+    }
+
+    /**
+     * Gets the number of initiatives whose children have been loaded.
+     *
+     * @return The number of completed initiatives.
+     */
+    public int getInitiativesCompleted()
+    {
+        return initiativesCompleted;
+    }
+
+    /**
+     * Gets the number of initiatives being loaded.
+     *
+     * @return The number of initiatives, or 0 if issues are not loaded through initiatives or the initiatives are not
+     * known yet.
+     */
+    public int getInitiativeCount()
+    {
+        return initiativeCount;
+    }
+
+    /**
+     * Gets the fraction of the load that has completed.
+     *
+     * @return A fraction from 0 to 1.
+     */
+    public double getCompletedFraction()
+    {
+        return completedFraction;
+    }
+
+    /**
+     * Gets the time since the load started.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis()
+    {
+        return elapsedMillis;
+    }
+
+    /**
+     * Estimates the time remaining by assuming the rest of the load proceeds at the rate observed so far.
+     *
+     * @return The estimated time remaining in milliseconds, or -1 if nothing has completed yet.
+     */
+    public long getEstimatedRemainingMillis()
+    {
+        if (completedFraction <= 0)
+        {
+            return -1;
+        }
+
+        return Math.round(elapsedMillis * (1 - completedFraction) / completedFraction);
+    }
+
+    @Override
+    public String toString()
+    {
+        long remainingMillis = getEstimatedRemainingMillis();
+
+        return String.format("%d issues, %.0f%% complete, %s remaining", issuesLoaded, completedFraction * 100,
+                remainingMillis < 0 ? "unknown time" : (remainingMillis + 999) / 1000 + " s");
+    }
+}
@@ -0,0 +1,303 @@
+package com.chesapeaketechnology.model;
+
+import com.typesafe.config.Config;
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.ChangeLogEntry;
+import net.rcarz.jiraclient.ChangeLogItem;
+import net.rcarz.jiraclient.Field;
+import net.rcarz.jiraclient.Issue;
+import net.rcarz.jiraclient.User;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An append-only store of the bulky text of loaded issues, their summaries, descriptions, and change histories, kept in
+ * memory-mapped files instead of on the heap. The operating system pages the text in when a report reads it and out
+ * again under memory pressure, so the heap only has to hold the fields that are filtered, sorted, and grouped on.
+ * <p>
+ * The text is appended to fixed size segments, each mapped from a temporary file that is deleted as soon as it is
+ * mapped. A segment's storage is released once the arena and every issue referring to it are no longer reachable.
+ * Platforms that cannot delete a mapped file, e.g. Windows, leave the file in the arena's directory.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class TextArena
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String ENABLED_KEY = "jira-excel-analysis.offHeapText";
+    private static final String DIRECTORY_KEY = "jira-excel-analysis.offHeapTextDirectory";
+    private static final int SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * The fields other than custom fields that are kept with each issue, i.e. every field requested from JIRA except
+     * the summary and description.
+     */
+    private static final List<String> RETAINED_FIELDS = Arrays.asList("project", "status", "issuetype", "created",
+            "updated", "resolutiondate", "labels", "assignee", "reporter", "priority", "fixVersions", "duedate",
+            "components");
+
+    private final File directory;
+    private final Collection<String> customFieldIds;
+    private final List<ByteBuffer> segments = new CopyOnWriteArrayList<>();
+
+    private ByteBuffer currentSegment;
+    private long size;
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param directory      The directory the segments' temporary files are created in.
+     * @param customFieldIds The ids of the custom fields that are kept with each issue.
+     */
+    public TextArena(File directory, Collection<String> customFieldIds)
+    {
+        this.directory = directory;
+        this.customFieldIds = new ArrayList<>(customFieldIds);
+    }
+
+    /**
+     * Gets the directory the text of loaded issues is stored in.
+     *
+     * @param config The configuration of the run.
+     * @return The configured {@code offHeapTextDirectory}, or the system's temporary directory if none is configured,
+     * or null if {@code offHeapText} is not enabled.
+     */
+    public static File getDirectory(Config config)
+    {
+        if (!config.hasPath(ENABLED_KEY) || !config.getBoolean(ENABLED_KEY))
+        {
+            return null;
+        }
+
+        return new File(config.hasPath(DIRECTORY_KEY) ? config.getString(DIRECTORY_KEY)
+                : System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Moves the summary, description, and change history of an issue into the arena.
+     *
+     * @param issue An issue returned by a JIRA search.
+     * @return An equivalent issue that reads its text from the arena, or {@code issue} if the text could not be stored.
+     */
+    public Issue compact(Issue issue)
+    {
+        try
+        {
+            JSONObject fields = new JSONObject();
+
+            for (String fieldName : RETAINED_FIELDS)
+            {
+                putField(fields, fieldName, issue.getField(fieldName));
+            }
+            for (String customFieldId : customFieldIds)
+            {
+                putField(fields, customFieldId, issue.getField(customFieldId));
+            }
+
+            JSONObject json = new JSONObject();
+            json.put("id", issue.getId());
+            json.put("key", issue.getKey());
+            json.put("self", issue.getSelf());
+            json.put("fields", fields);
+
+            return new ArenaIssue(json, this, append(issue.getSummary()), append(issue.getDescription()),
+                    append(toJson(issue.getChangeLog())));
+        } catch (IOException exception)
+        {
+            logger.warn("Failed to store the text of {} off the heap, keeping it on the heap: ", issue.getKey(),
+                    exception);
+
+            return issue;
+        }
+    }
+
+    /**
+     * Gets the number of bytes of text stored in the arena.
+     *
+     * @return The stored bytes, including the length of each text.
+     */
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Reads a text stored in the arena.
+     *
+     * @param handle The handle returned when the text was appended.
+     * @return The text, or null if the handle refers to no text.
+     */
+    String read(long handle)
+    {
+        if (handle < 0)
+        {
+            return null;
+        }
+
+        ByteBuffer segment = segments.get((int) (handle >>> 32)).duplicate();
+        int position = (int) handle;
+        byte[] bytes = new byte[segment.getInt(position)];
+
+        segment.position(position + Integer.BYTES);
+        segment.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rebuilds a change history stored in the arena.
+     *
+     * @param handle The handle returned when the change history was appended.
+     * @return The change history, or null if the issue had none.
+     */
+    ChangeLog readChangeLog(long handle)
+    {
+        String json = read(handle);
+
+        return json == null ? null : Field.getResource(ChangeLog.class, JSONObject.fromObject(json), null);
+    }
+
+    /**
+     * Appends a text to the current segment, starting a new segment when the text does not fit.
+     *
+     * @param text The text to store.
+     * @return A handle made of the index of the segment and the position of the text within it, or -1 if
+     * {@code text} is null.
+     * @throws IOException If a new segment could not be mapped.
+     */
+    private synchronized long append(String text) throws IOException
+    {
+        if (text == null)
+        {
+            return -1;
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+
+        if (currentSegment == null || currentSegment.remaining() < length)
+        {
+            currentSegment = mapSegment(Math.max(SEGMENT_BYTES, length));
+            segments.add(currentSegment);
+        }
+
+        long handle = ((long) (segments.size() - 1) << 32) | currentSegment.position();
+
+        currentSegment.putInt(bytes.length);
+        currentSegment.put(bytes);
+        size += length;
+
+        return handle;
+    }
+
+    private ByteBuffer mapSegment(int bytes) throws IOException
+    {
+        directory.mkdirs();
+
+        File segmentFile = File.createTempFile("jira-text-", ".arena", directory);
+
+        try (FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE))
+        {
+            // The mapping outlives both the channel and the file's directory entry
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } finally
+        {
+            if (!segmentFile.delete())
+            {
+                logger.warn("Failed to remove the file of a text segment, delete {} once the run ends",
+                        segmentFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private static void putField(JSONObject fields, String fieldName, Object value)
+    {
+        if (value != null)
+        {
+            fields.put(fieldName, value);
+        }
+    }
+
+    /**
+     * Converts a change history back into the form JIRA returns it in, keeping the parts the reports read.
+     *
+     * @param changeLog The change history of an issue.
+     * @return The change history as JSON, or null if there is none.
+     */
+    private static String toJson(ChangeLog changeLog)
+    {
+        if (changeLog == null || changeLog.getEntries() == null || changeLog.getEntries().isEmpty())
+        {
+            return null;
+        }
+
+        // Parsed by JIRA's date time format, in the same time zone the entry's date was read in
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        JSONArray histories = new JSONArray();
+
+        for (ChangeLogEntry entry : changeLog.getEntries())
+        {
+            JSONObject entryJson = new JSONObject();
+            JSONArray items = new JSONArray();
+
+            if (entry.getItems() != null)
+            {
+                for (ChangeLogItem item : entry.getItems())
+                {
+                    JSONObject itemJson = new JSONObject();
+
+                    itemJson.put("field", item.getField());
+                    itemJson.put("fieldtype", item.getFieldType());
+                    itemJson.put("from", item.getFrom());
+                    itemJson.put("fromString", item.getFromString());
+                    itemJson.put("to", item.getTo());
+                    itemJson.put("toString", item.getToString());
+                    items.add(itemJson);
+                }
+            }
+
+            User author = entry.getAuthor();
+
+            if (author != null)
+            {
+                JSONObject authorJson = new JSONObject();
+
+                authorJson.put("name", author.getName());
+                authorJson.put("displayName", author.getDisplayName());
+                entryJson.put("author", authorJson);
+            }
+            if (entry.getCreated() != null)
+            {
+                entryJson.put("created", dateFormat.format(entry.getCreated()));
+            }
+
+            entryJson.put("id", entry.getId());
+            entryJson.put("items", items);
+            histories.add(entryJson);
+        }
+
+        JSONObject changeLogJson = new JSONObject();
+        changeLogJson.put("histories", histories);
+
+        return changeLogJson.toString();
+    }
+}
@@ -0,0 +1,777 @@
+package com.chesapeaketechnology.simulation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.typesafe.config.Config;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A local stand-in for the JIRA REST endpoints that {@link com.chesapeaketechnology.JiraRestClient} uses, so the fetch
+ * layer can be load tested and regression tested without a JIRA instance. The server answers in one of three modes:
+ * <ul>
+ * <li>Synthetic: issues from a {@link SyntheticJiraDataset} are served from {@code /rest/api/2/search},
+ * {@code /rest/api/2/issue/<key>}, {@code /rest/api/2/issue/<key>/changelog}, and {@code /rest/api/2/field}, which
+ * are also served under {@code /rest/api/latest/}.</li>
+ * <li>Record: every request is forwarded to a real JIRA instance, along with its credentials, and the response is
+ * saved to a directory.</li>
+ * <li>Replay: responses saved by a previous recording are served for the same requests.</li>
+ * </ul>
+ * In every mode responses can be delayed, every n-th request can be rejected with {@code 429 Too Many Requests}, and
+ * a fraction of requests can fail with {@code 500 Internal Server Error}. Synthetic searches are additionally limited
+ * to a page size so clients must page through the results.
+ * <p>
+ * Synthetic searches understand the JQL the client sends: {@code project in (...)}, {@code issuetype = ...},
+ * {@code assignee in (...)}, and {@code issuekey in childIssuesOf(...)}, joined with {@code AND}.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class MockJiraServer
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String MOCK_JIRA_KEY = "jira-excel-analysis.mockJira";
+    private static final String API_PATH = "/rest/api/2/";
+    private static final String RECORDING_SUFFIX = ".response";
+    private static final Pattern PROJECT_PATTERN = Pattern.compile("(?i)project\\s+in\\s*\\(([^)]*)\\)");
+    private static final Pattern ISSUE_TYPE_PATTERN = Pattern.compile("(?i)issuetype\\s*=\\s*\"?([\\w ]+?)\"?\\s*(?:AND|$)");
+    private static final Pattern ASSIGNEE_PATTERN = Pattern.compile("(?i)assignee\\s+in\\s*\\(([^)]*)\\)");
+    private static final Pattern CHILDREN_PATTERN = Pattern.compile("(?i)childIssuesOf\\(\\s*\"?([^)\"]*)\"?\\s*\\)");
+    private static final List<String> STANDARD_FIELDS = Arrays.asList("project", "key", "summary", "description",
+            "status", "issuetype", "created", "updated", "resolutiondate", "labels", "assignee", "reporter", "priority",
+            "fixVersions", "duedate", "components");
+
+    private final SyntheticJiraDataset dataset;
+    private final File recordingDirectory;
+    private final String upstreamBaseUrl;
+
+    private int port = 0;
+    private long latencyMillis = 0;
+    private long latencyJitterMillis = 0;
+    private int pageLimit = 1000;
+    private int rateLimitEvery = 0;
+    private double failureRate = 0;
+    private Random random = new Random(1);
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger rateLimitedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+
+    private MockJiraServer(SyntheticJiraDataset dataset, File recordingDirectory, String upstreamBaseUrl)
+    {
+        this.dataset = dataset;
+        this.recordingDirectory = recordingDirectory;
+        this.upstreamBaseUrl = upstreamBaseUrl;
+    }
+
+    /**
+     * Creates a server that serves a synthetic dataset.
+     *
+     * @param dataset The issues to serve.
+     * @return A server in synthetic mode.
+     */
+    public static MockJiraServer serving(SyntheticJiraDataset dataset)
+    {
+        return new MockJiraServer(dataset, null, null);
+    }
+
+    /**
+     * Creates a server that forwards requests to JIRA and saves each response.
+     *
+     * @param upstreamBaseUrl    The root URL of the JIRA instance to record, e.g. {@code https://jira.sample.net/}.
+     * @param recordingDirectory The directory the responses are saved to.
+     * @return A server in record mode.
+     */
+    public static MockJiraServer recording(String upstreamBaseUrl, File recordingDirectory)
+    {
+        return new MockJiraServer(null, recordingDirectory, upstreamBaseUrl.replaceAll("/+$", ""));
+    }
+
+    /**
+     * Creates a server that serves responses saved by {@link #recording}.
+     *
+     * @param recordingDirectory The directory the responses were saved to.
+     * @return A server in replay mode.
+     */
+    public static MockJiraServer replaying(File recordingDirectory)
+    {
+        return new MockJiraServer(null, recordingDirectory, null);
+    }
+
+    /**
+     * Creates a server from the {@code jira-excel-analysis.mockJira} block of a configuration. A
+     * {@code recordFrom} URL selects record mode, otherwise a {@code recordingDirectory} selects replay mode, otherwise
+     * the issues described by the {@code jira-excel-analysis.synthetic} block are served.
+     *
+     * @param config The configuration.
+     * @return A server with the configured mode and faults.
+     */
+    public static MockJiraServer fromConfig(Config config)
+    {
+        Config mockConfig = config.hasPath(MOCK_JIRA_KEY) ? config.getConfig(MOCK_JIRA_KEY) : null;
+        MockJiraServer server;
+
+        if (mockConfig != null && mockConfig.hasPath("recordFrom"))
+        {
+            server = recording(mockConfig.getString("recordFrom"), new File(mockConfig.getString("recordingDirectory")));
+        } else if (mockConfig != null && mockConfig.hasPath("recordingDirectory"))
+        {
+            server = replaying(new File(mockConfig.getString("recordingDirectory")));
+        } else
+        {
+            server = serving(SyntheticJiraGenerator.fromConfig(config).generate());
+        }
+
+        if (mockConfig == null)
+        {
+            return server;
+        }
+
+        if (mockConfig.hasPath("port"))
+        {
+            server.setPort(mockConfig.getInt("port"));
+        }
+        if (mockConfig.hasPath("latencyMillis"))
+        {
+            server.setLatency(mockConfig.getLong("latencyMillis"),
+                    mockConfig.hasPath("latencyJitterMillis") ? mockConfig.getLong("latencyJitterMillis") : 0);
+        }
+        if (mockConfig.hasPath("pageLimit"))
+        {
+            server.setPageLimit(mockConfig.getInt("pageLimit"));
+        }
+        if (mockConfig.hasPath("rateLimitEvery"))
+        {
+            server.setRateLimitEvery(mockConfig.getInt("rateLimitEvery"));
+        }
+        if (mockConfig.hasPath("failureRate"))
+        {
+            server.setFailureRate(mockConfig.getDouble("failureRate"));
+        }
+        if (mockConfig.hasPath("seed"))
+        {
+            server.setSeed(mockConfig.getLong("seed"));
+        }
+
+        return server;
+    }
+
+    /**
+     * Sets the port to listen on. By default a free port is chosen when the server starts.
+     *
+     * @param port The port, or 0 to choose a free port.
+     */
+    public void setPort(int port)
+    {
+        this.port = port;
+    }
+
+    /**
+     * Delays every response.
+     *
+     * @param latencyMillis       The minimum delay in milliseconds.
+     * @param latencyJitterMillis The largest random delay in milliseconds added to the minimum delay.
+     */
+    public void setLatency(long latencyMillis, long latencyJitterMillis)
+    {
+        this.latencyMillis = latencyMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+    }
+
+    /**
+     * Sets the most issues a synthetic search returns at once, regardless of the {@code maxResults} requested.
+     *
+     * @param pageLimit The largest page of issues.
+     */
+    public void setPageLimit(int pageLimit)
+    {
+        this.pageLimit = pageLimit;
+    }
+
+    /**
+     * Rejects every n-th request with {@code 429 Too Many Requests} and a {@code Retry-After} header.
+     *
+     * @param rateLimitEvery The interval between rejected requests, or 0 to never reject requests.
+     */
+    public void setRateLimitEvery(int rateLimitEvery)
+    {
+        this.rateLimitEvery = rateLimitEvery;
+    }
+
+    /**
+     * Fails a random fraction of the requests that are not rate limited with {@code 500 Internal Server Error}.
+     *
+     * @param failureRate The fraction of requests to fail, from 0 to 1.
+     */
+    public void setFailureRate(double failureRate)
+    {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Sets the seed of the random source that picks failed requests and delays, so a run can be repeated.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed)
+    {
+        random = new Random(seed);
+    }
+
+    /**
+     * Starts serving requests on the loopback address. Requests are handled concurrently.
+     *
+     * @throws IOException If the port could not be bound.
+     */
+    public void start() throws IOException
+    {
+        if (recordingDirectory != null)
+        {
+            Files.createDirectories(recordingDirectory.toPath());
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handle);
+        requestExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(requestExecutor);
+        server.start();
+
+        logger.info("Serving a mock JIRA at {}", getBaseUrl());
+    }
+
+    /**
+     * Stops serving requests.
+     */
+    public void stop()
+    {
+        if (server != null)
+        {
+            server.stop(0);
+            requestExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the root URL to use as the JIRA base URL of a client.
+     *
+     * @return The root URL of the started server.
+     */
+    public String getBaseUrl()
+    {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Gets the number of requests received, including rejected and failed requests.
+     *
+     * @return The number of requests received.
+     */
+    public int getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the number of requests rejected with {@code 429 Too Many Requests}.
+     *
+     * @return The number of rate limited requests.
+     */
+    public int getRateLimitedCount()
+    {
+        return rateLimitedCount.get();
+    }
+
+    /**
+     * Gets the number of requests failed with {@code 500 Internal Server Error}.
+     *
+     * @return The number of failed requests.
+     */
+    public int getFailedCount()
+    {
+        return failedCount.get();
+    }
+
+    /**
+     * Applies the configured faults and answers a request from the mode's source.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        int requestNumber = requestCount.incrementAndGet();
+        long delay;
+        boolean fail;
+
+        synchronized (this)
+        {
+            delay = latencyMillis + (latencyJitterMillis > 0 ? (long) (random.nextDouble() * latencyJitterMillis) : 0);
+            fail = failureRate > 0 && random.nextDouble() < failureRate;
+        }
+
+        try
+        {
+            if (delay > 0)
+            {
+                Thread.sleep(delay);
+            }
+
+            if (rateLimitEvery > 0 && requestNumber % rateLimitEvery == 0)
+            {
+                rateLimitedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, error("Rate limit exceeded"));
+            } else if (fail)
+            {
+                failedCount.incrementAndGet();
+                respond(exchange, 500, error("Injected failure"));
+            } else if (upstreamBaseUrl != null)
+            {
+                record(exchange);
+            } else if (recordingDirectory != null)
+            {
+                replay(exchange);
+            } else
+            {
+                serveSynthetic(exchange);
+            }
+        } catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        } catch (Exception exception)
+        {
+            logger.warn("Failed to answer {}: ", exchange.getRequestURI(), exception);
+            respond(exchange, 500, error(String.valueOf(exception)));
+        }
+    }
+
+    /**
+     * Answers a request from the synthetic dataset.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void serveSynthetic(HttpExchange exchange) throws IOException
+    {
+        // The JIRA client addresses the latest version of the API
+        String path = exchange.getRequestURI().getPath().replaceFirst("^/rest/api/latest/", API_PATH);
+        Map<String, String> parameters = getParameters(exchange.getRequestURI());
+
+        if (!"GET".equals(exchange.getRequestMethod()))
+        {
+            respond(exchange, 405, error("Only GET requests are supported"));
+        } else if (path.equals(API_PATH + "search"))
+        {
+            respond(exchange, 200, search(parameters));
+        } else if (path.equals(API_PATH + "field"))
+        {
+            respond(exchange, 200, getFields().toString());
+        } else if (path.equals(API_PATH + "serverInfo"))
+        {
+            JSONObject serverInfo = new JSONObject();
+            serverInfo.put("baseUrl", getBaseUrl());
+            serverInfo.put("version", "7.13.0");
+            serverInfo.put("serverTitle", "Mock JIRA");
+
+            respond(exchange, 200, serverInfo.toString());
+        } else if (path.startsWith(API_PATH + "issue/"))
+        {
+            String[] segments = path.substring((API_PATH + "issue/").length()).split("/");
+            JSONObject issue = dataset.getIssueJson().get(segments[0]);
+
+            if (issue == null)
+            {
+                respond(exchange, 404, error("Issue does not exist: " + segments[0]));
+            } else if (segments.length == 1)
+            {
+                respond(exchange, 200, selectFields(issue, parameters).toString());
+            } else if (segments.length == 2 && segments[1].equals("changelog"))
+            {
+                respond(exchange, 200, getChangelogPage(issue, parameters).toString());
+            } else
+            {
+                respond(exchange, 404, error("Unknown path: " + path));
+            }
+        } else
+        {
+            respond(exchange, 404, error("Unknown path: " + path));
+        }
+    }
+
+    /**
+     * Runs a JQL search against the synthetic dataset.
+     *
+     * @param parameters The query parameters of the request.
+     * @return The body of a search response.
+     */
+    private String search(Map<String, String> parameters)
+    {
+        String jql = parameters.getOrDefault("jql", "");
+        Set<String> projects = getValues(PROJECT_PATTERN, jql);
+        Set<String> assignees = getValues(ASSIGNEE_PATTERN, jql);
+        Matcher issueTypeMatcher = ISSUE_TYPE_PATTERN.matcher(jql);
+        Matcher childrenMatcher = CHILDREN_PATTERN.matcher(jql);
+        String issueType = issueTypeMatcher.find() ? issueTypeMatcher.group(1).trim() : null;
+        Set<String> children = childrenMatcher.find()
+                ? new HashSet<>(dataset.getChildKeys(childrenMatcher.group(1).trim())) : null;
+
+        List<JSONObject> matches = dataset.getIssueJson().values().stream()
+                .filter(issue -> projects == null || projects.contains(
+                        issue.getJSONObject("fields").getJSONObject("project").getString("key")))
+                .filter(issue -> issueType == null || issueType.equalsIgnoreCase(
+                        issue.getJSONObject("fields").getJSONObject("issuetype").getString("name")))
+                .filter(issue -> assignees == null || (issue.getJSONObject("fields").get("assignee") instanceof JSONObject
+                        && assignees.contains(issue.getJSONObject("fields").getJSONObject("assignee").getString("name"))))
+                .filter(issue -> children == null || children.contains(issue.getString("key")))
+                .collect(Collectors.toList());
+
+        int startAt = Math.max(0, parseInt(parameters.get("startAt"), 0));
+        int maxResults = Math.min(pageLimit, Math.max(0, parseInt(parameters.get("maxResults"), 50)));
+        JSONArray issues = new JSONArray();
+
+        for (int index = startAt; index < Math.min(matches.size(), startAt + maxResults); index++)
+        {
+            issues.add(selectFields(matches.get(index), parameters));
+        }
+
+        JSONObject result = new JSONObject();
+        result.put("expand", "names,schema");
+        result.put("startAt", startAt);
+        result.put("maxResults", maxResults);
+        result.put("total", matches.size());
+        result.put("issues", issues);
+
+        if (parameters.getOrDefault("expand", "").contains("names"))
+        {
+            JSONObject names = new JSONObject();
+
+            for (Object field : getFields())
+            {
+                names.put(((JSONObject) field).getString("id"), ((JSONObject) field).getString("name"));
+            }
+            result.put("names", names);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Copies an issue with only the requested fields and expansions, as JIRA does.
+     *
+     * @param issue      The REST representation of the issue.
+     * @param parameters The query parameters of the request.
+     * @return The issue as JIRA would return it.
+     */
+    private JSONObject selectFields(JSONObject issue, Map<String, String> parameters)
+    {
+        String fieldList = parameters.get("fields");
+        JSONObject result = new JSONObject();
+
+        result.put("id", issue.get("id"));
+        result.put("key", issue.get("key"));
+        result.put("self", issue.get("self"));
+
+        if (fieldList == null || fieldList.contains("*all"))
+        {
+            result.put("fields", issue.getJSONObject("fields"));
+        } else
+        {
+            Set<String> requested = Arrays.stream(fieldList.split(",")).map(String::trim).collect(Collectors.toSet());
+            JSONObject issueFields = issue.getJSONObject("fields");
+            JSONObject fields = new JSONObject();
+
+            for (Object name : issueFields.keySet())
+            {
+                if (requested.contains(name))
+                {
+                    fields.put(name, issueFields.get(name));
+                }
+            }
+            result.put("fields", fields);
+        }
+
+        if (parameters.getOrDefault("expand", "").contains("changelog") && issue.has("changelog"))
+        {
+            result.put("changelog", issue.getJSONObject("changelog"));
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a page of an issue's changelog as returned by the changelog endpoint.
+     *
+     * @param issue      The REST representation of the issue.
+     * @param parameters The query parameters of the request.
+     * @return A page of the issue's changelog.
+     */
+    private JSONObject getChangelogPage(JSONObject issue, Map<String, String> parameters)
+    {
+        JSONArray histories = issue.has("changelog") ? issue.getJSONObject("changelog").getJSONArray("histories")
+                : new JSONArray();
+        int startAt = Math.max(0, parseInt(parameters.get("startAt"), 0));
+        int maxResults = Math.min(pageLimit, Math.max(0, parseInt(parameters.get("maxResults"), 100)));
+        JSONArray values = new JSONArray();
+
+        for (int index = startAt; index < Math.min(histories.size(), startAt + maxResults); index++)
+        {
+            values.add(histories.get(index));
+        }
+
+        JSONObject page = new JSONObject();
+        page.put("startAt", startAt);
+        page.put("maxResults", maxResults);
+        page.put("total", histories.size());
+        page.put("isLast", startAt + values.size() >= histories.size());
+        page.put("values", values);
+
+        return page;
+    }
+
+    /**
+     * Describes the standard fields and the dataset's custom fields as the field endpoint does.
+     *
+     * @return The fields known to the server.
+     */
+    private JSONArray getFields()
+    {
+        JSONArray fields = new JSONArray();
+
+        STANDARD_FIELDS.forEach(name -> fields.add(createField(name, name, false)));
+        new TreeMap<>(dataset.getFieldCustomIdMap()).forEach((name, id) -> fields.add(createField(id, name, true)));
+
+        return fields;
+    }
+
+    private static JSONObject createField(String id, String name, boolean custom)
+    {
+        JSONObject field = new JSONObject();
+        field.put("id", id);
+        field.put("key", id);
+        field.put("name", name);
+        field.put("custom", custom);
+        field.put("navigable", true);
+        field.put("searchable", true);
+
+        return field;
+    }
+
+    /**
+     * Forwards a request to JIRA with the client's credentials and saves the response before returning it.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If JIRA could not be reached or the response could not be saved or sent.
+     */
+    private void record(HttpExchange exchange) throws IOException
+    {
+        URI requestUri = exchange.getRequestURI();
+        HttpURLConnection connection = (HttpURLConnection) new URL(upstreamBaseUrl + requestUri.getRawPath()
+                + (requestUri.getRawQuery() == null ? "" : "?" + requestUri.getRawQuery())).openConnection();
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+
+        connection.setRequestMethod(exchange.getRequestMethod());
+        connection.setRequestProperty("Accept", "application/json");
+
+        if (authorization != null)
+        {
+            connection.setRequestProperty("Authorization", authorization);
+        }
+
+        int status = connection.getResponseCode();
+        String body;
+
+        try (InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream())
+        {
+            body = inputStream == null ? "" : new String(readFully(inputStream), StandardCharsets.UTF_8);
+        }
+
+        // Only successful responses are saved so a transient failure is not replayed forever
+        if (status < 400)
+        {
+            Files.write(getRecordingFile(exchange).toPath(), (status + "\n" + body).getBytes(StandardCharsets.UTF_8));
+        }
+
+        respond(exchange, status, body);
+    }
+
+    /**
+     * Answers a request with the response recorded for it.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the recording could not be read or the response could not be sent.
+     */
+    private void replay(HttpExchange exchange) throws IOException
+    {
+        File recordingFile = getRecordingFile(exchange);
+
+        if (!recordingFile.exists())
+        {
+            respond(exchange, 404, error("No response was recorded for " + exchange.getRequestURI()));
+            return;
+        }
+
+        String recording = new String(Files.readAllBytes(recordingFile.toPath()), StandardCharsets.UTF_8);
+        int separator = recording.indexOf('\n');
+
+        respond(exchange, Integer.parseInt(recording.substring(0, separator)), recording.substring(separator + 1));
+    }
+
+    /**
+     * Gets the file a request's response is recorded in. Requests are identified by their method, path, and sorted
+     * query parameters, so parameter order does not matter.
+     *
+     * @param exchange The request.
+     * @return The recording file of the request.
+     */
+    private File getRecordingFile(HttpExchange exchange)
+    {
+        String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + "?"
+                + new TreeMap<>(getParameters(exchange.getRequestURI()));
+
+        try
+        {
+            StringBuilder hash = new StringBuilder();
+
+            for (byte hashByte : MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)))
+            {
+                hash.append(String.format("%02x", hashByte));
+            }
+
+            return new File(recordingDirectory, hash + RECORDING_SUFFIX);
+        } catch (NoSuchAlgorithmException exception)
+        {
+            // Every JVM provides SHA-256, fall back to a name that is unique within a run
+            return new File(recordingDirectory, Integer.toHexString(request.hashCode()) + RECORDING_SUFFIX);
+        }
+    }
+
+    private static Map<String, String> getParameters(URI uri)
+    {
+        Map<String, String> parameters = new LinkedHashMap<>();
+
+        if (uri.getRawQuery() != null)
+        {
+            for (String parameter : uri.getRawQuery().split("&"))
+            {
+                int separator = parameter.indexOf('=');
+
+                try
+                {
+                    parameters.put(URLDecoder.decode(separator < 0 ? parameter : parameter.substring(0, separator), "UTF-8"),
+                            separator < 0 ? "" : URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+                } catch (IOException exception)
+                {
+                    logger.warn("Ignoring malformed query parameter {}", parameter);
+                }
+            }
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Gets the comma separated values of the first clause matching a pattern.
+     *
+     * @param pattern A pattern whose first group is a comma separated list.
+     * @param jql     The JQL query.
+     * @return The unquoted values, or {@code null} if the query has no such clause.
+     */
+    private static Set<String> getValues(Pattern pattern, String jql)
+    {
+        Matcher matcher = pattern.matcher(jql);
+
+        if (!matcher.find())
+        {
+            return null;
+        }
+
+        return Arrays.stream(matcher.group(1).split(","))
+                .map(value -> value.trim().replaceAll("^\"|\"$", ""))
+                .collect(Collectors.toSet());
+    }
+
+    private static int parseInt(String value, int defaultValue)
+    {
+        try
+        {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException exception)
+        {
+            return defaultValue;
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+
+        while ((read = inputStream.read(buffer)) != -1)
+        {
+            outputStream.write(buffer, 0, read);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static String error(String message)
+    {
+        JSONObject error = new JSONObject();
+        error.put("errorMessages", JSONArray.fromObject(Collections.singletonList(message)));
+        error.put("errors", new JSONObject());
+
+        return error.toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.chesapeaketechnology.simulation;
+
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONObject;
+
+/**
+ * An issue parsed from a generated REST representation rather than retrieved from JIRA.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class SyntheticIssue extends Issue
+{
+    /**
+     * Parses an issue in the same way as an issue returned by a JIRA search.
+     *
+     * @param json The REST representation of the issue.
+     */
+    SyntheticIssue(JSONObject json)
+    {
+        super(null, json);
+    }
+}
@@ -0,0 +1,149 @@
+package com.chesapeaketechnology.simulation;
+
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.chesapeaketechnology.model.LoadProgress;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A generated hierarchy of initiatives, epics, and stories. The issues are available both as parsed {@link Issue}s in
+ * the maps that {@link com.chesapeaketechnology.JiraRestClient} hands to its listeners and as the REST representations
+ * JIRA would have returned for them.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class SyntheticJiraDataset
+{
+    private final Map<Issue, List<Issue>> initiativeEpicMap;
+    private final Map<Issue, List<Issue>> epicStoryMap;
+    private final Map<String, String> fieldCustomIdMap;
+    private final Map<String, JSONObject> issueJson;
+    private final Map<String, List<String>> initiativeChildKeys;
+
+    /**
+     * Creates a dataset.
+     *
+     * @param initiativeEpicMap   A mapping of initiatives to their epics.
+     * @param epicStoryMap        A mapping of epics to their stories.
+     * @param fieldCustomIdMap    A mapping of field names to the custom field ids used by the issues.
+     * @param issueJson           The REST representation of every issue by key.
+     * @param initiativeChildKeys The keys of the epics and stories below each initiative by the initiative's key.
+     */
+    SyntheticJiraDataset(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                         Map<String, String> fieldCustomIdMap, Map<String, JSONObject> issueJson,
+                         Map<String, List<String>> initiativeChildKeys)
+    {
+        this.initiativeEpicMap = initiativeEpicMap;
+        this.epicStoryMap = epicStoryMap;
+        this.fieldCustomIdMap = fieldCustomIdMap;
+        this.issueJson = issueJson;
+        this.initiativeChildKeys = initiativeChildKeys;
+    }
+
+    /**
+     * Gets the mapping of initiatives to epics.
+     *
+     * @return A mapping of initiatives to their epics.
+     */
+    public Map<Issue, List<Issue>> getInitiativeEpicMap()
+    {
+        return initiativeEpicMap;
+    }
+
+    /**
+     * Gets the mapping of epics to stories.
+     *
+     * @return A mapping of epics to their stories.
+     */
+    public Map<Issue, List<Issue>> getEpicStoryMap()
+    {
+        return epicStoryMap;
+    }
+
+    /**
+     * Gets the mapping of field names to custom field ids, e.g. {@code "Story Points"} to {@code "customfield_10002"}.
+     *
+     * @return A mapping of field names to the custom field ids used by the issues.
+     */
+    public Map<String, String> getFieldCustomIdMap()
+    {
+        return fieldCustomIdMap;
+    }
+
+    /**
+     * Gets the REST representation of every issue.
+     *
+     * @return The REST representation of every issue by key in generation order.
+     */
+    public Map<String, JSONObject> getIssueJson()
+    {
+        return Collections.unmodifiableMap(issueJson);
+    }
+
+    /**
+     * Gets the keys of the issues below an initiative, as returned by JQL's {@code childIssuesOf}.
+     *
+     * @param initiativeKey The key of the initiative.
+     * @return The keys of the initiative's epics and stories, or an empty list if there is no such initiative.
+     */
+    public List<String> getChildKeys(String initiativeKey)
+    {
+        return initiativeChildKeys.getOrDefault(initiativeKey, Collections.emptyList());
+    }
+
+    /**
+     * Gets the number of stories in the dataset.
+     *
+     * @return The number of stories.
+     */
+    public int getStoryCount()
+    {
+        return epicStoryMap.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Notifies a listener of the dataset in the same order as {@link com.chesapeaketechnology.JiraRestClient} reports
+     * issues loaded through initiatives.
+     *
+     * @param listener The listener to notify.
+     */
+    public void replay(IJiraIssueListener listener)
+    {
+        long startNanos = System.nanoTime();
+        int issuesLoaded = initiativeEpicMap.size();
+        int initiativesCompleted = 0;
+
+        listener.initiativesLoaded(new ArrayList<>(initiativeEpicMap.keySet()));
+
+        for (Map.Entry<Issue, List<Issue>> initiativeEntry : initiativeEpicMap.entrySet())
+        {
+            List<Issue> children = new ArrayList<>(initiativeEntry.getValue());
+            Map<Issue, List<Issue>> initiativeStoryMap = new LinkedHashMap<>();
+
+            initiativeEntry.getValue().forEach(epic -> {
+                List<Issue> stories = epicStoryMap.getOrDefault(epic, Collections.emptyList());
+
+                children.addAll(stories);
+                initiativeStoryMap.put(epic, stories);
+            });
+            listener.childrenRetrieved(initiativeEntry.getKey(), children);
+
+            issuesLoaded += children.size();
+            initiativesCompleted++;
+
+            listener.initiativeCompleted(initiativeEntry.getKey(), Collections.unmodifiableMap(initiativeStoryMap),
+                    fieldCustomIdMap, new LoadProgress(issuesLoaded, initiativesCompleted, initiativeEpicMap.size(),
+                            initiativesCompleted / (double) initiativeEpicMap.size(),
+                            (System.nanoTime() - startNanos) / 1_000_000));
+        }
+
+        listener.allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+}
@@ -0,0 +1,695 @@
+package com.chesapeaketechnology.simulation;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.typesafe.config.Config;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates hierarchies of initiatives, epics, and stories shaped like the issues JIRA returns to
+ * {@link JiraRestClient}, so the reports can be generated, benchmarked, and profiled at any size without access to a
+ * JIRA instance. Each issue is built as the REST representation JIRA would send, including the custom sprint, story
+ * point, program, and epic link fields and the changelog, and is then parsed by the JIRA client exactly as a searched
+ * issue would be.
+ * <p>
+ * The fan-out is exact so a dataset's size is determined by its settings alone, while the statuses, assignees, labels,
+ * sprints, and history of each issue are drawn from a seeded random source so the same settings always produce the
+ * same issues.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class SyntheticJiraGenerator
+{
+    public static final String SPRINT_FIELD = "customfield_10001";
+    public static final String STORY_POINTS_FIELD = "customfield_10002";
+    public static final String PROGRAM_FIELD = "customfield_10003";
+    public static final String EPIC_LINK_FIELD = "customfield_10004";
+
+    private static final String SYNTHETIC_KEY = "jira-excel-analysis.synthetic";
+    private static final int SPRINT_WEEKS = 2;
+    private static final DateTimeFormatter JIRA_DATE_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final List<String> LABEL_NAMES = Arrays.asList("backend", "frontend", "ops", "research", "support",
+            "security", "data", "mobile", "infrastructure", "documentation");
+    private static final List<String> WORDS = Arrays.asList("the", "report", "sprint", "story", "should", "update",
+            "when", "a", "user", "selects", "issue", "and", "configuration", "is", "loaded", "from", "server", "with",
+            "developer", "metrics", "for", "each", "epic", "page", "export", "data", "team", "review", "before", "release");
+    private static final String[] PRIORITIES = {"Highest", "High", "Medium", "Low", "Lowest"};
+    private static final String[] COMPONENTS = {"Client", "Server", "Database", "Reporting", "Deployment"};
+    private static final String[] CHANGED_FIELDS = {"summary", "description", "Story Points", "labels", "priority"};
+
+    private long seed = 1;
+    private List<String> projects = Collections.singletonList("SIM");
+    private int initiatives = 5;
+    private int epicsPerInitiative = 10;
+    private int storiesPerEpic = 20;
+    private int maxStories = 0;
+    private int sprints = 26;
+    private LocalDate firstSprintStart;
+    private int developers = 25;
+    private int changelogDepth = 4;
+    private int labelCardinality = 5;
+    private int descriptionLength = 200;
+
+    /**
+     * Creates a generator whose settings are read from the {@code jira-excel-analysis.synthetic} block of a
+     * configuration. Missing settings keep their defaults.
+     *
+     * @param config The configuration.
+     * @return A generator with the configured settings.
+     */
+    public static SyntheticJiraGenerator fromConfig(Config config)
+    {
+        SyntheticJiraGenerator generator = new SyntheticJiraGenerator();
+
+        if (!config.hasPath(SYNTHETIC_KEY))
+        {
+            return generator;
+        }
+
+        Config synthetic = config.getConfig(SYNTHETIC_KEY);
+
+        if (synthetic.hasPath("seed"))
+        {
+            generator.setSeed(synthetic.getLong("seed"));
+        }
+        if (synthetic.hasPath("projects"))
+        {
+            generator.setProjects(synthetic.getStringList("projects"));
+        }
+        if (synthetic.hasPath("initiatives"))
+        {
+            generator.setInitiatives(synthetic.getInt("initiatives"));
+        }
+        if (synthetic.hasPath("epicsPerInitiative"))
+        {
+            generator.setEpicsPerInitiative(synthetic.getInt("epicsPerInitiative"));
+        }
+        if (synthetic.hasPath("storiesPerEpic"))
+        {
+            generator.setStoriesPerEpic(synthetic.getInt("storiesPerEpic"));
+        }
+        if (synthetic.hasPath("sprints"))
+        {
+            generator.setSprints(synthetic.getInt("sprints"));
+        }
+        if (synthetic.hasPath("firstSprintStart"))
+        {
+            generator.setFirstSprintStart(LocalDate.parse(synthetic.getString("firstSprintStart")));
+        }
+        if (synthetic.hasPath("developers"))
+        {
+            generator.setDevelopers(synthetic.getInt("developers"));
+        }
+        if (synthetic.hasPath("changelogDepth"))
+        {
+            generator.setChangelogDepth(synthetic.getInt("changelogDepth"));
+        }
+        if (synthetic.hasPath("labels"))
+        {
+            generator.setLabelCardinality(synthetic.getInt("labels"));
+        }
+        if (synthetic.hasPath("descriptionLength"))
+        {
+            generator.setDescriptionLength(synthetic.getInt("descriptionLength"));
+        }
+
+        return generator;
+    }
+
+    /**
+     * Sets the seed of the random source. The same seed and settings always produce the same issues.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the keys of the projects the initiatives are spread across.
+     *
+     * @param projects The project keys, e.g. {@code "SIM"}.
+     */
+    public void setProjects(List<String> projects)
+    {
+        this.projects = new ArrayList<>(projects);
+    }
+
+    /**
+     * Sets the number of initiatives.
+     *
+     * @param initiatives The number of initiatives.
+     */
+    public void setInitiatives(int initiatives)
+    {
+        this.initiatives = initiatives;
+    }
+
+    /**
+     * Sets the number of epics below each initiative.
+     *
+     * @param epicsPerInitiative The number of epics below each initiative.
+     */
+    public void setEpicsPerInitiative(int epicsPerInitiative)
+    {
+        this.epicsPerInitiative = epicsPerInitiative;
+    }
+
+    /**
+     * Sets the number of stories below each epic.
+     *
+     * @param storiesPerEpic The number of stories below each epic.
+     */
+    public void setStoriesPerEpic(int storiesPerEpic)
+    {
+        this.storiesPerEpic = storiesPerEpic;
+    }
+
+    /**
+     * Stops generating once a number of stories exist, leaving the last epic partially filled.
+     *
+     * @param maxStories The most stories to generate, or 0 to generate every story of every epic.
+     */
+    public void setMaxStories(int maxStories)
+    {
+        this.maxStories = maxStories;
+    }
+
+    /**
+     * Sets the number of sprints. Sprints last two weeks and follow each other without gaps.
+     *
+     * @param sprints The number of sprints.
+     */
+    public void setSprints(int sprints)
+    {
+        this.sprints = sprints;
+    }
+
+    /**
+     * Sets the start date of the first sprint. By default the sprints are placed so the last sprint is in progress on
+     * the day the dataset is generated.
+     *
+     * @param firstSprintStart The start date of the first sprint.
+     */
+    public void setFirstSprintStart(LocalDate firstSprintStart)
+    {
+        this.firstSprintStart = firstSprintStart;
+    }
+
+    /**
+     * Sets the number of developers that stories are assigned to.
+     *
+     * @param developers The number of developers.
+     */
+    public void setDevelopers(int developers)
+    {
+        this.developers = developers;
+    }
+
+    /**
+     * Sets the number of changelog entries recorded for each story.
+     *
+     * @param changelogDepth The number of changelog entries per story.
+     */
+    public void setChangelogDepth(int changelogDepth)
+    {
+        this.changelogDepth = changelogDepth;
+    }
+
+    /**
+     * Sets the number of distinct labels applied to epics and stories.
+     *
+     * @param labelCardinality The number of distinct labels.
+     */
+    public void setLabelCardinality(int labelCardinality)
+    {
+        this.labelCardinality = labelCardinality;
+    }
+
+    /**
+     * Sets the length of each issue's description.
+     *
+     * @param descriptionLength The number of characters in each description.
+     */
+    public void setDescriptionLength(int descriptionLength)
+    {
+        this.descriptionLength = descriptionLength;
+    }
+
+    /**
+     * Generates a dataset with the current settings.
+     *
+     * @return The generated issues.
+     */
+    public SyntheticJiraDataset generate()
+    {
+        Random random = new Random(seed);
+        List<Sprint> sprintList = createSprints();
+        List<String> labels = createLabels();
+
+        Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+        Map<Issue, List<Issue>> epicStoryMap = new LinkedHashMap<>();
+        Map<String, JSONObject> issueJson = new LinkedHashMap<>();
+        Map<String, List<String>> initiativeChildKeys = new LinkedHashMap<>();
+        Map<String, Integer> projectCounters = new HashMap<>();
+        int storyCount = 0;
+
+        for (int initiativeIndex = 0; initiativeIndex < initiatives && !isFull(storyCount); initiativeIndex++)
+        {
+            String project = projects.get(initiativeIndex % projects.size());
+            String program = "Program " + (initiativeIndex + 1);
+            List<String> childKeys = new ArrayList<>();
+            List<Issue> epics = new ArrayList<>();
+
+            JSONObject initiativeJson = createIssue(nextKey(project, projectCounters), "Initiative", project, program,
+                    random);
+            issueJson.put(initiativeJson.getString("key"), initiativeJson);
+
+            for (int epicIndex = 0; epicIndex < epicsPerInitiative && !isFull(storyCount); epicIndex++)
+            {
+                List<String> epicLabels = pickLabels(labels, random);
+                List<Issue> stories = new ArrayList<>();
+
+                JSONObject epicJson = createIssue(nextKey(project, projectCounters), "Epic", project, program, random);
+                epicJson.getJSONObject("fields").put("labels", JSONArray.fromObject(epicLabels));
+                issueJson.put(epicJson.getString("key"), epicJson);
+                childKeys.add(epicJson.getString("key"));
+
+                for (int storyIndex = 0; storyIndex < storiesPerEpic && !isFull(storyCount); storyIndex++)
+                {
+                    JSONObject storyJson = createIssue(nextKey(project, projectCounters), "Story", project, program,
+                            random);
+                    addStoryFields(storyJson, epicJson.getString("key"), epicLabels, labels, sprintList, random);
+                    issueJson.put(storyJson.getString("key"), storyJson);
+                    childKeys.add(storyJson.getString("key"));
+
+                    stories.add(new SyntheticIssue(storyJson));
+                    storyCount++;
+                }
+
+                Issue epic = new SyntheticIssue(epicJson);
+
+                epics.add(epic);
+                epicStoryMap.put(epic, stories);
+            }
+
+            initiativeEpicMap.put(new SyntheticIssue(initiativeJson), epics);
+            initiativeChildKeys.put(initiativeJson.getString("key"), childKeys);
+        }
+
+        Map<String, String> fieldCustomIdMap = new HashMap<>();
+        fieldCustomIdMap.put(JiraRestClient.SPRINT_KEY, SPRINT_FIELD);
+        fieldCustomIdMap.put(JiraRestClient.STORY_POINTS_KEY, STORY_POINTS_FIELD);
+        fieldCustomIdMap.put(JiraRestClient.PROGRAM_KEY, PROGRAM_FIELD);
+        fieldCustomIdMap.put(JiraRestClient.EPIC_LINK, EPIC_LINK_FIELD);
+
+        return new SyntheticJiraDataset(initiativeEpicMap, epicStoryMap, fieldCustomIdMap, issueJson,
+                initiativeChildKeys);
+    }
+
+    private boolean isFull(int storyCount)
+    {
+        return maxStories > 0 && storyCount >= maxStories;
+    }
+
+    /**
+     * Creates the sprints, ending with the sprint that is in progress unless a first start date was set.
+     *
+     * @return The sprints in the order they run.
+     */
+    private List<Sprint> createSprints()
+    {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = firstSprintStart != null ? firstSprintStart
+                : today.minusWeeks((long) SPRINT_WEEKS * Math.max(0, sprints - 1)).minusDays(SPRINT_WEEKS * 7 / 2);
+        List<Sprint> sprintList = new ArrayList<>();
+
+        for (int index = 0; index < sprints; index++)
+        {
+            LocalDate sprintStart = start.plusWeeks((long) SPRINT_WEEKS * index);
+
+            sprintList.add(new Sprint(index + 1, sprintStart, sprintStart.plusWeeks(SPRINT_WEEKS), today));
+        }
+
+        return sprintList;
+    }
+
+    private List<String> createLabels()
+    {
+        List<String> labels = new ArrayList<>();
+
+        for (int index = 0; index < labelCardinality; index++)
+        {
+            labels.add(index < LABEL_NAMES.size() ? LABEL_NAMES.get(index) : "label-" + (index + 1));
+        }
+
+        return labels;
+    }
+
+    private static String nextKey(String project, Map<String, Integer> projectCounters)
+    {
+        return project + "-" + projectCounters.merge(project, 1, Integer::sum);
+    }
+
+    /**
+     * Creates the fields shared by every issue type.
+     *
+     * @param key       The issue's key.
+     * @param issueType The name of the issue's type.
+     * @param project   The key of the issue's project.
+     * @param program   The value of the issue's program field.
+     * @param random    The random source.
+     * @return The REST representation of the issue.
+     */
+    private JSONObject createIssue(String key, String issueType, String project, String program, Random random)
+    {
+        JSONObject projectJson = named(project);
+        projectJson.put("key", project);
+
+        JSONObject programJson = new JSONObject();
+        programJson.put("value", program);
+
+        String created = formatDateTime(firstSprintStart != null ? firstSprintStart.minusWeeks(4)
+                : LocalDate.now(ZoneOffset.UTC).minusWeeks((long) SPRINT_WEEKS * sprints + 4), random);
+
+        JSONObject fields = new JSONObject();
+        fields.put("project", projectJson);
+        fields.put("issuetype", named(issueType));
+        fields.put("summary", issueType + " " + key + ": " + createText(40, random));
+        fields.put("description", createText(descriptionLength, random));
+        fields.put("status", named("To Do"));
+        fields.put("priority", named(PRIORITIES[random.nextInt(PRIORITIES.length)]));
+        fields.put("labels", new JSONArray());
+        fields.put("components", JSONArray.fromObject(Collections.singletonList(
+                named(COMPONENTS[random.nextInt(COMPONENTS.length)]))));
+        fields.put("fixVersions", new JSONArray());
+        fields.put("created", created);
+        fields.put("updated", created);
+        fields.put("resolutiondate", JSONNull.getInstance());
+        fields.put("duedate", JSONNull.getInstance());
+        fields.put("assignee", JSONNull.getInstance());
+        fields.put("reporter", createUser(random.nextInt(Math.max(1, developers))));
+        fields.put(PROGRAM_FIELD, programJson);
+        fields.put(SPRINT_FIELD, JSONNull.getInstance());
+        fields.put(STORY_POINTS_FIELD, JSONNull.getInstance());
+        fields.put(EPIC_LINK_FIELD, JSONNull.getInstance());
+
+        JSONObject json = new JSONObject();
+        json.put("id", key.substring(key.lastIndexOf('-') + 1));
+        json.put("key", key);
+        json.put("self", "https://jira.sample.net/rest/api/2/issue/" + key);
+        json.put("fields", fields);
+
+        return json;
+    }
+
+    /**
+     * Assigns a story to an epic, developer, and one or two consecutive sprints, derives its status from those sprints,
+     * and records a changelog of the same depth for every story.
+     *
+     * @param storyJson  The REST representation of the story.
+     * @param epicKey    The key of the story's epic.
+     * @param epicLabels The labels of the story's epic, which the story usually shares.
+     * @param labels     Every label.
+     * @param sprintList Every sprint.
+     * @param random     The random source.
+     */
+    private void addStoryFields(JSONObject storyJson, String epicKey, List<String> epicLabels, List<String> labels,
+                                List<Sprint> sprintList, Random random)
+    {
+        JSONObject fields = storyJson.getJSONObject("fields");
+        List<Sprint> storySprints = new ArrayList<>();
+
+        // One in ten stories is still in the backlog
+        if (!sprintList.isEmpty() && random.nextInt(10) > 0)
+        {
+            int first = random.nextInt(sprintList.size());
+
+            storySprints.add(sprintList.get(first));
+
+            // Unfinished stories roll over into the next sprint
+            if (first + 1 < sprintList.size() && random.nextInt(4) == 0)
+            {
+                storySprints.add(sprintList.get(first + 1));
+            }
+        }
+
+        Sprint lastSprint = storySprints.isEmpty() ? null : storySprints.get(storySprints.size() - 1);
+        String status = lastSprint == null || lastSprint.state.equals("FUTURE") ? "To Do"
+                : lastSprint.state.equals("CLOSED") ? "Done"
+                : new String[]{"To Do", "In Progress", "In Testing", "Done"}[random.nextInt(4)];
+
+        List<String> storyLabels = random.nextInt(5) > 0 || epicLabels.isEmpty() ? new ArrayList<>(epicLabels)
+                : pickLabels(labels, random);
+
+        fields.put("status", named(status));
+        fields.put("labels", JSONArray.fromObject(storyLabels));
+        fields.put(EPIC_LINK_FIELD, epicKey);
+        fields.put(STORY_POINTS_FIELD, (double) new int[]{1, 2, 3, 5, 8, 13}[random.nextInt(6)]);
+
+        // Stories in the backlog are usually not assigned yet
+        if (developers > 0 && (lastSprint != null || random.nextBoolean()))
+        {
+            fields.put("assignee", createUser(random.nextInt(developers)));
+        }
+
+        if (!storySprints.isEmpty())
+        {
+            JSONArray sprintValues = new JSONArray();
+
+            storySprints.forEach(sprint -> sprintValues.add(sprint.toFieldValue()));
+            fields.put(SPRINT_FIELD, sprintValues);
+        }
+
+        if (status.equals("Done"))
+        {
+            fields.put("resolutiondate", formatDateTime(lastSprint.end.minusDays(1 + random.nextInt(3)), random));
+        }
+
+        if (lastSprint != null)
+        {
+            fields.put("duedate", lastSprint.end.toString());
+        }
+
+        JSONObject changelog = createChangelog(fields, storySprints, status, random);
+
+        storyJson.put("changelog", changelog);
+
+        JSONArray histories = changelog.getJSONArray("histories");
+
+        if (!histories.isEmpty())
+        {
+            fields.put("updated", histories.getJSONObject(histories.size() - 1).getString("created"));
+        }
+    }
+
+    /**
+     * Creates a changelog of {@link #changelogDepth} entries. Entries add the story to its sprints, some after the
+     * sprint started, move it through the statuses leading to its current status, and otherwise edit other fields.
+     *
+     * @param fields       The story's fields.
+     * @param storySprints The story's sprints.
+     * @param status       The story's current status.
+     * @param random       The random source.
+     * @return The REST representation of the changelog.
+     */
+    private JSONObject createChangelog(JSONObject fields, List<Sprint> storySprints, String status, Random random)
+    {
+        List<JSONObject> histories = new ArrayList<>();
+        JSONObject author = fields.has("assignee") && !(fields.get("assignee") instanceof JSONNull)
+                ? fields.getJSONObject("assignee") : fields.getJSONObject("reporter");
+        String previousSprint = null;
+
+        for (Sprint sprint : storySprints)
+        {
+            if (histories.size() >= changelogDepth)
+            {
+                break;
+            }
+
+            // One in five stories is added after its sprint started
+            LocalDate added = random.nextInt(5) == 0 ? sprint.start.plusDays(1 + random.nextInt(SPRINT_WEEKS * 7 - 2))
+                    : sprint.start.minusDays(1 + random.nextInt(7));
+
+            histories.add(createHistory(added, author, createItem("Sprint", "custom", previousSprint, sprint.name),
+                    random));
+            previousSprint = sprint.name;
+        }
+
+        List<String> transitions = Arrays.asList("To Do", "In Progress", "In Testing", "Done");
+        LocalDate transitionDate = storySprints.isEmpty() ? LocalDate.now(ZoneOffset.UTC).minusWeeks(4)
+                : storySprints.get(0).start;
+
+        for (int index = 1; index <= transitions.indexOf(status) && histories.size() < changelogDepth; index++)
+        {
+            transitionDate = transitionDate.plusDays(1 + random.nextInt(3));
+            histories.add(createHistory(transitionDate, author, createItem("status", "jira",
+                    transitions.get(index - 1), transitions.get(index)), random));
+        }
+
+        while (histories.size() < changelogDepth)
+        {
+            String field = CHANGED_FIELDS[random.nextInt(CHANGED_FIELDS.length)];
+
+            histories.add(createHistory(transitionDate.minusDays(random.nextInt(14)), author, createItem(field,
+                    "jira", createText(20, random), createText(20, random)), random));
+        }
+
+        histories.sort((first, second) -> first.getString("created").compareTo(second.getString("created")));
+
+        JSONArray historyArray = new JSONArray();
+
+        for (int index = 0; index < histories.size(); index++)
+        {
+            histories.get(index).put("id", String.valueOf(index + 1));
+            historyArray.add(histories.get(index));
+        }
+
+        JSONObject changelog = new JSONObject();
+        changelog.put("startAt", 0);
+        changelog.put("maxResults", historyArray.size());
+        changelog.put("total", historyArray.size());
+        changelog.put("histories", historyArray);
+
+        return changelog;
+    }
+
+    private static JSONObject createHistory(LocalDate date, JSONObject author, JSONObject item, Random random)
+    {
+        JSONObject history = new JSONObject();
+        history.put("author", author);
+        history.put("created", formatDateTime(date, random));
+        history.put("items", JSONArray.fromObject(Collections.singletonList(item)));
+
+        return history;
+    }
+
+    private static JSONObject createItem(String field, String fieldType, String from, String to)
+    {
+        JSONObject item = new JSONObject();
+        item.put("field", field);
+        item.put("fieldtype", fieldType);
+        item.put("from", from == null ? JSONNull.getInstance() : from);
+        item.put("fromString", from == null ? JSONNull.getInstance() : from);
+        item.put("to", to);
+        item.put("toString", to);
+
+        return item;
+    }
+
+    private List<String> pickLabels(List<String> labels, Random random)
+    {
+        List<String> picked = new ArrayList<>();
+
+        if (!labels.isEmpty())
+        {
+            picked.add(labels.get(random.nextInt(labels.size())));
+
+            String second = labels.get(random.nextInt(labels.size()));
+
+            if (random.nextInt(4) == 0 && !picked.contains(second))
+            {
+                picked.add(second);
+            }
+        }
+
+        return picked;
+    }
+
+    private static JSONObject createUser(int developer)
+    {
+        JSONObject user = named("developer" + developer);
+        user.put("key", "developer" + developer);
+        user.put("displayName", "Developer " + developer);
+        user.put("emailAddress", "developer" + developer + "@sample.net");
+        user.put("active", true);
+
+        return user;
+    }
+
+    private static String createText(int length, Random random)
+    {
+        StringBuilder text = new StringBuilder(length + 16);
+
+        while (text.length() < length)
+        {
+            if (text.length() > 0)
+            {
+                text.append(' ');
+            }
+            text.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+
+        text.setLength(length);
+
+        return text.toString();
+    }
+
+    private static String formatDateTime(LocalDate date, Random random)
+    {
+        ZonedDateTime dateTime = date.atTime(8 + random.nextInt(9), random.nextInt(60), random.nextInt(60))
+                .atZone(ZoneOffset.UTC);
+
+        return JIRA_DATE_TIME_FORMAT.format(dateTime);
+    }
+
+    private static JSONObject named(String name)
+    {
+        JSONObject object = new JSONObject();
+        object.put("name", name);
+
+        return object;
+    }
+
+    /**
+     * A two week sprint and the value JIRA stores for it in the sprint field.
+     *
+     * @since 1.0.0
+     */
+    private static class Sprint
+    {
+        final int id;
+        final String name;
+        final LocalDate start;
+        final LocalDate end;
+        final String state;
+
+        Sprint(int id, LocalDate start, LocalDate end, LocalDate today)
+        {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+
+            name = "Sprint " + id;
+            state = end.isBefore(today) ? "CLOSED" : start.isAfter(today) ? "FUTURE" : "ACTIVE";
+        }
+
+        String toFieldValue()
+        {
+            String completeDate = state.equals("CLOSED") ? end + "T17:00:00.000Z" : "<null>";
+
+            return "com.atlassian.greenhopper.service.sprint.Sprint@" + Integer.toHexString(id * 7919)
+                    + "[id=" + id + ",rapidViewId=1,state=" + state + ",name=" + name
+                    + ",startDate=" + start + "T09:00:00.000Z,endDate=" + end + "T17:00:00.000Z,completeDate="
+                    + completeDate + ",sequence=" + id + "]";
+        }
+    }
+}
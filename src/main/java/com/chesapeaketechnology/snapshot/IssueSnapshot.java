@@ -0,0 +1,618 @@
+package com.chesapeaketechnology.snapshot;
+
+import com.chesapeaketechnology.excel.AtomicFiles;
+import com.chesapeaketechnology.metrics.PhaseTimer;
+import com.chesapeaketechnology.metrics.RunMetrics;
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.typesafe.config.Config;
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.Component;
+import net.rcarz.jiraclient.Field;
+import net.rcarz.jiraclient.Issue;
+import net.rcarz.jiraclient.IssueType;
+import net.rcarz.jiraclient.Priority;
+import net.rcarz.jiraclient.Project;
+import net.rcarz.jiraclient.Resource;
+import net.rcarz.jiraclient.Status;
+import net.rcarz.jiraclient.User;
+import net.rcarz.jiraclient.Version;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+import net.sf.json.JSONSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A compact columnar copy of a loaded issue hierarchy that is memory-mapped rather than parsed, so a restarted process
+ * can generate reports without querying JIRA or rebuilding the issues from their REST representations.
+ * <p>
+ * The file holds a dictionary of every distinct string, one array per column indexed by issue, e.g. the dictionary
+ * index of each issue's summary, the due date of each issue in epoch milliseconds, or the story points of each issue,
+ * and adjacency arrays from initiatives to epics and from epics to stories. Opening a snapshot only maps the file and
+ * locates the arrays. The issues handed to listeners are views over the mapped columns that decode a value when it is
+ * first read, and values shared by many issues, such as statuses and users, are decoded once.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class IssueSnapshot
+{
+    static final int MAGIC = 0x4A495353;
+    static final int VERSION = 1;
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    static final String UPDATED_FIELD = "updated";
+    static final String FIX_VERSIONS_FIELD = "fixVersions";
+    static final String COMPONENTS_FIELD = "components";
+    static final String LABELS_FIELD = "labels";
+
+    static final int KEY = 0;
+    static final int ID = 1;
+    static final int SUMMARY = 2;
+    static final int DESCRIPTION = 3;
+    static final int UPDATED = 4;
+    static final int STATUS = 5;
+    static final int PROJECT = 6;
+    static final int ISSUE_TYPE = 7;
+    static final int ASSIGNEE = 8;
+    static final int REPORTER = 9;
+    static final int PRIORITY = 10;
+    static final int STRING_COLUMN_COUNT = 11;
+
+    /**
+     * The fields stored by their JSON text, indexed by column.
+     */
+    static final String[] RESOURCE_FIELDS = {null, null, null, null, null,
+            "status", "project", "issuetype", "assignee", "reporter", "priority"};
+    private static final Class<?>[] RESOURCE_TYPES = {null, null, null, null, null,
+            Status.class, Project.class, IssueType.class, User.class, User.class, Priority.class};
+
+    static final int DUE_DATE = 0;
+    static final int RESOLUTION_DATE = 1;
+    static final int DATE_COLUMN_COUNT = 2;
+
+    private static final int LABELS = 0;
+    private static final int FIX_VERSIONS = 1;
+    private static final int COMPONENTS = 2;
+    private static final int LIST_COLUMN_COUNT = 3;
+
+    private static final String SNAPSHOT_FILE_KEY = "jira-excel-analysis.snapshotFile";
+
+    private final File file;
+    private final long savedTimeMillis;
+    private final int issueCount;
+
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer stringBytes;
+    private final AtomicReferenceArray<String> decodedStrings;
+
+    private final IntBuffer[] stringColumns = new IntBuffer[STRING_COLUMN_COUNT];
+    private final LongBuffer[] dateColumns = new LongBuffer[DATE_COLUMN_COUNT];
+    private final DoubleBuffer storyPoints;
+    private final IntBuffer[] listOffsets = new IntBuffer[LIST_COLUMN_COUNT];
+    private final IntBuffer[] listValues = new IntBuffer[LIST_COLUMN_COUNT];
+    private final Map<String, IntBuffer> customColumns = new HashMap<>();
+    private final String storyPointsId;
+
+    private final IntBuffer changeLogOffsets;
+    private final LongBuffer entryCreated;
+    private final IntBuffer itemOffsets;
+    private final IntBuffer itemFields;
+    private final IntBuffer itemFromStrings;
+    private final IntBuffer itemToStrings;
+
+    private final List<ConcurrentMap<Integer, Object>> decodedValues = new ArrayList<>();
+    private final ConcurrentMap<Integer, Object> decodedCustomValues = new ConcurrentHashMap<>();
+
+    private final Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+    private final Map<Issue, List<Issue>> epicStoryMap = new LinkedHashMap<>();
+    private final Map<String, String> fieldCustomIdMap = new HashMap<>();
+
+    /**
+     * Locates the arrays of a mapped snapshot.
+     *
+     * @param file   The snapshot file.
+     * @param buffer The contents of the file.
+     * @throws IOException If the file is not a snapshot of a supported version.
+     */
+    private IssueSnapshot(File file, ByteBuffer buffer) throws IOException
+    {
+        this.file = file;
+
+        if (buffer.getInt() != MAGIC)
+        {
+            throw new IOException("Not an issue snapshot: " + file);
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported issue snapshot version " + version + ": " + file);
+        }
+
+        savedTimeMillis = buffer.getLong();
+        issueCount = buffer.getInt();
+
+        stringOffsets = nextInts(buffer);
+        stringBytes = nextBytes(buffer);
+        decodedStrings = new AtomicReferenceArray<>(Math.max(0, stringOffsets.limit() - 1));
+
+        IntBuffer fieldNames = nextInts(buffer);
+        IntBuffer fieldIds = nextInts(buffer);
+
+        for (int field = 0; field < fieldNames.limit(); field++)
+        {
+            fieldCustomIdMap.put(getString(fieldNames.get(field)), getString(fieldIds.get(field)));
+        }
+
+        storyPointsId = getString(nextInts(buffer).get(0));
+
+        IntBuffer customFieldIds = nextInts(buffer);
+
+        for (int column = 0; column < STRING_COLUMN_COUNT; column++)
+        {
+            stringColumns[column] = nextInts(buffer);
+            decodedValues.add(new ConcurrentHashMap<>());
+        }
+        for (int column = 0; column < DATE_COLUMN_COUNT; column++)
+        {
+            dateColumns[column] = nextLongs(buffer);
+        }
+        storyPoints = nextDoubles(buffer);
+        for (int column = 0; column < LIST_COLUMN_COUNT; column++)
+        {
+            listOffsets[column] = nextInts(buffer);
+            listValues[column] = nextInts(buffer);
+            decodedValues.add(new ConcurrentHashMap<>());
+        }
+        for (int field = 0; field < customFieldIds.limit(); field++)
+        {
+            customColumns.put(getString(customFieldIds.get(field)), nextInts(buffer));
+        }
+
+        changeLogOffsets = nextInts(buffer);
+        entryCreated = nextLongs(buffer);
+        itemOffsets = nextInts(buffer);
+        itemFields = nextInts(buffer);
+        itemFromStrings = nextInts(buffer);
+        itemToStrings = nextInts(buffer);
+
+        Issue[] issues = new Issue[issueCount];
+
+        for (int index = 0; index < issueCount; index++)
+        {
+            issues[index] = new SnapshotIssue(this, index);
+        }
+
+        readAdjacency(buffer, issues, initiativeEpicMap);
+        readAdjacency(buffer, issues, epicStoryMap);
+    }
+
+    /**
+     * Gets the file the snapshot of the loaded issues is saved to.
+     *
+     * @param config The configuration of the run.
+     * @return The configured {@code snapshotFile}, or {@code .issue-snapshot.bin} if none is configured.
+     */
+    public static File getSnapshotFile(Config config)
+    {
+        return new File(config.hasPath(SNAPSHOT_FILE_KEY) ? config.getString(SNAPSHOT_FILE_KEY) : ".issue-snapshot.bin");
+    }
+
+    /**
+     * Saves a loaded issue hierarchy. The snapshot is written beside {@code file} and forced to disk and renamed over it once
+     * complete, so a process opening the snapshot never observes a partially written file.
+     *
+     * @param file              The snapshot file, which is replaced if it exists.
+     * @param initiativeEpicMap A mapping of initiatives to their epics.
+     * @param epicStoryMap      A mapping of epics to their stories.
+     * @param fieldCustomIdMap  A mapping of field names to the custom field ids used by the issues.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static void write(File file, Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                             Map<String, String> fieldCustomIdMap) throws IOException
+    {
+        File tempFile = AtomicFiles.getTempFile(file);
+
+        try (PhaseTimer timer = RunMetrics.getDefault().start("snapshot.write"))
+        {
+            timer.addIssues(new IssueSnapshotEncoder(initiativeEpicMap, epicStoryMap, fieldCustomIdMap).write(tempFile));
+            timer.addBytes(tempFile.length());
+
+            AtomicFiles.publish(tempFile, file);
+        }
+    }
+
+    /**
+     * Maps a saved snapshot. The mapping stays valid after the file is replaced by a newer snapshot.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot.
+     * @throws IOException If the file could not be mapped or is not a valid snapshot.
+     */
+    public static IssueSnapshot open(File file) throws IOException
+    {
+        try (PhaseTimer timer = RunMetrics.getDefault().start("snapshot.open");
+             FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                throw new IOException("The issue snapshot is too large to map: " + file);
+            }
+
+            IssueSnapshot snapshot = new IssueSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+
+            timer.addIssues(snapshot.getIssueCount());
+            timer.addBytes(channel.size());
+
+            return snapshot;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException exception)
+        {
+            throw new IOException("The issue snapshot is truncated: " + file, exception);
+        }
+    }
+
+    /**
+     * Notifies a listener of the snapshot's issues in the same way as a completed load from JIRA.
+     *
+     * @param listener The listener to notify.
+     */
+    public void replay(IJiraIssueListener listener)
+    {
+        listener.initiativesLoaded(new ArrayList<>(initiativeEpicMap.keySet()));
+        listener.allIssuesRetrieved(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Gets the time the snapshot was saved.
+     *
+     * @return The time the snapshot was saved in epoch milliseconds.
+     */
+    public long getSavedTimeMillis()
+    {
+        return savedTimeMillis;
+    }
+
+    /**
+     * Gets the number of distinct initiatives, epics, and stories in the snapshot.
+     *
+     * @return The number of issues.
+     */
+    public int getIssueCount()
+    {
+        return issueCount;
+    }
+
+    public Map<Issue, List<Issue>> getInitiativeEpicMap()
+    {
+        return initiativeEpicMap;
+    }
+
+    public Map<Issue, List<Issue>> getEpicStoryMap()
+    {
+        return epicStoryMap;
+    }
+
+    public Map<String, String> getFieldCustomIdMap()
+    {
+        return fieldCustomIdMap;
+    }
+
+    /**
+     * Reads a string column.
+     *
+     * @param column The column, e.g. {@link #SUMMARY}.
+     * @param issue  The index of the issue.
+     * @return The issue's value, or null if it is not set.
+     */
+    String getString(int column, int issue)
+    {
+        return getString(stringColumns[column].get(issue));
+    }
+
+    /**
+     * Reads a column of JIRA resources such as statuses or users. Each distinct resource is decoded once and shared by
+     * every issue that refers to it.
+     *
+     * @param column The column, e.g. {@link #STATUS}.
+     * @param issue  The index of the issue.
+     * @param <T>    The type of the resource.
+     * @return The issue's resource, or null if it is not set.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Resource> T getResource(int column, int issue)
+    {
+        int text = stringColumns[column].get(issue);
+
+        if (text < 0)
+        {
+            return null;
+        }
+
+        return (T) decodedValues.get(column).computeIfAbsent(text,
+                key -> Field.getResource((Class<T>) RESOURCE_TYPES[column], JSONObject.fromObject(getString(key)), null));
+    }
+
+    /**
+     * Reads a date column.
+     *
+     * @param column The column, e.g. {@link #DUE_DATE}.
+     * @param issue  The index of the issue.
+     * @return The issue's date, or null if it is not set.
+     */
+    Date getDate(int column, int issue)
+    {
+        long millis = dateColumns[column].get(issue);
+
+        return millis == NO_DATE ? null : new Date(millis);
+    }
+
+    List<String> getLabels(int issue)
+    {
+        List<String> labels = new ArrayList<>();
+
+        forEachListValue(LABELS, issue, value -> labels.add(getString(value)));
+
+        return labels;
+    }
+
+    List<Version> getFixVersions(int issue)
+    {
+        return getResources(FIX_VERSIONS, issue, Version.class);
+    }
+
+    List<Component> getComponents(int issue)
+    {
+        return getResources(COMPONENTS, issue, Component.class);
+    }
+
+    /**
+     * Reads a field of an issue in the form it has in the issue's REST representation.
+     *
+     * @param issue The index of the issue.
+     * @param name  The name of the field, e.g. {@code "updated"} or a custom field id.
+     * @return The value of the field, {@link JSONNull} if the field is empty, or null if the field is not stored.
+     */
+    Object getField(int issue, String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+        if (name.equals(storyPointsId))
+        {
+            double points = storyPoints.get(issue);
+
+            return Double.isNaN(points) ? JSONNull.getInstance() : (Object) points;
+        }
+        if (name.equals(UPDATED_FIELD))
+        {
+            return getString(UPDATED, issue);
+        }
+        if (name.equals(LABELS_FIELD))
+        {
+            return JSONArray.fromObject(getLabels(issue));
+        }
+        if (name.equals(FIX_VERSIONS_FIELD) || name.equals(COMPONENTS_FIELD))
+        {
+            JSONArray values = new JSONArray();
+
+            forEachListValue(name.equals(FIX_VERSIONS_FIELD) ? FIX_VERSIONS : COMPONENTS, issue,
+                    value -> values.add(JSONObject.fromObject(getString(value))));
+
+            return values;
+        }
+
+        IntBuffer customColumn = customColumns.get(name);
+
+        if (customColumn != null)
+        {
+            int value = customColumn.get(issue);
+
+            return value < 0 ? JSONNull.getInstance() : decodedCustomValues.computeIfAbsent(value,
+                    key -> JSONArray.fromObject(getString(key)).get(0));
+        }
+
+        for (int column = STATUS; column < STRING_COLUMN_COUNT; column++)
+        {
+            if (name.equals(RESOURCE_FIELDS[column]))
+            {
+                String text = getString(column, issue);
+
+                return text == null ? JSONNull.getInstance() : JSONSerializer.toJSON(text);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Rebuilds the change history of an issue.
+     *
+     * @param issue The index of the issue.
+     * @return The issue's change history, or null if it has none.
+     */
+    ChangeLog getChangeLog(int issue)
+    {
+        int firstEntry = changeLogOffsets.get(issue);
+        int lastEntry = changeLogOffsets.get(issue + 1);
+
+        if (firstEntry == lastEntry)
+        {
+            return null;
+        }
+
+        // Parsed by JIRA's date time format, in the same time zone the entry's date was read in
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        JSONArray histories = new JSONArray();
+
+        for (int entry = firstEntry; entry < lastEntry; entry++)
+        {
+            JSONArray items = new JSONArray();
+
+            for (int item = itemOffsets.get(entry); item < itemOffsets.get(entry + 1); item++)
+            {
+                JSONObject itemJson = new JSONObject();
+
+                itemJson.put("field", getString(itemFields.get(item)));
+                itemJson.put("fromString", getString(itemFromStrings.get(item)));
+                itemJson.put("toString", getString(itemToStrings.get(item)));
+                items.add(itemJson);
+            }
+
+            JSONObject entryJson = new JSONObject();
+            long created = entryCreated.get(entry);
+
+            if (created != NO_DATE)
+            {
+                entryJson.put("created", dateFormat.format(new Date(created)));
+            }
+            entryJson.put("items", items);
+            histories.add(entryJson);
+        }
+
+        JSONObject changeLogJson = new JSONObject();
+        changeLogJson.put("histories", histories);
+
+        return Field.getResource(ChangeLog.class, changeLogJson, null);
+    }
+
+    private String getString(int index)
+    {
+        if (index < 0)
+        {
+            return null;
+        }
+
+        String value = decodedStrings.get(index);
+
+        if (value == null)
+        {
+            int start = stringOffsets.get(index);
+            byte[] bytes = new byte[stringOffsets.get(index + 1) - start];
+            ByteBuffer source = stringBytes.duplicate();
+
+            source.position(start);
+            source.get(bytes);
+
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decodedStrings.set(index, value);
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Resource> List<T> getResources(int listColumn, int issue, Class<T> type)
+    {
+        List<T> resources = new ArrayList<>();
+        ConcurrentMap<Integer, Object> decoded = decodedValues.get(STRING_COLUMN_COUNT + listColumn);
+
+        forEachListValue(listColumn, issue, value -> resources.add((T) decoded.computeIfAbsent(value,
+                key -> Field.getResource(type, JSONObject.fromObject(getString(key)), null))));
+
+        return resources;
+    }
+
+    private void forEachListValue(int listColumn, int issue, IntConsumer action)
+    {
+        IntBuffer offsets = listOffsets[listColumn];
+        IntBuffer values = listValues[listColumn];
+
+        for (int position = offsets.get(issue); position < offsets.get(issue + 1); position++)
+        {
+            action.accept(values.get(position));
+        }
+    }
+
+    private static void readAdjacency(ByteBuffer buffer, Issue[] issues, Map<Issue, List<Issue>> parentChildMap)
+    {
+        IntBuffer parents = nextInts(buffer);
+        IntBuffer offsets = nextInts(buffer);
+        IntBuffer children = nextInts(buffer);
+
+        for (int parent = 0; parent < parents.limit(); parent++)
+        {
+            List<Issue> childList = new ArrayList<>(offsets.get(parent + 1) - offsets.get(parent));
+
+            for (int position = offsets.get(parent); position < offsets.get(parent + 1); position++)
+            {
+                int child = children.get(position);
+
+                childList.add(child < 0 ? null : issues[child]);
+            }
+
+            parentChildMap.put(issues[parents.get(parent)], childList);
+        }
+    }
+
+    private static ByteBuffer nextBytes(ByteBuffer buffer)
+    {
+        return nextSlice(buffer, buffer.getInt());
+    }
+
+    private static IntBuffer nextInts(ByteBuffer buffer)
+    {
+        return nextSlice(buffer, buffer.getInt() * (long) Integer.BYTES).asIntBuffer();
+    }
+
+    private static LongBuffer nextLongs(ByteBuffer buffer)
+    {
+        return nextSlice(buffer, buffer.getInt() * (long) Long.BYTES).asLongBuffer();
+    }
+
+    private static DoubleBuffer nextDoubles(ByteBuffer buffer)
+    {
+        return nextSlice(buffer, buffer.getInt() * (long) Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Takes the next array of the file without copying it.
+     *
+     * @param buffer The file, positioned at the array.
+     * @param bytes  The length of the array in bytes.
+     * @return A view of the array.
+     */
+    private static ByteBuffer nextSlice(ByteBuffer buffer, long bytes)
+    {
+        if (bytes < 0 || bytes > buffer.remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+
+        ByteBuffer slice = buffer.duplicate();
+        int end = buffer.position() + (int) bytes;
+
+        slice.limit(end);
+        buffer.position(end);
+
+        return slice.slice();
+    }
+}
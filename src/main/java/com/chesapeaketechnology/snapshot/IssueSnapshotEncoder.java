@@ -0,0 +1,452 @@
+package com.chesapeaketechnology.snapshot;
+
+import com.chesapeaketechnology.JiraRestClient;
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.ChangeLogEntry;
+import net.rcarz.jiraclient.ChangeLogItem;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes a loaded issue hierarchy into the columnar layout read by {@link IssueSnapshot}. Every string is stored once
+ * in a dictionary and referenced by its index, so repeated values such as statuses, projects, assignees, labels, and
+ * sprints cost four bytes per use.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class IssueSnapshotEncoder
+{
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<Issue, Integer> issueIds = new IdentityHashMap<>();
+    private final List<Issue> issues = new ArrayList<>();
+
+    private final Map<Issue, List<Issue>> initiativeEpicMap;
+    private final Map<Issue, List<Issue>> epicStoryMap;
+    private final Map<String, String> fieldCustomIdMap;
+
+    /**
+     * Creates an encoder of a loaded hierarchy.
+     *
+     * @param initiativeEpicMap A mapping of initiatives to their epics.
+     * @param epicStoryMap      A mapping of epics to their stories.
+     * @param fieldCustomIdMap  A mapping of field names to the custom field ids used by the issues.
+     */
+    IssueSnapshotEncoder(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                         Map<String, String> fieldCustomIdMap)
+    {
+        this.initiativeEpicMap = initiativeEpicMap;
+        this.epicStoryMap = epicStoryMap;
+        this.fieldCustomIdMap = fieldCustomIdMap;
+    }
+
+    /**
+     * Writes the snapshot.
+     *
+     * @param file The file to write, which is replaced if it exists.
+     * @return The number of issues written.
+     * @throws IOException If the file could not be written.
+     */
+    int write(File file) throws IOException
+    {
+        // The hierarchy is encoded first so every issue has an index before its columns are encoded
+        int[] initiatives = encodeIssues(initiativeEpicMap.keySet());
+        int[][] initiativeEpics = encodeAdjacency(initiativeEpicMap);
+        int[] epics = encodeIssues(epicStoryMap.keySet());
+        int[][] epicStories = encodeAdjacency(epicStoryMap);
+
+        String storyPointsId = fieldCustomIdMap.get(JiraRestClient.STORY_POINTS_KEY);
+        List<String> customFieldIds = getCustomFieldIds(fieldCustomIdMap);
+        int issueCount = issues.size();
+
+        int[][] stringColumns = new int[IssueSnapshot.STRING_COLUMN_COUNT][issueCount];
+        long[][] dateColumns = new long[IssueSnapshot.DATE_COLUMN_COUNT][issueCount];
+        double[] storyPoints = new double[issueCount];
+        int[][] customColumns = new int[customFieldIds.size()][issueCount];
+
+        for (int index = 0; index < issueCount; index++)
+        {
+            Issue issue = issues.get(index);
+
+            stringColumns[IssueSnapshot.KEY][index] = encode(issue.getKey());
+            stringColumns[IssueSnapshot.ID][index] = encode(issue.getId());
+            stringColumns[IssueSnapshot.SUMMARY][index] = encode(issue.getSummary());
+            stringColumns[IssueSnapshot.DESCRIPTION][index] = encode(issue.getDescription());
+            stringColumns[IssueSnapshot.UPDATED][index] = encodeText(issue.getField(IssueSnapshot.UPDATED_FIELD));
+
+            for (int column = IssueSnapshot.STATUS; column < IssueSnapshot.STRING_COLUMN_COUNT; column++)
+            {
+                stringColumns[column][index] = encodeText(issue.getField(IssueSnapshot.RESOURCE_FIELDS[column]));
+            }
+
+            dateColumns[IssueSnapshot.DUE_DATE][index] = toMillis(issue.getDueDate());
+            dateColumns[IssueSnapshot.RESOLUTION_DATE][index] = toMillis(issue.getResolutionDate());
+
+            Object points = storyPointsId == null ? null : issue.getField(storyPointsId);
+            storyPoints[index] = points instanceof Number ? ((Number) points).doubleValue() : Double.NaN;
+
+            for (int field = 0; field < customFieldIds.size(); field++)
+            {
+                customColumns[field][index] = encodeValue(issue.getField(customFieldIds.get(field)));
+            }
+        }
+
+        int[][] labels = encodeLists(issue -> issue.getLabels() == null ? Collections.emptyList() : issue.getLabels(),
+                this::encodeText);
+        int[][] fixVersions = encodeLists(issue -> getList(issue.getField(IssueSnapshot.FIX_VERSIONS_FIELD)),
+                this::encodeText);
+        int[][] components = encodeLists(issue -> getList(issue.getField(IssueSnapshot.COMPONENTS_FIELD)),
+                this::encodeText);
+
+        ChangeLogColumns changeLogs = encodeChangeLogs();
+
+        int[] fieldNames = new int[fieldCustomIdMap.size()];
+        int[] fieldIds = new int[fieldCustomIdMap.size()];
+        int field = 0;
+
+        for (Map.Entry<String, String> fieldEntry : fieldCustomIdMap.entrySet())
+        {
+            fieldNames[field] = encode(fieldEntry.getKey());
+            fieldIds[field] = encode(fieldEntry.getValue());
+            field++;
+        }
+
+        int[] customFields = customFieldIds.stream().mapToInt(this::encode).toArray();
+        int storyPointsField = encode(storyPointsId);
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))))
+        {
+            output.writeInt(IssueSnapshot.MAGIC);
+            output.writeInt(IssueSnapshot.VERSION);
+            output.writeLong(System.currentTimeMillis());
+            output.writeInt(issueCount);
+
+            writeStrings(output);
+            writeInts(output, fieldNames);
+            writeInts(output, fieldIds);
+            writeInts(output, new int[]{storyPointsField});
+            writeInts(output, customFields);
+
+            for (int[] column : stringColumns)
+            {
+                writeInts(output, column);
+            }
+            for (long[] column : dateColumns)
+            {
+                writeLongs(output, column);
+            }
+            writeDoubles(output, storyPoints);
+            for (int[][] list : new int[][][]{labels, fixVersions, components})
+            {
+                writeInts(output, list[0]);
+                writeInts(output, list[1]);
+            }
+            for (int[] column : customColumns)
+            {
+                writeInts(output, column);
+            }
+
+            writeInts(output, changeLogs.entryOffsets);
+            writeLongs(output, changeLogs.entryCreated);
+            writeInts(output, changeLogs.itemOffsets);
+            writeInts(output, changeLogs.itemFields);
+            writeInts(output, changeLogs.itemFromStrings);
+            writeInts(output, changeLogs.itemToStrings);
+
+            writeInts(output, initiatives);
+            writeInts(output, initiativeEpics[0]);
+            writeInts(output, initiativeEpics[1]);
+            writeInts(output, epics);
+            writeInts(output, epicStories[0]);
+            writeInts(output, epicStories[1]);
+        }
+
+        return issueCount;
+    }
+
+    /**
+     * Gets the custom fields, other than story points, that the reports read from issues. These are the custom fields
+     * that {@link JiraRestClient} requests from JIRA.
+     *
+     * @param fieldCustomIdMap A mapping of field names to custom field ids.
+     * @return The ids of the custom fields stored as columns.
+     */
+    static List<String> getCustomFieldIds(Map<String, String> fieldCustomIdMap)
+    {
+        List<String> customFieldIds = new ArrayList<>();
+
+        for (String fieldName : new String[]{JiraRestClient.SPRINT_KEY, JiraRestClient.EPIC_LINK, JiraRestClient.PROGRAM_KEY})
+        {
+            String customId = fieldCustomIdMap.get(fieldName);
+
+            if (customId != null && !customFieldIds.contains(customId))
+            {
+                customFieldIds.add(customId);
+            }
+        }
+
+        return customFieldIds;
+    }
+
+    private int encode(String value)
+    {
+        if (value == null)
+        {
+            return -1;
+        }
+
+        return stringIds.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Encodes a field by its JSON text, e.g. a status or a user, so each distinct value is parsed once when read.
+     *
+     * @param value The value of the field.
+     * @return The index of the value's text, or -1 if the field is not set.
+     */
+    private int encodeText(Object value)
+    {
+        return value == null || value instanceof JSONNull ? -1 : encode(value.toString());
+    }
+
+    /**
+     * Encodes a custom field so it reads back as the same JSON type, e.g. a string, an array, or an object.
+     *
+     * @param value The value of the custom field.
+     * @return The index of the wrapped value's text, or -1 if the field is not set.
+     */
+    private int encodeValue(Object value)
+    {
+        if (value == null || value instanceof JSONNull)
+        {
+            return -1;
+        }
+
+        JSONArray wrapper = new JSONArray();
+        wrapper.add(value);
+
+        return encode(wrapper.toString());
+    }
+
+    private int encodeIssue(Issue issue)
+    {
+        if (issue == null)
+        {
+            return -1;
+        }
+
+        return issueIds.computeIfAbsent(issue, key -> {
+            issues.add(key);
+            return issues.size() - 1;
+        });
+    }
+
+    private int[] encodeIssues(Iterable<Issue> issueList)
+    {
+        List<Integer> indices = new ArrayList<>();
+
+        issueList.forEach(issue -> indices.add(encodeIssue(issue)));
+
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Encodes the children of each parent as adjacency arrays: the children of the parent at position {@code i} are
+     * the issue indices from {@code offsets[i]} up to {@code offsets[i + 1]}.
+     *
+     * @param parentChildMap A mapping of parents to their children, in the order the parents were encoded.
+     * @return The offsets followed by the children.
+     */
+    private int[][] encodeAdjacency(Map<Issue, List<Issue>> parentChildMap)
+    {
+        int[] offsets = new int[parentChildMap.size() + 1];
+        List<Integer> children = new ArrayList<>();
+        int parent = 0;
+
+        for (List<Issue> childList : parentChildMap.values())
+        {
+            offsets[parent++] = children.size();
+
+            if (childList != null)
+            {
+                childList.forEach(child -> children.add(encodeIssue(child)));
+            }
+        }
+
+        offsets[parent] = children.size();
+
+        return new int[][]{offsets, children.stream().mapToInt(Integer::intValue).toArray()};
+    }
+
+    private int[][] encodeLists(Function<Issue, List<?>> listGetter, Function<Object, Integer> valueEncoder)
+    {
+        int[] offsets = new int[issues.size() + 1];
+        List<Integer> values = new ArrayList<>();
+
+        for (int index = 0; index < issues.size(); index++)
+        {
+            offsets[index] = values.size();
+
+            for (Object value : listGetter.apply(issues.get(index)))
+            {
+                values.add(valueEncoder.apply(value));
+            }
+        }
+
+        offsets[issues.size()] = values.size();
+
+        return new int[][]{offsets, values.stream().mapToInt(Integer::intValue).toArray()};
+    }
+
+    private ChangeLogColumns encodeChangeLogs()
+    {
+        ChangeLogColumns columns = new ChangeLogColumns();
+        List<Long> entryCreated = new ArrayList<>();
+        List<Integer> itemOffsets = new ArrayList<>();
+        List<Integer> itemFields = new ArrayList<>();
+        List<Integer> itemFromStrings = new ArrayList<>();
+        List<Integer> itemToStrings = new ArrayList<>();
+
+        columns.entryOffsets = new int[issues.size() + 1];
+
+        for (int index = 0; index < issues.size(); index++)
+        {
+            ChangeLog changeLog = issues.get(index).getChangeLog();
+
+            columns.entryOffsets[index] = entryCreated.size();
+
+            if (changeLog == null || changeLog.getEntries() == null)
+            {
+                continue;
+            }
+
+            for (ChangeLogEntry entry : changeLog.getEntries())
+            {
+                entryCreated.add(toMillis(entry.getCreated()));
+                itemOffsets.add(itemFields.size());
+
+                if (entry.getItems() != null)
+                {
+                    for (ChangeLogItem item : entry.getItems())
+                    {
+                        itemFields.add(encode(item.getField()));
+                        itemFromStrings.add(encode(item.getFromString()));
+                        itemToStrings.add(encode(item.getToString()));
+                    }
+                }
+            }
+        }
+
+        columns.entryOffsets[issues.size()] = entryCreated.size();
+        itemOffsets.add(itemFields.size());
+
+        columns.entryCreated = entryCreated.stream().mapToLong(Long::longValue).toArray();
+        columns.itemOffsets = itemOffsets.stream().mapToInt(Integer::intValue).toArray();
+        columns.itemFields = itemFields.stream().mapToInt(Integer::intValue).toArray();
+        columns.itemFromStrings = itemFromStrings.stream().mapToInt(Integer::intValue).toArray();
+        columns.itemToStrings = itemToStrings.stream().mapToInt(Integer::intValue).toArray();
+
+        return columns;
+    }
+
+    private void writeStrings(DataOutputStream output) throws IOException
+    {
+        List<byte[]> encodedStrings = new ArrayList<>(strings.size());
+        int[] offsets = new int[strings.size() + 1];
+        int length = 0;
+
+        for (int index = 0; index < strings.size(); index++)
+        {
+            byte[] bytes = strings.get(index).getBytes(StandardCharsets.UTF_8);
+
+            encodedStrings.add(bytes);
+            offsets[index] = length;
+            length += bytes.length;
+        }
+
+        offsets[strings.size()] = length;
+
+        writeInts(output, offsets);
+        output.writeInt(length);
+
+        for (byte[] bytes : encodedStrings)
+        {
+            output.write(bytes);
+        }
+    }
+
+    private static List<?> getList(Object value)
+    {
+        return value instanceof JSONArray ? (JSONArray) value : Collections.emptyList();
+    }
+
+    private static long toMillis(Date date)
+    {
+        return date == null ? IssueSnapshot.NO_DATE : date.getTime();
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException
+    {
+        output.writeInt(values.length);
+
+        for (int value : values)
+        {
+            output.writeInt(value);
+        }
+    }
+
+    private static void writeLongs(DataOutputStream output, long[] values) throws IOException
+    {
+        output.writeInt(values.length);
+
+        for (long value : values)
+        {
+            output.writeLong(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream output, double[] values) throws IOException
+    {
+        output.writeInt(values.length);
+
+        for (double value : values)
+        {
+            output.writeDouble(value);
+        }
+    }
+
+    /**
+     * The change histories of every issue as adjacency arrays from issues to entries and from entries to items.
+     *
+     * @since 1.0.0
+     */
+    private static class ChangeLogColumns
+    {
+        int[] entryOffsets;
+        long[] entryCreated;
+        int[] itemOffsets;
+        int[] itemFields;
+        int[] itemFromStrings;
+        int[] itemToStrings;
+    }
+}
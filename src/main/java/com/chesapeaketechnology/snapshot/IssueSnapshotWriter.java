@@ -0,0 +1,63 @@
+package com.chesapeaketechnology.snapshot;
+
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import net.rcarz.jiraclient.Issue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves an {@link IssueSnapshot} of every completed load so the next process can start from the snapshot.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class IssueSnapshotWriter implements IJiraIssueListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final File snapshotFile;
+
+    /**
+     * Creates a writer that replaces the snapshot after each load.
+     *
+     * @param snapshotFile The file the snapshot is saved to.
+     */
+    public IssueSnapshotWriter(File snapshotFile)
+    {
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Override
+    public void initiativesLoaded(Collection<Issue> initiatives)
+    {
+
+    }
+
+    @Override
+    public void childrenRetrieved(Issue parent, List<Issue> childIssues)
+    {
+
+    }
+
+    @Override
+    public void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap, Map<Issue, List<Issue>> epicStoryMap,
+                                   Map<String, String> fieldCustomIdMap)
+    {
+        try
+        {
+            IssueSnapshot.write(snapshotFile, initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+
+            logger.info("Saved an issue snapshot to {}", snapshotFile);
+        } catch (IOException exception)
+        {
+            logger.warn("Failed to save the issue snapshot: ", exception);
+        }
+    }
+}
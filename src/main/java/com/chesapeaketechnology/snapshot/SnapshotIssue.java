@@ -0,0 +1,159 @@
+package com.chesapeaketechnology.snapshot;
+
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.Component;
+import net.rcarz.jiraclient.Issue;
+import net.rcarz.jiraclient.IssueType;
+import net.rcarz.jiraclient.Priority;
+import net.rcarz.jiraclient.Project;
+import net.rcarz.jiraclient.Status;
+import net.rcarz.jiraclient.User;
+import net.rcarz.jiraclient.Version;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An issue whose fields are read from the mapped columns of an {@link IssueSnapshot} when they are requested instead
+ * of being parsed when the issue is created.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+class SnapshotIssue extends Issue
+{
+    private final IssueSnapshot snapshot;
+    private final int index;
+
+    private volatile ChangeLog changeLog;
+    private volatile boolean changeLogRead;
+
+    /**
+     * Creates a view of an issue within a snapshot.
+     *
+     * @param snapshot The snapshot containing the issue.
+     * @param index    The index of the issue within the snapshot's columns.
+     */
+    SnapshotIssue(IssueSnapshot snapshot, int index)
+    {
+        super(null, null);
+
+        this.snapshot = snapshot;
+        this.index = index;
+    }
+
+    @Override
+    public String getKey()
+    {
+        return snapshot.getString(IssueSnapshot.KEY, index);
+    }
+
+    @Override
+    public String getId()
+    {
+        return snapshot.getString(IssueSnapshot.ID, index);
+    }
+
+    @Override
+    public String getSummary()
+    {
+        return snapshot.getString(IssueSnapshot.SUMMARY, index);
+    }
+
+    @Override
+    public String getDescription()
+    {
+        return snapshot.getString(IssueSnapshot.DESCRIPTION, index);
+    }
+
+    @Override
+    public Status getStatus()
+    {
+        return snapshot.getResource(IssueSnapshot.STATUS, index);
+    }
+
+    @Override
+    public Project getProject()
+    {
+        return snapshot.getResource(IssueSnapshot.PROJECT, index);
+    }
+
+    @Override
+    public IssueType getIssueType()
+    {
+        return snapshot.getResource(IssueSnapshot.ISSUE_TYPE, index);
+    }
+
+    @Override
+    public User getAssignee()
+    {
+        return snapshot.getResource(IssueSnapshot.ASSIGNEE, index);
+    }
+
+    @Override
+    public User getReporter()
+    {
+        return snapshot.getResource(IssueSnapshot.REPORTER, index);
+    }
+
+    @Override
+    public Priority getPriority()
+    {
+        return snapshot.getResource(IssueSnapshot.PRIORITY, index);
+    }
+
+    @Override
+    public Date getDueDate()
+    {
+        return snapshot.getDate(IssueSnapshot.DUE_DATE, index);
+    }
+
+    @Override
+    public Date getResolutionDate()
+    {
+        return snapshot.getDate(IssueSnapshot.RESOLUTION_DATE, index);
+    }
+
+    @Override
+    public List<String> getLabels()
+    {
+        return snapshot.getLabels(index);
+    }
+
+    @Override
+    public List<Version> getFixVersions()
+    {
+        return snapshot.getFixVersions(index);
+    }
+
+    @Override
+    public List<Component> getComponents()
+    {
+        return snapshot.getComponents(index);
+    }
+
+    @Override
+    public Object getField(String name)
+    {
+        return snapshot.getField(index, name);
+    }
+
+    @Override
+    public ChangeLog getChangeLog()
+    {
+        // The change history is rebuilt at most once since developer sheets read it for every sprint
+        if (!changeLogRead)
+        {
+            changeLog = snapshot.getChangeLog(index);
+            changeLogRead = true;
+        }
+
+        return changeLog;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getKey();
+    }
+}
@@ -0,0 +1,236 @@
+package com.chesapeaketechnology;
+
+import com.chesapeaketechnology.excel.HeadlessReportGenerator;
+import com.chesapeaketechnology.excel.ReportAnalytics;
+import com.chesapeaketechnology.model.IJiraIssueListener;
+import com.chesapeaketechnology.simulation.MockJiraServer;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import net.rcarz.jiraclient.BasicCredentials;
+import net.rcarz.jiraclient.Issue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that the reports are only regenerated from complete loads: a refresh whose searches fail keeps the
+ * project's previously loaded issues, and no report is written until every project has loaded.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class RefreshSchedulerTest
+{
+    private static final String PROJECT = "SIM";
+    private static final String OTHER_PROJECT = "ALT";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockJiraServer server;
+    private RefreshScheduler refreshScheduler;
+    private List<ReportAnalytics> generatedReports;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        SyntheticJiraGenerator generator = new SyntheticJiraGenerator();
+
+        generator.setSeed(1);
+        generator.setProjects(Arrays.asList(PROJECT, OTHER_PROJECT));
+        generator.setInitiatives(2);
+        generator.setEpicsPerInitiative(2);
+        generator.setStoriesPerEpic(3);
+
+        server = MockJiraServer.serving(generator.generate());
+        server.start();
+
+        generatedReports = new CopyOnWriteArrayList<>();
+    }
+
+    @After
+    public void tearDown()
+    {
+        refreshScheduler.stop();
+        server.stop();
+    }
+
+    @Test
+    public void failedRefreshKeepsPreviousIssues() throws Exception
+    {
+        createScheduler(true, PROJECT);
+
+        refreshScheduler.refresh(PROJECT).get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, generatedReports.size());
+
+        int loadedStoryCount = countStories(generatedReports.get(0));
+
+        assertTrue(loadedStoryCount > 0);
+
+        // Every request fails, so each search gives up once its retries run out
+        server.setFailureRate(1);
+        refreshScheduler.refresh(PROJECT).get(2, TimeUnit.MINUTES);
+
+        assertEquals("A failed refresh must not regenerate the reports", 1, generatedReports.size());
+
+        // The issues kept from the first load are unchanged, so recovering does not regenerate the reports either
+        server.setFailureRate(0);
+        refreshScheduler.refresh(PROJECT).get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, generatedReports.size());
+        assertEquals(loadedStoryCount, countStories(generatedReports.get(0)));
+    }
+
+    @Test
+    public void reportsWaitForEveryProject() throws Exception
+    {
+        createScheduler(true, PROJECT, OTHER_PROJECT);
+
+        server.setFailureRate(1);
+        refreshScheduler.refresh(OTHER_PROJECT).get(2, TimeUnit.MINUTES);
+        server.setFailureRate(0);
+        refreshScheduler.refresh(PROJECT).get(1, TimeUnit.MINUTES);
+
+        assertEquals("The reports must not be written without a project that failed to load", 0,
+                generatedReports.size());
+
+        refreshScheduler.refresh(OTHER_PROJECT).get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, generatedReports.size());
+        assertEquals(Arrays.asList(OTHER_PROJECT, PROJECT), getInitiativeProjects(generatedReports.get(0)));
+    }
+
+    @Test
+    public void projectsWithoutInitiativesShareOnePlaceholder() throws Exception
+    {
+        createScheduler(false, PROJECT, OTHER_PROJECT);
+
+        refreshScheduler.refresh(PROJECT);
+        refreshScheduler.refresh(OTHER_PROJECT).get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, generatedReports.size());
+
+        ReportAnalytics analytics = generatedReports.get(0);
+
+        assertEquals(1, analytics.getInitiativeEpicMap().size());
+
+        List<Issue> epics = analytics.getInitiativeEpicMap().values().iterator().next();
+
+        assertEquals(analytics.getEpicStoryMap().size(), epics.size());
+        assertTrue(epics.containsAll(analytics.getEpicStoryMap().keySet()));
+    }
+
+    @Test
+    public void listenersReceiveEveryProjectWithoutReports() throws Exception
+    {
+        List<Integer> notifiedStoryCounts = new CopyOnWriteArrayList<>();
+
+        createScheduler(true, PROJECT, OTHER_PROJECT);
+        refreshScheduler.setGenerateReports(false);
+        refreshScheduler.addIssueListener(new IJiraIssueListener()
+        {
+            @Override
+            public void initiativesLoaded(Collection<Issue> initiatives)
+            {
+
+            }
+
+            @Override
+            public void childrenRetrieved(Issue parent, List<Issue> childIssues)
+            {
+
+            }
+
+            @Override
+            public void allIssuesRetrieved(Map<Issue, List<Issue>> initiativeEpicMap,
+                                           Map<Issue, List<Issue>> epicStoryMap, Map<String, String> fieldCustomIdMap)
+            {
+                notifiedStoryCounts.add(epicStoryMap.values().stream().mapToInt(List::size).sum());
+            }
+        });
+
+        refreshScheduler.refreshAll().get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, notifiedStoryCounts.size());
+        assertTrue(notifiedStoryCounts.get(0) > 0);
+        assertEquals(0, generatedReports.size());
+
+        // Nothing changed, so the listeners are not notified again
+        refreshScheduler.refreshAll().get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, notifiedStoryCounts.size());
+    }
+
+    private void createScheduler(boolean includeInitiatives, String... projects) throws Exception
+    {
+        Config config = ConfigFactory.parseString("jira-excel-analysis { reports: [ { fileName: Master, "
+                + "labelFilters: [] } ] }")
+                .withValue("jira-excel-analysis.metricsFile", ConfigValueFactory.fromAnyRef(
+                        new File(temporaryFolder.getRoot(), "metrics.json").getPath()));
+        JiraRestClient requestClient = new JiraRestClient(server.getBaseUrl(),
+                new BasicCredentials("user", "password"), false);
+
+        refreshScheduler = new RefreshScheduler(config, new RecordingReportGenerator(config, generatedReports),
+                requestClient, includeInitiatives, Arrays.asList(projects), Collections.emptyList());
+    }
+
+    private static int countStories(ReportAnalytics analytics)
+    {
+        return analytics.getEpicStoryMap().values().stream().mapToInt(List::size).sum();
+    }
+
+    private static List<String> getInitiativeProjects(ReportAnalytics analytics)
+    {
+        return analytics.getInitiativeEpicMap().keySet().stream()
+                .map(initiative -> initiative.getProject().getKey())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the issues each report would be generated from instead of writing it.
+     *
+     * @since 1.0.0
+     */
+    private static class RecordingReportGenerator extends HeadlessReportGenerator
+    {
+        private final List<ReportAnalytics> generatedReports;
+
+        RecordingReportGenerator(Config config, List<ReportAnalytics> generatedReports)
+        {
+            super(config);
+
+            this.generatedReports = generatedReports;
+        }
+
+        @Override
+        public CompletableFuture<List<File>> generateReport(Config config, ReportAnalytics analytics,
+                                                           Executor outputExecutor)
+        {
+            generatedReports.add(analytics);
+
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+    }
+}
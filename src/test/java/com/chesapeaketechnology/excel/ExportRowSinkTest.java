@@ -0,0 +1,171 @@
+package com.chesapeaketechnology.excel;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that the export sinks quote CSV fields as described by RFC 4180 and that JSON Lines and Arrow files read
+ * back the exported rows with their column types.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ExportRowSinkTest
+{
+    private static final ExportColumnType[] COLUMN_TYPES = {ExportColumnType.STRING, ExportColumnType.NUMBER,
+            ExportColumnType.BOOLEAN, ExportColumnType.DATE, ExportColumnType.STRING};
+
+    private static final LocalDate RESOLVED = LocalDate.of(2020, 3, 14);
+    private static final String QUOTED_SUMMARY = "Say \"hi\", then\nleave";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void csvQuotesDelimitersQuotesAndLineBreaks() throws IOException
+    {
+        File file = export(ExportFormat.CSV);
+
+        String expected = "Key,Points,Done,Resolved,Summary\r\n"
+                + "SIM-1,2.5,true,2020-03-14,\"Say \"\"hi\"\", then\nleave\"\r\n"
+                + "SIM-2,3,,,\"a,b\"\r\n"
+                + "SIM-3,,false,,plain\r\n";
+
+        assertEquals(expected, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jsonLinesRoundTrip() throws IOException
+    {
+        File file = export(ExportFormat.JSON_LINES);
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals(3, lines.size());
+
+        JsonNode first = mapper.readTree(lines.get(0));
+        assertEquals("SIM-1", first.get("Key").asText());
+        assertEquals(2.5, first.get("Points").asDouble(), 0);
+        assertTrue(first.get("Done").asBoolean());
+        assertEquals(RESOLVED.toString(), first.get("Resolved").asText());
+        assertEquals(QUOTED_SUMMARY, first.get("Summary").asText());
+
+        JsonNode second = mapper.readTree(lines.get(1));
+        assertTrue(second.get("Points").isNumber());
+        assertTrue(second.get("Done").isNull());
+        assertTrue(second.get("Resolved").isNull());
+        assertEquals("a,b", second.get("Summary").asText());
+
+        JsonNode third = mapper.readTree(lines.get(2));
+        assertTrue(third.get("Points").isNull());
+        assertFalse(third.get("Done").asBoolean());
+    }
+
+    @Test
+    public void arrowRoundTrip() throws IOException
+    {
+        File file = export(ExportFormat.ARROW);
+
+        try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+             FileInputStream inputStream = new FileInputStream(file);
+             ArrowFileReader reader = new ArrowFileReader(inputStream.getChannel(), allocator))
+        {
+            assertTrue(reader.loadNextBatch());
+
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            VarCharVector keys = (VarCharVector) root.getVector("Key");
+            Float8Vector points = (Float8Vector) root.getVector("Points");
+            BitVector done = (BitVector) root.getVector("Done");
+            DateDayVector resolved = (DateDayVector) root.getVector("Resolved");
+            VarCharVector summaries = (VarCharVector) root.getVector("Summary");
+
+            assertEquals(3, root.getRowCount());
+            assertEquals("SIM-1", new String(keys.get(0), StandardCharsets.UTF_8));
+            assertEquals(2.5, points.get(0), 0);
+            assertEquals(1, done.get(0));
+            assertEquals(RESOLVED.toEpochDay(), resolved.get(0));
+            assertEquals(QUOTED_SUMMARY, new String(summaries.get(0), StandardCharsets.UTF_8));
+
+            assertEquals(3, points.get(1), 0);
+            assertTrue(done.isNull(1));
+            assertTrue(resolved.isNull(1));
+
+            assertTrue(points.isNull(2));
+            assertEquals(0, done.get(2));
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    /**
+     * Exports a header and three rows covering text that must be quoted, every column type, and blank cells.
+     *
+     * @param format The format to export.
+     * @return The exported file.
+     * @throws IOException If the file could not be written.
+     */
+    private File export(ExportFormat format) throws IOException
+    {
+        File file = new File(temporaryFolder.getRoot(), "export" + format.getExtension());
+        SheetRowBuffer row = new SheetRowBuffer(COLUMN_TYPES.length);
+
+        try (AExportRowSink sink = format.createSink(file, COLUMN_TYPES))
+        {
+            row.reset(0);
+            row.setString(0, "Key");
+            row.setString(1, "Points");
+            row.setString(2, "Done");
+            row.setString(3, "Resolved");
+            row.setString(4, "Summary");
+            sink.writeRow(row);
+
+            row.reset(1);
+            row.setFormula(0, "HYPERLINK(\"SIM-1\")", "SIM-1");
+            row.setNumber(1, 2.5);
+            row.setBoolean(2, true);
+            row.setNumber(3, DateUtil.getExcelDate(
+                    Date.from(RESOLVED.atStartOfDay(ZoneId.systemDefault()).toInstant())));
+            row.setString(4, QUOTED_SUMMARY);
+            sink.writeRow(row);
+
+            row.reset(2);
+            row.setString(0, "SIM-2");
+            row.setNumber(1, 3);
+            row.setString(4, "a,b");
+            sink.writeRow(row);
+
+            row.reset(3);
+            row.setString(0, "SIM-3");
+            row.setBoolean(2, false);
+            row.setString(4, "plain");
+            sink.writeRow(row);
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,141 @@
+package com.chesapeaketechnology.excel;
+
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies the parent and child lookups of the issue hierarchy, including epics and stories with several parents,
+ * and the selection and intersection of groups of issues.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class IssueGraphTest
+{
+    private final Issue firstInitiative = createIssue("I-1");
+    private final Issue secondInitiative = createIssue("I-2");
+    private final Issue sharedEpic = createIssue("E-1");
+    private final Issue firstEpic = createIssue("E-2");
+    private final Issue orphanEpic = createIssue("E-3");
+    private final Issue firstStory = createIssue("S-1");
+    private final Issue sharedStory = createIssue("S-2");
+    private final Issue orphanStory = createIssue("S-3");
+
+    private IssueGraph graph;
+
+    /**
+     * Builds two initiatives sharing an epic, two epics sharing a story, and an epic without an initiative.
+     */
+    @Before
+    public void setUp()
+    {
+        Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+        Map<Issue, List<Issue>> epicStoryMap = new LinkedHashMap<>();
+
+        initiativeEpicMap.put(firstInitiative, Arrays.asList(sharedEpic, firstEpic));
+        initiativeEpicMap.put(secondInitiative, Collections.singletonList(sharedEpic));
+        epicStoryMap.put(sharedEpic, Arrays.asList(firstStory, sharedStory));
+        epicStoryMap.put(firstEpic, Arrays.asList(sharedStory, null));
+        epicStoryMap.put(orphanEpic, Collections.singletonList(orphanStory));
+
+        graph = new IssueGraph(initiativeEpicMap, epicStoryMap);
+    }
+
+    @Test
+    public void issuesAreNumberedOnce()
+    {
+        assertEquals(8, graph.size());
+        assertEquals(Arrays.asList(firstInitiative, secondInitiative), new ArrayList<>(graph.getInitiatives()));
+        assertEquals(Arrays.asList(sharedEpic, firstEpic, orphanEpic), new ArrayList<>(graph.getEpics()));
+
+        for (int id = 0; id < graph.size(); id++)
+        {
+            assertEquals(id, graph.getId(graph.getIssue(id)));
+        }
+
+        assertEquals(-1, graph.getId(createIssue("S-1")));
+    }
+
+    @Test
+    public void childrenAreListedInLoadOrder()
+    {
+        assertEquals(Arrays.asList(sharedEpic, firstEpic), graph.getEpics(firstInitiative));
+        assertEquals(Collections.singletonList(sharedEpic), graph.getEpics(secondInitiative));
+        assertEquals(Arrays.asList(firstStory, sharedStory), graph.getStories(sharedEpic));
+        assertEquals(Collections.singletonList(sharedStory), graph.getStories(firstEpic));
+        assertTrue(graph.getStories(firstStory).isEmpty());
+        assertTrue(graph.getEpics(createIssue("I-1")).isEmpty());
+    }
+
+    @Test
+    public void parentsAreListedForEveryChild()
+    {
+        assertEquals(Arrays.asList(firstInitiative, secondInitiative), graph.getParentInitiatives(sharedEpic));
+        assertEquals(Collections.singletonList(firstInitiative), graph.getParentInitiatives(firstEpic));
+        assertTrue(graph.getParentInitiatives(orphanEpic).isEmpty());
+        assertEquals(Arrays.asList(sharedEpic, firstEpic), graph.getParentEpics(sharedStory));
+        assertEquals(Collections.singletonList(orphanEpic), graph.getParentEpics(orphanStory));
+        assertTrue(graph.getParentEpics(createIssue("S-2")).isEmpty());
+    }
+
+    @Test
+    public void nestedStoriesAreUnique()
+    {
+        assertEquals(new HashSet<>(Arrays.asList(firstStory, sharedStory)), graph.getNestedStories(firstInitiative));
+        assertEquals(2, graph.getNestedStories(firstInitiative).size());
+        assertEquals(Collections.singleton(orphanStory), graph.getNestedStories(orphanEpic));
+        assertTrue(graph.getNestedStories(createIssue("E-1")).isEmpty());
+    }
+
+    @Test
+    public void selectionIgnoresUnknownIssuesAndKeepsNodeOrder()
+    {
+        IssueGraph.NodeSet selection = graph.select(Arrays.asList(orphanEpic, sharedEpic, createIssue("E-2")));
+
+        assertEquals(Arrays.asList(sharedEpic, orphanEpic), new ArrayList<>(selection));
+        assertTrue(selection.contains(sharedEpic));
+        assertFalse(selection.contains(firstEpic));
+        assertFalse(selection.contains("E-1"));
+        assertSame(selection, graph.select(selection));
+    }
+
+    @Test
+    public void countCommonMatchesAnySet()
+    {
+        IssueGraph.NodeSet epics = graph.getEpics();
+        IssueGraph.NodeSet selection = graph.select(Arrays.asList(firstEpic, orphanEpic, firstStory));
+
+        assertEquals(2, epics.countCommon(selection));
+        assertEquals(2, selection.countCommon(epics));
+        assertEquals(2, epics.countCommon(new HashSet<>(Arrays.asList(firstEpic, orphanEpic, firstStory))));
+        assertEquals(0, epics.countCommon(graph.getInitiatives()));
+        assertEquals(0, epics.countCommon(Collections.emptySet()));
+    }
+
+    private static Issue createIssue(String key)
+    {
+        JSONObject json = new JSONObject();
+
+        json.put("key", key);
+        json.put("fields", new JSONObject());
+
+        return new Issue(null, json)
+        {
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Verifies that a report's fingerprint only changes when an input of the report changes, and that the cache only
+ * returns a report's files while its fingerprint matches and its files exist.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ReportCacheTest
+{
+    private static final String UPDATED = "2020-01-01T00:00:00.000+0000";
+    private static final String JIRA_BASE_URL = "https://jira.sample.net/";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void fingerprintIsStableForTheSameInputs()
+    {
+        assertEquals(fingerprint(createConfig(""), createAnalytics("E-1", UPDATED)),
+                fingerprint(createConfig(""), createAnalytics("E-1", UPDATED)));
+    }
+
+    @Test
+    public void fingerprintChangesWhenAnIssueIsUpdated()
+    {
+        assertNotEquals(fingerprint(createConfig(""), createAnalytics("E-1", UPDATED)),
+                fingerprint(createConfig(""), createAnalytics("E-1", "2020-01-02T00:00:00.000+0000")));
+    }
+
+    @Test
+    public void fingerprintChangesWhenAnIssueMovesToAnotherParent()
+    {
+        assertNotEquals(fingerprint(createConfig(""), createAnalytics("E-1", UPDATED)),
+                fingerprint(createConfig(""), createAnalytics("E-2", UPDATED)));
+    }
+
+    @Test
+    public void fingerprintChangesWhenTheConfigurationChanges()
+    {
+        ReportAnalytics analytics = createAnalytics("E-1", UPDATED);
+        String fingerprint = fingerprint(createConfig(""), analytics);
+
+        assertNotEquals(fingerprint, fingerprint(createConfig(", collapseGroups: true"), analytics));
+        assertNotEquals(fingerprint, ReportCache.computeFingerprint(createConfig(""), null, analytics));
+    }
+
+    @Test
+    public void cacheReturnsFilesOfUnchangedReports() throws Exception
+    {
+        File cacheFile = new File(temporaryFolder.getRoot(), ".report-cache.properties");
+        File reportFile = temporaryFolder.newFile("Master.xlsx");
+
+        new ReportCache(cacheFile).record("Master", "abc", Collections.singletonList(reportFile));
+
+        ReportCache cache = new ReportCache(cacheFile);
+
+        assertEquals(Collections.singletonList(reportFile), cache.getUnchangedFiles("Master", "abc"));
+        assertNull(cache.getUnchangedFiles("Master", "def"));
+        assertNull(cache.getUnchangedFiles("Other", "abc"));
+
+        reportFile.delete();
+
+        assertNull(cache.getUnchangedFiles("Master", "abc"));
+    }
+
+    private static String fingerprint(Config config, ReportAnalytics analytics)
+    {
+        return ReportCache.computeFingerprint(config, JIRA_BASE_URL, analytics);
+    }
+
+    private static Config createConfig(String options)
+    {
+        return ConfigFactory.parseString("{fileName: Master, labelFilters: []" + options + "}");
+    }
+
+    /**
+     * Creates an initiative with two epics and a story.
+     *
+     * @param storyEpic    The key of the epic the story belongs to.
+     * @param storyUpdated The time the story was last updated.
+     * @return The analytics of the issues.
+     */
+    private static ReportAnalytics createAnalytics(String storyEpic, String storyUpdated)
+    {
+        Issue initiative = createIssue("I-1", UPDATED);
+        List<Issue> epics = Arrays.asList(createIssue("E-1", UPDATED), createIssue("E-2", UPDATED));
+        Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+        Map<Issue, List<Issue>> epicStoryMap = new LinkedHashMap<>();
+        Map<String, String> fieldCustomIdMap = new HashMap<>();
+
+        initiativeEpicMap.put(initiative, epics);
+
+        for (Issue epic : epics)
+        {
+            epicStoryMap.put(epic, epic.getKey().equals(storyEpic)
+                    ? Collections.singletonList(createIssue("S-1", storyUpdated)) : Collections.emptyList());
+        }
+
+        fieldCustomIdMap.put(JiraRestClient.SPRINT_KEY, "customfield_1");
+
+        return new ReportAnalytics(initiativeEpicMap, epicStoryMap, fieldCustomIdMap);
+    }
+
+    private static Issue createIssue(String key, String updated)
+    {
+        JSONObject fields = new JSONObject();
+        JSONObject json = new JSONObject();
+
+        fields.put("updated", updated);
+        fields.put("labels", new JSONArray());
+        json.put("key", key);
+        json.put("fields", fields);
+
+        return new Issue(null, json)
+        {
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.chesapeaketechnology.excel;
+
+import com.chesapeaketechnology.simulation.SyntheticJiraDataset;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import net.rcarz.jiraclient.Issue;
+import net.sf.json.JSONObject;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that reports are sharded by initiative or project without splitting either, and that the placeholder
+ * initiative of epics without an initiative is split along its epics.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class ReportSharderTest
+{
+    private static final List<String> PROJECTS = Arrays.asList("SIM", "ALT");
+
+    private SyntheticJiraDataset dataset;
+
+    @Before
+    public void setUp()
+    {
+        SyntheticJiraGenerator generator = new SyntheticJiraGenerator();
+
+        generator.setSeed(3);
+        generator.setProjects(PROJECTS);
+        generator.setInitiatives(6);
+        generator.setEpicsPerInitiative(3);
+        generator.setStoriesPerEpic(4);
+
+        dataset = generator.generate();
+    }
+
+    @Test
+    public void reportWithinBudgetIsNotSharded()
+    {
+        SheetContext context = createContext(dataset.getInitiativeEpicMap());
+
+        assertTrue(new ReportSharder(ShardMode.INITIATIVE, 0).plan(context).isEmpty());
+        assertTrue(new ReportSharder(ShardMode.INITIATIVE, countRows(context)).plan(context).isEmpty());
+    }
+
+    @Test
+    public void initiativesAreKeptWhole()
+    {
+        SheetContext context = createContext(dataset.getInitiativeEpicMap());
+        int rowBudget = countRows(context) / 3;
+
+        List<ReportShard> shards = new ReportSharder(ShardMode.INITIATIVE, rowBudget).plan(context);
+
+        assertTrue(shards.size() > 1);
+
+        List<Issue> shardedInitiatives = new ArrayList<>();
+
+        for (int index = 0; index < shards.size(); index++)
+        {
+            ReportShard shard = shards.get(index);
+
+            assertEquals(index + 1, shard.getNumber());
+            assertTrue(shard.getRowCount() <= rowBudget);
+            assertEquals(shard.getInitiatives().stream().map(Issue::getKey).collect(Collectors.toList()),
+                    shard.getUnitNames());
+
+            // Whole initiatives are written with the report's own epic filter
+            assertTrue(shard.getActiveEpics(Collections.emptyList()).isEmpty());
+            shardedInitiatives.addAll(shard.getInitiatives());
+        }
+
+        List<Issue> sortedInitiatives = dataset.getInitiativeEpicMap().keySet().stream()
+                .sorted((first, second) -> first.getKey().compareTo(second.getKey()))
+                .collect(Collectors.toList());
+
+        assertEquals(sortedInitiatives, shardedInitiatives);
+        assertEquals(countRows(context), shards.stream().mapToInt(ReportShard::getRowCount).sum());
+    }
+
+    @Test
+    public void projectsAreKeptWhole()
+    {
+        SheetContext context = createContext(dataset.getInitiativeEpicMap());
+
+        List<ReportShard> shards = new ReportSharder(ShardMode.PROJECT, 1).plan(context);
+
+        assertEquals(PROJECTS.size(), shards.size());
+
+        Set<String> shardedProjects = new HashSet<>();
+
+        for (ReportShard shard : shards)
+        {
+            assertEquals(1, shard.getUnitNames().size());
+
+            String project = shard.getUnitNames().get(0);
+
+            assertTrue(shardedProjects.add(project));
+            shard.getInitiatives().forEach(initiative -> assertEquals(project, initiative.getProject().getKey()));
+        }
+
+        assertEquals(new HashSet<>(PROJECTS), shardedProjects);
+    }
+
+    @Test
+    public void placeholderInitiativeIsSplitAlongItsEpics()
+    {
+        Map<Issue, List<Issue>> initiativeEpicMap = createPlaceholderMap();
+        Issue placeholder = initiativeEpicMap.keySet().iterator().next();
+        List<Issue> epics = initiativeEpicMap.get(placeholder);
+        SheetContext context = createContext(initiativeEpicMap);
+
+        List<ReportShard> shards = new ReportSharder(ShardMode.INITIATIVE, 1).plan(context);
+
+        assertEquals(epics.size(), shards.size());
+
+        List<Issue> shardedEpics = new ArrayList<>();
+
+        for (ReportShard shard : shards)
+        {
+            Collection<Issue> shardEpics = shard.getActiveEpics(Collections.emptyList());
+
+            assertEquals(Collections.singletonList(placeholder), shard.getInitiatives());
+            assertEquals(1, shardEpics.size());
+            assertEquals(shardEpics.iterator().next().getKey(), shard.getUnitNames().get(0));
+            shardedEpics.addAll(shardEpics);
+        }
+
+        assertEquals(new HashSet<>(epics), new HashSet<>(shardedEpics));
+
+        // The placeholder's own row is repeated at the top of every shard
+        assertEquals(countRows(context) + shards.size() - 1,
+                shards.stream().mapToInt(ReportShard::getRowCount).sum());
+    }
+
+    @Test
+    public void placeholderEpicsAreGroupedByProject()
+    {
+        Map<Issue, List<Issue>> initiativeEpicMap = createPlaceholderMap();
+        List<Issue> epics = initiativeEpicMap.values().iterator().next();
+        SheetContext context = createContext(initiativeEpicMap);
+
+        List<ReportShard> shards = new ReportSharder(ShardMode.PROJECT, 1).plan(context);
+
+        Set<String> epicProjects = epics.stream().map(epic -> epic.getProject().getKey()).collect(Collectors.toSet());
+
+        assertEquals(epicProjects.size(), shards.size());
+
+        for (ReportShard shard : shards)
+        {
+            String project = shard.getUnitNames().get(0);
+
+            shard.getActiveEpics(Collections.emptyList())
+                    .forEach(epic -> assertEquals(project, epic.getProject().getKey()));
+        }
+    }
+
+    /**
+     * Groups every epic of the dataset under one initiative without a project, as when issues are loaded without
+     * initiatives.
+     *
+     * @return A mapping of the placeholder initiative to every epic.
+     */
+    private Map<Issue, List<Issue>> createPlaceholderMap()
+    {
+        JSONObject json = new JSONObject();
+
+        json.put("key", "Unassigned Epic");
+        json.put("fields", new JSONObject());
+
+        Issue placeholder = new Issue(null, json)
+        {
+        };
+        List<Issue> epics = dataset.getInitiativeEpicMap().values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        Map<Issue, List<Issue>> initiativeEpicMap = new LinkedHashMap<>();
+
+        initiativeEpicMap.put(placeholder, epics);
+
+        return initiativeEpicMap;
+    }
+
+    private SheetContext createContext(Map<Issue, List<Issue>> initiativeEpicMap)
+    {
+        return new SheetContext(new XSSFWorkbook(), new ReportAnalytics(initiativeEpicMap, dataset.getEpicStoryMap(),
+                dataset.getFieldCustomIdMap()));
+    }
+
+    private static int countRows(SheetContext context)
+    {
+        MasterRowPlanner rowPlanner = MasterExcelFileWriter.createRowPlanner(context);
+
+        return context.getAnalytics().getInitiativeEpicMap().entrySet().stream()
+                .mapToInt(entry -> rowPlanner.planInitiative(entry).size())
+                .sum();
+    }
+}
@@ -0,0 +1,223 @@
+package com.chesapeaketechnology.snapshot;
+
+import com.chesapeaketechnology.JiraRestClient;
+import com.chesapeaketechnology.simulation.SyntheticJiraDataset;
+import com.chesapeaketechnology.simulation.SyntheticJiraGenerator;
+import net.rcarz.jiraclient.ChangeLog;
+import net.rcarz.jiraclient.ChangeLogEntry;
+import net.rcarz.jiraclient.ChangeLogItem;
+import net.rcarz.jiraclient.Component;
+import net.rcarz.jiraclient.Issue;
+import net.rcarz.jiraclient.Version;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies that a saved issue snapshot reads back the same issues, change logs, and hierarchy, and that a damaged
+ * snapshot is rejected.
+ *
+ * @author Proprietary information subject to the terms of a Non-Disclosure Agreement
+ * @since 1.0.0
+ */
+public class IssueSnapshotTest
+{
+    private static final String[] CUSTOM_FIELDS = {JiraRestClient.STORY_POINTS_KEY, JiraRestClient.SPRINT_KEY,
+            JiraRestClient.PROGRAM_KEY, JiraRestClient.EPIC_LINK};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SyntheticJiraDataset dataset;
+    private File snapshotFile;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        SyntheticJiraGenerator generator = new SyntheticJiraGenerator();
+
+        generator.setSeed(7);
+        generator.setProjects(Arrays.asList("SIM", "ALT"));
+        generator.setInitiatives(2);
+        generator.setEpicsPerInitiative(2);
+        generator.setStoriesPerEpic(5);
+        generator.setChangelogDepth(3);
+
+        dataset = generator.generate();
+        snapshotFile = new File(temporaryFolder.getRoot(), "issues.bin");
+
+        IssueSnapshot.write(snapshotFile, dataset.getInitiativeEpicMap(), dataset.getEpicStoryMap(),
+                dataset.getFieldCustomIdMap());
+    }
+
+    @Test
+    public void writePublishesTheSnapshot()
+    {
+        assertTrue(snapshotFile.isFile());
+        assertEquals(Collections.singletonList(snapshotFile.getName()),
+                Arrays.asList(temporaryFolder.getRoot().list()));
+    }
+
+    @Test
+    public void openReadsTheSavedIssues() throws IOException
+    {
+        IssueSnapshot snapshot = IssueSnapshot.open(snapshotFile);
+
+        assertEquals(dataset.getFieldCustomIdMap(), snapshot.getFieldCustomIdMap());
+        assertEquals(describeHierarchy(dataset.getInitiativeEpicMap()),
+                describeHierarchy(snapshot.getInitiativeEpicMap()));
+        assertEquals(describeHierarchy(dataset.getEpicStoryMap()), describeHierarchy(snapshot.getEpicStoryMap()));
+
+        List<Issue> savedIssues = getIssues(dataset.getInitiativeEpicMap(), dataset.getEpicStoryMap());
+        List<Issue> openedIssues = getIssues(snapshot.getInitiativeEpicMap(), snapshot.getEpicStoryMap());
+
+        assertEquals(savedIssues.size(), openedIssues.size());
+
+        for (int index = 0; index < savedIssues.size(); index++)
+        {
+            Issue savedIssue = savedIssues.get(index);
+            Issue openedIssue = openedIssues.get(index);
+
+            assertEquals(describeFields(savedIssue, dataset.getFieldCustomIdMap()),
+                    describeFields(openedIssue, snapshot.getFieldCustomIdMap()));
+            assertEquals(savedIssue.getKey(), describeChangeLog(savedIssue.getChangeLog()),
+                    describeChangeLog(openedIssue.getChangeLog()));
+        }
+    }
+
+    @Test
+    public void openRejectsTruncatedSnapshot() throws IOException
+    {
+        byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+
+        for (int length : new int[]{0, 3, bytes.length / 2, bytes.length - 1})
+        {
+            File truncatedFile = temporaryFolder.newFile("truncated-" + length + ".bin");
+
+            Files.write(truncatedFile.toPath(), Arrays.copyOf(bytes, length));
+
+            try
+            {
+                IssueSnapshot.open(truncatedFile);
+                fail("Opened a snapshot truncated to " + length + " of " + bytes.length + " bytes");
+            } catch (IOException exception)
+            {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void openedSnapshotCanBeSavedAgain() throws IOException
+    {
+        IssueSnapshot snapshot = IssueSnapshot.open(snapshotFile);
+        File copyFile = new File(temporaryFolder.getRoot(), "copy.bin");
+
+        IssueSnapshot.write(copyFile, snapshot.getInitiativeEpicMap(), snapshot.getEpicStoryMap(),
+                snapshot.getFieldCustomIdMap());
+
+        IssueSnapshot copy = IssueSnapshot.open(copyFile);
+        List<Issue> openedIssues = getIssues(snapshot.getInitiativeEpicMap(), snapshot.getEpicStoryMap());
+        List<Issue> copiedIssues = getIssues(copy.getInitiativeEpicMap(), copy.getEpicStoryMap());
+
+        assertEquals(openedIssues.size(), copiedIssues.size());
+        assertFalse(copiedIssues.isEmpty());
+
+        for (int index = 0; index < openedIssues.size(); index++)
+        {
+            assertEquals(describeFields(openedIssues.get(index), snapshot.getFieldCustomIdMap()),
+                    describeFields(copiedIssues.get(index), copy.getFieldCustomIdMap()));
+        }
+    }
+
+    private static List<Issue> getIssues(Map<Issue, List<Issue>> initiativeEpicMap,
+                                         Map<Issue, List<Issue>> epicStoryMap)
+    {
+        List<Issue> issues = new ArrayList<>();
+
+        initiativeEpicMap.forEach((initiative, epics) -> {
+            issues.add(initiative);
+            issues.addAll(epics);
+        });
+        epicStoryMap.forEach((epic, stories) -> {
+            issues.add(epic);
+            issues.addAll(stories);
+        });
+
+        return issues;
+    }
+
+    private static List<String> describeHierarchy(Map<Issue, List<Issue>> parentChildMap)
+    {
+        return parentChildMap.entrySet().stream()
+                .map(entry -> entry.getKey().getKey() + " -> " + entry.getValue().stream().map(Issue::getKey)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Object> describeFields(Issue issue, Map<String, String> fieldCustomIdMap)
+    {
+        List<Object> fields = new ArrayList<>(Arrays.asList(issue.getKey(), issue.getId(), issue.getSummary(),
+                issue.getDescription(), issue.getField("updated"), issue.getDueDate(), issue.getResolutionDate(),
+                issue.getLabels()));
+
+        fields.add(issue.getStatus() == null ? null : issue.getStatus().getName());
+        fields.add(issue.getProject() == null ? null : issue.getProject().getKey() + " " + issue.getProject().getName());
+        fields.add(issue.getIssueType() == null ? null : issue.getIssueType().getName());
+        fields.add(issue.getAssignee() == null ? null
+                : issue.getAssignee().getName() + " " + issue.getAssignee().getDisplayName());
+        fields.add(issue.getReporter() == null ? null : issue.getReporter().getName());
+        fields.add(issue.getPriority() == null ? null : issue.getPriority().getName());
+        fields.add(issue.getFixVersions().stream().map(Version::getName).collect(Collectors.toList()));
+        fields.add(issue.getComponents().stream().map(Component::getName).collect(Collectors.toList()));
+
+        for (String customField : CUSTOM_FIELDS)
+        {
+            // The class is compared as well so a missing value is not confused with an empty one
+            Object value = issue.getField(fieldCustomIdMap.get(customField));
+
+            fields.add(value == null ? null : value.getClass().getSimpleName() + ": " + value);
+        }
+
+        return fields;
+    }
+
+    private static List<String> describeChangeLog(ChangeLog changeLog)
+    {
+        List<String> entries = new ArrayList<>();
+
+        if (changeLog != null)
+        {
+            for (ChangeLogEntry entry : changeLog.getEntries())
+            {
+                StringBuilder description = new StringBuilder(String.valueOf(entry.getCreated()));
+
+                for (ChangeLogItem item : entry.getItems())
+                {
+                    description.append(", ").append(item.getField()).append(": ").append(item.getFromString())
+                            .append(" -> ").append(item.getToString());
+                }
+
+                entries.add(description.toString());
+            }
+        }
+
+        return entries;
+    }
+}